@@ -0,0 +1,43 @@
+package com.salesmanager.core.constants;
+
+/**
+ * Hibernate second level cache regions, sizes and time to live
+ * are configured in spring/ehcache-hibernate.xml.
+ *
+ * An entity and its descriptions share the region of the entity.
+ */
+public final class CacheRegion {
+
+	/** countries and their descriptions **/
+	public static final String COUNTRY = "reference.country";
+
+	/** zones and their descriptions **/
+	public static final String ZONE = "reference.zone";
+
+	public static final String LANGUAGE = "reference.language";
+
+	public static final String CURRENCY = "reference.currency";
+
+	public static final String TAX_CLASS = "tax.class";
+
+	/** tax rates and their descriptions **/
+	public static final String TAX_RATE = "tax.rate";
+
+	/** product types and their descriptions **/
+	public static final String PRODUCT_TYPE = "catalog.productType";
+
+	/** product options, option values and their descriptions **/
+	public static final String PRODUCT_OPTION = "catalog.productOption";
+
+	/** manufacturers and their descriptions **/
+	public static final String MANUFACTURER = "catalog.manufacturer";
+
+	public static final String[] REFERENCE = { COUNTRY, ZONE, LANGUAGE, CURRENCY };
+
+	public static final String[] ALL = { COUNTRY, ZONE, LANGUAGE, CURRENCY, TAX_CLASS, TAX_RATE, PRODUCT_TYPE,
+			PRODUCT_OPTION, MANUFACTURER };
+
+	private CacheRegion() {
+	}
+
+}
@@ -14,6 +14,7 @@ import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.JoinTable;
 import javax.persistence.ManyToMany;
@@ -48,7 +49,8 @@ import com.salesmanager.core.model.tax.taxclass.TaxClass;
 
 @Entity
 @EntityListeners(value = AuditListener.class)
-@Table(name = "PRODUCT", uniqueConstraints=
+@Table(name = "PRODUCT", indexes = { @Index(name = "PRODUCT_SORT_IDX", columnList = "MERCHANT_ID,SORT_ORDER,PRODUCT_ID")},
+uniqueConstraints=
 @UniqueConstraint(columnNames = {"MERCHANT_ID", "SKU"}))
 public class Product extends SalesManagerEntity<Long, Product> implements Auditable {
 	private static final long serialVersionUID = 1L;
@@ -422,8 +424,11 @@ public class Product extends SalesManagerEntity<Long, Product> implements Audita
 		this.dateAvailable = dateAvailable;
 	}
 
+	/**
+	 * Never null for new products, listings still read a null SORT_ORDER as 0
+	 */
 	public void setSortOrder(Integer sortOrder) {
-		this.sortOrder = sortOrder;
+		this.sortOrder = sortOrder == null ? 0 : sortOrder;
 	}
 
 	public Integer getSortOrder() {
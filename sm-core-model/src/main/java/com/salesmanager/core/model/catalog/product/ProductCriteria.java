@@ -3,6 +3,7 @@ package com.salesmanager.core.model.catalog.product;
 import java.util.List;
 
 import com.salesmanager.core.model.catalog.product.attribute.AttributeCriteria;
+import com.salesmanager.core.model.common.CountMode;
 import com.salesmanager.core.model.common.Criteria;
 
 public class ProductCriteria extends Criteria {
@@ -27,6 +28,11 @@ public class ProductCriteria extends Criteria {
 	private Long manufacturerId = null;
 	
 	private Long ownerId = null;
+	
+	/** cursor listing, position of the last product of the previous page **/
+	private ProductCursor after = null;
+	
+	private CountMode countMode = CountMode.EXACT;
 
 	public String getProductName() {
 		return productName;
@@ -117,6 +123,22 @@ public class ProductCriteria extends Criteria {
 		this.origin = origin;
 	}
 
+	public ProductCursor getAfter() {
+		return after;
+	}
+
+	public void setAfter(ProductCursor after) {
+		this.after = after;
+	}
+
+	public CountMode getCountMode() {
+		return countMode;
+	}
+
+	public void setCountMode(CountMode countMode) {
+		this.countMode = countMode;
+	}
+
 
 
 }
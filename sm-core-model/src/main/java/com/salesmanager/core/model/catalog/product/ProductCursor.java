@@ -0,0 +1,72 @@
+package com.salesmanager.core.model.catalog.product;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the last product returned by a cursor based listing.
+ * Products are ordered by sort order then id, the next page
+ * starts right after that position.
+ *
+ * The token is opaque to clients and only valid with the criteria that
+ * produced it.
+ */
+public class ProductCursor implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final String VERSION = "1";
+	private static final String SEPARATOR = "|";
+
+	private final int sortOrder;
+	private final Long id;
+	/** total count carried from the first page, null when unknown **/
+	private final Long totalCount;
+
+	public ProductCursor(int sortOrder, Long id, Long totalCount) {
+		this.sortOrder = sortOrder;
+		this.id = id;
+		this.totalCount = totalCount;
+	}
+
+	public String encode() {
+		String value = new StringBuilder().append(VERSION).append(SEPARATOR)
+				.append(sortOrder).append(SEPARATOR)
+				.append(id).append(SEPARATOR)
+				.append(totalCount == null ? "" : totalCount).toString();
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * @throws IllegalArgumentException if the token was not produced by encode
+	 */
+	public static ProductCursor decode(String token) {
+		try {
+			String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			String[] parts = value.split("\\" + SEPARATOR, -1);
+			if (parts.length != 4 || !VERSION.equals(parts[0])) {
+				throw new IllegalArgumentException("Invalid cursor [" + token + "]");
+			}
+			return new ProductCursor(
+					Integer.parseInt(parts[1]),
+					Long.valueOf(parts[2]),
+					parts[3].isEmpty() ? null : Long.valueOf(parts[3]));
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Invalid cursor [" + token + "]", e);
+		}
+	}
+
+	public int getSortOrder() {
+		return sortOrder;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public Long getTotalCount() {
+		return totalCount;
+	}
+
+}
@@ -14,12 +14,20 @@ public class ProductList extends EntityList {
 	 */
 	private static final long serialVersionUID = 7267292601646149482L;
 	private List<Product> products = new ArrayList<Product>();
+	/** cursor listing, null when there is no next page **/
+	private ProductCursor next;
 	public List<Product> getProducts() {
 		return products;
 	}
 	public void setProducts(List<Product> products) {
 		this.products = products;
 	}
+	public ProductCursor getNext() {
+		return next;
+	}
+	public void setNext(ProductCursor next) {
+		this.next = next;
+	}
 
 
 }
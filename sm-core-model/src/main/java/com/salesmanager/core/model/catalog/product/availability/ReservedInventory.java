@@ -0,0 +1,112 @@
+package com.salesmanager.core.model.catalog.product.availability;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import javax.persistence.CollectionTable;
+import javax.persistence.Column;
+import javax.persistence.ElementCollection;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.JoinColumn;
+import javax.persistence.MapKeyColumn;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+import com.salesmanager.core.model.generic.SalesManagerEntity;
+
+/**
+ * Quantities withdrawn from ProductAvailability rows for a pending order,
+ * removed when the order commits or when the quantities are put back
+ * @author carlsamson
+ *
+ */
+@Entity
+@Table(name = "RESERVED_INVENTORY", indexes = { @Index(name = "RESERVED_INVENTORY_EXPIRES_IDX", columnList = "EXPIRES")})
+public class ReservedInventory extends SalesManagerEntity<String, ReservedInventory> {
+
+	private static final long serialVersionUID = 1L;
+
+	@Id
+	@Column(name = "RESERVATION_ID", length = 36)
+	private String id;
+
+	@Column(name = "MERCHANT_ID", nullable = false)
+	private Integer merchantId;
+
+	@Temporal(TemporalType.TIMESTAMP)
+	@Column(name = "CREATED", nullable = false)
+	private Date created;
+
+	@Temporal(TemporalType.TIMESTAMP)
+	@Column(name = "EXPIRES", nullable = false)
+	private Date expires;
+
+	/** ProductAvailability id / reserved quantity **/
+	@ElementCollection
+	@CollectionTable(name = "RESERVED_INVENTORY_QUANTITY", joinColumns = @JoinColumn(name = "RESERVATION_ID"))
+	@MapKeyColumn(name = "PRODUCT_AVAIL_ID")
+	@Column(name = "QUANTITY", nullable = false)
+	private Map<Long, Integer> quantities = new HashMap<Long, Integer>();
+
+	@ElementCollection
+	@CollectionTable(name = "RESERVED_INVENTORY_PRODUCT", joinColumns = @JoinColumn(name = "RESERVATION_ID"))
+	@Column(name = "PRODUCT_ID", nullable = false)
+	private Set<Long> productIds = new HashSet<Long>();
+
+	@Override
+	public String getId() {
+		return id;
+	}
+
+	@Override
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public Integer getMerchantId() {
+		return merchantId;
+	}
+
+	public void setMerchantId(Integer merchantId) {
+		this.merchantId = merchantId;
+	}
+
+	public Date getCreated() {
+		return created;
+	}
+
+	public void setCreated(Date created) {
+		this.created = created;
+	}
+
+	public Date getExpires() {
+		return expires;
+	}
+
+	public void setExpires(Date expires) {
+		this.expires = expires;
+	}
+
+	public Map<Long, Integer> getQuantities() {
+		return quantities;
+	}
+
+	public void setQuantities(Map<Long, Integer> quantities) {
+		this.quantities = quantities;
+	}
+
+	public Set<Long> getProductIds() {
+		return productIds;
+	}
+
+	public void setProductIds(Set<Long> productIds) {
+		this.productIds = productIds;
+	}
+
+}
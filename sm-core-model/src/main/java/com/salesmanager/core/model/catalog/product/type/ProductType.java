@@ -3,6 +3,7 @@ package com.salesmanager.core.model.catalog.product.type;
 import java.util.HashSet;
 import java.util.Set;
 
+import javax.persistence.Cacheable;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Embedded;
@@ -18,6 +19,10 @@ import javax.persistence.OneToMany;
 import javax.persistence.Table;
 import javax.persistence.TableGenerator;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import com.salesmanager.core.constants.CacheRegion;
 import com.salesmanager.core.model.common.audit.AuditListener;
 import com.salesmanager.core.model.common.audit.AuditSection;
 import com.salesmanager.core.model.common.audit.Auditable;
@@ -27,6 +32,8 @@ import com.salesmanager.core.model.merchant.MerchantStore;
 @Entity
 @EntityListeners(value = AuditListener.class)
 @Table(name = "PRODUCT_TYPE")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegion.PRODUCT_TYPE)
 public class ProductType extends SalesManagerEntity<Long, ProductType> implements Auditable {
   private static final long serialVersionUID = 1L;
 
@@ -0,0 +1,14 @@
+package com.salesmanager.core.model.common;
+
+/**
+ * How the total number of records is computed by cursor based listings
+ */
+public enum CountMode {
+
+	/** count query on every page **/
+	EXACT,
+	/** counted on the first page then carried by the cursor **/
+	APPROXIMATE,
+	/** no count, total is reported as -1 **/
+	NONE
+}
@@ -2,6 +2,8 @@ package com.salesmanager.core.model.content;
 
 import java.io.ByteArrayOutputStream;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 
 /**
  * Data class responsible for carrying out static content data from Infispan cache to 
@@ -14,6 +16,12 @@ public class OutputContentFile extends StaticContentFile implements Serializable
 {
     private static final long serialVersionUID = 1L;
     private ByteArrayOutputStream file;
+    /** set instead of file when the content is on local disk and can be streamed from it **/
+    private transient Path path;
+    /** set instead of file when the content is a read only buffer (off-heap image cache) **/
+    private transient ByteBuffer buffer;
+    /** returns the buffer to its cache once the content is written **/
+    private transient Runnable release;
     public ByteArrayOutputStream getFile()
     {
         return file;
@@ -22,5 +30,38 @@ public class OutputContentFile extends StaticContentFile implements Serializable
     {
         this.file = file;
     }
+    public Path getPath()
+    {
+        return path;
+    }
+    public void setPath( Path path )
+    {
+        this.path = path;
+    }
+    public ByteBuffer getBuffer()
+    {
+        return buffer;
+    }
+    public void setBuffer( ByteBuffer buffer )
+    {
+        this.buffer = buffer;
+    }
+    public void setRelease( Runnable release )
+    {
+        this.release = release;
+    }
+    /**
+     * To be called once the content has been written, the buffer must not be
+     * read afterwards
+     */
+    public void release()
+    {
+        if ( release != null )
+        {
+            Runnable r = release;
+            release = null;
+            r.run();
+        }
+    }
     
 }
\ No newline at end of file
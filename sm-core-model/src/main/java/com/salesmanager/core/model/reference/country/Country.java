@@ -18,7 +18,11 @@ import javax.persistence.Table;
 import javax.persistence.TableGenerator;
 import javax.persistence.Transient;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.salesmanager.core.constants.CacheRegion;
 import com.salesmanager.core.constants.SchemaConstant;
 import com.salesmanager.core.model.generic.SalesManagerEntity;
 import com.salesmanager.core.model.reference.geozone.GeoZone;
@@ -27,6 +31,7 @@ import com.salesmanager.core.model.reference.zone.Zone;
 @Entity
 @Table(name = "COUNTRY")
 @Cacheable
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = CacheRegion.COUNTRY)
 public class Country extends SalesManagerEntity<Integer, Country> {
 	private static final long serialVersionUID = 1L;
 
@@ -42,6 +47,7 @@ public class Country extends SalesManagerEntity<Integer, Country> {
 	private Set<CountryDescription> descriptions = new HashSet<CountryDescription>();
 
 	@JsonIgnore
+	@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = CacheRegion.COUNTRY)
 	@OneToMany(fetch = FetchType.LAZY, cascade = CascadeType.ALL, mappedBy = "country")
 	private Set<Zone> zones = new HashSet<Zone>();
 	
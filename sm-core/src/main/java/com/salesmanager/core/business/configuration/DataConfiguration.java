@@ -65,6 +65,19 @@ public class DataConfiguration {
     @Value("${db.maxPoolSize}")
     private int maxPoolSize;
 
+    /**
+     * Number of statements sent in one jdbc batch, inserts and updates
+     * are ordered by entity so that consecutive statements can be batched
+     */
+    @Value("${hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    /**
+     * Second level cache region statistics (shopizer.cache.l2.* metrics)
+     */
+    @Value("${hibernate.generate_statistics:false}")
+    private boolean statistics;
+
     @Bean
     public HikariDataSource dataSource() {
     	HikariDataSource dataSource = DataSourceBuilder.create().type(HikariDataSource.class)
@@ -106,11 +119,19 @@ public class DataConfiguration {
         hibernateProperties.setProperty("hibernate.cache.use_second_level_cache", "true");
         hibernateProperties.setProperty("hibernate.cache.use_query_cache", "true");
         hibernateProperties.setProperty("hibernate.cache.region.factory_class", "org.hibernate.cache.ehcache.EhCacheRegionFactory");
+        hibernateProperties.setProperty("net.sf.ehcache.configurationResourceName", "/spring/ehcache-hibernate.xml");
+        hibernateProperties.setProperty("javax.persistence.sharedCache.mode", "ENABLE_SELECTIVE");
+        //cached collections are inverse (country zones), evict them when an element is written
+        hibernateProperties.setProperty("hibernate.cache.auto_evict_collection_cache", "true");
         hibernateProperties.setProperty("hibernate.connection.CharSet", "utf8");
         hibernateProperties.setProperty("hibernate.connection.characterEncoding", "utf8");
         hibernateProperties.setProperty("hibernate.connection.useUnicode", "true");
         hibernateProperties.setProperty("hibernate.id.new_generator_mappings", "false");
-        hibernateProperties.setProperty("hibernate.generate_statistics", "false");
+        hibernateProperties.setProperty("hibernate.generate_statistics", String.valueOf(statistics));
+        hibernateProperties.setProperty("hibernate.jdbc.batch_size", String.valueOf(batchSize));
+        hibernateProperties.setProperty("hibernate.order_inserts", "true");
+        hibernateProperties.setProperty("hibernate.order_updates", "true");
+        hibernateProperties.setProperty("hibernate.jdbc.batch_versioned_data", "true");
         // hibernateProperties.setProperty("hibernate.globally_quoted_identifiers", "true");
         return hibernateProperties;
     }
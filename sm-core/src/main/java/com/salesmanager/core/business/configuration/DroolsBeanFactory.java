@@ -78,6 +78,11 @@ public class DroolsBeanFactory {
 
     }
 
+    /**
+     * Compiles the resource on each invocation
+     * @deprecated use RuleEngineService which works on pre-compiled rule sets
+     */
+    @Deprecated
     public KieSession getKieSession(Resource dt) {
         KieFileSystem kieFileSystem = kieServices.newKieFileSystem()
             .write(dt);
@@ -1,29 +1,28 @@
 package com.salesmanager.core.business.modules.cms.product;
 
-import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.InputStream;
 import java.net.FileNameMap;
 import java.net.URLConnection;
+import java.nio.file.Files;
 import java.util.List;
-import javax.imageio.ImageIO;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.salesmanager.core.business.constants.Constants;
 import com.salesmanager.core.business.exception.ServiceException;
 import com.salesmanager.core.business.utils.CoreConfiguration;
-import com.salesmanager.core.business.utils.ProductImageCropUtils;
-import com.salesmanager.core.business.utils.ProductImageSizeUtils;
 import com.salesmanager.core.model.catalog.product.Product;
 import com.salesmanager.core.model.catalog.product.file.ProductImageSize;
 import com.salesmanager.core.model.catalog.product.image.ProductImage;
 import com.salesmanager.core.model.content.FileContentType;
 import com.salesmanager.core.model.content.ImageContentFile;
 import com.salesmanager.core.model.content.OutputContentFile;
+import com.salesmanager.core.model.merchant.MerchantStore;
 
 
 public class ProductFileManagerImpl extends ProductFileManager {
@@ -35,6 +34,12 @@ public class ProductFileManagerImpl extends ProductFileManager {
   private ProductImageGet getImage;
   private ProductImageRemove removeImage;
 
+  /** images served by managers that do not stream from local disk **/
+  private ProductImageCache imageCache;
+
+  /** generates small images **/
+  private ProductImagePipeline imagePipeline;
+
   private CoreConfiguration configuration;
 
   private final static String PRODUCT_IMAGE_HEIGHT_SIZE = "PRODUCT_IMAGE_HEIGHT_SIZE";
@@ -52,6 +57,26 @@ public class ProductFileManagerImpl extends ProductFileManager {
   }
 
 
+  public ProductImageCache getImageCache() {
+    return imageCache;
+  }
+
+
+  public void setImageCache(ProductImageCache imageCache) {
+    this.imageCache = imageCache;
+  }
+
+
+  public ProductImagePipeline getImagePipeline() {
+    return imagePipeline;
+  }
+
+
+  public void setImagePipeline(ProductImagePipeline imagePipeline) {
+    this.imagePipeline = imagePipeline;
+  }
+
+
   public ProductImageRemove getRemoveImage() {
     return removeImage;
   }
@@ -68,205 +93,187 @@ public class ProductFileManagerImpl extends ProductFileManager {
 
     try {
 
-      /** copy to input stream **/
-      ByteArrayOutputStream baos = new ByteArrayOutputStream();
-      // Fake code simulating the copy
-      // You can generally do better with nio if you need...
-      // And please, unlike me, do something about the Exceptions :D
-      byte[] buffer = new byte[1024];
-      int len;
-      while ((len = contentImage.getFile().read(buffer)) > -1) {
-        baos.write(buffer, 0, len);
-      }
-      baos.flush();
-
-      // Open new InputStreams using the recorded bytes
-      // Can be repeated as many times as you wish
-      InputStream is1 = new ByteArrayInputStream(baos.toByteArray());
-      InputStream is2 = new ByteArrayInputStream(baos.toByteArray());
-
-      BufferedImage bufferedImage = ImageIO.read(is2);
-
-
-      if (bufferedImage == null) {
-        LOGGER.error("Cannot read image format for " + productImage.getProductImage());
-        throw new Exception("Cannot read image format " + productImage.getProductImage());
-      }
-
-      // contentImage.setBufferedImage(bufferedImage);
-      contentImage.setFile(is1);
+      byte[] original = IOUtils.toByteArray(contentImage.getFile());
 
+      // header only, the image is decoded when the small image is generated
+      imagePipeline.validate(original, productImage.getProductImage());
 
       // upload original -- L
+      contentImage.setFile(new ByteArrayInputStream(original));
       contentImage.setFileContentType(FileContentType.PRODUCTLG);
       uploadImage.addProductImage(productImage, contentImage);
 
-      /*
-       * //default large InputContentImage largeContentImage = new
-       * InputContentImage(ImageContentType.PRODUCT);
-       * largeContentImage.setFile(contentImage.getFile());
-       * largeContentImage.setDefaultImage(productImage.isDefaultImage());
-       * largeContentImage.setImageName(new
-       * StringBuilder().append("L-").append(productImage.getProductImage()).toString());
-       *
-       *
-       * uploadImage.uploadProductImage(configuration, productImage, largeContentImage);
-       */
-
-      /*
-       * //default small InputContentImage smallContentImage = new
-       * InputContentImage(ImageContentType.PRODUCT);
-       * smallContentImage.setFile(contentImage.getFile());
-       * smallContentImage.setDefaultImage(productImage.isDefaultImage());
-       * smallContentImage.setImageName(new
-       * StringBuilder().append("S-").append(productImage.getProductImage()).toString());
-       *
-       * uploadImage.uploadProductImage(configuration, productImage, smallContentImage);
-       */
-
-
-      // get template properties file
-
-      String slargeImageHeight = configuration.getProperty(PRODUCT_IMAGE_HEIGHT_SIZE);
-      String slargeImageWidth = configuration.getProperty(PRODUCT_IMAGE_WIDTH_SIZE);
-
-      // String ssmallImageHeight = configuration.getProperty("SMALL_IMAGE_HEIGHT_SIZE");
-      // String ssmallImageWidth = configuration.getProperty("SMALL_IMAGE_WIDTH_SIZE");
-
-      //Resizes
-      if (!StringUtils.isBlank(slargeImageHeight) && !StringUtils.isBlank(slargeImageWidth)) { // &&
-                                                                                               // !StringUtils.isBlank(ssmallImageHeight)
-                                                                                               // &&
-                                                                                               // !StringUtils.isBlank(ssmallImageWidth))
-                                                                                               // {
-
-
-        FileNameMap fileNameMap = URLConnection.getFileNameMap();
-
-        String contentType = fileNameMap.getContentTypeFor(contentImage.getFileName());
-        String extension = null;
-        if (contentType != null) {
-          extension = contentType.substring(contentType.indexOf('/') + 1, contentType.length());
-        }
-
-        if (extension == null) {
-          extension = "jpeg";
-        }
-
-
-        int largeImageHeight = Integer.parseInt(slargeImageHeight);
-        int largeImageWidth = Integer.parseInt(slargeImageWidth);
-
-        if (largeImageHeight <= 0 || largeImageWidth <= 0) {
-          String sizeMsg =
-              "Image configuration set to an invalid value [PRODUCT_IMAGE_HEIGHT_SIZE] "
-                  + largeImageHeight + " , [PRODUCT_IMAGE_WIDTH_SIZE] " + largeImageWidth;
-          LOGGER.error(sizeMsg);
-          throw new ServiceException(sizeMsg);
-        }
+      if (smallImageSize() == null) {
+        // small will be the same as the original
+        ImageContentFile smallContentImage = new ImageContentFile();
+        smallContentImage.setFileName(contentImage.getFileName());
+        smallContentImage.setMimeType(contentImage.getMimeType());
+        smallContentImage.setFileContentType(FileContentType.PRODUCT);
+        smallContentImage.setFile(new ByteArrayInputStream(original));
+        uploadImage.addProductImage(productImage, smallContentImage);
+        return;
+      }
 
-        if (!StringUtils.isBlank(configuration.getProperty(CROP_UPLOADED_IMAGES))
-            && configuration.getProperty(CROP_UPLOADED_IMAGES).equals(Constants.TRUE)) {
-          // crop image
-          ProductImageCropUtils utils =
-              new ProductImageCropUtils(bufferedImage, largeImageWidth, largeImageHeight);
-          if (utils.isCropeable()) {
-            bufferedImage = utils.getCroppedImage();
-          }
-        }
+      // the small image is generated after the upload, requests made meanwhile generate it
+      // the job reads the uploaded original when it runs, queued jobs do not hold it
+      ProductImage target = productImage(productImage.getProduct().getMerchantStore().getCode(),
+          productImage.getProduct().getSku(), productImage.getProductImage());
+      try {
+        imagePipeline.submit(pipelineKey(target), () -> addSmallImage(target));
+      } catch (RejectedExecutionException e) {
+        LOGGER.warn("Image pipeline saturated, small image of " + productImage.getProductImage()
+            + " will be generated when requested");
+      }
 
-        // do not keep a large image for now, just take care of the regular image and a small image
 
-        // resize large
-        // ByteArrayOutputStream output = new ByteArrayOutputStream();
-        BufferedImage largeResizedImage;
-        if(bufferedImage.getWidth() > largeImageWidth ||bufferedImage.getHeight() > largeImageHeight) {
-            largeResizedImage = ProductImageSizeUtils.resizeWithRatio(bufferedImage, largeImageWidth, largeImageHeight);
-        } else {
-            largeResizedImage = bufferedImage;
-        }
+    } catch (ServiceException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new ServiceException(e);
+    } finally {
+      evict(productImage.getProduct());
+      try {
+        productImage.getImage().close();
+      } catch (Exception ignore) {
+      }
+    }
 
+  }
 
-        File tempLarge =
-            File.createTempFile(new StringBuilder().append(productImage.getProduct().getId())
-                .append("tmpLarge").toString(), "." + extension);
-        ImageIO.write(largeResizedImage, extension, tempLarge);
 
-        try(FileInputStream isLarge = new FileInputStream(tempLarge)) {
+  /**
+   * Reads the original and stores its copy resized to PRODUCT_IMAGE_WIDTH_SIZE x
+   * PRODUCT_IMAGE_HEIGHT_SIZE as the small image, runs on the pipeline
+   * @return the small image or null when there is no original
+   */
+  private byte[] addSmallImage(ProductImage productImage) throws Exception {
 
+    int[] size = smallImageSize();
+    String fileName = productImage.getProductImage();
 
-        // IOUtils.copy(isLarge, output);
+    OutputContentFile image = getImage.getProductImage(productImage.getProduct().getMerchantStore().getCode(),
+        productImage.getProduct().getSku(), fileName, ProductImageSize.LARGE);
+    if (image == null) {
+      return null;
+    }
+    byte[] original = image.getPath() != null ? Files.readAllBytes(image.getPath())
+        : image.getFile().toByteArray();
+
+    FileNameMap fileNameMap = URLConnection.getFileNameMap();
+    String contentType = fileNameMap.getContentTypeFor(fileName);
+    String extension = null;
+    if (contentType != null) {
+      extension = contentType.substring(contentType.indexOf('/') + 1, contentType.length());
+    }
 
+    if (extension == null) {
+      extension = "jpeg";
+    }
 
-        ImageContentFile largeContentImage = new ImageContentFile();
-        largeContentImage.setFileContentType(FileContentType.PRODUCT);
-        largeContentImage.setFileName(productImage.getProductImage());
-        largeContentImage.setFile(isLarge);
+    boolean crop = !StringUtils.isBlank(configuration.getProperty(CROP_UPLOADED_IMAGES))
+        && configuration.getProperty(CROP_UPLOADED_IMAGES).equals(Constants.TRUE);
 
+    byte[] small = imagePipeline.resize(original, fileName, extension, size[0], size[1], crop);
 
-        // largeContentImage.setBufferedImage(bufferedImage);
+    ImageContentFile smallContentImage = new ImageContentFile();
+    smallContentImage.setFileContentType(FileContentType.PRODUCT);
+    smallContentImage.setFileName(fileName);
+    smallContentImage.setMimeType(contentType);
+    smallContentImage.setFile(new ByteArrayInputStream(small));
+    uploadImage.addProductImage(productImage, smallContentImage);
 
-        // largeContentImage.setFile(output);
-        // largeContentImage.setDefaultImage(false);
-        // largeContentImage.setImageName(new
-        // StringBuilder().append("L-").append(productImage.getProductImage()).toString());
+    evict(productImage.getProduct());
+    return small;
+  }
 
 
-        uploadImage.addProductImage(productImage, largeContentImage);
+  /**
+   * @return width, height of the small image or null when images are not resized
+   */
+  private int[] smallImageSize() throws ServiceException {
 
-        // output.flush();
-        // output.close();
+    String slargeImageHeight = configuration.getProperty(PRODUCT_IMAGE_HEIGHT_SIZE);
+    String slargeImageWidth = configuration.getProperty(PRODUCT_IMAGE_WIDTH_SIZE);
 
-        tempLarge.delete();
+    if (StringUtils.isBlank(slargeImageHeight) || StringUtils.isBlank(slargeImageWidth)) {
+      return null;
+    }
 
-        // now upload original
+    int largeImageHeight = Integer.parseInt(slargeImageHeight);
+    int largeImageWidth = Integer.parseInt(slargeImageWidth);
 
+    if (largeImageHeight <= 0 || largeImageWidth <= 0) {
+      String sizeMsg =
+          "Image configuration set to an invalid value [PRODUCT_IMAGE_HEIGHT_SIZE] "
+              + largeImageHeight + " , [PRODUCT_IMAGE_WIDTH_SIZE] " + largeImageWidth;
+      LOGGER.error(sizeMsg);
+      throw new ServiceException(sizeMsg);
+    }
 
+    return new int[] {largeImageWidth, largeImageHeight};
+  }
 
-        /*
-         * //resize small BufferedImage smallResizedImage = ProductImageSizeUtils.resize(cropped,
-         * smallImageWidth, smallImageHeight); File tempSmall = File.createTempFile(new
-         * StringBuilder().append(productImage.getProduct().getId()).append("tmpSmall").toString(),
-         * "." + extension ); ImageIO.write(smallResizedImage, extension, tempSmall);
-         *
-         * //byte[] is = IOUtils.toByteArray(new FileInputStream(tempSmall));
-         *
-         * FileInputStream isSmall = new FileInputStream(tempSmall);
-         *
-         * output = new ByteArrayOutputStream(); IOUtils.copy(isSmall, output);
-         *
-         *
-         * smallContentImage = new InputContentImage(ImageContentType.PRODUCT);
-         * smallContentImage.setFile(output); smallContentImage.setDefaultImage(false);
-         * smallContentImage.setImageName(new
-         * StringBuilder().append("S-").append(productImage.getProductImage()).toString());
-         *
-         * uploadImage.uploadProductImage(configuration, productImage, smallContentImage);
-         *
-         * output.flush(); output.close();
-         *
-         * tempSmall.delete();
-         */
 
+  /**
+   * Generates the small image missing for an original, the request waits for
+   * the pipeline up to its timeout. The original is read by the job, a request
+   * joining a running job does not read it.
+   */
+  private OutputContentFile smallImage(String merchantStoreCode, String productCode,
+      String imageName) throws ServiceException {
 
+    if (smallImageSize() == null) {
+      return null;
     }
-      } else {
-        // small will be the same as the original
-        contentImage.setFileContentType(FileContentType.PRODUCT);
-        uploadImage.addProductImage(productImage, contentImage);
-      }
-
 
+    ProductImage target = productImage(merchantStoreCode, productCode, imageName);
+    try {
+      byte[] small = imagePipeline.submit(pipelineKey(target), () -> addSmallImage(target))
+          .get(imagePipeline.getTimeout(), TimeUnit.MILLISECONDS);
+      if (small == null) {
+        return null;
+      }
 
+      ByteArrayOutputStream output = new ByteArrayOutputStream(small.length);
+      output.write(small, 0, small.length);
+
+      OutputContentFile contentImage = new OutputContentFile();
+      contentImage.setFile(output);
+      contentImage.setFileName(imageName);
+      contentImage.setMimeType(URLConnection.getFileNameMap().getContentTypeFor(imageName));
+      contentImage.setFileContentType(FileContentType.PRODUCT);
+      return contentImage;
+    } catch (TimeoutException | RejectedExecutionException e) {
+      LOGGER.warn("Small image of " + imageName + " not generated in time");
+      return null;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return null;
     } catch (Exception e) {
       throw new ServiceException(e);
-    } finally {
-      try {
-        productImage.getImage().close();
-      } catch (Exception ignore) {
-      }
     }
+  }
 
+
+  /** store, sku and name are all the image managers use, safe outside of the request **/
+  private ProductImage productImage(String merchantStoreCode, String productCode,
+      String imageName) {
+    MerchantStore store = new MerchantStore();
+    store.setCode(merchantStoreCode);
+    Product product = new Product();
+    product.setSku(productCode);
+    product.setMerchantStore(store);
+    ProductImage productImage = new ProductImage();
+    productImage.setProduct(product);
+    productImage.setProductImage(imageName);
+    return productImage;
+  }
+
+
+  private String pipelineKey(ProductImage productImage) {
+    return new StringBuilder().append(productImage.getProduct().getMerchantStore().getCode())
+        .append(Constants.SLASH).append(productImage.getProduct().getSku())
+        .append(Constants.SLASH).append(productImage.getProductImage()).toString();
   }
 
 
@@ -294,6 +301,7 @@ public class ProductFileManagerImpl extends ProductFileManager {
   public void removeProductImage(ProductImage productImage) throws ServiceException {
 
     this.removeImage.removeProductImage(productImage);
+    evict(productImage.getProduct());
 
     /*
      * ProductImage large = new ProductImage(); large.setProduct(productImage.getProduct());
@@ -314,6 +322,7 @@ public class ProductFileManagerImpl extends ProductFileManager {
   public void removeProductImages(Product product) throws ServiceException {
 
     this.removeImage.removeProductImages(product);
+    evict(product);
 
   }
 
@@ -322,6 +331,9 @@ public class ProductFileManagerImpl extends ProductFileManager {
   public void removeImages(final String merchantStoreCode) throws ServiceException {
 
     this.removeImage.removeImages(merchantStoreCode);
+    if (imageCache != null) {
+      imageCache.evict(imageCache.prefix(merchantStoreCode));
+    }
 
   }
 
@@ -358,7 +370,31 @@ public class ProductFileManagerImpl extends ProductFileManager {
   @Override
   public OutputContentFile getProductImage(String merchantStoreCode, String productCode,
       String imageName, ProductImageSize size) throws ServiceException {
-    return getImage.getProductImage(merchantStoreCode, productCode, imageName, size);
+
+    String key = imageCache != null ? imageCache.key(merchantStoreCode, productCode, imageName, size) : null;
+    OutputContentFile image = key != null ? imageCache.get(key) : null;
+    if (image != null) {
+      return image;
+    }
+
+    image = getImage.getProductImage(merchantStoreCode, productCode, imageName, size);
+    if (image == null && size == ProductImageSize.SMALL) {
+      // not generated yet
+      image = smallImage(merchantStoreCode, productCode, imageName);
+    }
+
+    // images on local disk are streamed from the file
+    if (key != null && image != null && image.getPath() == null) {
+      imageCache.put(key, image);
+    }
+    return image;
+  }
+
+
+  private void evict(Product product) {
+    if (imageCache != null) {
+      imageCache.evict(imageCache.prefix(product.getMerchantStore().getCode(), product.getSku()));
+    }
   }
 
 
@@ -0,0 +1,268 @@
+package com.salesmanager.core.business.modules.cms.product;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.salesmanager.core.business.constants.Constants;
+import com.salesmanager.core.model.catalog.product.file.ProductImageSize;
+import com.salesmanager.core.model.content.FileContentType;
+import com.salesmanager.core.model.content.OutputContentFile;
+
+/**
+ * Most recently served product images of the infinispan and cloud (aws, gcp)
+ * managers, kept in direct buffers so that a large cache does not grow the heap.
+ *
+ * Bounded by size in bytes (least recently served images are evicted first).
+ * Images are evicted when they are added or removed through this node, images
+ * changed by other nodes are served from the cache until evicted.
+ *
+ * Direct buffers are pooled by size class, the buffer of an evicted image is
+ * reused for the next image of its class once the responses reading it have
+ * released it. Buffers are only allocated while the cache is filling.
+ */
+@Component("productImageCache")
+public class ProductImageCache {
+
+	/** smallest buffer, buffer sizes are rounded up by a quarter of their power of two **/
+	private static final int MIN_BUFFER_SIZE = 4096;
+
+	/** bytes, 0 disables the cache **/
+	@Value("${config.cms.image.cache.size:67108864}")
+	private long capacity;
+
+	/** larger images are not cached **/
+	@Value("${config.cms.image.cache.maxEntrySize:1048576}")
+	private long maxEntrySize;
+
+	private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+
+	/** buffers not holding an image, by capacity **/
+	private final Map<Integer, Deque<ByteBuffer>> pool = new HashMap<Integer, Deque<ByteBuffer>>();
+
+	/** capacity of the buffers of the cached images **/
+	private long size;
+
+	/** capacity of the buffers owned by the cache, cached, pooled or being filled **/
+	private long allocated;
+
+	public String key(String merchantStoreCode, String productCode, String imageName, ProductImageSize imageSize) {
+		return new StringBuilder().append(prefix(merchantStoreCode, productCode)).append(imageSize.name())
+				.append(Constants.SLASH).append(imageName).toString();
+	}
+
+	/** key prefix of the images of a product **/
+	public String prefix(String merchantStoreCode, String productCode) {
+		return new StringBuilder().append(prefix(merchantStoreCode)).append(productCode).append(Constants.SLASH)
+				.toString();
+	}
+
+	/** key prefix of the images of a store **/
+	public String prefix(String merchantStoreCode) {
+		return new StringBuilder().append(merchantStoreCode).append(Constants.SLASH).toString();
+	}
+
+	/**
+	 * @return the cached image or null, its content is a read only view of the
+	 *         cached buffer that must be released (OutputContentFile.release)
+	 *         once written and not read afterwards
+	 */
+	public OutputContentFile get(String key) {
+
+		Entry entry;
+		synchronized (this) {
+			entry = entries.get(key);
+			if (entry == null) {
+				return null;
+			}
+			entry.readers++;
+		}
+
+		OutputContentFile file = new OutputContentFile();
+		// buffer is never written while cached, views have their own position
+		file.setBuffer(entry.content.asReadOnlyBuffer());
+		file.setRelease(() -> release(entry));
+		file.setFileName(entry.fileName);
+		file.setMimeType(entry.mimeType);
+		file.setFileContentType(entry.fileContentType);
+		return file;
+	}
+
+	public void put(String key, OutputContentFile file) {
+
+		if (capacity <= 0 || file.getFile() == null || file.getFile().size() > maxEntrySize) {
+			return;
+		}
+
+		int length = file.getFile().size();
+		int bufferSize = bufferSize(length);
+		if (bufferSize > capacity) {
+			return;
+		}
+
+		ByteBuffer content;
+		synchronized (this) {
+			Entry previous = entries.remove(key);
+			if (previous != null) {
+				evicted(previous);
+			}
+			content = allocate(bufferSize);
+		}
+		if (content == null) {
+			return;
+		}
+
+		content.clear();
+		try {
+			file.getFile().writeTo(new OutputStream() {
+				@Override
+				public void write(int b) {
+					content.put((byte) b);
+				}
+
+				@Override
+				public void write(byte[] b, int off, int len) {
+					content.put(b, off, len);
+				}
+			});
+		} catch (IOException e) {
+			//writing to a buffer does not do io
+			throw new IllegalStateException(e);
+		}
+		content.flip();
+
+		Entry entry = new Entry(content, file.getFileName(), file.getMimeType(), file.getFileContentType());
+		synchronized (this) {
+			Entry previous = entries.put(key, entry);
+			if (previous != null) {
+				evicted(previous);
+			}
+			size += bufferSize;
+		}
+	}
+
+	/** evicts the images having keys starting with prefix **/
+	public synchronized void evict(String prefix) {
+		Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Map.Entry<String, Entry> entry = iterator.next();
+			if (entry.getKey().startsWith(prefix)) {
+				iterator.remove();
+				evicted(entry.getValue());
+			}
+		}
+	}
+
+	public synchronized long getSize() {
+		return size;
+	}
+
+	public synchronized int getCount() {
+		return entries.size();
+	}
+
+	/** capacity of the direct buffers held by the cache **/
+	public synchronized long getAllocated() {
+		return allocated;
+	}
+
+	/**
+	 * A pooled buffer of the size, or a new one when the cache has room once
+	 * the least recently served images are evicted. Pooled buffers of other
+	 * sizes are dropped when there is still no room. Null when every buffer is
+	 * being read.
+	 */
+	private ByteBuffer allocate(int bufferSize) {
+
+		Iterator<Entry> eldest = entries.values().iterator();
+		while (true) {
+			Deque<ByteBuffer> pooled = pool.get(bufferSize);
+			if (pooled != null && !pooled.isEmpty()) {
+				return pooled.pop();
+			}
+			if (allocated + bufferSize <= capacity || !eldest.hasNext()) {
+				break;
+			}
+			Entry entry = eldest.next();
+			eldest.remove();
+			evicted(entry);
+		}
+
+		Iterator<Deque<ByteBuffer>> others = pool.values().iterator();
+		while (allocated + bufferSize > capacity && others.hasNext()) {
+			Deque<ByteBuffer> pooled = others.next();
+			while (allocated + bufferSize > capacity && !pooled.isEmpty()) {
+				allocated -= pooled.pop().capacity();
+			}
+		}
+
+		if (allocated + bufferSize > capacity) {
+			return null;
+		}
+		allocated += bufferSize;
+		return ByteBuffer.allocateDirect(bufferSize);
+	}
+
+	/**
+	 * Called with the entry removed from the cache, its buffer is pooled or,
+	 * when responses are still reading it, no longer counted until released.
+	 */
+	private void evicted(Entry entry) {
+		size -= entry.content.capacity();
+		entry.evicted = true;
+		if (entry.readers == 0) {
+			recycle(entry.content);
+		} else {
+			allocated -= entry.content.capacity();
+		}
+	}
+
+	private synchronized void release(Entry entry) {
+		entry.readers--;
+		if (entry.evicted && entry.readers == 0 && allocated + entry.content.capacity() <= capacity) {
+			allocated += entry.content.capacity();
+			recycle(entry.content);
+		}
+	}
+
+	private void recycle(ByteBuffer buffer) {
+		pool.computeIfAbsent(buffer.capacity(), c -> new ArrayDeque<ByteBuffer>()).push(buffer);
+	}
+
+	/** 4096, 5120, 6144, 7168, 8192, 10240... wastes at most a quarter of the buffer **/
+	static int bufferSize(int length) {
+		int size = Math.max(length, MIN_BUFFER_SIZE);
+		int step = Integer.highestOneBit(size - 1) >> 2;
+		return (size + step - 1) / step * step;
+	}
+
+	private static class Entry {
+
+		private final ByteBuffer content;
+		private final String fileName;
+		private final String mimeType;
+		private final FileContentType fileContentType;
+
+		/** responses writing the content, guarded by the cache **/
+		private int readers;
+		private boolean evicted;
+
+		Entry(ByteBuffer content, String fileName, String mimeType, FileContentType fileContentType) {
+			this.content = content;
+			this.fileName = fileName;
+			this.mimeType = mimeType;
+			this.fileContentType = fileContentType;
+		}
+
+	}
+
+}
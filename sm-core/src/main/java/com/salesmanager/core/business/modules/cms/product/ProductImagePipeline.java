@@ -0,0 +1,201 @@
+package com.salesmanager.core.business.modules.cms.product;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.salesmanager.core.business.utils.ProductImageCropUtils;
+import com.salesmanager.core.business.utils.ProductImageSizeUtils;
+
+/**
+ * Generates product image variants (resized images) on a bounded pool.
+ *
+ * Images being decoded hold part of a memory budget (the encoded image and 4 bytes
+ * per decoded pixel), jobs wait for budget before decoding. Large images are
+ * subsampled while decoded so that only the pixels needed by the variant are held.
+ *
+ * Jobs are keyed, a job submitted while the same key is running joins it. Jobs
+ * read their image when they run, queued jobs only hold their key.
+ */
+@Component("productImagePipeline")
+public class ProductImagePipeline {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ProductImagePipeline.class);
+
+	private static final int BYTES_PER_PIXEL = 4;
+
+	@Value("${config.cms.image.pipeline.threads:2}")
+	private int threads;
+
+	@Value("${config.cms.image.pipeline.queue:200}")
+	private int queue;
+
+	/** bytes of decoded images held at once **/
+	@Value("${config.cms.image.pipeline.memory:268435456}")
+	private long memory;
+
+	/** ms a request waits for a variant generated on demand **/
+	@Value("${config.cms.image.pipeline.timeout:5000}")
+	private long timeout;
+
+	private ThreadPoolExecutor executor;
+
+	/** kilobytes **/
+	private Semaphore budget;
+	private int budgetPermits;
+
+	private final Map<String, CompletableFuture<Object>> running = new ConcurrentHashMap<String, CompletableFuture<Object>>();
+
+	@PostConstruct
+	public void init() {
+		AtomicInteger count = new AtomicInteger();
+		executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<Runnable>(queue), r -> {
+					Thread t = new Thread(r, "product-image-" + count.incrementAndGet());
+					t.setDaemon(true);
+					return t;
+				});
+		executor.allowCoreThreadTimeOut(true);
+		budgetPermits = (int) Math.max(1, Math.min(Integer.MAX_VALUE, memory / 1024));
+		budget = new Semaphore(budgetPermits, true);
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	public long getTimeout() {
+		return timeout;
+	}
+
+	public int getQueueDepth() {
+		return executor.getQueue().size();
+	}
+
+	/**
+	 * Runs the job on the pool, or joins the job running for the same key
+	 * @throws RejectedExecutionException when the queue is full
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> CompletableFuture<T> submit(String key, Callable<T> job) {
+		return (CompletableFuture<T>) running.computeIfAbsent(key, k -> {
+			CompletableFuture<Object> future = new CompletableFuture<Object>();
+			executor.execute(() -> {
+				try {
+					future.complete(job.call());
+				} catch (Throwable e) {
+					LOGGER.error("Cannot process image " + k, e);
+					future.completeExceptionally(e);
+				} finally {
+					running.remove(k, future);
+				}
+			});
+			return future;
+		});
+	}
+
+	/**
+	 * Reads the image header only
+	 * @throws IOException when the format is not supported
+	 */
+	public void validate(byte[] image, String fileName) throws IOException {
+		ImageReader reader = reader(image, fileName);
+		try {
+			reader.getWidth(0);
+		} finally {
+			reader.dispose();
+		}
+	}
+
+	/**
+	 * Resizes (and crops) to fit width x height, images smaller than the
+	 * variant are not enlarged
+	 * @param format ImageIO format of the variant
+	 */
+	public byte[] resize(byte[] image, String fileName, String format, int width, int height, boolean crop)
+			throws IOException, InterruptedException {
+
+		ImageReader reader = reader(image, fileName);
+		int permits = 0;
+		try {
+			int sourceWidth = reader.getWidth(0);
+			int sourceHeight = reader.getHeight(0);
+
+			// keeps at least width x height
+			int subsampling = Math.max(1, Math.min(sourceWidth / width, sourceHeight / height));
+			ImageReadParam param = reader.getDefaultReadParam();
+			param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+
+			long pixels = (long) (sourceWidth / subsampling) * (sourceHeight / subsampling);
+			// encoded, decoded and resized images, an image larger than the budget runs alone
+			int needed = (int) Math.min(budgetPermits,
+					Math.max(1, (image.length + pixels * BYTES_PER_PIXEL * 2) / 1024));
+			budget.acquire(needed);
+			permits = needed;
+
+			BufferedImage bufferedImage = reader.read(0, param);
+
+			if (crop) {
+				ProductImageCropUtils utils = new ProductImageCropUtils(bufferedImage, width, height);
+				if (utils.isCropeable()) {
+					bufferedImage = utils.getCroppedImage();
+				}
+			}
+
+			if (bufferedImage.getWidth() > width || bufferedImage.getHeight() > height) {
+				bufferedImage = ProductImageSizeUtils.resizeWithRatio(bufferedImage, width, height);
+			}
+
+			ByteArrayOutputStream output = new ByteArrayOutputStream();
+			if (!ImageIO.write(bufferedImage, format, output)) {
+				throw new IOException("Cannot write image format " + format + " for " + fileName);
+			}
+			return output.toByteArray();
+
+		} finally {
+			reader.dispose();
+			if (permits > 0) {
+				budget.release(permits);
+			}
+		}
+	}
+
+	private ImageReader reader(byte[] image, String fileName) throws IOException {
+		ImageInputStream input = new MemoryCacheImageInputStream(new ByteArrayInputStream(image));
+		Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+		if (!readers.hasNext()) {
+			input.close();
+			throw new IOException("Cannot read image format " + fileName);
+		}
+		ImageReader reader = readers.next();
+		reader.setInput(input, true, true);
+		return reader;
+	}
+
+}
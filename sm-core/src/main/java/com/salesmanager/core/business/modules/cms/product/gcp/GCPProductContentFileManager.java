@@ -86,6 +86,10 @@ public class GCPProductContentFileManager implements ProductAssetsManager {
       }
 
       Blob blob = storage.get(BlobId.of(bucketName, filePath(merchantStoreCode,productCode, size.name(), imageName)));
+      if(blob == null) {
+        // not uploaded (or small image not generated yet)
+        return null;
+      }
 
       ReadChannel reader = blob.reader();
       
@@ -2,6 +2,7 @@ package com.salesmanager.core.business.modules.cms.product.local;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URLConnection;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -135,8 +136,9 @@ public class CmsImageFileManagerImpl
   @Override
   public OutputContentFile getProductImage(ProductImage productImage) throws ServiceException {
 
-    // the web server takes care of the images
-    return null;
+    // original
+    return getProductImage(productImage.getProduct().getMerchantStore().getCode(),
+        productImage.getProduct().getSku(), productImage.getProductImage(), LARGE);
 
   }
 
@@ -266,10 +268,28 @@ public class CmsImageFileManagerImpl
     return getProductImage(merchantStoreCode, productCode, imageName, size.name());
   }
 
+  /**
+   * The file is not read, the returned content has its path on disk so that it
+   * can be streamed from the file
+   */
   private OutputContentFile getProductImage(String merchantStoreCode, String productCode,
       String imageName, String size) throws ServiceException {
 
-    return null;
+    Path root = Paths.get(buildRootPath()).toAbsolutePath().normalize();
+    Path path = root.resolve(Paths.get(merchantStoreCode, productCode, size, imageName)).normalize();
+
+    // names come from the request path
+    if (!path.startsWith(root) || !Files.isRegularFile(path)) {
+      return null;
+    }
+
+    OutputContentFile contentImage = new OutputContentFile();
+    contentImage.setFileName(imageName);
+    contentImage.setMimeType(URLConnection.getFileNameMap().getContentTypeFor(imageName));
+    contentImage.setFileContentType(
+        LARGE.equals(size) ? FileContentType.PRODUCTLG : FileContentType.PRODUCT);
+    contentImage.setPath(path);
+    return contentImage;
 
   }
 
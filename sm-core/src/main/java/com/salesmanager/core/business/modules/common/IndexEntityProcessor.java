@@ -1,64 +1,35 @@
 package com.salesmanager.core.business.modules.common;
 
-import java.util.List;
-import java.util.stream.Collectors;
-
-import org.apache.commons.lang3.BooleanUtils;
-import org.apache.http.HttpHost;
-import org.apache.http.auth.AuthScope;
-import org.apache.http.auth.UsernamePasswordCredentials;
-import org.apache.http.client.CredentialsProvider;
-import org.apache.http.impl.client.BasicCredentialsProvider;
-import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
-import org.elasticsearch.client.RestClient;
-import org.elasticsearch.client.RestClientBuilder;
-import org.elasticsearch.client.RestHighLevelClient;
-import org.springframework.beans.factory.annotation.Value;
+import javax.inject.Inject;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.salesmanager.core.model.customer.Customer;
 import com.salesmanager.core.model.generic.SalesManagerEntity;
-
-import static org.apache.commons.lang3.BooleanUtils.isTrue;
+import com.salesmanager.core.model.merchant.MerchantStore;
 
 public class IndexEntityProcessor {
 	
 	protected static final String INDEX_NAME = "events_";
 	
+	/**
+	 * thread safe once configured
+	 */
+	private static final ObjectMapper MAPPER = new ObjectMapper()
+			.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
 
-	@Value("${elasticsearch.server.host}")
-	private List<String> hosts;
-	
-	@Value("${elasticsearch.server.protocole}")
-	private String protocol;
-	
-	@Value("${elasticsearch.server.port}")
-	private int port;
+	@Inject
+	private IndexEventQueue indexEventQueue;
 	
-	@Value("${elasticsearch.security.enabled}")
-	private Boolean securityEnabled;
-	
-	@Value("${elasticsearch.security.user}")
-	private String user;
-	
-	@Value("${elasticsearch.security.password}")
-	private String password;
-	
-	protected RestHighLevelClient client() throws Exception {
-
-		List<HttpHost> nodes = getHosts().stream().map(m -> new HttpHost(m, getPort(), getProtocol())).collect(Collectors.toList());
-		RestClientBuilder builder = RestClient.builder(nodes.toArray(new HttpHost[nodes.size()]));
-		
-        final CredentialsProvider credentialsProvider = new BasicCredentialsProvider();
-        credentialsProvider.setCredentials(AuthScope.ANY,
-            new UsernamePasswordCredentials(user,
-            		password));
-		
-        if (isTrue(securityEnabled)) {
-              builder.setHttpClientConfigCallback(httpClientBuilder ->
-					  httpClientBuilder.setDefaultCredentialsProvider(credentialsProvider));
-        }
-
-		return new RestHighLevelClient(builder);
+	/**
+	 * Serializes the event and queues it for bulk indexing,
+	 * the call does not wait for elasticsearch
+	 */
+	protected void index(String id, Mapping mapping, MerchantStore store) throws JsonProcessingException {
+		String json = MAPPER.writeValueAsString(mapping);
+		String indexName = new StringBuilder().append(INDEX_NAME).append(store.getCode().toLowerCase()).toString();
+		indexEventQueue.offer(indexName, id, json);
 	}
 	
 	protected class Mapping {
@@ -89,17 +60,5 @@ public class IndexEntityProcessor {
 		}
 	}
 
-	protected List<String> getHosts() {
-		return hosts;
-	}
-
-	protected String getProtocol() {
-		return protocol;
-	}
-
-	protected int getPort() {
-		return port;
-	}
-
 
 }
@@ -0,0 +1,408 @@
+package com.salesmanager.core.business.modules.common;
+
+import static org.apache.commons.lang3.BooleanUtils.isTrue;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpHost;
+import org.apache.http.auth.AuthScope;
+import org.apache.http.auth.UsernamePasswordCredentials;
+import org.apache.http.client.CredentialsProvider;
+import org.apache.http.impl.client.BasicCredentialsProvider;
+import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestClient;
+import org.elasticsearch.client.RestClientBuilder;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Buffers index events and sends them to elasticsearch using bulk requests.
+ *
+ * - A single long lived RestHighLevelClient is shared by all index processors
+ * - Events are flushed when the queue reaches the bulk size or every flush interval
+ * - When the cluster can't be reached (or the queue is full) events are appended
+ *   to a local journal file, the journal is replayed before queued events are sent
+ *   so older events never overwrite newer ones
+ * - Once events are journaled, queued events and the events offered afterwards
+ *   are journaled as well until the journal is replayed, keeping their order
+ *
+ * Events are only dropped when neither the queue nor the journal can accept them.
+ */
+@Component("indexEventQueue")
+public class IndexEventQueue {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(IndexEventQueue.class);
+
+	private static final String JOURNAL_SEPARATOR = "\t";
+
+	@Value("${elasticsearch.server.host}")
+	private List<String> hosts;
+
+	@Value("${elasticsearch.server.protocole}")
+	private String protocol;
+
+	@Value("${elasticsearch.server.port}")
+	private int port;
+
+	@Value("${elasticsearch.security.enabled}")
+	private Boolean securityEnabled;
+
+	@Value("${elasticsearch.security.user}")
+	private String user;
+
+	@Value("${elasticsearch.security.password}")
+	private String password;
+
+	@Value("${elasticsearch.queue.capacity:10000}")
+	private int capacity;
+
+	@Value("${elasticsearch.queue.bulk.size:500}")
+	private int bulkSize;
+
+	@Value("${elasticsearch.queue.flush.interval:2000}")
+	private long flushInterval;
+
+	@Value("${elasticsearch.queue.journal:./files/index/journal.log}")
+	private String journalPath;
+
+	private BlockingQueue<IndexEvent> queue;
+	private ScheduledExecutorService flusher;
+	private RestHighLevelClient client;
+	private File journal;
+
+	private final Object journalLock = new Object();
+	/** events are journaled instead of queued until the journal is replayed, guarded by journalLock **/
+	private boolean journaling;
+	private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+	private final AtomicLong indexed = new AtomicLong();
+	private final AtomicLong dropped = new AtomicLong();
+	private final AtomicLong retried = new AtomicLong();
+	private final AtomicLong spilled = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+
+	@PostConstruct
+	public void init() {
+		queue = new ArrayBlockingQueue<IndexEvent>(capacity);
+		journal = new File(journalPath);
+		client = createClient();
+		flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "index-event-flusher");
+			t.setDaemon(true);
+			return t;
+		});
+		flusher.scheduleWithFixedDelay(this::flush, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		flusher.shutdown();
+		try {
+			flusher.awaitTermination(flushInterval, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		//remaining events are kept for next startup
+		spill(new ArrayList<IndexEvent>());
+		if (client == null) {
+			return;
+		}
+		try {
+			client.close();
+		} catch (IOException e) {
+			LOGGER.warn("Cannot close elasticsearch client", e);
+		}
+	}
+
+	/**
+	 * Adds a document to be indexed, never blocks the caller
+	 * @param index
+	 * @param id
+	 * @param json
+	 */
+	public void offer(String index, String id, String json) {
+		IndexEvent event = new IndexEvent(index, id, json);
+		synchronized (journalLock) {
+			if (journaling || !queue.offer(event)) {
+				//queued events are older, journaled first
+				List<IndexEvent> overflow = drain();
+				overflow.add(event);
+				spill(overflow);
+				return;
+			}
+		}
+		if (queue.size() >= bulkSize && flushRequested.compareAndSet(false, true)) {
+			flusher.execute(this::flush);
+		}
+	}
+
+	/**
+	 * Replays the journal then sends queued events, queued events are journaled
+	 * when the cluster can't be reached.
+	 * Scheduled on the flusher thread, can be invoked directly to force a flush.
+	 */
+	public synchronized void flush() {
+		flushRequested.set(false);
+		List<IndexEvent> batch = new ArrayList<IndexEvent>(bulkSize);
+		try {
+			if (!replay()) {
+				spill(batch);
+				return;
+			}
+			while (queue.drainTo(batch, bulkSize) > 0) {
+				if (!send(batch)) {
+					spill(batch);
+					return;
+				}
+				batch.clear();
+			}
+		} catch (Exception e) {
+			LOGGER.error("Error while flushing index events", e);
+			spill(batch);
+		}
+	}
+
+	private List<IndexEvent> drain() {
+		List<IndexEvent> events = new ArrayList<IndexEvent>();
+		queue.drainTo(events);
+		return events;
+	}
+
+	/**
+	 * @return false if the cluster could not be reached, events
+	 * rejected individually are logged and counted as failed
+	 */
+	private boolean send(List<IndexEvent> events) {
+		if (client == null) {
+			return false;
+		}
+		BulkRequest request = new BulkRequest();
+		for (IndexEvent event : events) {
+			request.add(new IndexRequest(event.getIndex()).id(event.getId()).source(event.getJson(), XContentType.JSON));
+		}
+		try {
+			BulkResponse response = client.bulk(request, RequestOptions.DEFAULT);
+			int failures = 0;
+			if (response.hasFailures()) {
+				for (BulkItemResponse item : response.getItems()) {
+					if (item.isFailed()) {
+						failures++;
+						LOGGER.error("Cannot index document " + item.getIndex() + "/" + item.getId() + " " + item.getFailureMessage());
+					}
+				}
+			}
+			failed.addAndGet(failures);
+			indexed.addAndGet(events.size() - failures);
+			return true;
+		} catch (IOException | ElasticsearchException e) {
+			LOGGER.warn("Elasticsearch unreachable, " + events.size() + " index events written to journal : " + e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * Appends the events then the queued events to the journal, events
+	 * offered afterwards are journaled until the journal is replayed
+	 */
+	private void spill(List<IndexEvent> events) {
+		synchronized (journalLock) {
+			queue.drainTo(events);
+			if (events.isEmpty()) {
+				return;
+			}
+			journaling = true;
+			try {
+				File parent = journal.getAbsoluteFile().getParentFile();
+				if (parent != null && !parent.exists()) {
+					parent.mkdirs();
+				}
+				try (BufferedWriter writer = Files.newBufferedWriter(journal.toPath(), StandardCharsets.UTF_8,
+						StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+					for (IndexEvent event : events) {
+						writer.write(event.getIndex());
+						writer.write(JOURNAL_SEPARATOR);
+						writer.write(event.getId());
+						writer.write(JOURNAL_SEPARATOR);
+						writer.write(event.getJson());
+						writer.newLine();
+					}
+				}
+				spilled.addAndGet(events.size());
+			} catch (IOException e) {
+				LOGGER.error("Cannot write index journal " + journal.getAbsolutePath() + ", dropping " + events.size() + " events", e);
+				dropped.addAndGet(events.size());
+			}
+		}
+	}
+
+	/**
+	 * Journal is moved aside before being sent so new spills go to a fresh file,
+	 * which is sent in turn until the journal is empty.
+	 * When the cluster can't be reached the replay file is kept and sent again
+	 * from the start on next flush, documents are indexed by id so events
+	 * already sent are overwritten by the same events.
+	 * @return false if the cluster could not be reached
+	 */
+	private boolean replay() throws IOException {
+		File replay = new File(journal.getPath() + ".replay");
+		while (true) {
+			synchronized (journalLock) {
+				if (!replay.exists()) {
+					if (!journal.exists() || journal.length() == 0) {
+						//events queued from now on are newer than the journaled ones
+						journaling = false;
+						return true;
+					}
+					Files.move(journal.toPath(), replay.toPath(), StandardCopyOption.ATOMIC_MOVE);
+				}
+			}
+			if (!replay(replay)) {
+				return false;
+			}
+			Files.delete(replay.toPath());
+		}
+	}
+
+	private boolean replay(File replay) throws IOException {
+		List<IndexEvent> batch = new ArrayList<IndexEvent>(bulkSize);
+		try (BufferedReader reader = Files.newBufferedReader(replay.toPath(), StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				IndexEvent event = IndexEvent.parse(line);
+				if (event == null) {
+					continue;
+				}
+				batch.add(event);
+				if (batch.size() == bulkSize) {
+					if (!send(batch)) {
+						return false;
+					}
+					retried.addAndGet(batch.size());
+					batch.clear();
+				}
+			}
+		}
+		if (!batch.isEmpty()) {
+			if (!send(batch)) {
+				return false;
+			}
+			retried.addAndGet(batch.size());
+		}
+		return true;
+	}
+
+	/**
+	 * @return null when no host is configured, events are then journaled
+	 */
+	private RestHighLevelClient createClient() {
+		List<HttpHost> nodes = hosts == null ? new ArrayList<HttpHost>() : hosts.stream().filter(StringUtils::isNotBlank)
+				.map(h -> new HttpHost(h.trim(), port, protocol)).collect(Collectors.toList());
+		if (nodes.isEmpty()) {
+			LOGGER.warn("No elasticsearch host configured, index events are written to journal " + journal.getAbsolutePath());
+			return null;
+		}
+		RestClientBuilder builder = RestClient.builder(nodes.toArray(new HttpHost[nodes.size()]));
+
+		if (isTrue(securityEnabled)) {
+			final CredentialsProvider credentialsProvider = new BasicCredentialsProvider();
+			credentialsProvider.setCredentials(AuthScope.ANY, new UsernamePasswordCredentials(user, password));
+			builder.setHttpClientConfigCallback(httpClientBuilder ->
+					httpClientBuilder.setDefaultCredentialsProvider(credentialsProvider));
+		}
+
+		return new RestHighLevelClient(builder);
+	}
+
+	public RestHighLevelClient getClient() {
+		return client;
+	}
+
+	public int getQueueDepth() {
+		return queue.size();
+	}
+
+	public long getIndexed() {
+		return indexed.get();
+	}
+
+	public long getDropped() {
+		return dropped.get();
+	}
+
+	public long getRetried() {
+		return retried.get();
+	}
+
+	public long getSpilled() {
+		return spilled.get();
+	}
+
+	public long getFailed() {
+		return failed.get();
+	}
+
+	static class IndexEvent {
+
+		private final String index;
+		private final String id;
+		private final String json;
+
+		IndexEvent(String index, String id, String json) {
+			this.index = index;
+			this.id = id;
+			this.json = json;
+		}
+
+		static IndexEvent parse(String line) {
+			String[] parts = line.split(JOURNAL_SEPARATOR, 3);
+			if (parts.length != 3) {
+				LOGGER.warn("Skipping malformed index journal entry");
+				return null;
+			}
+			return new IndexEvent(parts[0], parts[1], parts[2]);
+		}
+
+		String getIndex() {
+			return index;
+		}
+
+		String getId() {
+			return id;
+		}
+
+		String getJson() {
+			return json;
+		}
+	}
+
+}
@@ -0,0 +1,366 @@
+package com.salesmanager.core.business.modules.integration.shipping.impl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Best fit decreasing packing of item groups (unit size and weight, quantity)
+ * into boxes of one or more sizes.
+ *
+ * Quantities are never expanded, boxes holding the same content are kept
+ * as a single group with a count so the work depends on the number of
+ * item groups and box groups, not on the number of units.
+ *
+ * An empty box takes any item up to its volume, a unit is then added to a
+ * box while it fits in 75% of the volume left, and up to the maximum weight.
+ */
+public class BoxPacker {
+
+	/** part of the volume left of a box a unit can take **/
+	public static final double FILL_RATIO = .75;
+
+	private final List<BoxSize> sizes;
+
+	public BoxPacker(List<BoxSize> sizes) {
+		if (sizes == null || sizes.isEmpty()) {
+			throw new IllegalArgumentException("At least one box size is required");
+		}
+		this.sizes = sizes;
+	}
+
+	/**
+	 * @return groups of identical boxes
+	 * @throws IllegalArgumentException if an item does not fit in any box size
+	 */
+	public List<PackedBoxes> pack(List<Item> items) {
+
+		List<Item> sorted = new ArrayList<Item>(items);
+		sorted.sort(Comparator.comparingDouble(Item::getVolume).thenComparingDouble(Item::getWeight).reversed());
+
+		List<PackedBoxes> boxes = new ArrayList<PackedBoxes>();
+		for (Item item : sorted) {
+			if (item.getQuantity() <= 0) {
+				continue;
+			}
+			if (fittingSizes(item).isEmpty()) {
+				throw new IllegalArgumentException("Item " + item.getName() + " does not fit in any box");
+			}
+
+			long left = item.getQuantity();
+			while (left > 0) {
+				PackedBoxes best = bestFit(boxes, item);
+				if (best == null) {
+					break;
+				}
+				left -= place(boxes, best, item, left);
+			}
+			if (left > 0) {
+				open(boxes, item, left);
+			}
+		}
+		return boxes;
+	}
+
+	/**
+	 * Open box group leaving the least volume once a unit is added
+	 */
+	private PackedBoxes bestFit(List<PackedBoxes> boxes, Item item) {
+		PackedBoxes best = null;
+		for (PackedBoxes candidate : boxes) {
+			if (candidate.capacity(item) > 0
+					&& (best == null || candidate.getVolumeLeft() < best.getVolumeLeft())) {
+				best = candidate;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Fills the boxes of a group, the group is split when only part of its boxes is filled
+	 * @return units placed
+	 */
+	private long place(List<PackedBoxes> boxes, PackedBoxes group, Item item, long quantity) {
+
+		long perBox = group.capacity(item);
+		long count = group.getCount();
+		long full = Math.min(count, quantity / perBox);
+		long placed = 0;
+
+		if (full > 0) {
+			//the group keeps the boxes left when not all of them are filled
+			PackedBoxes filled = group.split(full);
+			if (filled != group) {
+				boxes.add(filled);
+			}
+			filled.add(item, perBox);
+			placed = full * perBox;
+		}
+
+		long remainder = quantity - placed;
+		if (remainder > 0 && full < count) {
+			PackedBoxes partial = group.split(1);
+			if (partial != group) {
+				boxes.add(partial);
+			}
+			partial.add(item, remainder);
+			placed += remainder;
+		}
+		return placed;
+	}
+
+	/**
+	 * Opens full boxes of the size holding the most units, the remainder goes
+	 * in the smallest box holding it
+	 */
+	private void open(List<PackedBoxes> boxes, Item item, long quantity) {
+
+		List<BoxSize> fitting = fittingSizes(item);
+
+		BoxSize largest = null;
+		for (BoxSize size : fitting) {
+			if (largest == null || capacity(size, item) > capacity(largest, item)
+					|| capacity(size, item) == capacity(largest, item) && size.getVolume() < largest.getVolume()) {
+				largest = size;
+			}
+		}
+
+		long perBox = capacity(largest, item);
+		long full = quantity / perBox;
+		long remainder = quantity % perBox;
+
+		if (full > 0) {
+			PackedBoxes group = new PackedBoxes(largest, full);
+			group.add(item, perBox);
+			boxes.add(group);
+		}
+
+		if (remainder > 0) {
+			BoxSize smallest = null;
+			for (BoxSize size : fitting) {
+				if (capacity(size, item) >= remainder && (smallest == null || size.getVolume() < smallest.getVolume())) {
+					smallest = size;
+				}
+			}
+			PackedBoxes group = new PackedBoxes(smallest, 1);
+			group.add(item, remainder);
+			boxes.add(group);
+		}
+	}
+
+	private List<BoxSize> fittingSizes(Item item) {
+		List<BoxSize> fitting = new ArrayList<BoxSize>();
+		for (BoxSize size : sizes) {
+			if (size.fits(item) && capacity(size, item) > 0) {
+				fitting.add(size);
+			}
+		}
+		return fitting;
+	}
+
+	private static long capacity(BoxSize size, Item item) {
+		return units(size.getVolume(), true, size.getMaxWeight(), item);
+	}
+
+	private static long units(double volumeLeft, boolean empty, double weight, Item item) {
+		long byVolume;
+		if (empty) {
+			byVolume = item.getVolume() <= volumeLeft ? 1 + units(volumeLeft - item.getVolume(), item) : 0;
+		} else {
+			byVolume = units(volumeLeft, item);
+		}
+		long byWeight = item.getWeight() > 0 ? (long) Math.floor(weight / item.getWeight()) : Long.MAX_VALUE;
+		return Math.max(0, Math.min(byVolume, byWeight));
+	}
+
+	/**
+	 * Units added to a box holding items, each while it takes at most 75% of
+	 * the volume left: (volumeLeft - n * unit) * .75 >= unit for every n added before
+	 */
+	private static long units(double volumeLeft, Item item) {
+		double unit = item.getVolume();
+		if (volumeLeft * FILL_RATIO < unit) {
+			return 0;
+		}
+		return 1 + (long) Math.floor((volumeLeft * FILL_RATIO - unit) / (unit * FILL_RATIO));
+	}
+
+	/**
+	 * Box dimensions, empty box weight and maximum weight of content
+	 */
+	public static class BoxSize {
+
+		private final String code;
+		private final double width;
+		private final double length;
+		private final double height;
+		private final double weight;
+		private final double maxWeight;
+
+		public BoxSize(String code, double width, double length, double height, double weight, double maxWeight) {
+			this.code = code;
+			this.width = width;
+			this.length = length;
+			this.height = height;
+			this.weight = weight;
+			this.maxWeight = maxWeight;
+		}
+
+		boolean fits(Item item) {
+			return item.getWidth() <= width && item.getLength() <= length && item.getHeight() <= height;
+		}
+
+		public double getVolume() {
+			return width * length * height;
+		}
+
+		public String getCode() {
+			return code;
+		}
+
+		public double getWidth() {
+			return width;
+		}
+
+		public double getLength() {
+			return length;
+		}
+
+		public double getHeight() {
+			return height;
+		}
+
+		public double getWeight() {
+			return weight;
+		}
+
+		public double getMaxWeight() {
+			return maxWeight;
+		}
+	}
+
+	/**
+	 * Unit dimensions and weight of an item and its quantity
+	 */
+	public static class Item {
+
+		private final String name;
+		private final double width;
+		private final double length;
+		private final double height;
+		private final double weight;
+		private final long quantity;
+
+		public Item(String name, double width, double length, double height, double weight, long quantity) {
+			this.name = name;
+			this.width = width;
+			this.length = length;
+			this.height = height;
+			this.weight = weight;
+			this.quantity = quantity;
+		}
+
+		public double getVolume() {
+			return width * length * height;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public double getWidth() {
+			return width;
+		}
+
+		public double getLength() {
+			return length;
+		}
+
+		public double getHeight() {
+			return height;
+		}
+
+		public double getWeight() {
+			return weight;
+		}
+
+		public long getQuantity() {
+			return quantity;
+		}
+	}
+
+	/**
+	 * Boxes of the same size holding the same content
+	 */
+	public static class PackedBoxes {
+
+		private final BoxSize size;
+		private long count;
+		private double volumeLeft;
+		private double weightLeft;
+		private double contentWeight;
+		private long units;
+
+		PackedBoxes(BoxSize size, long count) {
+			this.size = size;
+			this.count = count;
+			this.volumeLeft = size.getVolume();
+			this.weightLeft = size.getMaxWeight();
+		}
+
+		private PackedBoxes(PackedBoxes other, long count) {
+			this.size = other.size;
+			this.count = count;
+			this.volumeLeft = other.volumeLeft;
+			this.weightLeft = other.weightLeft;
+			this.contentWeight = other.contentWeight;
+			this.units = other.units;
+		}
+
+		long capacity(Item item) {
+			return item.getVolume() > 0 && size.fits(item) ? units(volumeLeft, units == 0, weightLeft, item) : 0;
+		}
+
+		/**
+		 * @return a group of n boxes taken from this group, this group when it has n boxes
+		 */
+		PackedBoxes split(long n) {
+			if (n >= count) {
+				return this;
+			}
+			count -= n;
+			return new PackedBoxes(this, n);
+		}
+
+		void add(Item item, long quantity) {
+			volumeLeft -= item.getVolume() * quantity;
+			weightLeft -= item.getWeight() * quantity;
+			contentWeight += item.getWeight() * quantity;
+			units += quantity;
+		}
+
+		public BoxSize getSize() {
+			return size;
+		}
+
+		/** number of identical boxes **/
+		public long getCount() {
+			return count;
+		}
+
+		public double getVolumeLeft() {
+			return volumeLeft;
+		}
+
+		/** weight of the content of one box **/
+		public double getContentWeight() {
+			return contentWeight;
+		}
+
+		/** units in one box **/
+		public long getUnits() {
+			return units;
+		}
+	}
+
+}
@@ -10,12 +10,11 @@ import javax.inject.Inject;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
-import org.kie.api.runtime.KieSession;
-import org.kie.internal.io.ResourceFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.salesmanager.core.business.configuration.DroolsBeanFactory;
+import com.salesmanager.core.business.exception.ServiceException;
+import com.salesmanager.core.business.services.rules.RuleEngineService;
 import com.salesmanager.core.model.common.Delivery;
 import com.salesmanager.core.model.merchant.MerchantStore;
 import com.salesmanager.core.model.shipping.PackageDetails;
@@ -36,9 +35,11 @@ public class CustomShippingQuoteRules implements ShippingQuoteModule {
 	private static final Logger LOGGER = LoggerFactory.getLogger(CustomShippingQuoteRules.class);
 	
 	@Inject
-	private DroolsBeanFactory droolsBeanFactory;
+	private RuleEngineService ruleEngineService;
 
 	public final static String MODULE_CODE = "customQuotesRules";
+	
+	private final static String PRICE_RULES = "PriceByDistance.drl";
 
 	@Override
 	public void validateModuleConfiguration(
@@ -142,13 +143,13 @@ public class CustomShippingQuoteRules implements ShippingQuoteModule {
 		LOGGER.debug("Setting input parameters " + inputParameters.toString());
 		
 		
-		KieSession kieSession=droolsBeanFactory.getKieSession(ResourceFactory.newClassPathResource("com/salesmanager/drools/rules/PriceByDistance.drl"));
-		
 		DecisionResponse resp = new DecisionResponse();
 		
-        kieSession.insert(inputParameters);
-        kieSession.setGlobal("decision",resp);
-        kieSession.fireAllRules();
+		try {
+			ruleEngineService.execute(PRICE_RULES, Collections.singletonMap("decision", resp), inputParameters);
+		} catch (ServiceException e) {
+			throw new IntegrationException(e);
+		}
         //System.out.println(resp.getCustomPrice());
 
 		if(resp.getCustomPrice() != null) {
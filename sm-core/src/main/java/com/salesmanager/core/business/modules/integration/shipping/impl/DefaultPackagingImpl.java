@@ -13,8 +13,10 @@ import com.salesmanager.core.business.services.system.MerchantLogService;
 import com.salesmanager.core.model.catalog.product.Product;
 import com.salesmanager.core.model.catalog.product.attribute.ProductAttribute;
 import com.salesmanager.core.model.merchant.MerchantStore;
+import com.salesmanager.core.model.shipping.Package;
 import com.salesmanager.core.model.shipping.PackageDetails;
 import com.salesmanager.core.model.shipping.ShippingConfiguration;
+import com.salesmanager.core.model.shipping.ShippingPackageType;
 import com.salesmanager.core.model.shipping.ShippingProduct;
 import com.salesmanager.core.model.system.MerchantLog;
 import com.salesmanager.core.modules.integration.shipping.model.Packaging;
@@ -44,37 +46,26 @@ public class DefaultPackagingImpl implements Packaging {
 			throw new ServiceException("Product list cannot be null !!");
 		}
 
-		double width = 0;
-		double length = 0;
-		double height = 0;
-		double weight = 0;
-		double maxweight = 0;
-
-		//int treshold = 0;
-		
-		
 		ShippingConfiguration shippingConfiguration = shippingService.getShippingConfiguration(store);
 		if(shippingConfiguration==null) {
 			throw new ServiceException("ShippingConfiguration not found for merchant " + store.getCode());
 		}
-		
-		width = (double) shippingConfiguration.getBoxWidth();
-		length = (double) shippingConfiguration.getBoxLength();
-		height = (double) shippingConfiguration.getBoxHeight();
-		weight = shippingConfiguration.getBoxWeight();
-		maxweight = shippingConfiguration.getMaxWeight();
-		
-
-
-		List<PackageDetails> boxes = new ArrayList<PackageDetails>();
-
-		// maximum number of boxes
-		int maxBox = 100;
-		int iterCount = 0;
 
-		List<Product> individualProducts = new ArrayList<Product>();
+		List<BoxPacker.BoxSize> sizes = boxSizes(shippingConfiguration);
+		if (sizes.isEmpty()) {
+			
+			merchantLogService.save(new MerchantLog(store,"shipping","Check shipping box configuration, it has a volume of "
+							+ (shippingConfiguration.getBoxWidth() * shippingConfiguration.getBoxLength() * shippingConfiguration.getBoxHeight())
+							+ " and a maximum weight of "
+							+ shippingConfiguration.getMaxWeight()
+							+ ". Those values must be greater than 0."));
+			
+			throw new ServiceException("Product configuration exceeds box configuraton");
+			
+		}
 
-		// need to put items individually
+		//one item group per product, quantities are not expanded
+		List<BoxPacker.Item> items = new ArrayList<BoxPacker.Item>();
 		for(ShippingProduct shippingProduct : products){
 
 			Product product = shippingProduct.getProduct();
@@ -82,231 +73,149 @@ public class DefaultPackagingImpl implements Packaging {
 				continue;
 			}
 
-			int qty = shippingProduct.getQuantity();
+			BoxPacker.Item item = item(product, shippingProduct.getQuantity(), true);
+			validate(item, sizes, product, store);
+			items.add(item);
+		}
 
-			Set<ProductAttribute> attrs = shippingProduct.getProduct().getAttributes();
+		if (items.isEmpty()) {
+			return null;
+		}
 
-			// set attributes values
-			BigDecimal w = product.getProductWeight();
-			BigDecimal h = product.getProductHeight();
-			BigDecimal l = product.getProductLength();
-			BigDecimal wd = product.getProductWidth();
-			if(w==null) {
-				w = new BigDecimal(defaultWeight);
-			}
-			if(h==null) {
-				h = new BigDecimal(defaultHeight);
-			}
-			if(l==null) {
-				l = new BigDecimal(defaultLength);
-			}
-			if(wd==null) {
-				wd = new BigDecimal(defaultWidth);
-			}
-			if (attrs != null && attrs.size() > 0) {
-				for(ProductAttribute attribute : attrs) {
-					if(attribute.getProductAttributeWeight()!=null) {
-						w = w.add(attribute.getProductAttributeWeight());
-					}
-				}
+		List<BoxPacker.PackedBoxes> packed;
+		try {
+			packed = new BoxPacker(sizes).pack(items);
+		} catch (IllegalArgumentException e) {
+			throw new ServiceException("Product configuration exceeds box configuraton");
+		}
+
+		List<PackageDetails> boxes = new ArrayList<PackageDetails>();
+		for(BoxPacker.PackedBoxes group : packed) {
+			BoxPacker.BoxSize size = group.getSize();
+			for(long i = 0; i < group.getCount(); i++) {
+				PackageDetails details = new PackageDetails();
+				details.setCode(size.getCode());
+				details.setShippingHeight(size.getHeight());
+				details.setShippingLength(size.getLength());
+				details.setShippingWeight(size.getWeight() + group.getContentWeight());
+				details.setShippingWidth(size.getWidth());
+				details.setShippingMaxWeight(size.getMaxWeight());
+				details.setItemName(store.getCode());
+				boxes.add(details);
 			}
-			
+		}
 
+		return boxes;
 
-			if (qty > 1) {
+	}
 
-				for (int i = 1; i <= qty; i++) {
-					Product temp = new Product();
-					temp.setProductHeight(h);
-					temp.setProductLength(l);
-					temp.setProductWidth(wd);
-					temp.setProductWeight(w);
-					temp.setAttributes(product.getAttributes());
-					temp.setDescriptions(product.getDescriptions());
-					individualProducts.add(temp);
+	/**
+	 * Box of the shipping configuration and configured box packages
+	 * having a volume and a maximum weight
+	 */
+	private List<BoxPacker.BoxSize> boxSizes(ShippingConfiguration shippingConfiguration) {
+
+		List<BoxPacker.BoxSize> sizes = new ArrayList<BoxPacker.BoxSize>();
+		addSize(sizes, null, shippingConfiguration.getBoxWidth(), shippingConfiguration.getBoxLength(),
+				shippingConfiguration.getBoxHeight(), shippingConfiguration.getBoxWeight(), shippingConfiguration.getMaxWeight());
+		if (shippingConfiguration.getPackages() != null) {
+			for (Package pack : shippingConfiguration.getPackages()) {
+				if (pack.getShipPackageType() == null || pack.getShipPackageType() == ShippingPackageType.BOX) {
+					addSize(sizes, pack.getCode(), pack.getBoxWidth(), pack.getBoxLength(), pack.getBoxHeight(),
+							pack.getBoxWeight(), pack.getMaxWeight());
 				}
-			} else {
-				Product temp = new Product();
-				temp.setProductHeight(h);
-				temp.setProductLength(l);
-				temp.setProductWidth(wd);
-				temp.setProductWeight(w);
-				temp.setAttributes(product.getAttributes());
-				temp.setDescriptions(product.getDescriptions());
-				individualProducts.add(temp);
 			}
-			iterCount++;
 		}
+		return sizes;
+	}
 
-		if (iterCount == 0) {
-			return null;
+	private void addSize(List<BoxPacker.BoxSize> sizes, String code, double width, double length, double height,
+			double weight, double maxWeight) {
+		if (width * length * height > 0 && maxWeight > 0) {
+			sizes.add(new BoxPacker.BoxSize(code, width, length, height, weight, maxWeight));
 		}
+	}
 
-		int productCount = individualProducts.size();
-
-		List<PackingBox> boxesList = new ArrayList<PackingBox>();
-
-		//start the creation of boxes
-		PackingBox box = new PackingBox();
-		// set box max volume
-		double maxVolume = width * length * height;
+	private void validate(BoxPacker.Item item, List<BoxPacker.BoxSize> sizes, Product product, MerchantStore store)
+			throws ServiceException {
 
-		if (maxVolume == 0 || maxweight == 0) {
+		if (item.getVolume() == 0) {
 			
-			merchantLogService.save(new MerchantLog(store,"shipping","Check shipping box configuration, it has a volume of "
-							+ maxVolume + " and a maximum weight of "
-							+ maxweight
-							+ ". Those values must be greater than 0."));
+			merchantLogService.save(new MerchantLog(store,"shipping","Product "
+					+ product.getSku()
+					+ " has one of the dimension set to 0 and therefore cannot calculate the volume"));
 			
 			throw new ServiceException("Product configuration exceeds box configuraton");
-			
-
-		}
-		
-		
-		box.setVolumeLeft(maxVolume);
-		box.setWeightLeft(maxweight);
-
-		boxesList.add(box);//assign first box
 
-		//int boxCount = 1;
-		List<Product> assignedProducts = new ArrayList<Product>();
-
-		// calculate the volume for the next object
-		if (assignedProducts.size() > 0) {
-			individualProducts.removeAll(assignedProducts);
-			assignedProducts = new ArrayList<Product>();
 		}
 
-		boolean productAssigned = false;
-
-		for(Product p : individualProducts) {
-
-			//Set<ProductAttribute> attributes = p.getAttributes();
-			productAssigned = false;
-
-			double productWeight = p.getProductWeight().doubleValue();
-
-
-			// validate if product fits in the box
-			if (p.getProductWidth().doubleValue() > width
-					|| p.getProductHeight().doubleValue() > height
-					|| p.getProductLength().doubleValue() > length) {
-				// log message to customer
-				merchantLogService.save(new MerchantLog(store,"shipping","Product "
-						+ p.getSku()
-						+ " has a demension larger than the box size specified. Will use per item calculation."));
-				throw new ServiceException("Product configuration exceeds box configuraton");
-
-			}
-
-			if (productWeight > maxweight) {
-				merchantLogService.save(new MerchantLog(store,"shipping","Product "
-						+ p.getSku()
-						+ " has a weight larger than the box maximum weight specified. Will use per item calculation."));
-				
-				throw new ServiceException("Product configuration exceeds box configuraton");
-
+		boolean dimensions = false;
+		boolean weight = false;
+		for (BoxPacker.BoxSize size : sizes) {
+			if (item.getWidth() <= size.getWidth() && item.getHeight() <= size.getHeight()
+					&& item.getLength() <= size.getLength() && item.getVolume() <= size.getVolume()) {
+				dimensions = true;
+				if (item.getWeight() <= size.getMaxWeight()) {
+					weight = true;
+				}
 			}
+		}
 
-			double productVolume = (p.getProductWidth().doubleValue()
-					* p.getProductHeight().doubleValue() * p
-					.getProductLength().doubleValue());
-
-			if (productVolume == 0) {
-				
-				merchantLogService.save(new MerchantLog(store,"shipping","Product "
-						+ p.getSku()
-						+ " has one of the dimension set to 0 and therefore cannot calculate the volume"));
-				
-				throw new ServiceException("Product configuration exceeds box configuraton");
-				
+		if (!dimensions) {
+			// log message to customer
+			merchantLogService.save(new MerchantLog(store,"shipping","Product "
+					+ product.getSku()
+					+ " has a demension larger than the box size specified. Will use per item calculation."));
+			throw new ServiceException("Product configuration exceeds box configuraton");
+		}
 
-			}
+		if (!weight) {
+			merchantLogService.save(new MerchantLog(store,"shipping","Product "
+					+ product.getSku()
+					+ " has a weight larger than the box maximum weight specified. Will use per item calculation."));
 			
-			if (productVolume > maxVolume) {
-				
-				throw new ServiceException("Product configuration exceeds box configuraton");
-				
-			}
-
-			//List boxesList = boxesList;
-
-			// try each box
-			//Iterator boxIter = boxesList.iterator();
-			for (PackingBox pbox : boxesList) {
-				double volumeLeft = pbox.getVolumeLeft();
-				double weightLeft = pbox.getWeightLeft();
-
-				if ((volumeLeft * .75) >= productVolume
-						&& pbox.getWeightLeft() >= productWeight) {// fit the item
-																	// in this
-																	// box
-					// fit in the current box
-					volumeLeft = volumeLeft - productVolume;
-					pbox.setVolumeLeft(volumeLeft);
-					weightLeft = weightLeft - productWeight;
-					pbox.setWeightLeft(weightLeft);
-
-					assignedProducts.add(p);
-					productCount--;
-
-					double w = pbox.getWeight();
-					w = w + productWeight;
-					pbox.setWeight(w);
-					productAssigned = true;
-					maxBox--;
-					break;
+			throw new ServiceException("Product configuration exceeds box configuraton");
+		}
+	}
 
+	/**
+	 * Unit dimensions and weight of a product, default dimensions are used when not set
+	 * @param allAttributes adds the weight of every attribute, otherwise only additional weight attributes
+	 */
+	private BoxPacker.Item item(Product product, int quantity, boolean allAttributes) {
+
+		BigDecimal w = product.getProductWeight();
+		BigDecimal h = product.getProductHeight();
+		BigDecimal l = product.getProductLength();
+		BigDecimal wd = product.getProductWidth();
+		if(w==null) {
+			w = new BigDecimal(defaultWeight);
+		}
+		if(h==null) {
+			h = new BigDecimal(defaultHeight);
+		}
+		if(l==null) {
+			l = new BigDecimal(defaultLength);
+		}
+		if(wd==null) {
+			wd = new BigDecimal(defaultWidth);
+		}
+		Set<ProductAttribute> attributes = product.getAttributes();
+		if (attributes != null && attributes.size() > 0) {
+			for(ProductAttribute attribute : attributes) {
+				if(attribute.getProductAttributeWeight()!=null
+						&& (allAttributes || attribute.getAttributeAdditionalWeight()!=null)) {
+					w = w.add(attribute.getProductAttributeWeight());
 				}
-
-			}
-
-			if (!productAssigned) {// create a new box
-
-				box = new PackingBox();
-				// set box max volume
-				box.setVolumeLeft(maxVolume);
-				box.setWeightLeft(maxweight);
-
-				boxesList.add(box);
-
-				double volumeLeft = box.getVolumeLeft() - productVolume;
-				box.setVolumeLeft(volumeLeft);
-				double weightLeft = box.getWeightLeft() - productWeight;
-				box.setWeightLeft(weightLeft);
-				assignedProducts.add(p);
-				productCount--;
-				double w = box.getWeight();
-				w = w + productWeight;
-				box.setWeight(w);
-				maxBox--;
 			}
-
 		}
 
-		// now prepare the shipping info
-
-		// number of boxes
-
-		//Iterator ubIt = usedBoxesList.iterator();
-
-		System.out.println("###################################");
-		System.out.println("Number of boxes " + boxesList.size());
-		System.out.println("###################################");
-
-		for(PackingBox pb : boxesList) {
-			PackageDetails details = new PackageDetails();
-			details.setShippingHeight(height);
-			details.setShippingLength(length);
-			details.setShippingWeight(weight + box.getWeight());
-			details.setShippingWidth(width);
-			details.setItemName(store.getCode());
-			boxes.add(details);
+		String description = "item";
+		if(product.getDescriptions()!=null && product.getDescriptions().size()>0) {
+			description = product.getDescriptions().iterator().next().getName();
 		}
 
-		return boxes;
-
+		return new BoxPacker.Item(description, wd.doubleValue(), l.doubleValue(), h.doubleValue(), w.doubleValue(), quantity);
 	}
 
 	@Override
@@ -323,72 +232,17 @@ public class DefaultPackagingImpl implements Packaging {
 				continue;
 			}
 
-			//BigDecimal weight = product.getProductWeight();
-			Set<ProductAttribute> attributes = product.getAttributes();
-			// set attributes values
-			BigDecimal w = product.getProductWeight();
-			BigDecimal h = product.getProductHeight();
-			BigDecimal l = product.getProductLength();
-			BigDecimal wd = product.getProductWidth();
-			if(w==null) {
-				w = new BigDecimal(defaultWeight);
-			}
-			if(h==null) {
-				h = new BigDecimal(defaultHeight);
-			}
-			if(l==null) {
-				l = new BigDecimal(defaultLength);
-			}
-			if(wd==null) {
-				wd = new BigDecimal(defaultWidth);
-			}
-			if (attributes != null && attributes.size() > 0) {
-				for(ProductAttribute attribute : attributes) {
-					if(attribute.getAttributeAdditionalWeight()!=null && attribute.getProductAttributeWeight() !=null) {
-						w = w.add(attribute.getProductAttributeWeight());
-					}
-				}
-			}
-			
-			
-
-			if (shippingProduct.getQuantity() == 1) {
+			//dimensions are computed once per product, shipping modules expect one package per unit
+			BoxPacker.Item item = item(product, shippingProduct.getQuantity(), false);
+			for (int i = 0; i < item.getQuantity(); i++) {
 				PackageDetails detail = new PackageDetails();
-
-	
-				detail.setShippingHeight(h
-						.doubleValue());
-				detail.setShippingLength(l
-						.doubleValue());
-				detail.setShippingWeight(w.doubleValue());
-				detail.setShippingWidth(wd.doubleValue());
-				detail.setShippingQuantity(shippingProduct.getQuantity());
-				String description = "item";
-				if(product.getDescriptions().size()>0) {
-					description = product.getDescriptions().iterator().next().getName();
-				}
-				detail.setItemName(description);
-	
+				detail.setShippingHeight(item.getHeight());
+				detail.setShippingLength(item.getLength());
+				detail.setShippingWeight(item.getWeight());
+				detail.setShippingWidth(item.getWidth());
+				detail.setShippingQuantity(1);//issue seperate shipping
+				detail.setItemName(item.getName());
 				packages.add(detail);
-			} else if (shippingProduct.getQuantity() > 1) {
-				for (int i = 0; i < shippingProduct.getQuantity(); i++) {
-					PackageDetails detail = new PackageDetails();
-					detail.setShippingHeight(h
-							.doubleValue());
-					detail.setShippingLength(l
-							.doubleValue());
-					detail.setShippingWeight(w.doubleValue());
-					detail.setShippingWidth(wd
-							.doubleValue());
-					detail.setShippingQuantity(1);//issue seperate shipping
-					String description = "item";
-					if(product.getDescriptions().size()>0) {
-						description = product.getDescriptions().iterator().next().getName();
-					}
-					detail.setItemName(description);
-					
-					packages.add(detail);
-				}
 			}
 		}
 		
@@ -401,36 +255,3 @@ public class DefaultPackagingImpl implements Packaging {
 
 }
 
-
-class PackingBox {
-
-	private double volumeLeft;
-	private double weightLeft;
-	private double weight;
-
-	public double getVolumeLeft() {
-		return volumeLeft;
-	}
-
-	public void setVolumeLeft(double volumeLeft) {
-		this.volumeLeft = volumeLeft;
-	}
-
-	public double getWeight() {
-		return weight;
-	}
-
-	public void setWeight(double weight) {
-		this.weight = weight;
-	}
-
-	public double getWeightLeft() {
-		return weightLeft;
-	}
-
-	public void setWeightLeft(double weightLeft) {
-		this.weightLeft = weightLeft;
-	}
-
-}
-
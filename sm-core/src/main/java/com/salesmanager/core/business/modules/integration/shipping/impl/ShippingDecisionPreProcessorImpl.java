@@ -10,12 +10,11 @@ import javax.inject.Inject;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
-import org.kie.api.runtime.KieSession;
-import org.kie.internal.io.ResourceFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.salesmanager.core.business.configuration.DroolsBeanFactory;
+import com.salesmanager.core.business.exception.ServiceException;
+import com.salesmanager.core.business.services.rules.RuleEngineService;
 import com.salesmanager.core.model.common.Delivery;
 import com.salesmanager.core.model.merchant.MerchantStore;
 import com.salesmanager.core.model.shipping.PackageDetails;
@@ -39,8 +38,10 @@ public class ShippingDecisionPreProcessorImpl implements ShippingQuotePrePostPro
 	
 	private final static String MODULE_CODE = "shippingDecisionModule";
 	
+	private final static String DECISION_RULES = "ShippingDecision.drl";
+	
 	@Inject
-	private DroolsBeanFactory droolsBeanFactory;
+	private RuleEngineService ruleEngineService;
 	
 	//private StatelessKnowledgeSession shippingMethodDecision;
 	
@@ -140,13 +141,13 @@ public class ShippingDecisionPreProcessorImpl implements ShippingQuotePrePostPro
 		 * New code
 		 */
 		
-		KieSession kieSession=droolsBeanFactory.getKieSession(ResourceFactory.newClassPathResource("com/salesmanager/drools/rules/ShippingDecision.drl"));
-		
 		DecisionResponse resp = new DecisionResponse();
 		
-        kieSession.insert(inputParameters);
-        kieSession.setGlobal("decision",resp);
-        kieSession.fireAllRules();
+		try {
+			ruleEngineService.execute(DECISION_RULES, Collections.singletonMap("decision", resp), inputParameters);
+		} catch (ServiceException e) {
+			throw new IntegrationException(e);
+		}
         //System.out.println(resp.getModuleName());
         inputParameters.setModuleName(resp.getModuleName());
 
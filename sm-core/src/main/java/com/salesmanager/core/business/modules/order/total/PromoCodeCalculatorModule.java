@@ -1,18 +1,17 @@
 package com.salesmanager.core.business.modules.order.total;
 
 import java.math.BigDecimal;
+import java.util.Collections;
 import java.util.Date;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
-import org.kie.api.runtime.KieSession;
-import org.kie.internal.io.ResourceFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import com.salesmanager.core.business.configuration.DroolsBeanFactory;
 import com.salesmanager.core.business.constants.Constants;
 import com.salesmanager.core.business.services.catalog.product.PricingService;
+import com.salesmanager.core.business.services.rules.RuleEngineService;
 import com.salesmanager.core.model.catalog.product.Product;
 import com.salesmanager.core.model.catalog.product.price.FinalPrice;
 import com.salesmanager.core.model.customer.Customer;
@@ -28,11 +27,13 @@ public class PromoCodeCalculatorModule implements OrderTotalPostProcessorModule
 	
 	
 	@Autowired
-	private DroolsBeanFactory droolsBeanFactory;
+	private RuleEngineService ruleEngineService;
 	
 	@Autowired
 	private PricingService pricingService;
 
+	private static final String PROMO_RULES = "PromoCoupon.drl";
+
 	private String name;
 	private String code;
 
@@ -70,17 +71,13 @@ public class PromoCodeCalculatorModule implements OrderTotalPostProcessorModule
 			return null;
 		}
 		
-		KieSession kieSession=droolsBeanFactory.getKieSession(ResourceFactory.newClassPathResource("com/salesmanager/drools/rules/PromoCoupon.drl"));
-		
 		OrderTotalResponse resp = new OrderTotalResponse();
 		
 		OrderTotalInputParameters inputParameters = new OrderTotalInputParameters();
 		inputParameters.setPromoCode(summary.getPromoCode());
 		inputParameters.setDate(new Date());
 		
-        kieSession.insert(inputParameters);
-        kieSession.setGlobal("total",resp);
-        kieSession.fireAllRules();
+		ruleEngineService.execute(PROMO_RULES, Collections.singletonMap("total", resp), inputParameters);
 
 		if(resp.getDiscount() != null) {
 			
@@ -1,9 +1,12 @@
 package com.salesmanager.core.business.repositories.catalog.product;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Locale;
 import java.util.Set;
 
+import org.springframework.transaction.annotation.Transactional;
+
 import com.salesmanager.core.model.catalog.product.Product;
 import com.salesmanager.core.model.catalog.product.ProductCriteria;
 import com.salesmanager.core.model.catalog.product.ProductList;
@@ -17,6 +20,16 @@ public interface ProductRepositoryCustom {
 		ProductList listByStore(MerchantStore store, Language language,
 			ProductCriteria criteria);
 
+		/**
+		 * Keyset listing ordered by sort order then id. Starts after
+		 * criteria.after (first page when null), page size is criteria.pageSize.
+		 * The total count is computed according to criteria.countMode and the
+		 * returned list holds the cursor of the next page.
+		 */
+		@Transactional(readOnly = true)
+		ProductList listByCursor(MerchantStore store, Language language,
+			ProductCriteria criteria);
+
 		Product getProductWithOnlyMerchantStoreById(Long productId);
 
 		 Product getByFriendlyUrl(MerchantStore store,String seUrl, Locale locale);
@@ -45,4 +58,25 @@ public interface ProductRepositoryCustom {
 		List<Product> getProductsForLocale(MerchantStore store,
 				Set<Long> categoryIds, Language language, Locale locale);
 
+		/**
+		 * Loads fully populated products (descriptions, availabilities, prices,
+		 * categories, images, relationships, attributes and type) using one query per
+		 * collection instead of a single fetch join query. Products are returned
+		 * in the order of the supplied ids, unknown ids are ignored.
+		 */
+		@Transactional(readOnly = true)
+		List<Product> getByIds(List<Long> productIds);
+
+		/**
+		 * Products of a store by sku with their descriptions, availabilities
+		 * and prices, one query per collection for all the skus.
+		 */
+		List<Product> getBySkus(MerchantStore store, Collection<String> skus);
+
+		/**
+		 * Sends pending statements and detaches every entity of the persistence
+		 * context, used between the chunks of bulk writes.
+		 */
+		void flushAndClear();
+
 }
@@ -1,10 +1,17 @@
 package com.salesmanager.core.business.repositories.catalog.product;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
@@ -13,6 +20,7 @@ import javax.persistence.PersistenceContext;
 import javax.persistence.Query;
 
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.collections4.ListUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,8 +29,10 @@ import com.salesmanager.core.business.constants.Constants;
 import com.salesmanager.core.business.utils.RepositoryHelper;
 import com.salesmanager.core.model.catalog.product.Product;
 import com.salesmanager.core.model.catalog.product.ProductCriteria;
+import com.salesmanager.core.model.catalog.product.ProductCursor;
 import com.salesmanager.core.model.catalog.product.ProductList;
 import com.salesmanager.core.model.catalog.product.attribute.AttributeCriteria;
+import com.salesmanager.core.model.common.CountMode;
 import com.salesmanager.core.model.common.GenericEntityList;
 import com.salesmanager.core.model.merchant.MerchantStore;
 import com.salesmanager.core.model.reference.language.Language;
@@ -32,6 +42,9 @@ public class ProductRepositoryImpl implements ProductRepositoryCustom {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(ProductRepositoryImpl.class);
 
+	/** maximum number of product ids bound in a single in clause **/
+	private static final int BATCH_SIZE = 500;
+
 	@PersistenceContext
 	private EntityManager em;
 
@@ -73,36 +86,10 @@ public class ProductRepositoryImpl implements ProductRepositoryCustom {
 			List<Integer> ids = new ArrayList<Integer>();
 
 			StringBuilder qs = new StringBuilder();
-			/*qs.append("select distinct p from Product as p ");
-			qs.append("join fetch p.availabilities pa ");
-			qs.append("join fetch p.merchantStore merch ");
-			qs.append("join fetch p.descriptions pd ");
-
-			qs.append("left join fetch p.categories categs ");
-			qs.append("left join fetch categs.descriptions categsd ");
-
-			qs.append("left join fetch pa.prices pap ");
-			qs.append("left join fetch pap.descriptions papd ");
-
-			// images
-			qs.append("left join fetch p.images images ");
-			// options
-			qs.append("left join fetch p.attributes pattr ");
-			qs.append("left join fetch pattr.productOption po ");
-			qs.append("left join fetch po.descriptions pod ");
-			qs.append("left join fetch pattr.productOptionValue pov ");
-			qs.append("left join fetch pov.descriptions povd ");
-			qs.append("left join fetch p.relationships pr ");
-			// other lefts
-			qs.append("left join fetch p.manufacturer manuf ");
-			qs.append("left join fetch manuf.descriptions manufd ");
-			qs.append("left join fetch p.type type ");
-			qs.append("left join fetch p.taxClass tx ");
-
-			// RENTAL
-			qs.append("left join fetch p.owner owner ");*/
-
-			qs.append(productQuery());
+			qs.append("select distinct p.id from Product as p ");
+			qs.append("join p.availabilities pa ");
+			qs.append("join p.merchantStore merch ");
+			qs.append("join p.descriptions pd ");
 
 			qs.append("where p.id=:pid");
 			if (merchant != null) {
@@ -115,7 +102,6 @@ public class ProductRepositoryImpl implements ProductRepositoryCustom {
 			}
 
 			if(merchantId != null) {
-				//qs.append(" and merch.id=:mid");
 				qs.append(" and merch.id in (:mid)");
 			}
 
@@ -123,16 +109,12 @@ public class ProductRepositoryImpl implements ProductRepositoryCustom {
 			Query q = this.em.createQuery(hql);
 
 			q.setParameter("pid", productId);
-			//if (merchant != null) {
-				//q.setParameter("mid", merchant.getId());
-			//}
 
 			if(merchantId != null) {
-				//q.setParameter("mid", merchant.getId());
 				q.setParameter("mid", ids);
 			}
 
-			return (Product) q.getSingleResult();
+			return load((Long) q.getSingleResult());
 
 		} catch (javax.persistence.NoResultException ers) {
 			return null;
@@ -146,38 +128,15 @@ public class ProductRepositoryImpl implements ProductRepositoryCustom {
 		try {
 
 			StringBuilder qs = new StringBuilder();
-			qs.append("select distinct p from Product as p ");
-			qs.append("join fetch p.availabilities pa ");
-			qs.append("join fetch p.descriptions pd ");
-			qs.append("join fetch p.merchantStore pm ");
-			qs.append("left join fetch pa.prices pap ");
-			qs.append("left join fetch pap.descriptions papd ");
-
-			qs.append("left join fetch p.categories categs ");
-			qs.append("left join fetch categs.descriptions categsd ");
-
-			// images
-			qs.append("left join fetch p.images images ");
-			// options
-			qs.append("left join fetch p.attributes pattr ");
-			qs.append("left join fetch pattr.productOption po ");
-			qs.append("left join fetch po.descriptions pod ");
-			qs.append("left join fetch pattr.productOptionValue pov ");
-			qs.append("left join fetch pov.descriptions povd ");
-			qs.append("left join fetch p.relationships pr ");
-			// other lefts
-			qs.append("left join fetch p.manufacturer manuf ");
-			qs.append("left join fetch manuf.descriptions manufd ");
-			qs.append("left join fetch p.type type ");
-			qs.append("left join fetch p.taxClass tx ");
-
-			// RENTAL
-			//qs.append("left join fetch p.owner owner ");
+			qs.append("select distinct p.id from Product as p ");
+			qs.append("join p.availabilities pa ");
+			qs.append("join p.descriptions pd ");
+			qs.append("join p.merchantStore pm ");
+			qs.append("left join pa.prices pap ");
+			qs.append("left join pap.descriptions papd ");
 
 			qs.append("where p.sku=:code ");
 			qs.append("and pd.language.id=:lang and papd.language.id=:lang");
-			// this cannot be done on child elements from left join
-			// qs.append("and pod.languageId=:lang and povd.languageId=:lang");
 
 			String hql = qs.toString();
 			Query q = this.em.createQuery(hql);
@@ -185,7 +144,7 @@ public class ProductRepositoryImpl implements ProductRepositoryCustom {
 			q.setParameter("code", productCode);
 			q.setParameter("lang", language.getId());
 
-			return (Product) q.getSingleResult();
+			return load((Long) q.getSingleResult());
 
 		} catch (javax.persistence.NoResultException ers) {
 			return null;
@@ -242,38 +201,14 @@ public class ProductRepositoryImpl implements ProductRepositoryCustom {
 		regionList.add(locale.getCountry());
 
 		StringBuilder qs = new StringBuilder();
-		qs.append("select distinct p from Product as p ");
-		qs.append("join fetch p.availabilities pa ");
-		qs.append("join fetch p.descriptions pd ");
-		qs.append("join fetch p.merchantStore pm ");
-		qs.append("left join fetch pa.prices pap ");
-		qs.append("left join fetch pap.descriptions papd ");
-
-		qs.append("left join fetch p.categories categs ");
-		qs.append("left join fetch categs.descriptions categsd ");
-
-		// images
-		qs.append("left join fetch p.images images ");
-		// options
-		qs.append("left join fetch p.attributes pattr ");
-		qs.append("left join fetch pattr.productOption po ");
-		qs.append("left join fetch po.descriptions pod ");
-		qs.append("left join fetch pattr.productOptionValue pov ");
-		qs.append("left join fetch pov.descriptions povd ");
-		qs.append("left join fetch p.relationships pr ");
-		// other lefts
-		qs.append("left join fetch p.manufacturer manuf ");
-		qs.append("left join fetch manuf.descriptions manufd ");
-		qs.append("left join fetch p.type type ");
-		qs.append("left join fetch p.taxClass tx ");
-
-		// RENTAL
-		//qs.append("left join fetch p.owner owner ");
+		qs.append("select distinct p.id from Product as p ");
+		qs.append("join p.availabilities pa ");
+		qs.append("join p.descriptions pd ");
+		qs.append("join p.merchantStore pm ");
 
 		qs.append("where pa.region in (:lid) ");
 		qs.append("and pd.seUrl=:seUrl ");
 		qs.append("and p.available=true and p.dateAvailable<=:dt ");
-		qs.append("order by pattr.productOptionSortOrder ");
 
 		String hql = qs.toString();
 		Query q = this.em.createQuery(hql);
@@ -282,20 +217,16 @@ public class ProductRepositoryImpl implements ProductRepositoryCustom {
 		q.setParameter("dt", new Date());
 		q.setParameter("seUrl", seUrl);
 
-		Product p = null;
-
-		try {
-			List<Product> products = q.getResultList();
-			if (products.size() > 1) {
-				LOGGER.error("Found multiple products for list of criterias with main criteria [" + seUrl + "]");
-			}
-			// p = (Product)q.getSingleResult();
-			p = products.get(0);
-		} catch (javax.persistence.NoResultException ignore) {
-
+		@SuppressWarnings("unchecked")
+		List<Long> ids = q.getResultList();
+		if (ids.isEmpty()) {
+			return null;
+		}
+		if (ids.size() > 1) {
+			LOGGER.error("Found multiple products for list of criterias with main criteria [" + seUrl + "]");
 		}
 
-		return p;
+		return load(ids.get(0));
 
 	}
 
@@ -488,8 +419,12 @@ public class ProductRepositoryImpl implements ProductRepositoryCustom {
 
 	@Override
 	public List<Product> getProductsListByIds(Set<Long> productds) {
+		if (CollectionUtils.isEmpty(productds)) {
+			return new ArrayList<Product>();
+		}
+
 		StringBuilder qs = new StringBuilder();
-		qs.append(productQuery());
+		qs.append("select p.id from Product as p ");
 		qs.append("where p.id in (:pid) ");
 		qs.append("and p.available=true and p.dateAvailable<=:dt ");
 
@@ -499,7 +434,9 @@ public class ProductRepositoryImpl implements ProductRepositoryCustom {
 		q.setParameter("pid", productds);
 		q.setParameter("dt", new Date());
 
-		return q.getResultList();
+		@SuppressWarnings("unchecked")
+		List<Long> ids = q.getResultList();
+		return getByIds(ids);
 	}
 
 	/**
@@ -957,6 +894,202 @@ public class ProductRepositoryImpl implements ProductRepositoryCustom {
 
 	}
 
+	@Override
+	public ProductList listByCursor(MerchantStore store, Language language, ProductCriteria criteria) {
+
+		ProductList productList = new ProductList();
+		ProductCursor after = criteria.getAfter();
+		CountMode countMode = criteria.getCountMode() != null ? criteria.getCountMode() : CountMode.EXACT;
+		int pageSize = criteria.getPageSize() > 0 ? criteria.getPageSize() : 10;
+
+		StringBuilder from = new StringBuilder();
+		StringBuilder where = new StringBuilder();
+		appendFilters(from, where, criteria);
+
+		StringBuilder qs = new StringBuilder();
+		//rows created before sort order was mandatory can have a null SORT_ORDER
+		qs.append("select distinct p.id, coalesce(p.sortOrder, 0) from Product as p").append(from).append(where);
+		if (after != null) {
+			qs.append(" and (coalesce(p.sortOrder, 0) > :afterSort or (coalesce(p.sortOrder, 0) = :afterSort and p.id > :afterId))");
+		}
+		qs.append(" order by coalesce(p.sortOrder, 0) asc, p.id asc");
+
+		Query q = this.em.createQuery(qs.toString());
+		bindFilters(q, store, language, criteria);
+		if (after != null) {
+			q.setParameter("afterId", after.getId());
+			q.setParameter("afterSort", after.getSortOrder());
+		}
+		//one more row tells if there is a next page
+		q.setMaxResults(pageSize + 1);
+
+		@SuppressWarnings("unchecked")
+		List<Object[]> rows = q.getResultList();
+		boolean hasNext = rows.size() > pageSize;
+		if (hasNext) {
+			rows = rows.subList(0, pageSize);
+		}
+
+		long total;
+		if (after == null && !hasNext) {
+			total = rows.size();
+		} else if (countMode == CountMode.NONE) {
+			total = -1;
+		} else if (countMode == CountMode.APPROXIMATE && after != null && after.getTotalCount() != null) {
+			total = after.getTotalCount();
+		} else {
+			Query countQ = this.em.createQuery("select count(distinct p.id) from Product as p" + from + where);
+			bindFilters(countQ, store, language, criteria);
+			total = ((Number) countQ.getSingleResult()).longValue();
+		}
+
+		productList.setTotalCount(total);
+		if (total >= 0) {
+			productList.setTotalPages((int) ((total + pageSize - 1) / pageSize));
+		}
+
+		if (hasNext) {
+			Object[] last = rows.get(rows.size() - 1);
+			productList.setNext(new ProductCursor(((Number) last[1]).intValue(), (Long) last[0],
+					countMode == CountMode.APPROXIMATE ? total : null));
+		}
+
+		List<Long> ids = rows.stream().map(r -> (Long) r[0]).collect(Collectors.toList());
+		productList.setProducts(getByIds(ids));
+
+		return productList;
+	}
+
+	/**
+	 * Joins and restrictions of cursor listings and counts, no fetch joins so
+	 * limits are applied by the database
+	 */
+	private void appendFilters(StringBuilder from, StringBuilder where, ProductCriteria criteria) {
+
+		from.append(" inner join p.descriptions pd");
+		where.append(" where p.merchantStore.id=:mId");
+
+		if (hasLanguage(criteria)) {
+			where.append(" and pd.language.code=:lang");
+		}
+
+		if (!CollectionUtils.isEmpty(criteria.getProductIds())) {
+			where.append(" and p.id in (:pId)");
+		}
+
+		if (!StringUtils.isBlank(criteria.getProductName())) {
+			where.append(" and lower(pd.name) like :nm");
+		}
+
+		if (!CollectionUtils.isEmpty(criteria.getCategoryIds())) {
+			from.append(" inner join p.categories categs");
+			where.append(" and categs.id in (:cid)");
+		}
+
+		if (criteria.getManufacturerId() != null) {
+			where.append(" and p.manufacturer.id = :manufid");
+		}
+
+		if (!StringUtils.isBlank(criteria.getCode())) {
+			where.append(" and lower(p.sku) like :sku");
+		}
+
+		if (hasAttributeFilter(criteria) || hasOptionValueFilter(criteria)) {
+			from.append(" inner join p.attributes pattr");
+			from.append(" inner join pattr.productOption po");
+			from.append(" inner join pattr.productOptionValue pov");
+			from.append(" inner join pov.descriptions povd");
+
+			if (hasAttributeFilter(criteria)) {
+				int cnt = 0;
+				for (AttributeCriteria attributeCriteria : criteria.getAttributeCriteria()) {
+					where.append(" and po.code =:").append(attributeCriteria.getAttributeCode());
+					where.append(" and povd.description like :").append("val").append(cnt)
+							.append(attributeCriteria.getAttributeCode());
+					cnt++;
+				}
+				if (hasLanguage(criteria)) {
+					where.append(" and povd.language.code=:lang");
+				}
+			}
+
+			if (hasOptionValueFilter(criteria)) {
+				where.append(" and pov.id in (:povid)");
+			}
+		}
+
+		if (criteria.getAvailable() != null) {
+			if (criteria.getAvailable()) {
+				where.append(" and p.available=true and p.dateAvailable<=:dt");
+			} else {
+				where.append(" and (p.available=false or p.dateAvailable>:dt)");
+			}
+		}
+	}
+
+	private void bindFilters(Query q, MerchantStore store, Language language, ProductCriteria criteria) {
+
+		q.setParameter("mId", store.getId());
+
+		if (hasLanguage(criteria)) {
+			q.setParameter("lang", language.getCode());
+		}
+
+		if (!CollectionUtils.isEmpty(criteria.getProductIds())) {
+			q.setParameter("pId", criteria.getProductIds());
+		}
+
+		if (!StringUtils.isBlank(criteria.getProductName())) {
+			q.setParameter("nm", new StringBuilder().append("%").append(criteria.getProductName().toLowerCase())
+					.append("%").toString());
+		}
+
+		if (!CollectionUtils.isEmpty(criteria.getCategoryIds())) {
+			q.setParameter("cid", criteria.getCategoryIds());
+		}
+
+		if (criteria.getManufacturerId() != null) {
+			q.setParameter("manufid", criteria.getManufacturerId());
+		}
+
+		if (!StringUtils.isBlank(criteria.getCode())) {
+			q.setParameter("sku",
+					new StringBuilder().append("%").append(criteria.getCode().toLowerCase()).append("%").toString());
+		}
+
+		if (hasAttributeFilter(criteria)) {
+			int cnt = 0;
+			for (AttributeCriteria attributeCriteria : criteria.getAttributeCriteria()) {
+				q.setParameter(attributeCriteria.getAttributeCode(), attributeCriteria.getAttributeCode());
+				q.setParameter("val" + cnt + attributeCriteria.getAttributeCode(),
+						"%" + attributeCriteria.getAttributeValue() + "%");
+				cnt++;
+			}
+		}
+
+		if (hasOptionValueFilter(criteria)) {
+			q.setParameter("povid", criteria.getOptionValueIds());
+		}
+
+		if (criteria.getAvailable() != null) {
+			q.setParameter("dt", new Date());
+		}
+	}
+
+	private boolean hasLanguage(ProductCriteria criteria) {
+		return criteria.getLanguage() != null && !criteria.getLanguage().equals("_all");
+	}
+
+	private boolean hasAttributeFilter(ProductCriteria criteria) {
+		return ProductCriteria.ORIGIN_SHOP.equals(criteria.getOrigin())
+				&& CollectionUtils.isNotEmpty(criteria.getAttributeCriteria());
+	}
+
+	private boolean hasOptionValueFilter(ProductCriteria criteria) {
+		return ProductCriteria.ORIGIN_SHOP.equals(criteria.getOrigin())
+				&& CollectionUtils.isNotEmpty(criteria.getOptionValueIds());
+	}
+
 	@Override
 	public List<Product> listByStore(MerchantStore store) {
 
@@ -1063,44 +1196,120 @@ public class ProductRepositoryImpl implements ProductRepositoryCustom {
 
 	}
 
-	private String productQuery() {
-		StringBuilder qs = new StringBuilder();
-		qs.append("select distinct p from Product as p ");
-		qs.append("join fetch p.availabilities pa ");
-		qs.append("join fetch p.merchantStore merch ");
-		qs.append("join fetch p.descriptions pd ");
+	@Override
+	public List<Product> getByIds(List<Long> productIds) {
 
-		qs.append("left join fetch p.categories categs ");
-		qs.append("left join fetch categs.descriptions categsd ");
+		if (CollectionUtils.isEmpty(productIds)) {
+			return Collections.emptyList();
+		}
 
-		qs.append("left join fetch pa.prices pap ");
-		qs.append("left join fetch pap.descriptions papd ");
+		List<Long> ids = new ArrayList<Long>(new LinkedHashSet<Long>(productIds));
+		Map<Long, Product> products = new HashMap<Long, Product>();
+		for (List<Long> batch : ListUtils.partition(ids, BATCH_SIZE)) {
+			loadGraph(batch, products);
+		}
 
-		// images
-		qs.append("left join fetch p.images images ");
-		// options
-		qs.append("left join fetch p.attributes pattr ");
-		qs.append("left join fetch pattr.productOption po ");
-		qs.append("left join fetch po.descriptions pod ");
-		qs.append("left join fetch pattr.productOptionValue pov ");
-		qs.append("left join fetch pov.descriptions povd ");
+		return ids.stream().map(products::get).filter(Objects::nonNull).collect(Collectors.toList());
+	}
 
-		//relations
-		qs.append("left join fetch p.relationships pr ");
+	@Override
+	public List<Product> getBySkus(MerchantStore store, Collection<String> skus) {
 
-		// variants
-		//qs.append("left join fetch pa.variants pav ");
-		//qs.append("left join fetch pav.attribute pavattr ");
+		if (CollectionUtils.isEmpty(skus)) {
+			return Collections.emptyList();
+		}
 
-		// other lefts
+		List<Product> products = new ArrayList<Product>();
+		for (List<String> batch : ListUtils.partition(new ArrayList<String>(new LinkedHashSet<String>(skus)), BATCH_SIZE)) {
+			List<Product> roots = this.em.createQuery("select p from Product p "
+					+ "where p.merchantStore.id=:storeId and p.sku in (:skus)", Product.class)
+					.setParameter("storeId", store.getId())
+					.setParameter("skus", batch).getResultList();
+			if (roots.isEmpty()) {
+				continue;
+			}
+			products.addAll(roots);
+
+			List<Long> ids = roots.stream().map(Product::getId).collect(Collectors.toList());
+			fetch("select distinct p from Product p left join fetch p.descriptions where p.id in (:ids)", ids);
+			fetch("select distinct p from Product p left join fetch p.availabilities where p.id in (:ids)", ids);
+			fetch("select distinct pa from ProductAvailability pa left join fetch pa.prices "
+					+ "where pa.product.id in (:ids)", ids);
+			fetch("select distinct pap from ProductPrice pap left join fetch pap.descriptions "
+					+ "where pap.productAvailability.product.id in (:ids)", ids);
+		}
+		return products;
+	}
+
+	@Override
+	public void flushAndClear() {
+		this.em.flush();
+		this.em.clear();
+	}
+
+	private Product load(Long productId) {
+		List<Product> products = getByIds(Collections.singletonList(productId));
+		return products.isEmpty() ? null : products.get(0);
+	}
+
+	/**
+	 * Loads products with single valued associations then initializes each
+	 * collection with its own query. Entities are attached to the persistence
+	 * context so every query completes the graph of the same instances, this
+	 * returns the sum of the collections rows instead of their product.
+	 */
+	private void loadGraph(List<Long> ids, Map<Long, Product> products) {
+
+		StringBuilder qs = new StringBuilder();
+		qs.append("select p from Product as p ");
+		qs.append("join fetch p.merchantStore merch ");
 		qs.append("left join fetch p.manufacturer manuf ");
-		qs.append("left join fetch manuf.descriptions manufd ");
 		qs.append("left join fetch p.type type ");
 		qs.append("left join fetch p.taxClass tx ");
+		qs.append("where p.id in (:ids)");
 
-		// RENTAL REMOVED
-		//qs.append("left join fetch p.owner owner ");
-		return qs.toString();
+		List<Product> roots = this.em.createQuery(qs.toString(), Product.class)
+				.setParameter("ids", ids).getResultList();
+		if (roots.isEmpty()) {
+			return;
+		}
+		roots.forEach(p -> products.put(p.getId(), p));
+
+		fetch("select distinct p from Product p left join fetch p.descriptions where p.id in (:ids)", ids);
+
+		// availabilities and prices
+		fetch("select distinct p from Product p left join fetch p.availabilities where p.id in (:ids)", ids);
+		fetch("select distinct pa from ProductAvailability pa left join fetch pa.prices "
+				+ "where pa.product.id in (:ids)", ids);
+		fetch("select distinct pap from ProductPrice pap left join fetch pap.descriptions "
+				+ "where pap.productAvailability.product.id in (:ids)", ids);
+
+		// categories
+		fetch("select distinct p from Product p left join fetch p.categories where p.id in (:ids)", ids);
+		fetch("select distinct c from Category c left join fetch c.descriptions "
+				+ "where c.id in (select pc.id from Product pp join pp.categories pc where pp.id in (:ids))", ids);
+
+		fetch("select distinct p from Product p left join fetch p.images where p.id in (:ids)", ids);
+		fetch("select distinct p from Product p left join fetch p.relationships where p.id in (:ids)", ids);
+
+		// options
+		fetch("select distinct p from Product p left join fetch p.attributes pattr "
+				+ "left join fetch pattr.productOption left join fetch pattr.productOptionValue "
+				+ "where p.id in (:ids)", ids);
+		fetch("select distinct po from ProductOption po left join fetch po.descriptions "
+				+ "where po.id in (select pattr.productOption.id from ProductAttribute pattr where pattr.product.id in (:ids))", ids);
+		fetch("select distinct pov from ProductOptionValue pov left join fetch pov.descriptions "
+				+ "where pov.id in (select pattr.productOptionValue.id from ProductAttribute pattr where pattr.product.id in (:ids))", ids);
+
+		fetch("select distinct m from Manufacturer m left join fetch m.descriptions "
+				+ "where m.id in (select pp.manufacturer.id from Product pp where pp.id in (:ids))", ids);
+		fetch("select distinct t from ProductType t left join fetch t.descriptions "
+				+ "where t.id in (select pp.type.id from Product pp where pp.id in (:ids))", ids);
+
+	}
+
+	private void fetch(String hql, List<Long> ids) {
+		this.em.createQuery(hql).setParameter("ids", ids).getResultList();
 	}
 
 }
@@ -1,10 +1,13 @@
 package com.salesmanager.core.business.repositories.catalog.product.availability;
 
+import java.util.List;
+import java.util.Set;
+
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import com.salesmanager.core.model.catalog.product.availability.ProductAvailability;
 
-public interface ProductAvailabilityRepository extends JpaRepository<ProductAvailability, Long> {
+public interface ProductAvailabilityRepository extends JpaRepository<ProductAvailability, Long>, ProductAvailabilityRepositoryCustom {
   
   @Query("select count(distinct p) from ProductAvailability as p where p.product.id=?1")
   int count(Long productId);
@@ -52,4 +55,26 @@ public interface ProductAvailabilityRepository extends JpaRepository<ProductAvai
       + "and p.id=?2")
   ProductAvailability getByStore(Long productId, Long inventory);
 
+  /**
+   * Lightweight inventory lookup returning [availability id, product id, region, product id]
+   */
+  @Query(value = "select p.id, ppr.id, p.region, ppr.id from ProductAvailability p "
+      + "join p.product ppr "
+      + "join ppr.merchantStore pprm "
+      + "where ppr.id in ?1 "
+      + "and pprm.id=?2 "
+      + "order by p.id")
+  List<Object[]> listInventoryByProductIds(Set<Long> productIds, Integer merchantId);
+  
+  /**
+   * Lightweight inventory lookup returning [availability id, product sku, region, product id]
+   */
+  @Query(value = "select p.id, ppr.sku, p.region, ppr.id from ProductAvailability p "
+      + "join p.product ppr "
+      + "join ppr.merchantStore pprm "
+      + "where ppr.sku in ?1 "
+      + "and pprm.id=?2 "
+      + "order by p.id")
+  List<Object[]> listInventoryBySkus(Set<String> skus, Integer merchantId);
+
 }
@@ -0,0 +1,23 @@
+package com.salesmanager.core.business.repositories.catalog.product.availability;
+
+import java.util.Map;
+
+public interface ProductAvailabilityRepositoryCustom {
+
+	/**
+	 * Conditional decrement of quantities issued as a single statement
+	 * quantity = quantity - ? where quantity >= ?
+	 * @param quantities availability id / quantity
+	 * @return number of rows updated, less than the number of entries
+	 * when at least one row does not have enough quantity
+	 */
+	int decrementQuantities(Map<Long, Integer> quantities);
+
+	/**
+	 * Puts quantities back in a single statement
+	 * @param quantities availability id / quantity
+	 * @return number of rows updated
+	 */
+	int incrementQuantities(Map<Long, Integer> quantities);
+
+}
@@ -0,0 +1,75 @@
+package com.salesmanager.core.business.repositories.catalog.product.availability;
+
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+
+import org.apache.commons.lang3.StringUtils;
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.factory.annotation.Value;
+
+import com.salesmanager.core.model.catalog.product.availability.ProductAvailability;
+
+public class ProductAvailabilityRepositoryImpl implements ProductAvailabilityRepositoryCustom {
+
+	private static final String TABLE = "PRODUCT_AVAILABILITY";
+
+	@PersistenceContext
+	private EntityManager em;
+
+	@Value("${db.schema}")
+	private String schema;
+
+	@Override
+	public int decrementQuantities(Map<Long, Integer> quantities) {
+		if (quantities.isEmpty()) {
+			return 0;
+		}
+		String delta = caseExpression(quantities);
+		String sql = "update " + table() + " set QUANTITY = QUANTITY - " + delta
+				+ " where PRODUCT_AVAIL_ID in (:ids) and QUANTITY >= " + delta;
+		return execute(sql, quantities);
+	}
+
+	@Override
+	public int incrementQuantities(Map<Long, Integer> quantities) {
+		if (quantities.isEmpty()) {
+			return 0;
+		}
+		String sql = "update " + table() + " set QUANTITY = QUANTITY + " + caseExpression(quantities)
+				+ " where PRODUCT_AVAIL_ID in (:ids)";
+		return execute(sql, quantities);
+	}
+
+	private int execute(String sql, Map<Long, Integer> quantities) {
+		Query q = em.createNativeQuery(sql);
+		int i = 0;
+		for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+			q.setParameter("id" + i, entry.getKey());
+			q.setParameter("qty" + i, entry.getValue());
+			i++;
+		}
+		q.setParameter("ids", quantities.keySet());
+		// only evict ProductAvailability from second level cache
+		q.unwrap(NativeQuery.class).addSynchronizedEntityClass(ProductAvailability.class);
+		return q.executeUpdate();
+	}
+
+	/**
+	 * case PRODUCT_AVAIL_ID when :id0 then :qty0 ... end
+	 */
+	private String caseExpression(Map<Long, Integer> quantities) {
+		StringBuilder expression = new StringBuilder("(case PRODUCT_AVAIL_ID");
+		for (int i = 0; i < quantities.size(); i++) {
+			expression.append(" when :id").append(i).append(" then :qty").append(i);
+		}
+		return expression.append(" else 0 end)").toString();
+	}
+
+	private String table() {
+		return StringUtils.isBlank(schema) ? TABLE : schema + "." + TABLE;
+	}
+
+}
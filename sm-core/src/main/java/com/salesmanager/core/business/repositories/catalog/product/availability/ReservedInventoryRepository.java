@@ -0,0 +1,27 @@
+package com.salesmanager.core.business.repositories.catalog.product.availability;
+
+import java.util.Date;
+import java.util.List;
+
+import javax.persistence.LockModeType;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+
+import com.salesmanager.core.model.catalog.product.availability.ReservedInventory;
+
+public interface ReservedInventoryRepository extends JpaRepository<ReservedInventory, String> {
+
+	/**
+	 * Locks the reservation so that it is committed or released only once,
+	 * by this node or another
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select r from ReservedInventory r where r.id = ?1")
+	ReservedInventory findForUpdate(String id);
+
+	@Query("select r.id from ReservedInventory r where r.expires <= ?1")
+	List<String> listExpired(Date date);
+
+}
@@ -1,7 +1,9 @@
 package com.salesmanager.core.business.repositories.customer;
 
+import java.util.Date;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
@@ -75,6 +77,21 @@ public interface CustomerRepository extends JpaRepository<Customer, Long>, Custo
 	
 	@Query("select distinct c from Customer c join fetch c.merchantStore cm left join fetch c.defaultLanguage cl left join fetch c.attributes ca left join fetch ca.customerOption cao left join fetch ca.customerOptionValue cav left join fetch cao.descriptions caod left join fetch cav.descriptions left join fetch c.groups  where cm.id = ?1")
 	List<Customer> findByStore(int storeId);
+
+	/** customer with its store and billing country **/
+	@Query("select c from Customer c join fetch c.merchantStore cm left join fetch c.billing.country where c.id = ?1")
+	Customer findWithBilling(Long id);
+
+	/** customers following the given id, for walking all the customers by pages **/
+	@Query("select c from Customer c join fetch c.merchantStore cm left join fetch c.billing.country where c.id > ?1 order by c.id")
+	List<Customer> listAfter(Long id, Pageable pageable);
+
+	@Query("select c from Customer c join fetch c.merchantStore cm left join fetch c.billing.country where cm.id = ?1 and c.id > ?2 order by c.id")
+	List<Customer> listAfter(Integer storeId, Long id, Pageable pageable);
+
+	/** customers changed since the date, including those changed by other nodes **/
+	@Query("select c.id from Customer c where c.auditSection.dateModified >= ?1")
+	List<Long> listModifiedSince(Date date);
 	
 
 }
@@ -1,5 +1,10 @@
 package com.salesmanager.core.business.repositories.customer;
 
+import java.util.List;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import com.salesmanager.core.model.customer.Customer;
 import com.salesmanager.core.model.customer.CustomerCriteria;
 import com.salesmanager.core.model.customer.CustomerList;
 import com.salesmanager.core.model.merchant.MerchantStore;
@@ -8,7 +13,18 @@ import com.salesmanager.core.model.merchant.MerchantStore;
 
 public interface CustomerRepositoryCustom {
 
+	/**
+	 * Selects a page of customer ids, limited by the database, then
+	 * loads the customers of the page with one query per collection.
+	 */
+	@Transactional(readOnly = true)
 	CustomerList listByStore(MerchantStore store, CustomerCriteria criteria);
+
+	/**
+	 * Customers of a page, in the order of the ids, loaded like the listing
+	 */
+	@Transactional(readOnly = true)
+	List<Customer> getByIds(List<Long> ids);
 	
 
 }
@@ -1,11 +1,20 @@
 package com.salesmanager.core.business.repositories.customer;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import javax.persistence.Query;
 
+import org.apache.commons.collections4.ListUtils;
 import org.apache.commons.lang3.StringUtils;
 
+import com.salesmanager.core.model.customer.Customer;
 import com.salesmanager.core.model.customer.CustomerCriteria;
 import com.salesmanager.core.model.customer.CustomerList;
 import com.salesmanager.core.model.merchant.MerchantStore;
@@ -14,6 +23,9 @@ import com.salesmanager.core.model.merchant.MerchantStore;
 public class CustomerRepositoryImpl implements CustomerRepositoryCustom {
 
 	
+	/** maximum number of ids bound in a single in clause **/
+	private static final int BATCH_SIZE = 500;
+
     @PersistenceContext
     private EntityManager em;
     
@@ -27,7 +39,7 @@ public class CustomerRepositoryImpl implements CustomerRepositoryCustom {
 		StringBuilder objectBuilderSelect = new StringBuilder();
 		
 		String baseCountQuery = "select count(c) from Customer as c";
-		String baseQuery = "select c from Customer as c  left join fetch c.delivery.country left join fetch c.delivery.zone left join fetch c.billing.country left join fetch c.billing.zone";
+		String baseQuery = "select c.id from Customer as c";
 		countBuilderSelect.append(baseCountQuery);
 		objectBuilderSelect.append(baseQuery);
 		
@@ -38,13 +50,13 @@ public class CustomerRepositoryImpl implements CustomerRepositoryCustom {
 		objectBuilderWhere.append(whereQuery);
 
 		if(!StringUtils.isBlank(criteria.getName())) {
-			String nameQuery =" and c.billing.firstName like:nm or c.billing.lastName like:nm";
+			String nameQuery =" and (c.billing.firstName like:nm or c.billing.lastName like:nm)";
 			countBuilderWhere.append(nameQuery);
 			objectBuilderWhere.append(nameQuery);
 		}
 		
 		if(!StringUtils.isBlank(criteria.getFirstName())) {
-			String nameQuery =" and c..billing.firstName like:fn";
+			String nameQuery =" and c.billing.firstName like:fn";
 			countBuilderWhere.append(nameQuery);
 			objectBuilderWhere.append(nameQuery);
 		}
@@ -67,13 +79,13 @@ public class CustomerRepositoryImpl implements CustomerRepositoryCustom {
 			objectBuilderWhere.append(countryQuery);
 		}
 		
-		objectBuilderSelect.append(" left join fetch c.attributes ca left join fetch ca.customerOption cao left join fetch ca.customerOptionValue cav left join fetch cao.descriptions caod left join fetch cav.descriptions  left join fetch c.groups");
+		objectBuilderWhere.append(" order by c.id");
 
 		//count query
 		Query countQ = em.createQuery(
 				countBuilderSelect.toString() + countBuilderWhere.toString());
 		
-		//object query
+		//id query
 		Query objectQ = em.createQuery(
 				objectBuilderSelect.toString() + objectBuilderWhere.toString());
 
@@ -121,27 +133,79 @@ public class CustomerRepositoryImpl implements CustomerRepositoryCustom {
         if(count.intValue()==0)
         	return customerList;
         
-		//TO BE USED
         int max = criteria.getMaxCount();
         int first = criteria.getStartIndex();
         
         objectQ.setFirstResult(first);
         
-        
-        
     	if(max>0) {
-    			int maxCount = first + max;
-
-			objectQ.setMaxResults(Math.min(maxCount, count.intValue()));
+			objectQ.setMaxResults(max);
     	}
 		
-		customerList.setCustomers(objectQ.getResultList());
+		customerList.setCustomers(load(objectQ.getResultList()));
 
 		return customerList;
 		
 		
 	}
 
-    
+	@Override
+	public List<Customer> getByIds(List<Long> ids) {
+		return load(ids);
+	}
+
+	/**
+	 * Loads the customers of a page once the database has limited the ids,
+	 * attributes and groups are initialized by their own queries on the
+	 * same attached instances. Customers are returned in the order of the ids.
+	 */
+	private List<Customer> load(List<Long> ids) {
+
+		if (ids.isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		Map<Long, Customer> customers = new HashMap<Long, Customer>();
+		for (List<Long> batch : ListUtils.partition(ids, BATCH_SIZE)) {
+			loadGraph(batch, customers);
+		}
+
+		return ids.stream().map(customers::get).filter(Objects::nonNull).collect(Collectors.toList());
+	}
+
+	/**
+	 * Loads the graph of a batch of customers in the map, ids are partitioned
+	 * so the in clauses stay bounded whatever the number of ids requested.
+	 */
+	private void loadGraph(List<Long> ids, Map<Long, Customer> customers) {
+
+		StringBuilder qs = new StringBuilder();
+		qs.append("select c from Customer as c ");
+		qs.append("left join fetch c.delivery.country ");
+		qs.append("left join fetch c.delivery.zone ");
+		qs.append("left join fetch c.billing.country ");
+		qs.append("left join fetch c.billing.zone ");
+		qs.append("where c.id in (:ids)");
+
+		em.createQuery(qs.toString(), Customer.class)
+				.setParameter("ids", ids).getResultList()
+				.forEach(c -> customers.put(c.getId(), c));
+
+		// attributes with their option and value descriptions
+		fetch("select distinct c from Customer c left join fetch c.attributes ca "
+				+ "left join fetch ca.customerOption left join fetch ca.customerOptionValue "
+				+ "where c.id in (:ids)", ids);
+		fetch("select distinct co from CustomerOption co left join fetch co.descriptions "
+				+ "where co.id in (select ca.customerOption.id from CustomerAttribute ca where ca.customer.id in (:ids))", ids);
+		fetch("select distinct cov from CustomerOptionValue cov left join fetch cov.descriptions "
+				+ "where cov.id in (select ca.customerOptionValue.id from CustomerAttribute ca where ca.customer.id in (:ids))", ids);
+
+		fetch("select distinct c from Customer c left join fetch c.groups where c.id in (:ids)", ids);
+	}
+
+	private void fetch(String hql, List<Long> ids) {
+		em.createQuery(hql).setParameter("ids", ids).getResultList();
+	}
+
 
 }
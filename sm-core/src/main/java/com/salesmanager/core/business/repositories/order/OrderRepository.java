@@ -1,5 +1,9 @@
 package com.salesmanager.core.business.repositories.order;
 
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
@@ -18,5 +22,16 @@ public interface OrderRepository extends JpaRepository<Order, Long>, OrderReposi
     		+ "join fetch op.orderAttributes opa "
     		+ "left join fetch op.prices opp where o.id = ?1 and om.id = ?2")
 	Order findOne(Long id, Integer merchantId);
+
+    /** orders following the given id, for walking all the orders by pages **/
+    @Query("select o from Order o join fetch o.merchant om where o.id > ?1 order by o.id")
+    List<Order> listAfter(Long id, Pageable pageable);
+
+    @Query("select o from Order o join fetch o.merchant om where om.id = ?1 and o.id > ?2 order by o.id")
+    List<Order> listAfter(Integer merchantId, Long id, Pageable pageable);
+
+    /** orders changed since the date, including those changed by other nodes **/
+    @Query("select o.id from Order o where o.lastModified >= ?1")
+    List<Long> listModifiedSince(Date date);
     
 }
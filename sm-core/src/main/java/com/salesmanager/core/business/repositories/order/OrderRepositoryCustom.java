@@ -1,6 +1,11 @@
 package com.salesmanager.core.business.repositories.order;
 
+import java.util.List;
+
+import org.springframework.transaction.annotation.Transactional;
+
 import com.salesmanager.core.model.merchant.MerchantStore;
+import com.salesmanager.core.model.order.Order;
 import com.salesmanager.core.model.order.OrderCriteria;
 import com.salesmanager.core.model.order.OrderList;
 
@@ -9,6 +14,18 @@ import com.salesmanager.core.model.order.OrderList;
 
 public interface OrderRepositoryCustom {
 
+	/**
+	 * Listings select a page of order ids, limited by the database, then
+	 * load the orders of the page with one query per collection.
+	 */
+	@Transactional(readOnly = true)
 	OrderList listByStore(MerchantStore store, OrderCriteria criteria);
+	@Transactional(readOnly = true)
 	OrderList listOrders(MerchantStore store, OrderCriteria criteria);
+
+	/**
+	 * Orders of a page, in the order of the ids, loaded like the listings
+	 */
+	@Transactional(readOnly = true)
+	List<Order> getByIds(List<Long> ids);
 }
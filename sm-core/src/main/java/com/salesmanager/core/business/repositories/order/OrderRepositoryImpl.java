@@ -1,15 +1,24 @@
 package com.salesmanager.core.business.repositories.order;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import javax.persistence.Query;
 
+import org.apache.commons.collections4.ListUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import com.salesmanager.core.business.utils.RepositoryHelper;
 import com.salesmanager.core.model.common.CriteriaOrderBy;
 import com.salesmanager.core.model.common.GenericEntityList;
 import com.salesmanager.core.model.merchant.MerchantStore;
+import com.salesmanager.core.model.order.Order;
 import com.salesmanager.core.model.order.OrderCriteria;
 import com.salesmanager.core.model.order.OrderList;
 import com.salesmanager.core.model.order.orderstatus.OrderStatus;
@@ -18,13 +27,15 @@ import com.salesmanager.core.model.order.orderstatus.OrderStatus;
 public class OrderRepositoryImpl implements OrderRepositoryCustom {
 
 	
+	/** maximum number of ids bound in a single in clause **/
+	private static final int BATCH_SIZE = 500;
+
     @PersistenceContext
     private EntityManager em;
     
     /**
      * @deprecated
      */
-	@SuppressWarnings("unchecked")
 	@Override
 	public OrderList listByStore(MerchantStore store, OrderCriteria criteria) {
 		
@@ -42,7 +53,7 @@ public class OrderRepositoryImpl implements OrderRepositoryCustom {
 		}
 		
 		String countBaseQuery = "select count(o) from Order as o";
-		String baseQuery = "select o from Order as o left join fetch o.orderTotal ot left join fetch o.orderProducts op left join fetch o.orderAttributes oa left join fetch op.orderAttributes opo left join fetch op.prices opp";
+		String baseQuery = "select o.id from Order as o";
 		countBuilderSelect.append(countBaseQuery);
 		objectBuilderSelect.append(baseQuery);
 
@@ -56,7 +67,7 @@ public class OrderRepositoryImpl implements OrderRepositoryCustom {
 		
 
 		if(!StringUtils.isBlank(criteria.getCustomerName())) {
-			String nameQuery =" and o.billing.firstName like:nm or o.billing.lastName like:nm";
+			String nameQuery =" and (o.billing.firstName like:nm or o.billing.lastName like:nm)";
 			countBuilderWhere.append(nameQuery);
 			objectBuilderWhere.append(nameQuery);
 		}
@@ -80,7 +91,7 @@ public class OrderRepositoryImpl implements OrderRepositoryCustom {
 		Query countQ = em.createQuery(
 				countBuilderSelect.toString() + countBuilderWhere.toString());
 		
-		//object query
+		//id query
 		Query objectQ = em.createQuery(
 				objectBuilderSelect.toString() + objectBuilderWhere.toString());
 
@@ -113,21 +124,16 @@ public class OrderRepositoryImpl implements OrderRepositoryCustom {
         if(count.intValue()==0)
         	return orderList;
         
-		//TO BE USED
         int max = criteria.getMaxCount();
         int first = criteria.getStartIndex();
         
         objectQ.setFirstResult(first);
         
-        
-        
     	if(max>0) {
-    			int maxCount = first + max;
-
-			objectQ.setMaxResults(Math.min(maxCount, count.intValue()));
+			objectQ.setMaxResults(max);
     	}
 		
-    	orderList.setOrders(objectQ.getResultList());
+    	orderList.setOrders(load(ids(objectQ)));
 
 		return orderList;
 		
@@ -149,7 +155,7 @@ public class OrderRepositoryImpl implements OrderRepositoryCustom {
 		}
 
 		
-		String baseQuery = "select o from Order as o left join fetch o.delivery.country left join fetch o.delivery.zone left join fetch o.billing.country left join fetch o.billing.zone left join fetch o.orderTotal ot left join fetch o.orderProducts op left join fetch o.orderAttributes oa left join fetch op.orderAttributes opo left join fetch op.prices opp";
+		String baseQuery = "select o.id from Order as o";
 		String countBaseQuery = "select count(o) from Order as o";
 		
 		countBuilderSelect.append(countBaseQuery);
@@ -162,7 +168,7 @@ public class OrderRepositoryImpl implements OrderRepositoryCustom {
 		countBuilderSelect.append(storeQuery);
 		
 		if(!StringUtils.isEmpty(criteria.getCustomerName())) {
-			String nameQuery =  " and o.billing.firstName like:name or o.billing.lastName like:name";
+			String nameQuery =  " and (o.billing.firstName like:name or o.billing.lastName like:name)";
 			objectBuilderWhere.append(nameQuery);
 			countBuilderSelect.append(nameQuery);
 		}
@@ -182,7 +188,7 @@ public class OrderRepositoryImpl implements OrderRepositoryCustom {
 		
 		//phone
 		if(!StringUtils.isEmpty(criteria.getCustomerPhone())) {
-			String nameQuery =  " and o.billing.telephone like:phone or o.delivery.telephone like:phone";
+			String nameQuery =  " and (o.billing.telephone like:phone or o.delivery.telephone like:phone)";
 			objectBuilderWhere.append(nameQuery);
 			countBuilderSelect.append(nameQuery);
 		}
@@ -200,7 +206,7 @@ public class OrderRepositoryImpl implements OrderRepositoryCustom {
 		Query countQ = em.createQuery(
 				countBuilderSelect.toString());
 
-		//object query
+		//id query
 		Query objectQ = em.createQuery(
 				objectBuilderSelect.toString() + objectBuilderWhere.toString());
 		
@@ -255,14 +261,77 @@ public class OrderRepositoryImpl implements OrderRepositoryCustom {
 		orderList.setTotalCount(entityList.getTotalCount());
 		orderList.setTotalPages(entityList.getTotalPages());
 
-		orderList.setOrders(objectQ.getResultList());
+		orderList.setOrders(load(ids(objectQ)));
 
 		return orderList;
 	}
 	
+	@Override
+	public List<Order> getByIds(List<Long> ids) {
+		return load(ids);
+	}
+	
 	private String like(String q) {
 		return '%' + q + '%';
 	}
 
+	@SuppressWarnings("unchecked")
+	private List<Long> ids(Query q) {
+		return ((List<Number>) q.getResultList()).stream().map(Number::longValue).collect(Collectors.toList());
+	}
+
+	/**
+	 * Loads the orders of a page once the database has limited the ids. Every
+	 * collection is initialized by its own query on the same attached
+	 * instances, rows read are bounded by the page instead of the product of
+	 * the collections. Orders are returned in the order of the ids.
+	 */
+	private List<Order> load(List<Long> ids) {
+
+		if (ids.isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		Map<Long, Order> orders = new HashMap<Long, Order>();
+		for (List<Long> batch : ListUtils.partition(ids, BATCH_SIZE)) {
+			loadGraph(batch, orders);
+		}
+
+		return ids.stream().map(orders::get).filter(Objects::nonNull).collect(Collectors.toList());
+	}
+
+	/**
+	 * Loads the graph of a batch of orders in the map, ids are partitioned so
+	 * the in clauses stay bounded whatever the number of ids requested.
+	 */
+	private void loadGraph(List<Long> ids, Map<Long, Order> orders) {
+
+		StringBuilder qs = new StringBuilder();
+		qs.append("select o from Order as o ");
+		qs.append("left join fetch o.delivery.country ");
+		qs.append("left join fetch o.delivery.zone ");
+		qs.append("left join fetch o.billing.country ");
+		qs.append("left join fetch o.billing.zone ");
+		qs.append("where o.id in (:ids)");
+
+		em.createQuery(qs.toString(), Order.class)
+				.setParameter("ids", ids).getResultList()
+				.forEach(o -> orders.put(o.getId(), o));
+
+		fetch("select distinct o from Order o left join fetch o.orderTotal where o.id in (:ids)", ids);
+		fetch("select distinct o from Order o left join fetch o.orderAttributes where o.id in (:ids)", ids);
+
+		// products with their attributes and prices
+		fetch("select distinct o from Order o left join fetch o.orderProducts where o.id in (:ids)", ids);
+		fetch("select distinct op from OrderProduct op left join fetch op.orderAttributes "
+				+ "where op.order.id in (:ids)", ids);
+		fetch("select distinct op from OrderProduct op left join fetch op.prices "
+				+ "where op.order.id in (:ids)", ids);
+	}
+
+	private void fetch(String hql, List<Long> ids) {
+		em.createQuery(hql).setParameter("ids", ids).getResultList();
+	}
+
 
 }
@@ -17,6 +17,10 @@ public interface CountryRepository extends JpaRepository <Country, Integer> {
 	@Query("select c from Country c left join fetch c.descriptions cd where cd.language.id=?1")
 	List<Country> listByLanguage(Integer id);
 	
+	/** all countries with descriptions in all languages **/
+	@Query("select distinct c from Country c left join fetch c.descriptions cd order by c.id")
+	List<Country> listWithDescriptions();
+	
 	/** get country including zones by language **/
 	@Query("select distinct c from Country c left join fetch c.descriptions cd left join fetch c.zones cz left join fetch cz.descriptions where cd.language.id=?1")
 	List<Country> listCountryZonesByLanguage(Integer id);
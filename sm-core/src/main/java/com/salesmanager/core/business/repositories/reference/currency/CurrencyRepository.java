@@ -1,11 +1,17 @@
 package com.salesmanager.core.business.repositories.reference.currency;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
+import javax.persistence.QueryHint;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import com.salesmanager.core.model.reference.currency.Currency;
 
 public interface CurrencyRepository extends JpaRepository <Currency, Long> {
 
 	
+	@QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
 	Currency getByCode(String code);
 }
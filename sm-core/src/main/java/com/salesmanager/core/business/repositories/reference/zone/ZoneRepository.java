@@ -1,20 +1,30 @@
 package com.salesmanager.core.business.repositories.reference.zone;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 import java.util.List;
 
+import javax.persistence.QueryHint;
+
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import com.salesmanager.core.model.reference.zone.Zone;
 
 public interface ZoneRepository extends JpaRepository<Zone, Long> {
 	
 	
+	@QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
 	Zone findByCode(String code);
 	
 	@Query("select z from Zone z left join fetch z.descriptions zd where zd.language.id=?1")
 	List<Zone> listByLanguage(Integer id);
 	
+	/** all zones with country and descriptions in all languages **/
+	@Query("select distinct z from Zone z left join fetch z.descriptions zd join fetch z.country zc order by z.id")
+	List<Zone> listWithDescriptions();
+	
 	@Query("select z from Zone z left join fetch z.descriptions zd join fetch z.country zc where zc.isoCode=?1 and zd.language.id=?2")
 	List<Zone> listByLanguageAndCountry(String isoCode, Integer languageId);
 
@@ -1,20 +1,28 @@
 package com.salesmanager.core.business.repositories.tax;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 import java.util.List;
 
+import javax.persistence.QueryHint;
+
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import com.salesmanager.core.model.tax.taxclass.TaxClass;
 
 public interface TaxClassRepository extends JpaRepository<TaxClass, Long> {
 	
+	@QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
 	@Query("select t from TaxClass t left join fetch t.merchantStore tm where tm.id=?1")
 	List<TaxClass> findByStore(Integer id);
 	
+	@QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
 	@Query("select t from TaxClass t left join fetch t.merchantStore tm where t.code=?1")
 	TaxClass findByCode(String code);
 	
+	@QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
 	@Query("select t from TaxClass t left join fetch t.merchantStore tm where tm.id=?1 and t.code=?2")
 	TaxClass findByStoreAndCode(Integer id, String code);
 
@@ -9,6 +9,7 @@ import java.util.Set;
 
 import javax.inject.Inject;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -22,6 +23,8 @@ import com.salesmanager.core.business.repositories.catalog.category.CategoryRepo
 import com.salesmanager.core.business.repositories.catalog.category.PageableCategoryRepository;
 import com.salesmanager.core.business.services.catalog.product.ProductService;
 import com.salesmanager.core.business.services.common.generic.SalesManagerEntityServiceImpl;
+import com.salesmanager.core.business.services.common.version.ContentChangedEvent;
+import com.salesmanager.core.business.services.common.version.ContentScope;
 import com.salesmanager.core.model.catalog.category.Category;
 import com.salesmanager.core.model.catalog.category.CategoryDescription;
 import com.salesmanager.core.model.catalog.product.Product;
@@ -43,6 +46,9 @@ public class CategoryServiceImpl extends SalesManagerEntityServiceImpl<Long, Cat
   @Inject
   private CategoryDescriptionRepository categoryDescriptionRepository;
 
+  @Inject
+  private ApplicationEventPublisher eventPublisher;
+
 
 
   @Inject
@@ -96,6 +102,17 @@ public class CategoryServiceImpl extends SalesManagerEntityServiceImpl<Long, Cat
 		return categoryRepository.findByIdAndLanguage(categoryId, language.getId());
 	}
 
+	@Override
+	public void save(Category category) throws ServiceException {
+		super.save(category);
+		categoryChanged(category);
+	}
+
+	private void categoryChanged(Category category) {
+		eventPublisher.publishEvent(new ContentChangedEvent(ContentScope.CATALOG,
+				category.getMerchantStore() != null ? category.getMerchantStore().getId() : null));
+	}
+
 	@Override
 	public void saveOrUpdate(Category category) throws ServiceException {
 
@@ -285,6 +302,7 @@ public class CategoryServiceImpl extends SalesManagerEntityServiceImpl<Long, Cat
 
 			Category categ = getById(category.getId(), category.getMerchantStore().getId());
 			categoryRepository.delete(categ);
+			categoryChanged(categ);
 
 		}
 
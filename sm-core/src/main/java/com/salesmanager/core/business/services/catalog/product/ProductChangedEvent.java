@@ -0,0 +1,33 @@
+package com.salesmanager.core.business.services.catalog.product;
+
+import com.salesmanager.core.model.catalog.product.Product;
+
+/**
+ * Published by catalog services when a product or one of its
+ * prices, availabilities, attributes or images is written.
+ * Listeners maintaining product read models should evict the product.
+ */
+public class ProductChangedEvent {
+
+	private final Long productId;
+	private final Integer merchantStoreId;
+
+	public ProductChangedEvent(Long productId, Integer merchantStoreId) {
+		this.productId = productId;
+		this.merchantStoreId = merchantStoreId;
+	}
+
+	public static ProductChangedEvent of(Product product) {
+		return new ProductChangedEvent(product.getId(),
+				product.getMerchantStore() != null ? product.getMerchantStore().getId() : null);
+	}
+
+	public Long getProductId() {
+		return productId;
+	}
+
+	public Integer getMerchantStoreId() {
+		return merchantStoreId;
+	}
+
+}
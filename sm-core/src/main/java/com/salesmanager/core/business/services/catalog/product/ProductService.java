@@ -36,6 +36,14 @@ public interface ProductService extends SalesManagerEntityService<Long, Product>
 
 	List<Product> getProductsByIds(List<Long> productIds) throws ServiceException;
 
+	/**
+	 * Products with every association used by listings, loaded with a fixed
+	 * number of queries whatever the number of ids. Returned in the order of the ids.
+	 * @param productIds
+	 * @return
+	 */
+	List<Product> getListingProducts(List<Long> productIds);
+
 	/**
 	 * Get a product with only MerchantStore object
 	 * @param productId
@@ -59,6 +67,16 @@ public interface ProductService extends SalesManagerEntityService<Long, Product>
 	Page<Product> listByStore(MerchantStore store, Language language,
 			ProductCriteria criteria, int page, int count);
 
+	/**
+	 * Keyset (cursor) listing, see ProductCriteria after and countMode
+	 * @param store
+	 * @param language
+	 * @param criteria
+	 * @return products of the page and the cursor of the next page
+	 */
+	ProductList listByCursor(MerchantStore store, Language language,
+			ProductCriteria criteria);
+
 	List<Product> listByStore(MerchantStore store);
 
 	List<Product> listByTaxClass(TaxClass taxClass);
@@ -15,6 +15,7 @@ import javax.inject.Inject;
 import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -56,6 +57,9 @@ public class ProductServiceImpl extends SalesManagerEntityServiceImpl<Long, Prod
 
 	ProductRepository productRepository;
 
+	@Inject
+	private ApplicationEventPublisher eventPublisher;
+
 	@Inject
 	CategoryService categoryService;
 
@@ -128,6 +132,11 @@ public class ProductServiceImpl extends SalesManagerEntityServiceImpl<Long, Prod
 		return productRepository.getProductsListByIds(idSet);
 	}
 
+	@Override
+	public List<Product> getListingProducts(List<Long> productIds) {
+		return productRepository.getByIds(productIds);
+	}
+
 	@Override
 	public Product getProductWithOnlyMerchantStoreById(Long productId) {
 		return productRepository.getProductWithOnlyMerchantStoreById(productId);
@@ -202,6 +211,12 @@ public class ProductServiceImpl extends SalesManagerEntityServiceImpl<Long, Prod
 		return productRepository.listByStore(store, language, criteria);
 	}
 
+	@Override
+	public ProductList listByCursor(MerchantStore store, Language language, ProductCriteria criteria) {
+
+		return productRepository.listByCursor(store, language, criteria);
+	}
+
 	@Override
 	public List<Product> listByStore(MerchantStore store) {
 
@@ -249,6 +264,7 @@ public class ProductServiceImpl extends SalesManagerEntityServiceImpl<Long, Prod
 
 		super.delete(product);
 		searchService.deleteIndex(product.getMerchantStore(), product);
+		productChanged(product);
 
 	}
 
@@ -264,6 +280,12 @@ public class ProductServiceImpl extends SalesManagerEntityServiceImpl<Long, Prod
 		searchService.index(product.getMerchantStore(), product);
 	}
 
+	private void productChanged(Product product) {
+		if (product != null) {
+			eventPublisher.publishEvent(ProductChangedEvent.of(product));
+		}
+	}
+
 	private void saveOrUpdate(Product product) throws ServiceException {
 		LOGGER.debug("Save or update product ");
 		Validate.notNull(product, "product cannot be null");
@@ -338,6 +360,8 @@ public class ProductServiceImpl extends SalesManagerEntityServiceImpl<Long, Prod
 			LOGGER.error("Cannot save images " + e.getMessage());
 		}
 
+		productChanged(product);
+
 	}
 
 	@Override
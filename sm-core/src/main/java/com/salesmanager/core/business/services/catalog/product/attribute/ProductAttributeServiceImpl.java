@@ -5,6 +5,7 @@ import java.util.List;
 import javax.inject.Inject;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -13,6 +14,7 @@ import org.springframework.stereotype.Service;
 import com.salesmanager.core.business.exception.ServiceException;
 import com.salesmanager.core.business.repositories.catalog.product.attribute.PageableProductAttributeRepository;
 import com.salesmanager.core.business.repositories.catalog.product.attribute.ProductAttributeRepository;
+import com.salesmanager.core.business.services.catalog.product.ProductChangedEvent;
 import com.salesmanager.core.business.services.common.generic.SalesManagerEntityServiceImpl;
 import com.salesmanager.core.model.catalog.product.Product;
 import com.salesmanager.core.model.catalog.product.attribute.ProductAttribute;
@@ -27,6 +29,9 @@ public class ProductAttributeServiceImpl extends
 	@Autowired
 	private PageableProductAttributeRepository pageableProductAttributeRepository;
 
+	@Inject
+	private ApplicationEventPublisher eventPublisher;
+
 	@Inject
 	public ProductAttributeServiceImpl(ProductAttributeRepository productAttributeRepository) {
 		super(productAttributeRepository);
@@ -91,6 +96,7 @@ public class ProductAttributeServiceImpl extends
 	public void saveOrUpdate(ProductAttribute productAttribute)
 			throws ServiceException {
 			productAttributeRepository.save(productAttribute);
+			productChanged(productAttribute);
 
 	}
 	
@@ -100,9 +106,16 @@ public class ProductAttributeServiceImpl extends
 		//override method, this allows the error that we try to remove a detached instance
 		attribute = this.getById(attribute.getId());
 		super.delete(attribute);
+		productChanged(attribute);
 		
 	}
 
+	private void productChanged(ProductAttribute attribute) {
+		if (attribute.getProduct() != null) {
+			eventPublisher.publishEvent(ProductChangedEvent.of(attribute.getProduct()));
+		}
+	}
+
   @Override
   public List<ProductAttribute> getProductAttributesByCategoryLineage(MerchantStore store,
       String lineage, Language language) throws Exception {
@@ -0,0 +1,70 @@
+package com.salesmanager.core.business.services.catalog.product.availability;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Quantities withdrawn from inventory for a pending order.
+ * A reservation is either committed (quantities stay withdrawn)
+ * or released (quantities are put back) before it expires.
+ * @author carlsamson
+ *
+ */
+public class InventoryReservation implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+	
+	private final String id;
+	private final Integer merchantId;
+	private final Map<Long, Integer> quantities;
+	private final Set<Long> productIds;
+	private final long created;
+	private final long expires;
+	
+	public InventoryReservation(String id, Integer merchantId, Map<Long, Integer> quantities, Set<Long> productIds,
+			long created, long ttl) {
+		this.id = id;
+		this.merchantId = merchantId;
+		this.quantities = Collections.unmodifiableMap(quantities);
+		this.productIds = Collections.unmodifiableSet(productIds);
+		this.created = created;
+		this.expires = created + ttl;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public Integer getMerchantId() {
+		return merchantId;
+	}
+
+	/**
+	 * @return ProductAvailability id / reserved quantity
+	 */
+	public Map<Long, Integer> getQuantities() {
+		return quantities;
+	}
+
+	/**
+	 * @return Product ids having reserved quantities
+	 */
+	public Set<Long> getProductIds() {
+		return productIds;
+	}
+
+	public long getCreated() {
+		return created;
+	}
+
+	public long getExpires() {
+		return expires;
+	}
+	
+	public boolean isExpired(long now) {
+		return now >= expires;
+	}
+
+}
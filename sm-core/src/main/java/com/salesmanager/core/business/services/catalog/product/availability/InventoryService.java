@@ -0,0 +1,84 @@
+package com.salesmanager.core.business.services.catalog.product.availability;
+
+import java.util.List;
+import java.util.Map;
+
+import com.salesmanager.core.business.exception.ServiceException;
+import com.salesmanager.core.business.services.common.generic.TransactionalAspectAwareService;
+import com.salesmanager.core.model.merchant.MerchantStore;
+import com.salesmanager.core.model.order.Order;
+import com.salesmanager.core.model.shoppingcart.ShoppingCartItem;
+
+/**
+ * Inventory reservation. Quantities are withdrawn from ProductAvailability
+ * rows with a conditional update (quantity >= requested) so that concurrent
+ * orders cannot oversell. All lines of an order are reserved in one statement,
+ * when one line cannot be served nothing is withdrawn and a
+ * ServiceException EXCEPTION_INVENTORY_MISMATCH is thrown.
+ * 
+ * Quantities are withdrawn (and put back) in their own transaction,
+ * availability rows are not locked by the transaction of the caller.
+ * A reservation is released when the transaction of the caller rolls back.
+ * 
+ * Reservations are stored with the withdrawn quantities, those that are
+ * neither committed nor released before their ttl are released
+ * automatically, also when the node holding them has stopped.
+ * @author carlsamson
+ *
+ */
+public interface InventoryService extends TransactionalAspectAwareService {
+	
+	/**
+	 * Reserves shopping cart items quantities using the default ttl
+	 * @param store
+	 * @param items
+	 * @return
+	 * @throws ServiceException
+	 */
+	InventoryReservation reserve(MerchantStore store, List<ShoppingCartItem> items) throws ServiceException;
+	
+	/**
+	 * Reserves order products quantities (resolved by sku) using the default ttl
+	 * @param order
+	 * @return
+	 * @throws ServiceException
+	 */
+	InventoryReservation reserve(Order order) throws ServiceException;
+	
+	/**
+	 * Reserves quantities by product
+	 * @param store
+	 * @param quantities product id / quantity
+	 * @param ttl reservation time to live in ms
+	 * @return
+	 * @throws ServiceException
+	 */
+	InventoryReservation reserve(MerchantStore store, Map<Long, Integer> quantities, long ttl) throws ServiceException;
+	
+	/**
+	 * Quantities stay withdrawn, the reservation is discarded
+	 * @param reservationId
+	 * @throws ServiceException
+	 */
+	void commit(String reservationId) throws ServiceException;
+	
+	/**
+	 * Quantities are put back in inventory
+	 * @param reservationId
+	 * @throws ServiceException
+	 */
+	void release(String reservationId) throws ServiceException;
+	
+	/**
+	 * Releases reservations passed their ttl
+	 * @return number of released reservations
+	 */
+	int releaseExpired();
+	
+	/**
+	 * Number of pending reservations
+	 * @return
+	 */
+	int pendingReservations();
+
+}
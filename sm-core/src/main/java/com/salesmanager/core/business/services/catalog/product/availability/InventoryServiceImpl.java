@@ -0,0 +1,267 @@
+package com.salesmanager.core.business.services.catalog.product.availability;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import javax.inject.Inject;
+
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.salesmanager.core.business.constants.Constants;
+import com.salesmanager.core.business.exception.ServiceException;
+import com.salesmanager.core.business.repositories.catalog.product.availability.ProductAvailabilityRepository;
+import com.salesmanager.core.business.repositories.catalog.product.availability.ReservedInventoryRepository;
+import com.salesmanager.core.business.services.catalog.product.ProductChangedEvent;
+import com.salesmanager.core.model.catalog.product.availability.ReservedInventory;
+import com.salesmanager.core.model.merchant.MerchantStore;
+import com.salesmanager.core.model.order.Order;
+import com.salesmanager.core.model.order.orderproduct.OrderProduct;
+import com.salesmanager.core.model.shoppingcart.ShoppingCartItem;
+
+/**
+ * Pending reservations are stored (ReservedInventory) in the transaction
+ * withdrawing their quantities, so that quantities held by a node that
+ * stopped are put back once expired. Withdrawals and releases
+ * run in their own short transaction so that availability rows are not
+ * locked while the order is processed (payment), a reservation not
+ * committed is released when the transaction of the caller rolls back,
+ * by the caller or once expired by any node.
+ * @author carlsamson
+ *
+ */
+@Service("inventoryService")
+public class InventoryServiceImpl implements InventoryService {
+	
+	private static final Logger LOGGER = LoggerFactory.getLogger(InventoryServiceImpl.class);
+	
+	@Inject
+	private ProductAvailabilityRepository productAvailabilityRepository;
+
+	@Inject
+	private ReservedInventoryRepository reservedInventoryRepository;
+
+	@Inject
+	private ApplicationEventPublisher eventPublisher;
+
+	@Inject
+	private PlatformTransactionManager transactionManager;
+	
+	@Value("${config.inventory.reservation.ttl:900000}")
+	private long defaultTtl;
+
+	@Override
+	public InventoryReservation reserve(MerchantStore store, List<ShoppingCartItem> items) throws ServiceException {
+		Validate.notNull(items, "ShoppingCartItem list must not be null");
+		Map<Long, Integer> quantities = new LinkedHashMap<Long, Integer>();
+		for(ShoppingCartItem item : items) {
+			quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+		}
+		return reserve(store, quantities, defaultTtl);
+	}
+
+	@Override
+	public InventoryReservation reserve(Order order) throws ServiceException {
+		Validate.notNull(order, "Order must not be null");
+		Validate.notNull(order.getMerchant(), "Order merchant must not be null");
+		Map<String, Integer> quantitiesBySku = new LinkedHashMap<String, Integer>();
+		for(OrderProduct orderProduct : order.getOrderProducts()) {
+			quantitiesBySku.merge(orderProduct.getSku(), orderProduct.getProductQuantity(), Integer::sum);
+		}
+		Map<Long, Long> products = new HashMap<Long, Long>();
+		Map<Object, Long> inventory = inventory(productAvailabilityRepository
+				.listInventoryBySkus(quantitiesBySku.keySet(), order.getMerchant().getId()), products);
+		return reserve(order.getMerchant(), inventory, products, quantitiesBySku, defaultTtl);
+	}
+
+	@Override
+	public InventoryReservation reserve(MerchantStore store, Map<Long, Integer> quantities, long ttl)
+			throws ServiceException {
+		Validate.notNull(store, "MerchantStore must not be null");
+		Validate.notNull(quantities, "Quantities must not be null");
+		Map<Long, Long> products = new HashMap<Long, Long>();
+		Map<Object, Long> inventory = inventory(productAvailabilityRepository
+				.listInventoryByProductIds(quantities.keySet(), store.getId()), products);
+		return reserve(store, inventory, products, quantities, ttl);
+	}
+	
+	private InventoryReservation reserve(MerchantStore store, Map<Object, Long> inventory, Map<Long, Long> products,
+			Map<?, Integer> quantities, long ttl) throws ServiceException {
+		
+		Map<Long, Integer> lines = new HashMap<Long, Integer>();
+		Set<Long> productIds = new HashSet<Long>();
+		for(Map.Entry<?, Integer> entry : quantities.entrySet()) {
+			Long availabilityId = inventory.get(entry.getKey());
+			if(availabilityId == null) {
+				LOGGER.debug("No inventory for product " + entry.getKey() + ", quantity not reserved");
+				continue;
+			}
+			lines.merge(availabilityId, entry.getValue(), Integer::sum);
+			productIds.add(products.get(availabilityId));
+		}
+		
+		InventoryReservation reservation = new InventoryReservation(UUID.randomUUID().toString(), store.getId(), lines,
+				productIds, System.currentTimeMillis(), ttl);
+		
+		TransactionStatus status = transactionManager.getTransaction(
+				new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+		try {
+			int updated = productAvailabilityRepository.decrementQuantities(lines);
+			if(updated != lines.size()) {
+				//rollback puts back the rows that were updated
+				throw new ServiceException(ServiceException.EXCEPTION_INVENTORY_MISMATCH,
+						"Not enough inventory for " + (lines.size() - updated) + " line(s)");
+			}
+			reservedInventoryRepository.save(reservedInventory(reservation));
+			productsChanged(reservation.getMerchantId(), reservation.getProductIds());
+			transactionManager.commit(status);
+		} catch (ServiceException | RuntimeException e) {
+			if(!status.isCompleted()) {
+				transactionManager.rollback(status);
+			}
+			throw e;
+		}
+		
+		onRollback(() -> releaseQuietly(reservation.getId()));
+		return reservation;
+	}
+
+	@Override
+	public void commit(String reservationId) throws ServiceException {
+		Validate.notNull(reservationId, "Reservation id must not be null");
+		//removed with the transaction of the caller
+		ReservedInventory reservation = reservedInventoryRepository.findForUpdate(reservationId);
+		if(reservation == null) {
+			throw new ServiceException(ServiceException.EXCEPTION_INVENTORY_MISMATCH,
+					"Reservation " + reservationId + " does not exist or has expired");
+		}
+		reservedInventoryRepository.delete(reservation);
+		onRollback(() -> releaseQuietly(reservationId));
+	}
+
+	@Override
+	public void release(String reservationId) throws ServiceException {
+		Validate.notNull(reservationId, "Reservation id must not be null");
+		TransactionStatus status = transactionManager.getTransaction(
+				new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+		try {
+			ReservedInventory reservation = reservedInventoryRepository.findForUpdate(reservationId);
+			if(reservation == null) {
+				LOGGER.debug("Reservation " + reservationId + " already released");
+				transactionManager.commit(status);
+				return;
+			}
+			productAvailabilityRepository.incrementQuantities(reservation.getQuantities());
+			productsChanged(reservation.getMerchantId(), reservation.getProductIds());
+			reservedInventoryRepository.delete(reservation);
+			transactionManager.commit(status);
+		} catch (RuntimeException e) {
+			//released once expired
+			if(!status.isCompleted()) {
+				transactionManager.rollback(status);
+			}
+			throw e;
+		}
+	}
+
+	@Override
+	@Scheduled(fixedDelayString = "${config.inventory.reservation.cleanup:60000}")
+	public int releaseExpired() {
+		int released = 0;
+		for(String reservationId : reservedInventoryRepository.listExpired(new Date())) {
+			try {
+				release(reservationId);
+				released++;
+			} catch (Exception e) {
+				LOGGER.error("Cannot release reservation " + reservationId, e);
+			}
+		}
+		if(released > 0) {
+			LOGGER.info("Released " + released + " expired inventory reservations");
+		}
+		return released;
+	}
+
+	@Override
+	public int pendingReservations() {
+		return (int) reservedInventoryRepository.count();
+	}
+	
+	private void releaseQuietly(String reservationId) {
+		try {
+			release(reservationId);
+		} catch (Exception e) {
+			LOGGER.error("Cannot release reservation " + reservationId + ", released once expired", e);
+		}
+	}
+	
+	/**
+	 * product key (id or sku) / availability id, the row
+	 * for all regions is preferred
+	 */
+	private Map<Object, Long> inventory(List<Object[]> rows, Map<Long, Long> products) {
+		Map<Object, Long> inventory = new HashMap<Object, Long>();
+		for(Object[] row : rows) {
+			Long availabilityId = (Long)row[0];
+			products.put(availabilityId, (Long)row[3]);
+			if(Constants.ALL_REGIONS.equals(row[2])) {
+				inventory.put(row[1], availabilityId);
+			} else {
+				inventory.putIfAbsent(row[1], availabilityId);
+			}
+		}
+		return inventory;
+	}
+	
+	private ReservedInventory reservedInventory(InventoryReservation reservation) {
+		ReservedInventory reservedInventory = new ReservedInventory();
+		reservedInventory.setId(reservation.getId());
+		reservedInventory.setMerchantId(reservation.getMerchantId());
+		reservedInventory.setCreated(new Date(reservation.getCreated()));
+		reservedInventory.setExpires(new Date(reservation.getExpires()));
+		reservedInventory.getQuantities().putAll(reservation.getQuantities());
+		reservedInventory.getProductIds().addAll(reservation.getProductIds());
+		return reservedInventory;
+	}
+	
+	/**
+	 * quantities are updated in bulk, bypassing ProductAvailabilityService
+	 */
+	private void productsChanged(Integer merchantId, Set<Long> productIds) {
+		for(Long productId : productIds) {
+			eventPublisher.publishEvent(new ProductChangedEvent(productId, merchantId));
+		}
+	}
+	
+	private void onRollback(Runnable compensation) {
+		if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCompletion(int status) {
+				if(status == STATUS_ROLLED_BACK) {
+					compensation.run();
+				}
+			}
+		});
+	}
+
+}
@@ -3,11 +3,13 @@ package com.salesmanager.core.business.services.catalog.product.availability;
 import com.salesmanager.core.business.exception.ServiceException;
 import com.salesmanager.core.business.repositories.catalog.product.availability.PageableProductAvailabilityRepository;
 import com.salesmanager.core.business.repositories.catalog.product.availability.ProductAvailabilityRepository;
+import com.salesmanager.core.business.services.catalog.product.ProductChangedEvent;
 import com.salesmanager.core.business.services.common.generic.SalesManagerEntityServiceImpl;
 import com.salesmanager.core.model.catalog.product.Product;
 import com.salesmanager.core.model.catalog.product.availability.ProductAvailability;
 import com.salesmanager.core.model.merchant.MerchantStore;
 import org.apache.commons.lang3.Validate;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -27,6 +29,9 @@ public class ProductAvailabilityServiceImpl extends
   @Inject
   private PageableProductAvailabilityRepository pageableProductAvailabilityRepository;
 
+  @Inject
+  private ApplicationEventPublisher eventPublisher;
+
   @Inject
   public ProductAvailabilityServiceImpl(
       ProductAvailabilityRepository productAvailabilityRepository) {
@@ -42,6 +47,19 @@ public class ProductAvailabilityServiceImpl extends
     } else {
       create(availability);
     }
+    productChanged(availability);
+  }
+
+  @Override
+  public void delete(ProductAvailability availability) throws ServiceException {
+    super.delete(availability);
+    productChanged(availability);
+  }
+
+  private void productChanged(ProductAvailability availability) {
+    if (availability.getProduct() != null) {
+      eventPublisher.publishEvent(ProductChangedEvent.of(availability.getProduct()));
+    }
   }
 
   private boolean isPositive(Long id) {
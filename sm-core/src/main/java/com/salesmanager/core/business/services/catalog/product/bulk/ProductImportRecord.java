@@ -0,0 +1,68 @@
+package com.salesmanager.core.business.services.catalog.product.bulk;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One product of a bulk import, a json object per line
+ * <pre>
+ * {"sku":"TB12345","names":{"en":"Table","fr":"Table"},"price":49.99,"quantity":20,"available":true}
+ * </pre>
+ * Products are matched by sku, null fields are left unchanged on existing products.
+ */
+public class ProductImportRecord {
+
+	private String sku;
+
+	/** language code / product name **/
+	private Map<String, String> names = new HashMap<String, String>();
+
+	/** default price **/
+	private BigDecimal price;
+
+	private Integer quantity;
+
+	private Boolean available;
+
+	public String getSku() {
+		return sku;
+	}
+
+	public void setSku(String sku) {
+		this.sku = sku;
+	}
+
+	public Map<String, String> getNames() {
+		return names;
+	}
+
+	public void setNames(Map<String, String> names) {
+		this.names = names;
+	}
+
+	public BigDecimal getPrice() {
+		return price;
+	}
+
+	public void setPrice(BigDecimal price) {
+		this.price = price;
+	}
+
+	public Integer getQuantity() {
+		return quantity;
+	}
+
+	public void setQuantity(Integer quantity) {
+		this.quantity = quantity;
+	}
+
+	public Boolean getAvailable() {
+		return available;
+	}
+
+	public void setAvailable(Boolean available) {
+		this.available = available;
+	}
+
+}
@@ -0,0 +1,125 @@
+package com.salesmanager.core.business.services.catalog.product.bulk;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Progress of a bulk import, counts cover the records committed so far
+ * including the records committed by previous runs of the same job.
+ */
+public class ProductImportReport {
+
+	/** rejected records kept in the report **/
+	private static final int MAX_ERRORS = 100;
+
+	private final String job;
+
+	/** records committed by a previous run, skipped by this run **/
+	private long resumedAt;
+	private long committed;
+	private long created;
+	private long updated;
+	private long failed;
+	private int chunks;
+	private long elapsedMillis;
+	private boolean completed;
+	private final List<String> errors = new ArrayList<String>();
+
+	public ProductImportReport(String job) {
+		this.job = job;
+	}
+
+	void reject(long line, String sku, String reason) {
+		failed++;
+		if (errors.size() < MAX_ERRORS) {
+			errors.add("line " + line + (sku != null ? " [" + sku + "]" : "") + " : " + reason);
+		}
+	}
+
+	/**
+	 * Records committed by this run per second
+	 */
+	public double getThroughput() {
+		if (elapsedMillis == 0) {
+			return 0;
+		}
+		return (committed - resumedAt) * 1000d / elapsedMillis;
+	}
+
+	public String getJob() {
+		return job;
+	}
+
+	public long getResumedAt() {
+		return resumedAt;
+	}
+
+	void setResumedAt(long resumedAt) {
+		this.resumedAt = resumedAt;
+	}
+
+	/** records read and committed (imported or rejected) **/
+	public long getCommitted() {
+		return committed;
+	}
+
+	void setCommitted(long committed) {
+		this.committed = committed;
+	}
+
+	public long getCreated() {
+		return created;
+	}
+
+	void addCreated(long created) {
+		this.created += created;
+	}
+
+	public long getUpdated() {
+		return updated;
+	}
+
+	void addUpdated(long updated) {
+		this.updated += updated;
+	}
+
+	public long getFailed() {
+		return failed;
+	}
+
+	public int getChunks() {
+		return chunks;
+	}
+
+	void chunkCommitted() {
+		this.chunks++;
+	}
+
+	public long getElapsedMillis() {
+		return elapsedMillis;
+	}
+
+	void setElapsedMillis(long elapsedMillis) {
+		this.elapsedMillis = elapsedMillis;
+	}
+
+	public boolean isCompleted() {
+		return completed;
+	}
+
+	void setCompleted(boolean completed) {
+		this.completed = completed;
+	}
+
+	public List<String> getErrors() {
+		return errors;
+	}
+
+	@Override
+	public String toString() {
+		return "Import [" + job + "] committed " + committed + " (created " + created + ", updated " + updated
+				+ ", failed " + failed + ") in " + chunks + " chunks, " + String.format("%.1f", getThroughput())
+				+ " records/s";
+	}
+
+}
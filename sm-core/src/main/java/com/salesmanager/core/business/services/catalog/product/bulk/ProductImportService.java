@@ -0,0 +1,39 @@
+package com.salesmanager.core.business.services.catalog.product.bulk;
+
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+import com.salesmanager.core.business.exception.ServiceException;
+import com.salesmanager.core.model.merchant.MerchantStore;
+
+/**
+ * Bulk import of products, default prices and quantities.
+ *
+ * The input is read as a stream of ProductImportRecord (one json object per line)
+ * and written in chunks, each chunk in its own transaction with batched inserts.
+ * The number of records committed is saved with each chunk so that a job
+ * interrupted by a failure is resumed after its last committed chunk when it is
+ * started again with the same input.
+ *
+ * Imported products are not indexed, the search index is rebuilt once the
+ * import is completed.
+ */
+public interface ProductImportService {
+
+	/**
+	 * @param input json lines, not closed
+	 * @param job name of the import, identifies the checkpoint of the job
+	 * @param store store owning the products
+	 * @param progress notified after each committed chunk, can be null
+	 * @throws ServiceException when the input cannot be read or a chunk cannot be written,
+	 * chunks committed before are kept
+	 */
+	ProductImportReport importProducts(InputStream input, String job, MerchantStore store,
+			Consumer<ProductImportReport> progress) throws ServiceException;
+
+	/**
+	 * Removes the checkpoint of a job, the next run starts from the first record
+	 */
+	void reset(String job, MerchantStore store) throws ServiceException;
+
+}
@@ -0,0 +1,337 @@
+package com.salesmanager.core.business.services.catalog.product.bulk;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import javax.inject.Inject;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.salesmanager.core.business.constants.Constants;
+import com.salesmanager.core.business.exception.ServiceException;
+import com.salesmanager.core.business.repositories.catalog.product.ProductRepository;
+import com.salesmanager.core.business.services.catalog.product.ProductChangedEvent;
+import com.salesmanager.core.business.services.reference.language.LanguageService;
+import com.salesmanager.core.business.services.system.MerchantConfigurationService;
+import com.salesmanager.core.model.catalog.product.Product;
+import com.salesmanager.core.model.catalog.product.availability.ProductAvailability;
+import com.salesmanager.core.model.catalog.product.description.ProductDescription;
+import com.salesmanager.core.model.catalog.product.price.ProductPrice;
+import com.salesmanager.core.model.catalog.product.price.ProductPriceDescription;
+import com.salesmanager.core.model.merchant.MerchantStore;
+import com.salesmanager.core.model.reference.language.Language;
+import com.salesmanager.core.model.system.MerchantConfiguration;
+import com.salesmanager.core.model.system.MerchantConfigurationType;
+
+/**
+ * Records of a chunk are matched to existing products with a fixed number of
+ * queries, new products are persisted without flushing so that hibernate sends
+ * the inserts of the chunk in jdbc batches (hibernate.jdbc.batch_size), ids come
+ * from the blocks pre-allocated by the table generators. The persistence context
+ * is cleared after each chunk to keep memory bounded.
+ *
+ * The checkpoint of a job (records committed) is a merchant configuration
+ * written in the transaction of the chunk, it is removed once the job completes.
+ */
+@Service("productImportService")
+public class ProductImportServiceImpl implements ProductImportService {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ProductImportServiceImpl.class);
+
+	private static final String CHECKPOINT_PREFIX = "PRODUCT_IMPORT_";
+
+	/** length of the SKU column **/
+	private static final int SKU_LENGTH = 255;
+
+	private static final ObjectReader READER = new ObjectMapper()
+			.configure(JsonParser.Feature.AUTO_CLOSE_SOURCE, false)
+			.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+			.readerFor(ProductImportRecord.class);
+
+	/** records per transaction **/
+	@Value("${config.catalog.import.chunkSize:500}")
+	private int chunkSize;
+
+	@Inject
+	private ProductRepository productRepository;
+
+	@Inject
+	private MerchantConfigurationService merchantConfigurationService;
+
+	@Inject
+	private LanguageService languageService;
+
+	@Inject
+	private PlatformTransactionManager transactionManager;
+
+	@Inject
+	private ApplicationEventPublisher eventPublisher;
+
+	@Override
+	public ProductImportReport importProducts(InputStream input, String job, MerchantStore store,
+			Consumer<ProductImportReport> progress) throws ServiceException {
+
+		Validate.notNull(input, "Input cannot be null");
+		Validate.notEmpty(job, "Job cannot be empty");
+		Validate.notNull(store, "MerchantStore cannot be null");
+
+		Map<String, Language> languages = languageService.getLanguagesMap();
+
+		MerchantConfiguration checkpoint = merchantConfigurationService.getMerchantConfiguration(key(job), store);
+		if (checkpoint == null) {
+			checkpoint = new MerchantConfiguration();
+			checkpoint.setKey(key(job));
+			checkpoint.setMerchantStore(store);
+			checkpoint.setMerchantConfigurationType(MerchantConfigurationType.CONFIG);
+			checkpoint.setValue("0");
+		}
+		long resumeAt = Long.parseLong(checkpoint.getValue());
+
+		ProductImportReport report = new ProductImportReport(job);
+		report.setResumedAt(resumeAt);
+		report.setCommitted(resumeAt);
+		if (resumeAt > 0) {
+			LOGGER.info("Import [" + job + "] resumed after record " + resumeAt);
+		}
+
+		long start = System.currentTimeMillis();
+		long line = 0;
+		List<ProductImportRecord> chunk = new ArrayList<ProductImportRecord>(chunkSize);
+
+		try (MappingIterator<ProductImportRecord> records = READER.readValues(input)) {
+			while (records.hasNextValue()) {
+				ProductImportRecord record = records.nextValue();
+				line++;
+				if (line <= resumeAt) {
+					continue;
+				}
+				chunk.add(record);
+				if (chunk.size() == chunkSize) {
+					write(chunk, line, checkpoint, store, languages, report, start, progress);
+					chunk.clear();
+				}
+			}
+		} catch (IOException | RuntimeJsonMappingException e) {
+			throw new ServiceException("Cannot read import [" + job + "] at record " + (line + 1), e);
+		}
+
+		if (!chunk.isEmpty()) {
+			write(chunk, line, checkpoint, store, languages, report, start, progress);
+		}
+
+		if (checkpoint.getId() != null) {
+			merchantConfigurationService.delete(checkpoint);
+		}
+		report.setCompleted(true);
+		report.setElapsedMillis(System.currentTimeMillis() - start);
+		LOGGER.info(report + ", completed");
+		return report;
+	}
+
+	@Override
+	public void reset(String job, MerchantStore store) throws ServiceException {
+		MerchantConfiguration checkpoint = merchantConfigurationService.getMerchantConfiguration(key(job), store);
+		if (checkpoint != null) {
+			merchantConfigurationService.delete(checkpoint);
+		}
+	}
+
+	/**
+	 * Writes the records of a chunk and the checkpoint in one transaction
+	 * @param line number of the last record of the chunk
+	 */
+	private void write(List<ProductImportRecord> chunk, long line, MerchantConfiguration checkpoint,
+			MerchantStore store, Map<String, Language> languages, ProductImportReport report, long start,
+			Consumer<ProductImportReport> progress) throws ServiceException {
+
+		long first = line - chunk.size() + 1;
+		long created = 0;
+		long updated = 0;
+		Map<Integer, String> rejected = new TreeMap<Integer, String>();
+
+		TransactionStatus status = transactionManager.getTransaction(new DefaultTransactionDefinition());
+		try {
+
+			Map<String, Product> existing = new HashMap<String, Product>();
+			for (Product product : productRepository.getBySkus(store, chunk.stream().map(ProductImportRecord::getSku)
+					.filter(StringUtils::isNotBlank).collect(Collectors.toList()))) {
+				existing.put(product.getSku(), product);
+			}
+
+			for (int i = 0; i < chunk.size(); i++) {
+				ProductImportRecord record = chunk.get(i);
+				Product product = existing.get(record.getSku());
+				String error = validate(record, product, languages);
+				if (error != null) {
+					rejected.put(i, error);
+					continue;
+				}
+				if (product == null) {
+					product = new Product();
+					product.setSku(record.getSku());
+					product.setMerchantStore(store);
+					apply(record, product, languages);
+					productRepository.save(product);
+					existing.put(product.getSku(), product);
+					created++;
+				} else {
+					apply(record, product, languages);
+					updated++;
+				}
+				eventPublisher.publishEvent(ProductChangedEvent.of(product));
+			}
+
+			checkpoint.setValue(String.valueOf(line));
+			merchantConfigurationService.saveOrUpdate(checkpoint);
+
+			productRepository.flushAndClear();
+			transactionManager.commit(status);
+
+		} catch (Exception e) {
+			if (!status.isCompleted()) {
+				transactionManager.rollback(status);
+			}
+			throw new ServiceException("Import [" + report.getJob() + "] failed in chunk starting at record " + first
+					+ ", the next run resumes at this record", e);
+		}
+
+		rejected.forEach((i, error) -> report.reject(first + i, chunk.get(i).getSku(), error));
+		report.addCreated(created);
+		report.addUpdated(updated);
+		report.setCommitted(line);
+		report.chunkCommitted();
+		report.setElapsedMillis(System.currentTimeMillis() - start);
+		LOGGER.info(report.toString());
+
+		if (progress != null) {
+			progress.accept(report);
+		}
+	}
+
+	/**
+	 * @return the reason a record is rejected, null when valid
+	 */
+	private String validate(ProductImportRecord record, Product existing, Map<String, Language> languages) {
+		if (StringUtils.isBlank(record.getSku()) || record.getSku().length() > SKU_LENGTH) {
+			return "invalid sku";
+		}
+		if (record.getNames() != null) {
+			for (String code : record.getNames().keySet()) {
+				if (!languages.containsKey(code)) {
+					return "unknown language " + code;
+				}
+			}
+		}
+		if (record.getPrice() != null && record.getPrice().signum() < 0) {
+			return "negative price";
+		}
+		if (record.getQuantity() != null && record.getQuantity() < 0) {
+			return "negative quantity";
+		}
+		if (existing == null) {
+			if (record.getNames() == null || record.getNames().isEmpty()) {
+				return "a new product requires a name";
+			}
+			if (record.getPrice() == null) {
+				return "a new product requires a price";
+			}
+		}
+		return null;
+	}
+
+	private void apply(ProductImportRecord record, Product product, Map<String, Language> languages) {
+
+		if (record.getAvailable() != null) {
+			product.setAvailable(record.getAvailable());
+		}
+
+		List<Language> productLanguages = new ArrayList<Language>();
+		if (record.getNames() != null) {
+			for (Map.Entry<String, String> name : record.getNames().entrySet()) {
+				Language language = languages.get(name.getKey());
+				productLanguages.add(language);
+				ProductDescription description = product.getDescriptions().stream()
+						.filter(d -> d.getLanguage().getId().equals(language.getId())).findFirst().orElse(null);
+				if (description == null) {
+					description = new ProductDescription();
+					description.setProduct(product);
+					description.setLanguage(language);
+					product.getDescriptions().add(description);
+				}
+				description.setName(name.getValue());
+			}
+		}
+
+		ProductAvailability availability = null;
+		ProductPrice defaultPrice = null;
+		for (ProductAvailability a : product.getAvailabilities()) {
+			for (ProductPrice p : a.getPrices()) {
+				if (p.isDefaultPrice()) {
+					availability = a;
+					defaultPrice = p;
+					break;
+				}
+			}
+			if (availability != null) {
+				break;
+			}
+		}
+
+		if (availability == null) {
+			availability = new ProductAvailability(product, product.getMerchantStore());
+			availability.setProductQuantityOrderMin(1);
+			availability.setProductQuantityOrderMax(1);
+			availability.setRegion(Constants.ALL_REGIONS);
+			product.getAvailabilities().add(availability);
+		}
+		if (record.getQuantity() != null) {
+			availability.setProductQuantity(record.getQuantity());
+		}
+		availability.setAvailable(Boolean.valueOf(product.isAvailable()));
+
+		if (defaultPrice == null) {
+			defaultPrice = new ProductPrice();
+			defaultPrice.setDefaultPrice(true);
+			defaultPrice.setCode(ProductPrice.DEFAULT_PRICE_CODE);
+			defaultPrice.setProductAvailability(availability);
+			availability.getPrices().add(defaultPrice);
+			for (Language language : productLanguages) {
+				ProductPriceDescription description = new ProductPriceDescription();
+				description.setProductPrice(defaultPrice);
+				description.setLanguage(language);
+				description.setName(ProductPriceDescription.DEFAULT_PRICE_DESCRIPTION);
+				defaultPrice.getDescriptions().add(description);
+			}
+		}
+		if (record.getPrice() != null) {
+			defaultPrice.setProductPriceAmount(record.getPrice());
+		}
+	}
+
+	private String key(String job) {
+		return CHECKPOINT_PREFIX + job;
+	}
+
+}
@@ -9,12 +9,14 @@ import javax.inject.Inject;
 
 import org.apache.commons.lang3.StringUtils;
 import org.jsoup.helper.Validate;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
 import com.salesmanager.core.business.exception.ServiceException;
 import com.salesmanager.core.business.modules.cms.product.ProductFileManager;
 import com.salesmanager.core.business.repositories.catalog.product.image.ProductImageRepository;
+import com.salesmanager.core.business.services.catalog.product.ProductChangedEvent;
 import com.salesmanager.core.business.services.common.generic.SalesManagerEntityServiceImpl;
 import com.salesmanager.core.model.catalog.product.Product;
 import com.salesmanager.core.model.catalog.product.file.ProductImageSize;
@@ -40,6 +42,9 @@ public class ProductImageServiceImpl extends SalesManagerEntityServiceImpl<Long,
 	@Inject
 	private ProductFileManager productFileManager;
 
+	@Inject
+	private ApplicationEventPublisher eventPublisher;
+
 
 
 
@@ -114,6 +119,7 @@ public class ProductImageServiceImpl extends SalesManagerEntityServiceImpl<Long,
 
 
 		super.save(productImage);
+		productChanged(productImage.getProduct());
 
 	}
 
@@ -128,6 +134,7 @@ public class ProductImageServiceImpl extends SalesManagerEntityServiceImpl<Long,
 			productImage.getDescriptions().add(description);
 			description.setProductImage(productImage);
 			update(productImage);
+			productChanged(productImage.getProduct());
 
 
 	}
@@ -175,6 +182,7 @@ public class ProductImageServiceImpl extends SalesManagerEntityServiceImpl<Long,
 		}
 		ProductImage p = this.getById(productImage.getId());
 		this.delete(p);
+		productChanged(p.getProduct());
 
 	}
 
@@ -200,6 +208,13 @@ public class ProductImageServiceImpl extends SalesManagerEntityServiceImpl<Long,
 		Validate.notNull(productImage,"ProductImage cannot be null");
 		productImage.setProduct(product);
 		productImageRepository.save(productImage);
+		productChanged(product);
 		
 	}
+
+	private void productChanged(Product product) {
+		if (product != null) {
+			eventPublisher.publishEvent(ProductChangedEvent.of(product));
+		}
+	}
 }
@@ -5,10 +5,12 @@ import java.util.Set;
 
 import javax.inject.Inject;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import com.salesmanager.core.business.exception.ServiceException;
 import com.salesmanager.core.business.repositories.catalog.product.price.ProductPriceRepository;
+import com.salesmanager.core.business.services.catalog.product.ProductChangedEvent;
 import com.salesmanager.core.business.services.common.generic.SalesManagerEntityServiceImpl;
 import com.salesmanager.core.model.catalog.product.price.ProductPrice;
 import com.salesmanager.core.model.catalog.product.price.ProductPriceDescription;
@@ -17,6 +19,9 @@ import com.salesmanager.core.model.catalog.product.price.ProductPriceDescription
 public class ProductPriceServiceImpl extends SalesManagerEntityServiceImpl<Long, ProductPrice> 
 	implements ProductPriceService {
 
+	@Inject
+	private ApplicationEventPublisher eventPublisher;
+
 	@Inject
 	public ProductPriceServiceImpl(ProductPriceRepository productPriceRepository) {
 		super(productPriceRepository);
@@ -27,6 +32,7 @@ public class ProductPriceServiceImpl extends SalesManagerEntityServiceImpl<Long,
 			ProductPriceDescription description) throws ServiceException {
 		price.getDescriptions().add(description);
 		update(price);
+		productChanged(price);
 	}
 	
 	
@@ -46,6 +52,7 @@ public class ProductPriceServiceImpl extends SalesManagerEntityServiceImpl<Long,
 			}
 			
 		}
+		productChanged(price);
 		
 		
 		
@@ -57,8 +64,15 @@ public class ProductPriceServiceImpl extends SalesManagerEntityServiceImpl<Long,
 		//override method, this allows the error that we try to remove a detached instance
 		price = this.getById(price.getId());
 		super.delete(price);
+		productChanged(price);
 		
 	}
+
+	private void productChanged(ProductPrice price) {
+		if (price.getProductAvailability() != null && price.getProductAvailability().getProduct() != null) {
+			eventPublisher.publishEvent(ProductChangedEvent.of(price.getProductAvailability().getProduct()));
+		}
+	}
 	
 
 
@@ -0,0 +1,94 @@
+package com.salesmanager.core.business.services.common.cache;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.salesmanager.core.business.services.common.version.ContentChangedEvent;
+import com.salesmanager.core.business.services.common.version.ContentScope;
+import com.salesmanager.core.constants.CacheRegion;
+
+/**
+ * Statistics and eviction of the hibernate second level cache regions (CacheRegion).
+ *
+ * Writes made through hibernate keep the regions up to date, reference
+ * regions are also evicted when reference data is reloaded (ContentChangedEvent
+ * of scope REFERENCE) as reloads can bypass hibernate.
+ */
+@Component("secondLevelCache")
+public class SecondLevelCache {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(SecondLevelCache.class);
+
+	@PersistenceUnit
+	private EntityManagerFactory entityManagerFactory;
+
+	public String[] getRegions() {
+		return CacheRegion.ALL;
+	}
+
+	public long getHitCount(String region) {
+		CacheRegionStatistics stats = statistics(region);
+		return stats != null ? stats.getHitCount() : 0;
+	}
+
+	public long getMissCount(String region) {
+		CacheRegionStatistics stats = statistics(region);
+		return stats != null ? stats.getMissCount() : 0;
+	}
+
+	public long getPutCount(String region) {
+		CacheRegionStatistics stats = statistics(region);
+		return stats != null ? stats.getPutCount() : 0;
+	}
+
+	/** entries held by the region, entities and collections **/
+	public long getSize(String region) {
+		CacheRegionStatistics stats = statistics(region);
+		return stats != null ? Math.max(0, stats.getElementCountInMemory()) : 0;
+	}
+
+	public long getQueryHitCount() {
+		return statistics().getQueryCacheHitCount();
+	}
+
+	public long getQueryMissCount() {
+		return statistics().getQueryCacheMissCount();
+	}
+
+	public void evict(String region) {
+		entityManagerFactory.unwrap(SessionFactory.class).getCache().evictRegion(region);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onContentChanged(ContentChangedEvent event) {
+		if (event.getScope() == ContentScope.REFERENCE) {
+			for (String region : CacheRegion.REFERENCE) {
+				evict(region);
+			}
+			entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+			LOGGER.debug("Reference data regions evicted");
+		}
+	}
+
+	private Statistics statistics() {
+		return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	private CacheRegionStatistics statistics(String region) {
+		try {
+			return statistics().getDomainDataRegionStatistics(region);
+		} catch (IllegalArgumentException e) {
+			//region not built, no entity mapped to it
+			return null;
+		}
+	}
+
+}
@@ -0,0 +1,26 @@
+package com.salesmanager.core.business.services.common.version;
+
+/**
+ * Published by services writing data exposed by the public read apis
+ * (categories, content, stores, reference data).
+ * Product changes are published as ProductChangedEvent.
+ */
+public class ContentChangedEvent {
+
+	private final ContentScope scope;
+	private final Integer merchantStoreId;
+
+	public ContentChangedEvent(ContentScope scope, Integer merchantStoreId) {
+		this.scope = scope;
+		this.merchantStoreId = merchantStoreId;
+	}
+
+	public ContentScope getScope() {
+		return scope;
+	}
+
+	public Integer getMerchantStoreId() {
+		return merchantStoreId;
+	}
+
+}
@@ -0,0 +1,17 @@
+package com.salesmanager.core.business.services.common.version;
+
+/**
+ * Groups of data versioned together
+ */
+public enum ContentScope {
+
+	/** merchant stores, any change affects every scope **/
+	STORE,
+	/** products, prices, availabilities, attributes and categories **/
+	CATALOG,
+	/** content pages and boxes **/
+	CONTENT,
+	/** countries, zones, languages, currencies **/
+	REFERENCE
+
+}
@@ -0,0 +1,49 @@
+package com.salesmanager.core.business.services.common.version;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.salesmanager.core.business.services.catalog.product.ProductChangedEvent;
+
+/**
+ * Version stamp of each content scope, incremented after a write commits.
+ *
+ * Stamps start from the node start time so that a stamp is never reused
+ * after a restart. Stamps are local to the node, they do not reflect
+ * writes made by other nodes.
+ */
+@Component("contentVersions")
+public class ContentVersions {
+
+	private final Map<ContentScope, AtomicLong> versions = new EnumMap<ContentScope, AtomicLong>(ContentScope.class);
+
+	public ContentVersions() {
+		long start = System.currentTimeMillis();
+		for (ContentScope scope : ContentScope.values()) {
+			versions.put(scope, new AtomicLong(start));
+		}
+	}
+
+	public long get(ContentScope scope) {
+		return versions.get(scope).get();
+	}
+
+	public void touch(ContentScope scope) {
+		versions.get(scope).incrementAndGet();
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onContentChanged(ContentChangedEvent event) {
+		touch(event.getScope());
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductChanged(ProductChangedEvent event) {
+		touch(ContentScope.CATALOG);
+	}
+
+}
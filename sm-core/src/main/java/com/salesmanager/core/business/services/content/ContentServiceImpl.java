@@ -14,6 +14,7 @@ import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -25,6 +26,8 @@ import com.salesmanager.core.business.modules.cms.content.StaticContentFileManag
 import com.salesmanager.core.business.repositories.content.ContentRepository;
 import com.salesmanager.core.business.repositories.content.PageContentRepository;
 import com.salesmanager.core.business.services.common.generic.SalesManagerEntityServiceImpl;
+import com.salesmanager.core.business.services.common.version.ContentChangedEvent;
+import com.salesmanager.core.business.services.common.version.ContentScope;
 import com.salesmanager.core.model.content.Content;
 import com.salesmanager.core.model.content.ContentDescription;
 import com.salesmanager.core.model.content.ContentType;
@@ -48,6 +51,9 @@ public class ContentServiceImpl extends SalesManagerEntityServiceImpl<Long, Cont
 	@Inject
 	StaticContentFileManager contentFileManager;
 
+	@Inject
+	private ApplicationEventPublisher eventPublisher;
+
 	@Inject
 	public ContentServiceImpl(ContentRepository contentRepository) {
 		super(contentRepository);
@@ -67,7 +73,25 @@ public class ContentServiceImpl extends SalesManagerEntityServiceImpl<Long, Cont
 
 		Content c = this.getById(content.getId());
 		super.delete(c);
+		contentChanged(c);
+
+	}
+
+	@Override
+	public void save(Content content) throws ServiceException {
+		super.save(content);
+		contentChanged(content);
+	}
+
+	@Override
+	public void update(Content content) throws ServiceException {
+		super.update(content);
+		contentChanged(content);
+	}
 
+	private void contentChanged(Content content) {
+		eventPublisher.publishEvent(new ContentChangedEvent(ContentScope.CONTENT,
+				content.getMerchantStore() != null ? content.getMerchantStore().getId() : null));
 	}
 
 	@Override
@@ -118,9 +142,9 @@ public class ContentServiceImpl extends SalesManagerEntityServiceImpl<Long, Cont
 
 		// save or update (persist and attach entities
 		if (content.getId() != null && content.getId() > 0) {
-			super.update(content);
+			update(content);
 		} else {
-			super.save(content);
+			save(content);
 		}
 
 	}
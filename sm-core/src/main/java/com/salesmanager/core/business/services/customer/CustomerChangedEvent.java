@@ -0,0 +1,32 @@
+package com.salesmanager.core.business.services.customer;
+
+import com.salesmanager.core.model.customer.Customer;
+
+/**
+ * Published by CustomerService when a customer is created, updated or deleted.
+ * Listeners maintaining customer read models should load the customer again.
+ */
+public class CustomerChangedEvent {
+
+	private final Long customerId;
+	private final Integer merchantStoreId;
+
+	public CustomerChangedEvent(Long customerId, Integer merchantStoreId) {
+		this.customerId = customerId;
+		this.merchantStoreId = merchantStoreId;
+	}
+
+	public static CustomerChangedEvent of(Customer customer) {
+		return new CustomerChangedEvent(customer.getId(),
+				customer.getMerchantStore() != null ? customer.getMerchantStore().getId() : null);
+	}
+
+	public Long getCustomerId() {
+		return customerId;
+	}
+
+	public Integer getMerchantStoreId() {
+		return merchantStoreId;
+	}
+
+}
@@ -6,12 +6,14 @@ import javax.inject.Inject;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import com.salesmanager.core.business.exception.ServiceException;
 import com.salesmanager.core.business.repositories.customer.CustomerRepository;
 import com.salesmanager.core.business.services.common.generic.SalesManagerEntityServiceImpl;
 import com.salesmanager.core.business.services.customer.attribute.CustomerAttributeService;
+import com.salesmanager.core.business.services.search.admin.AdminSearchIndex;
 import com.salesmanager.core.model.common.Address;
 import com.salesmanager.core.model.customer.Customer;
 import com.salesmanager.core.model.customer.CustomerCriteria;
@@ -35,6 +37,12 @@ public class CustomerServiceImpl extends SalesManagerEntityServiceImpl<Long, Cus
 	@Inject
 	private GeoLocation geoLocation;
 
+	@Inject
+	private AdminSearchIndex adminSearchIndex;
+
+	@Inject
+	private ApplicationEventPublisher eventPublisher;
+
 	
 	@Inject
 	public CustomerServiceImpl(CustomerRepository customerRepository) {
@@ -69,6 +77,13 @@ public class CustomerServiceImpl extends SalesManagerEntityServiceImpl<Long, Cus
 	
 	@Override
 	public CustomerList getListByStore(MerchantStore store, CustomerCriteria criteria) {
+		//searches by name, email or country are answered by the admin index
+		CustomerList customerList = new CustomerList();
+		List<Long> ids = adminSearchIndex.searchCustomers(store, criteria, customerList);
+		if(ids!=null) {
+			customerList.setCustomers(customerRepository.getByIds(ids));
+			return customerList;
+		}
 		return customerRepository.listByStore(store,criteria);
 	}
 	
@@ -83,6 +98,12 @@ public class CustomerServiceImpl extends SalesManagerEntityServiceImpl<Long, Cus
 		
 	}
 
+	@Override
+	public void save(Customer customer) throws ServiceException {
+		super.save(customer);
+		eventPublisher.publishEvent(CustomerChangedEvent.of(customer));
+	}
+
 	@Override	
 	public void saveOrUpdate(Customer customer) throws ServiceException {
 
@@ -108,6 +129,7 @@ public class CustomerServiceImpl extends SalesManagerEntityServiceImpl<Long, Cus
 			}
 		}
 		customerRepository.delete(customer);
+		eventPublisher.publishEvent(CustomerChangedEvent.of(customer));
 
 	}
 
@@ -7,6 +7,8 @@ import javax.inject.Inject;
 
 import org.jsoup.helper.Validate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -17,6 +19,8 @@ import com.salesmanager.core.business.repositories.merchant.MerchantRepository;
 import com.salesmanager.core.business.repositories.merchant.PageableMerchantRepository;
 import com.salesmanager.core.business.services.catalog.product.type.ProductTypeService;
 import com.salesmanager.core.business.services.common.generic.SalesManagerEntityServiceImpl;
+import com.salesmanager.core.business.services.common.version.ContentChangedEvent;
+import com.salesmanager.core.business.services.common.version.ContentScope;
 import com.salesmanager.core.model.common.GenericEntityList;
 import com.salesmanager.core.model.merchant.MerchantStore;
 import com.salesmanager.core.model.merchant.MerchantStoreCriteria;
@@ -31,6 +35,9 @@ public class MerchantStoreServiceImpl extends SalesManagerEntityServiceImpl<Inte
 	@Autowired
 	private PageableMerchantRepository pageableMerchantRepository;
 
+	@Inject
+	private ApplicationEventPublisher eventPublisher;
+
 	private MerchantRepository merchantRepository;
 
 	@Inject
@@ -39,10 +46,36 @@ public class MerchantStoreServiceImpl extends SalesManagerEntityServiceImpl<Inte
 		this.merchantRepository = merchantRepository;
 	}
 
+	/**
+	 * Stores are cached by code in the request path (see StoreFacade),
+	 * every write clears the cache, the store may have been cached
+	 * under a code it no longer has
+	 */
 	@Override
-	//@CacheEvict(value="store", key="#store.code")
+	@CacheEvict(value="store", allEntries=true)
 	public void saveOrUpdate(MerchantStore store) throws ServiceException {
 		super.save(store);
+		eventPublisher.publishEvent(new ContentChangedEvent(ContentScope.STORE, store.getId()));
+	}
+
+	@Override
+	@CacheEvict(value="store", allEntries=true)
+	public void save(MerchantStore store) throws ServiceException {
+		super.save(store);
+		eventPublisher.publishEvent(new ContentChangedEvent(ContentScope.STORE, store.getId()));
+	}
+
+	@Override
+	@CacheEvict(value="store", allEntries=true)
+	public void update(MerchantStore store) throws ServiceException {
+		super.update(store);
+	}
+
+	@Override
+	@CacheEvict(value="store", allEntries=true)
+	public void delete(MerchantStore store) throws ServiceException {
+		super.delete(store);
+		eventPublisher.publishEvent(new ContentChangedEvent(ContentScope.STORE, store.getId()));
 	}
 
 	@Override
@@ -0,0 +1,32 @@
+package com.salesmanager.core.business.services.order;
+
+import com.salesmanager.core.model.order.Order;
+
+/**
+ * Published by OrderService when an order is created, updated or deleted.
+ * Listeners maintaining order read models should load the order again.
+ */
+public class OrderChangedEvent {
+
+	private final Long orderId;
+	private final Integer merchantStoreId;
+
+	public OrderChangedEvent(Long orderId, Integer merchantStoreId) {
+		this.orderId = orderId;
+		this.merchantStoreId = merchantStoreId;
+	}
+
+	public static OrderChangedEvent of(Order order) {
+		return new OrderChangedEvent(order.getId(),
+				order.getMerchant() != null ? order.getMerchant().getId() : null);
+	}
+
+	public Long getOrderId() {
+		return orderId;
+	}
+
+	public Integer getMerchantStoreId() {
+		return merchantStoreId;
+	}
+
+}
@@ -31,7 +31,8 @@ import com.salesmanager.core.business.constants.Constants;
 import com.salesmanager.core.business.exception.ServiceException;
 import com.salesmanager.core.business.modules.order.InvoiceModule;
 import com.salesmanager.core.business.repositories.order.OrderRepository;
-import com.salesmanager.core.business.services.catalog.product.ProductService;
+import com.salesmanager.core.business.services.catalog.product.availability.InventoryReservation;
+import com.salesmanager.core.business.services.catalog.product.availability.InventoryService;
 import com.salesmanager.core.business.services.common.generic.SalesManagerEntityServiceImpl;
 import com.salesmanager.core.business.services.customer.CustomerService;
 import com.salesmanager.core.business.services.order.ordertotal.OrderTotalService;
@@ -40,8 +41,6 @@ import com.salesmanager.core.business.services.payments.TransactionService;
 import com.salesmanager.core.business.services.shipping.ShippingService;
 import com.salesmanager.core.business.services.shoppingcart.ShoppingCartService;
 import com.salesmanager.core.business.services.tax.TaxService;
-import com.salesmanager.core.model.catalog.product.Product;
-import com.salesmanager.core.model.catalog.product.availability.ProductAvailability;
 import com.salesmanager.core.model.catalog.product.price.FinalPrice;
 import com.salesmanager.core.model.common.UserContext;
 import com.salesmanager.core.model.customer.Customer;
@@ -84,7 +83,7 @@ public class OrderServiceCustomImpl extends SalesManagerEntityServiceImpl<Long,
     private PaymentService paymentService;
 
     @Inject
-    private ProductService productService;
+    private InventoryService inventoryService;
 
     @Inject
     private TaxService taxService;
@@ -204,23 +203,8 @@ public class OrderServiceCustomImpl extends SalesManagerEntityServiceImpl<Long,
 		this.update(order);
     	Validate.notNull(order, "Order cannot be null");
     	LOGGER.debug( "Update inventory" );
-        Set<OrderProduct> products = order.getOrderProducts();
-        for(OrderProduct orderProduct : products) {
-            orderProduct.getProductQuantity();
-            Product p = productService.getByCode(orderProduct.getSku(), order.getMerchant());
-            if(p == null)
-                throw new ServiceException(ServiceException.EXCEPTION_INVENTORY_MISMATCH);
-            for(ProductAvailability availability : p.getAvailabilities()) {
-                int qty = availability.getProductQuantity();
-                if(qty < orderProduct.getProductQuantity()) {
-                    //throw new ServiceException(ServiceException.EXCEPTION_INVENTORY_MISMATCH);
-                	LOGGER.error("APP-BACKEND [" + ServiceException.EXCEPTION_INVENTORY_MISMATCH + "]");
-                }
-                qty = qty - orderProduct.getProductQuantity();
-                availability.setProductQuantity(qty);
-            }
-            productService.update(p);
-        }
+    	InventoryReservation reservation = inventoryService.reserve(order);
+    	inventoryService.commit(reservation.getId());
 
     	return order;
     }
@@ -23,23 +23,24 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import com.salesmanager.core.business.constants.Constants;
 import com.salesmanager.core.business.exception.ServiceException;
 import com.salesmanager.core.business.modules.order.InvoiceModule;
 import com.salesmanager.core.business.repositories.order.OrderRepository;
-import com.salesmanager.core.business.services.catalog.product.ProductService;
+import com.salesmanager.core.business.services.catalog.product.availability.InventoryReservation;
+import com.salesmanager.core.business.services.catalog.product.availability.InventoryService;
 import com.salesmanager.core.business.services.common.generic.SalesManagerEntityServiceImpl;
 import com.salesmanager.core.business.services.customer.CustomerService;
 import com.salesmanager.core.business.services.order.ordertotal.OrderTotalService;
 import com.salesmanager.core.business.services.payments.PaymentService;
 import com.salesmanager.core.business.services.payments.TransactionService;
+import com.salesmanager.core.business.services.search.admin.AdminSearchIndex;
 import com.salesmanager.core.business.services.shipping.ShippingService;
 import com.salesmanager.core.business.services.shoppingcart.ShoppingCartService;
 import com.salesmanager.core.business.services.tax.TaxService;
-import com.salesmanager.core.model.catalog.product.Product;
-import com.salesmanager.core.model.catalog.product.availability.ProductAvailability;
 import com.salesmanager.core.model.catalog.product.price.FinalPrice;
 import com.salesmanager.core.model.common.UserContext;
 import com.salesmanager.core.model.customer.Customer;
@@ -81,7 +82,7 @@ public class OrderServiceImpl  extends SalesManagerEntityServiceImpl<Long, Order
     private PaymentService paymentService;
 
     @Inject
-    private ProductService productService;
+    private InventoryService inventoryService;
 
     @Inject
     private TaxService taxService;
@@ -98,6 +99,12 @@ public class OrderServiceImpl  extends SalesManagerEntityServiceImpl<Long, Order
     @Inject
     private OrderTotalService orderTotalService;
 
+    @Inject
+    private AdminSearchIndex adminSearchIndex;
+
+    @Inject
+    private ApplicationEventPublisher eventPublisher;
+
     private final OrderRepository orderRepository;
 
     @Inject
@@ -144,6 +151,14 @@ public class OrderServiceImpl  extends SalesManagerEntityServiceImpl<Long, Order
     	}
 
 
+    	/**
+    	 * reserve inventory before payment, quantities are withdrawn in
+    	 * their own transaction (rows are not locked during payment)
+    	 * and put back if this transaction rolls back
+    	 */
+    	LOGGER.debug( "Reserve inventory" );
+    	InventoryReservation reservation = inventoryService.reserve(store, items);
+
     	//first process payment
     	Transaction processTransaction = paymentService.processPayment(customer, store, payment, items, order);
 
@@ -188,27 +203,7 @@ public class OrderServiceImpl  extends SalesManagerEntityServiceImpl<Long, Order
     		}
     	}
 
-        /**
-         * decrement inventory
-         */
-    	LOGGER.debug( "Update inventory" );
-        Set<OrderProduct> products = order.getOrderProducts();
-        for(OrderProduct orderProduct : products) {
-            orderProduct.getProductQuantity();
-            Product p = productService.getById(orderProduct.getId());
-            if(p == null)
-                throw new ServiceException(ServiceException.EXCEPTION_INVENTORY_MISMATCH);
-            for(ProductAvailability availability : p.getAvailabilities()) {
-                int qty = availability.getProductQuantity();
-                if(qty < orderProduct.getProductQuantity()) {
-                    //throw new ServiceException(ServiceException.EXCEPTION_INVENTORY_MISMATCH);
-                	LOGGER.error("APP-BACKEND [" + ServiceException.EXCEPTION_INVENTORY_MISMATCH + "]");
-                }
-                qty = qty - orderProduct.getProductQuantity();
-                availability.setProductQuantity(qty);
-            }
-            productService.update(p);
-        }
+    	inventoryService.commit(reservation.getId());
 
 
 
@@ -521,11 +516,20 @@ public class OrderServiceImpl  extends SalesManagerEntityServiceImpl<Long, Order
         }
     }
 
+    @Override
+    public void save(final Order order) throws ServiceException {
+        //changes of other nodes are indexed by modification date
+        order.setLastModified(new Date());
+        super.save(order);
+        eventPublisher.publishEvent(OrderChangedEvent.of(order));
+    }
+
     @Override
     public void delete(final Order order) throws ServiceException {
 
 
         super.delete(order);
+        eventPublisher.publishEvent(OrderChangedEvent.of(order));
     }
 
 
@@ -561,6 +565,13 @@ public class OrderServiceImpl  extends SalesManagerEntityServiceImpl<Long, Order
 
     @Override
     public OrderList getOrders(final OrderCriteria criteria, MerchantStore store) {
+        //searches by name, email, phone or number are answered by the admin index
+        OrderList orderList = new OrderList();
+        List<Long> ids = adminSearchIndex.searchOrders(store, criteria, orderList);
+        if(ids!=null) {
+            orderList.setOrders(orderRepository.getByIds(ids));
+            return orderList;
+        }
         return orderRepository.listOrders(store, criteria);
     }
 
@@ -1,7 +1,6 @@
 package com.salesmanager.core.business.services.reference.country;
 
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -9,14 +8,16 @@ import javax.inject.Inject;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 
 import com.salesmanager.core.business.exception.ServiceException;
 import com.salesmanager.core.business.repositories.reference.country.CountryRepository;
 import com.salesmanager.core.business.services.common.generic.SalesManagerEntityServiceImpl;
-import com.salesmanager.core.business.utils.CacheUtils;
+import com.salesmanager.core.business.services.common.version.ContentChangedEvent;
+import com.salesmanager.core.business.services.common.version.ContentScope;
+import com.salesmanager.core.business.services.reference.registry.ReferenceDataRegistry;
 import com.salesmanager.core.model.reference.country.Country;
 import com.salesmanager.core.model.reference.country.CountryDescription;
 import com.salesmanager.core.model.reference.language.Language;
@@ -30,18 +31,31 @@ public class CountryServiceImpl extends SalesManagerEntityServiceImpl<Integer, C
 	private CountryRepository countryRepository;
 	
 	@Inject
-	private CacheUtils cache;
-
+	private ReferenceDataRegistry referenceDataRegistry;
 	
+	@Inject
+	private ApplicationEventPublisher eventPublisher;
+
 	@Inject
 	public CountryServiceImpl(CountryRepository countryRepository) {
 		super(countryRepository);
 		this.countryRepository = countryRepository;
 	}
 	
-	@Cacheable("countrByCode")
 	public Country getByCode(String code) throws ServiceException {
-		return countryRepository.findByIsoCode(code);
+		return referenceDataRegistry.getCountry(code);
+	}
+	
+	@Override
+	public void save(Country country) throws ServiceException {
+		super.save(country);
+		eventPublisher.publishEvent(new ContentChangedEvent(ContentScope.REFERENCE, null));
+	}
+	
+	@Override
+	public void delete(Country country) throws ServiceException {
+		super.delete(country);
+		eventPublisher.publishEvent(new ContentChangedEvent(ContentScope.REFERENCE, null));
 	}
 
 	@Override
@@ -52,18 +66,8 @@ public class CountryServiceImpl extends SalesManagerEntityServiceImpl<Integer, C
 	}
 	
 	@Override
-	@Cacheable("countriesMap")
 	public Map<String,Country> getCountriesMap(Language language) throws ServiceException {
-		
-		List<Country> countries = getCountries(language);
-		
-		Map<String,Country> returnMap = new LinkedHashMap<String,Country>();
-		
-		for(Country country : countries) {
-			returnMap.put(country.getIsoCode(), country);
-		}
-		
-		return returnMap;
+		return referenceDataRegistry.getCountriesMap(language.getCode());
 	}
 	
 	
@@ -82,47 +86,15 @@ public class CountryServiceImpl extends SalesManagerEntityServiceImpl<Integer, C
 	}
 	
 	
-	@SuppressWarnings("unchecked")
 	@Override
 	public List<Country> getCountries(Language language) throws ServiceException {
-		
-		List<Country> countries = null;
-		try {
-
-			countries = (List<Country>) cache.getFromCache("COUNTRIES_" + language.getCode());
-			if(countries==null) {
-			
-				countries = countryRepository.listByLanguage(language.getId());
-			
-				//set names
-				for(Country country : countries) {
-					
-					CountryDescription description = country.getDescriptions().iterator().next();
-					country.setName(description.getName());
-					
-				}
-				
-				cache.putInCache(countries, "COUNTRIES_" + language.getCode());
-			}
-
-		} catch (Exception e) {
-			LOGGER.error("getCountries()", e);
-		}
-		
-		return countries;
-		
-		
+		return referenceDataRegistry.getCountries(language.getCode());
 	}
 
 	@Override
 	public List<Country> listCountryZones(Language language) throws ServiceException {
-		try {
-			return countryRepository.listCountryZonesByLanguage(language.getId());
-		} catch(Exception e) {
-			LOGGER.error("listCountryZones", e);
-			throw new ServiceException(e);
-		}
-
+		// countries of a language hold their zones
+		return referenceDataRegistry.getCountries(language.getCode());
 	}
 
 
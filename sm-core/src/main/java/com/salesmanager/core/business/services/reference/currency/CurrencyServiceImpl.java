@@ -2,27 +2,47 @@ package com.salesmanager.core.business.services.reference.currency;
 
 import javax.inject.Inject;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import com.salesmanager.core.business.exception.ServiceException;
 import com.salesmanager.core.business.repositories.reference.currency.CurrencyRepository;
 import com.salesmanager.core.business.services.common.generic.SalesManagerEntityServiceImpl;
+import com.salesmanager.core.business.services.common.version.ContentChangedEvent;
+import com.salesmanager.core.business.services.common.version.ContentScope;
+import com.salesmanager.core.business.services.reference.registry.ReferenceDataRegistry;
 import com.salesmanager.core.model.reference.currency.Currency;
 
 @Service("currencyService")
 public class CurrencyServiceImpl extends SalesManagerEntityServiceImpl<Long, Currency>
 	implements CurrencyService {
 	
-	private CurrencyRepository currencyRepository;
+	@Inject
+	private ReferenceDataRegistry referenceDataRegistry;
+	
+	@Inject
+	private ApplicationEventPublisher eventPublisher;
 	
 	@Inject
 	public CurrencyServiceImpl(CurrencyRepository currencyRepository) {
 		super(currencyRepository);
-		this.currencyRepository = currencyRepository;
 	}
 
 	@Override
 	public Currency getByCode(String code) {
-		return currencyRepository.getByCode(code);
+		return referenceDataRegistry.getCurrency(code);
+	}
+	
+	@Override
+	public void save(Currency currency) throws ServiceException {
+		super.save(currency);
+		eventPublisher.publishEvent(new ContentChangedEvent(ContentScope.REFERENCE, null));
+	}
+	
+	@Override
+	public void delete(Currency currency) throws ServiceException {
+		super.delete(currency);
+		eventPublisher.publishEvent(new ContentChangedEvent(ContentScope.REFERENCE, null));
 	}
 
 }
@@ -1,6 +1,5 @@
 package com.salesmanager.core.business.services.reference.language;
 
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -9,14 +8,16 @@ import javax.inject.Inject;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import com.salesmanager.core.business.constants.Constants;
 import com.salesmanager.core.business.exception.ServiceException;
 import com.salesmanager.core.business.repositories.reference.language.LanguageRepository;
 import com.salesmanager.core.business.services.common.generic.SalesManagerEntityServiceImpl;
-import com.salesmanager.core.business.utils.CacheUtils;
+import com.salesmanager.core.business.services.common.version.ContentChangedEvent;
+import com.salesmanager.core.business.services.common.version.ContentScope;
+import com.salesmanager.core.business.services.reference.registry.ReferenceDataRegistry;
 import com.salesmanager.core.model.merchant.MerchantStore;
 import com.salesmanager.core.model.reference.language.Language;
 
@@ -33,21 +34,32 @@ public class LanguageServiceImpl extends SalesManagerEntityServiceImpl<Integer,
 	private static final Logger LOGGER = LoggerFactory.getLogger(LanguageServiceImpl.class);
 	
 	@Inject
-	private CacheUtils cache;
+	private ReferenceDataRegistry referenceDataRegistry;
 	
-	private LanguageRepository languageRepository;
+	@Inject
+	private ApplicationEventPublisher eventPublisher;
 	
 	@Inject
 	public LanguageServiceImpl(LanguageRepository languageRepository) {
 		super(languageRepository);
-		this.languageRepository = languageRepository;
 	}
 	
 	
 	@Override
-	@Cacheable("languageByCode")
 	public Language getByCode(String code) throws ServiceException {
-		return languageRepository.findByCode(code);
+		return referenceDataRegistry.getLanguage(code);
+	}
+	
+	@Override
+	public void save(Language language) throws ServiceException {
+		super.save(language);
+		eventPublisher.publishEvent(new ContentChangedEvent(ContentScope.REFERENCE, null));
+	}
+	
+	@Override
+	public void delete(Language language) throws ServiceException {
+		super.delete(language);
+		eventPublisher.publishEvent(new ContentChangedEvent(ContentScope.REFERENCE, null));
 	}
 	
 	@Override
@@ -87,39 +99,13 @@ public class LanguageServiceImpl extends SalesManagerEntityServiceImpl<Integer,
 	
 	@Override
 	public Map<String,Language> getLanguagesMap() throws ServiceException {
-		
-		List<Language> langs = this.getLanguages();
-		Map<String,Language> returnMap = new LinkedHashMap<String,Language>();
-		
-		for(Language lang : langs) {
-			returnMap.put(lang.getCode(), lang);
-		}
-		return returnMap;
-
+		return referenceDataRegistry.getLanguagesMap();
 	}
 	
 	
 	@Override
-	@SuppressWarnings("unchecked")
 	public List<Language> getLanguages() throws ServiceException {
-		
-		
-		List<Language> langs = null;
-		try {
-
-			langs = (List<Language>) cache.getFromCache("LANGUAGES");
-			if(langs==null) {
-				langs = this.list();
-				cache.putInCache(langs, "LANGUAGES");
-			}
-
-		} catch (Exception e) {
-			LOGGER.error("getCountries()", e);
-			throw new ServiceException(e);
-		}
-		
-		return langs;
-		
+		return referenceDataRegistry.getLanguages();
 	}
 	
 	@Override
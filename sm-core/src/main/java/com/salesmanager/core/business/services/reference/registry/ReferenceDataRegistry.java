@@ -0,0 +1,419 @@
+package com.salesmanager.core.business.services.reference.registry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.salesmanager.core.business.constants.Constants;
+import com.salesmanager.core.business.repositories.reference.country.CountryRepository;
+import com.salesmanager.core.business.repositories.reference.currency.CurrencyRepository;
+import com.salesmanager.core.business.repositories.reference.language.LanguageRepository;
+import com.salesmanager.core.business.repositories.reference.zone.ZoneRepository;
+import com.salesmanager.core.business.services.common.version.ContentChangedEvent;
+import com.salesmanager.core.business.services.common.version.ContentScope;
+import com.salesmanager.core.model.reference.country.Country;
+import com.salesmanager.core.model.reference.country.CountryDescription;
+import com.salesmanager.core.model.reference.currency.Currency;
+import com.salesmanager.core.model.reference.language.Language;
+import com.salesmanager.core.model.reference.zone.Zone;
+import com.salesmanager.core.model.reference.zone.ZoneDescription;
+
+/**
+ * Countries, zones, languages and currencies held in memory.
+ *
+ * Reference data is loaded at once (one query per type) in a snapshot of immutable
+ * maps and lists, lookups by code or id and lists by language do not reach
+ * hibernate. Lists by language hold copies of the entities having the
+ * descriptions and name of the language, countries of a language hold
+ * their zones.
+ *
+ * The snapshot is dropped when reference data changes (ContentChangedEvent of
+ * scope REFERENCE) and loaded again on next access. reload() is used when
+ * reference data is changed in the database directly. A snapshot loaded within a
+ * read-write transaction is used by that call only, it may hold uncommitted data.
+ *
+ * Entities are shared, they must not be modified.
+ */
+@Component("referenceDataRegistry")
+public class ReferenceDataRegistry {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ReferenceDataRegistry.class);
+
+	@Inject
+	private LanguageRepository languageRepository;
+
+	@Inject
+	private CurrencyRepository currencyRepository;
+
+	@Inject
+	private CountryRepository countryRepository;
+
+	@Inject
+	private ZoneRepository zoneRepository;
+
+	@Inject
+	private PlatformTransactionManager transactionManager;
+
+	@Inject
+	private ApplicationEventPublisher eventPublisher;
+
+	private volatile Snapshot snapshot;
+
+	/** incremented when reference data changes, a snapshot loaded meanwhile is not kept **/
+	private final AtomicLong generation = new AtomicLong();
+
+	@EventListener
+	public void onStarted(ContextRefreshedEvent event) {
+		try {
+			snapshot();
+		} catch (Exception e) {
+			LOGGER.error("Cannot load reference data", e);
+		}
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onContentChanged(ContentChangedEvent event) {
+		if (event.getScope() == ContentScope.REFERENCE) {
+			invalidate();
+		}
+	}
+
+	/**
+	 * Drops the snapshot, reference data is loaded on next access
+	 */
+	public void invalidate() {
+		generation.incrementAndGet();
+		snapshot = null;
+	}
+
+	/**
+	 * Evicts reference data from the second level cache and loads it again
+	 * from the database
+	 */
+	public void reload() {
+		eventPublisher.publishEvent(new ContentChangedEvent(ContentScope.REFERENCE, null));
+		Snapshot loaded = snapshot();
+		LOGGER.info("Reference data reloaded : " + loaded.languages.size() + " languages, "
+				+ loaded.currenciesById.size() + " currencies, " + loaded.countriesById.size() + " countries, "
+				+ loaded.zonesById.size() + " zones");
+	}
+
+	public boolean isLoaded() {
+		return snapshot != null;
+	}
+
+	public Language getLanguage(String code) {
+		return snapshot().languagesByCode.get(code);
+	}
+
+	public Language getLanguage(Integer id) {
+		return snapshot().languagesById.get(id);
+	}
+
+	public List<Language> getLanguages() {
+		return snapshot().languages;
+	}
+
+	/**
+	 * @return languages by code
+	 */
+	public Map<String, Language> getLanguagesMap() {
+		return snapshot().languagesByCode;
+	}
+
+	public Currency getCurrency(String code) {
+		return snapshot().currenciesByCode.get(code);
+	}
+
+	public Currency getCurrency(Long id) {
+		return snapshot().currenciesById.get(id);
+	}
+
+	/**
+	 * @return country having descriptions in all languages
+	 */
+	public Country getCountry(String isoCode) {
+		return snapshot().countriesByCode.get(isoCode);
+	}
+
+	public Country getCountry(Integer id) {
+		return snapshot().countriesById.get(id);
+	}
+
+	/**
+	 * @return countries having a description in the language, name set
+	 */
+	public List<Country> getCountries(String languageCode) {
+		List<Country> countries = snapshot().countriesByLanguage.get(languageCode);
+		return countries != null ? countries : Collections.<Country>emptyList();
+	}
+
+	/**
+	 * @return countries having a description in the language by iso code, name set
+	 */
+	public Map<String, Country> getCountriesMap(String languageCode) {
+		Map<String, Country> countries = snapshot().countriesMapByLanguage.get(languageCode);
+		return countries != null ? countries : Collections.<String, Country>emptyMap();
+	}
+
+	/**
+	 * @return zone having descriptions in all languages
+	 */
+	public Zone getZone(String code) {
+		return snapshot().zonesByCode.get(code);
+	}
+
+	public Zone getZone(Long id) {
+		return snapshot().zonesById.get(id);
+	}
+
+	/**
+	 * @return zones having a description in the language by zone code, name set
+	 */
+	public Map<String, Zone> getZones(String languageCode) {
+		Map<String, Zone> zones = snapshot().zonesByLanguage.get(languageCode);
+		return zones != null ? zones : Collections.<String, Zone>emptyMap();
+	}
+
+	/**
+	 * @return zones of a country having a description in the language, name set
+	 */
+	public List<Zone> getZones(String countryIsoCode, String languageCode) {
+		List<Zone> zones = snapshot().zonesByCountry.get(key(countryIsoCode, languageCode));
+		return zones != null ? zones : Collections.<Zone>emptyList();
+	}
+
+	private static String key(String countryIsoCode, String languageCode) {
+		return countryIsoCode + Constants.UNDERSCORE + languageCode;
+	}
+
+	private Snapshot snapshot() {
+
+		Snapshot current = snapshot;
+		if (current != null) {
+			return current;
+		}
+
+		if (TransactionSynchronizationManager.isActualTransactionActive()
+				&& !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			// may see data written and not committed yet (database initialization), used by this call only
+			return load();
+		}
+
+		synchronized (this) {
+			if (snapshot == null) {
+				long loading = generation.get();
+				Snapshot loaded = load();
+				if (loaded.languages.isEmpty() || loading != generation.get()) {
+					// database not populated yet or changed while loading
+					return loaded;
+				}
+				snapshot = loaded;
+			}
+			return snapshot;
+		}
+	}
+
+	private Snapshot load() {
+
+		DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+		definition.setReadOnly(true);
+		TransactionStatus status = transactionManager.getTransaction(definition);
+		try {
+			Snapshot loaded = new Snapshot(languageRepository.findAll(), currencyRepository.findAll(),
+					countryRepository.listWithDescriptions(), zoneRepository.listWithDescriptions());
+			transactionManager.commit(status);
+			return loaded;
+		} catch (RuntimeException e) {
+			if (!status.isCompleted()) {
+				transactionManager.rollback(status);
+			}
+			throw e;
+		}
+	}
+
+	private static class Snapshot {
+
+		private final List<Language> languages;
+		private final Map<String, Language> languagesByCode;
+		private final Map<Integer, Language> languagesById;
+
+		private final Map<String, Currency> currenciesByCode;
+		private final Map<Long, Currency> currenciesById;
+
+		private final Map<String, Country> countriesByCode;
+		private final Map<Integer, Country> countriesById;
+
+		private final Map<String, Zone> zonesByCode;
+		private final Map<Long, Zone> zonesById;
+
+		/** by language code **/
+		private final Map<String, List<Country>> countriesByLanguage;
+		private final Map<String, Map<String, Country>> countriesMapByLanguage;
+		private final Map<String, Map<String, Zone>> zonesByLanguage;
+		/** by country iso code and language code **/
+		private final Map<String, List<Zone>> zonesByCountry;
+
+		Snapshot(List<Language> languages, List<Currency> currencies, List<Country> countries, List<Zone> zones) {
+
+			this.languages = Collections.unmodifiableList(new ArrayList<Language>(languages));
+			Map<String, Language> languagesByCode = new LinkedHashMap<String, Language>();
+			Map<Integer, Language> languagesById = new HashMap<Integer, Language>();
+			for (Language language : languages) {
+				languagesByCode.put(language.getCode(), language);
+				languagesById.put(language.getId(), language);
+			}
+			this.languagesByCode = Collections.unmodifiableMap(languagesByCode);
+			this.languagesById = Collections.unmodifiableMap(languagesById);
+
+			Map<String, Currency> currenciesByCode = new HashMap<String, Currency>();
+			Map<Long, Currency> currenciesById = new HashMap<Long, Currency>();
+			for (Currency currency : currencies) {
+				currenciesByCode.put(currency.getCode(), currency);
+				currenciesById.put(currency.getId(), currency);
+			}
+			this.currenciesByCode = Collections.unmodifiableMap(currenciesByCode);
+			this.currenciesById = Collections.unmodifiableMap(currenciesById);
+
+			Map<String, Country> countriesByCode = new HashMap<String, Country>();
+			Map<Integer, Country> countriesById = new HashMap<Integer, Country>();
+			for (Country country : countries) {
+				countriesByCode.put(country.getIsoCode(), country);
+				countriesById.put(country.getId(), country);
+			}
+			this.countriesByCode = Collections.unmodifiableMap(countriesByCode);
+			this.countriesById = Collections.unmodifiableMap(countriesById);
+
+			Map<String, Zone> zonesByCode = new HashMap<String, Zone>();
+			Map<Long, Zone> zonesById = new HashMap<Long, Zone>();
+			for (Zone zone : zones) {
+				// same country instance as the registry, zones loaded in their own session otherwise
+				Country country = countriesById.get(zone.getCountry().getId());
+				if (country != null && country != zone.getCountry()) {
+					zone.setCountry(country);
+				}
+				zonesByCode.put(zone.getCode(), zone);
+				zonesById.put(zone.getId(), zone);
+			}
+			this.zonesByCode = Collections.unmodifiableMap(zonesByCode);
+			this.zonesById = Collections.unmodifiableMap(zonesById);
+
+			Map<String, List<Country>> countriesByLanguage = new HashMap<String, List<Country>>();
+			Map<String, Map<String, Country>> countriesMapByLanguage = new HashMap<String, Map<String, Country>>();
+			Map<String, Map<String, Zone>> zonesByLanguage = new HashMap<String, Map<String, Zone>>();
+			Map<String, List<Zone>> zonesByCountry = new HashMap<String, List<Zone>>();
+			for (Language language : languages) {
+
+				Map<String, Country> languageCountries = new LinkedHashMap<String, Country>();
+				// zones described in the language
+				Map<String, List<Zone>> languageCountryZones = new HashMap<String, List<Zone>>();
+				// all zones, as Country.getZones()
+				Map<String, Set<Zone>> countryZones = new HashMap<String, Set<Zone>>();
+				for (Country country : countries) {
+					Country copy = copy(country, language);
+					if (copy != null) {
+						languageCountries.put(copy.getIsoCode(), copy);
+						languageCountryZones.put(copy.getIsoCode(), new ArrayList<Zone>());
+						countryZones.put(copy.getIsoCode(), new LinkedHashSet<Zone>());
+					}
+				}
+
+				Map<String, Zone> languageZones = new LinkedHashMap<String, Zone>();
+				for (Zone zone : zones) {
+					String isoCode = zone.getCountry().getIsoCode();
+					Zone copy = copy(zone, languageCountries.get(isoCode), language);
+					if (copy != null) {
+						languageZones.put(copy.getCode(), copy);
+					}
+					if (languageCountries.containsKey(isoCode)) {
+						countryZones.get(isoCode).add(copy != null ? copy : zone);
+						if (copy != null) {
+							languageCountryZones.get(isoCode).add(copy);
+						}
+					}
+				}
+
+				for (Country country : languageCountries.values()) {
+					country.setZones(Collections.unmodifiableSet(countryZones.get(country.getIsoCode())));
+					zonesByCountry.put(key(country.getIsoCode(), language.getCode()),
+							Collections.unmodifiableList(languageCountryZones.get(country.getIsoCode())));
+				}
+
+				countriesByLanguage.put(language.getCode(),
+						Collections.unmodifiableList(new ArrayList<Country>(languageCountries.values())));
+				countriesMapByLanguage.put(language.getCode(), Collections.unmodifiableMap(languageCountries));
+				zonesByLanguage.put(language.getCode(), Collections.unmodifiableMap(languageZones));
+			}
+			this.countriesByLanguage = Collections.unmodifiableMap(countriesByLanguage);
+			this.countriesMapByLanguage = Collections.unmodifiableMap(countriesMapByLanguage);
+			this.zonesByLanguage = Collections.unmodifiableMap(zonesByLanguage);
+			this.zonesByCountry = Collections.unmodifiableMap(zonesByCountry);
+		}
+
+		/**
+		 * @return country having the descriptions of the language only, null when not described in that language
+		 */
+		private static Country copy(Country country, Language language) {
+			Set<CountryDescription> descriptions = new LinkedHashSet<CountryDescription>();
+			for (CountryDescription description : country.getDescriptions()) {
+				if (language.getCode().equals(description.getLanguage().getCode())) {
+					descriptions.add(description);
+				}
+			}
+			if (descriptions.isEmpty()) {
+				return null;
+			}
+			Country copy = new Country(country.getIsoCode());
+			copy.setId(country.getId());
+			copy.setSupported(country.getSupported());
+			copy.setGeoZone(country.getGeoZone());
+			copy.setDescriptions(Collections.unmodifiableSet(descriptions));
+			copy.setName(descriptions.iterator().next().getName());
+			return copy;
+		}
+
+		/**
+		 * @return zone having the descriptions of the language only, null when not described in that language
+		 */
+		private static Zone copy(Zone zone, Country country, Language language) {
+			List<ZoneDescription> descriptions = new ArrayList<ZoneDescription>();
+			for (ZoneDescription description : zone.getDescriptions()) {
+				if (language.getCode().equals(description.getLanguage().getCode())) {
+					descriptions.add(description);
+				}
+			}
+			if (descriptions.isEmpty()) {
+				return null;
+			}
+			Zone copy = new Zone();
+			copy.setId(zone.getId());
+			copy.setCode(zone.getCode());
+			copy.setCountry(country != null ? country : zone.getCountry());
+			copy.setDescriptons(Collections.unmodifiableList(descriptions));
+			copy.setName(descriptions.get(0).getName());
+			return copy;
+		}
+
+	}
+
+}
@@ -0,0 +1,43 @@
+package com.salesmanager.core.business.services.rules;
+
+import java.util.Map;
+
+import com.salesmanager.core.business.exception.ServiceException;
+
+/**
+ * Drools rule engine facade. Every drl file found under
+ * com/salesmanager/drools/rules/ is compiled once into its own
+ * KieBase and evaluations are made with stateless sessions
+ * created from that pre-compiled KieBase.
+ * 
+ * A rule set is identified by its file name (ex PromoCoupon.drl)
+ * 
+ * @author carlsamson
+ *
+ */
+public interface RuleEngineService {
+	
+	/**
+	 * Evaluates a rule set against a list of facts
+	 * @param ruleSet drl file name
+	 * @param globals globals required by the rule set (name / value)
+	 * @param facts facts to be inserted
+	 * @throws ServiceException
+	 */
+	void execute(String ruleSet, Map<String, Object> globals, Object... facts) throws ServiceException;
+	
+	/**
+	 * Re-compiles a rule set. The previous KieBase is kept if the
+	 * new version does not compile
+	 * @param ruleSet drl file name
+	 * @throws ServiceException
+	 */
+	void reload(String ruleSet) throws ServiceException;
+	
+	/**
+	 * Compile and evaluation timings by rule set
+	 * @return
+	 */
+	Map<String, RuleSetStatistics> getStatistics();
+
+}
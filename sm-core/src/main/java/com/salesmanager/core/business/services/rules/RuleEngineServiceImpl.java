@@ -0,0 +1,196 @@
+package com.salesmanager.core.business.services.rules;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PostConstruct;
+
+import org.apache.commons.lang3.Validate;
+import org.kie.api.KieBase;
+import org.kie.api.io.ResourceType;
+import org.kie.api.runtime.StatelessKieSession;
+import org.kie.internal.io.ResourceFactory;
+import org.kie.internal.utils.KieHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.salesmanager.core.business.exception.ServiceException;
+
+/**
+ * Compiles all drl files at startup. Each rule set gets its own KieBase
+ * because rule files share the same package and facts but declare
+ * different globals (a single KieBase would fire every rule for each fact).
+ * 
+ * A compiled KieBase is immutable, it is replaced atomically when
+ * the file backing the rule set changes on disk (exploded deployments only).
+ * 
+ * @author carlsamson
+ *
+ */
+@Service("ruleEngineService")
+public class RuleEngineServiceImpl implements RuleEngineService {
+	
+	private static final Logger LOGGER = LoggerFactory.getLogger(RuleEngineServiceImpl.class);
+	
+	public static final String RULES_PATH = "com/salesmanager/drools/rules/";
+	private static final String RULES_PATTERN = "classpath*:" + RULES_PATH + "*.drl";
+	
+	@Autowired
+	private ResourcePatternResolver resourceResolver;
+	
+	private final Map<String, CompiledRuleSet> ruleSets = new ConcurrentHashMap<String, CompiledRuleSet>();
+	private final Map<String, Counters> counters = new ConcurrentHashMap<String, Counters>();
+	
+	@PostConstruct
+	public void init() throws IOException {
+		Resource[] resources = resourceResolver.getResources(RULES_PATTERN);
+		for(Resource resource : resources) {
+			try {
+				compile(resource);
+			} catch (ServiceException e) {
+				LOGGER.error("Rule set " + resource.getFilename() + " cannot be compiled", e);
+			}
+		}
+		LOGGER.info("Rule engine initialized with " + ruleSets.size() + " rule sets " + ruleSets.keySet());
+	}
+
+	@Override
+	public void execute(String ruleSet, Map<String, Object> globals, Object... facts) throws ServiceException {
+		Validate.notNull(ruleSet, "Rule set must not be null");
+		
+		CompiledRuleSet compiled = ruleSets.get(ruleSet);
+		if(compiled == null) {
+			throw new ServiceException("Rule set " + ruleSet + " is not loaded");
+		}
+		
+		long start = System.nanoTime();
+		StatelessKieSession session = compiled.kieBase.newStatelessKieSession();
+		if(globals != null) {
+			for(Map.Entry<String, Object> global : globals.entrySet()) {
+				session.setGlobal(global.getKey(), global.getValue());
+			}
+		}
+		try {
+			session.execute(Arrays.asList(facts));
+		} catch (RuntimeException e) {
+			throw new ServiceException("Error while evaluating rule set " + ruleSet, e);
+		} finally {
+			Counters c = counters(ruleSet);
+			c.evaluations.increment();
+			c.evaluationNanos.add(System.nanoTime() - start);
+		}
+	}
+
+	@Override
+	public void reload(String ruleSet) throws ServiceException {
+		Validate.notNull(ruleSet, "Rule set must not be null");
+		CompiledRuleSet current = ruleSets.get(ruleSet);
+		Resource resource = current != null ? current.resource : resourceResolver.getResource("classpath:" + RULES_PATH + ruleSet);
+		if(!resource.exists()) {
+			throw new ServiceException("Rule set " + ruleSet + " does not exist");
+		}
+		compile(resource);
+		counters(ruleSet).reloads.incrementAndGet();
+	}
+	
+	/**
+	 * Checks rule files modification time and re-compiles
+	 * the ones that changed
+	 */
+	@Scheduled(fixedDelayString = "${config.rules.reload.interval:30000}")
+	public void reloadModified() {
+		for(CompiledRuleSet compiled : ruleSets.values()) {
+			long lastModified = lastModified(compiled.resource);
+			if(lastModified > compiled.lastModified) {
+				LOGGER.info("Rule set " + compiled.name + " has changed, reloading");
+				try {
+					reload(compiled.name);
+				} catch (ServiceException e) {
+					LOGGER.error("Cannot reload rule set " + compiled.name + ", keeping previous version", e);
+				}
+			}
+		}
+	}
+
+	@Override
+	public Map<String, RuleSetStatistics> getStatistics() {
+		Map<String, RuleSetStatistics> statistics = new HashMap<String, RuleSetStatistics>();
+		for(CompiledRuleSet compiled : ruleSets.values()) {
+			Counters c = counters(compiled.name);
+			statistics.put(compiled.name, new RuleSetStatistics(compiled.name, compiled.compileTimeMillis,
+					compiled.compiledAt, c.reloads.get(), c.evaluations.sum(), c.evaluationNanos.sum()));
+		}
+		return Collections.unmodifiableMap(statistics);
+	}
+	
+	/**
+	 * KieHelper builds in the default release id of the shared
+	 * KieRepository, compilations must not overlap
+	 */
+	private synchronized void compile(Resource resource) throws ServiceException {
+		String name = resource.getFilename();
+		long lastModified = lastModified(resource);
+		long start = System.currentTimeMillis();
+		KieBase kieBase = null;
+		try {
+			KieHelper helper = new KieHelper();
+			helper.addResource(ResourceFactory.newInputStreamResource(resource.getInputStream()), ResourceType.DRL);
+			kieBase = helper.build();
+		} catch (IOException | RuntimeException e) {
+			throw new ServiceException("Cannot compile rule set " + name, e);
+		}
+		long compileTime = System.currentTimeMillis() - start;
+		ruleSets.put(name, new CompiledRuleSet(name, resource, kieBase, lastModified, compileTime));
+		LOGGER.debug("Rule set " + name + " compiled in " + compileTime + "ms");
+	}
+	
+	private long lastModified(Resource resource) {
+		try {
+			if(resource.isFile()) {
+				return resource.lastModified();
+			}
+		} catch (IOException e) {
+			LOGGER.warn("Cannot get modification time of " + resource.getFilename());
+		}
+		return 0L;
+	}
+	
+	private Counters counters(String ruleSet) {
+		return counters.computeIfAbsent(ruleSet, k -> new Counters());
+	}
+	
+	private static final class CompiledRuleSet {
+		private final String name;
+		private final Resource resource;
+		private final KieBase kieBase;
+		private final long lastModified;
+		private final long compileTimeMillis;
+		private final long compiledAt = System.currentTimeMillis();
+		
+		CompiledRuleSet(String name, Resource resource, KieBase kieBase, long lastModified, long compileTimeMillis) {
+			this.name = name;
+			this.resource = resource;
+			this.kieBase = kieBase;
+			this.lastModified = lastModified;
+			this.compileTimeMillis = compileTimeMillis;
+		}
+	}
+	
+	private static final class Counters {
+		private final LongAdder evaluations = new LongAdder();
+		private final LongAdder evaluationNanos = new LongAdder();
+		private final AtomicLong reloads = new AtomicLong();
+	}
+
+}
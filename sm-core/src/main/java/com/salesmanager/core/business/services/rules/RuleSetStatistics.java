@@ -0,0 +1,62 @@
+package com.salesmanager.core.business.services.rules;
+
+import java.io.Serializable;
+
+/**
+ * Read only view of a compiled rule set timings
+ * @author carlsamson
+ *
+ */
+public class RuleSetStatistics implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+	
+	private final String ruleSet;
+	private final long compileTimeMillis;
+	private final long compiledAt;
+	private final long reloadCount;
+	private final long evaluationCount;
+	private final long evaluationTotalNanos;
+	
+	public RuleSetStatistics(String ruleSet, long compileTimeMillis, long compiledAt, long reloadCount,
+			long evaluationCount, long evaluationTotalNanos) {
+		this.ruleSet = ruleSet;
+		this.compileTimeMillis = compileTimeMillis;
+		this.compiledAt = compiledAt;
+		this.reloadCount = reloadCount;
+		this.evaluationCount = evaluationCount;
+		this.evaluationTotalNanos = evaluationTotalNanos;
+	}
+
+	public String getRuleSet() {
+		return ruleSet;
+	}
+
+	public long getCompileTimeMillis() {
+		return compileTimeMillis;
+	}
+
+	public long getCompiledAt() {
+		return compiledAt;
+	}
+
+	public long getReloadCount() {
+		return reloadCount;
+	}
+
+	public long getEvaluationCount() {
+		return evaluationCount;
+	}
+
+	public long getEvaluationTotalNanos() {
+		return evaluationTotalNanos;
+	}
+	
+	public double getEvaluationAverageMillis() {
+		if(evaluationCount == 0) {
+			return 0;
+		}
+		return (evaluationTotalNanos / (double)evaluationCount) / 1_000_000d;
+	}
+
+}
@@ -59,7 +59,7 @@ public class SearchServiceImpl implements com.salesmanager.core.business.service
 		searchService.initService();
 	}
 
-	@Async
+	@Async("indexExecutor")
 	@SuppressWarnings("rawtypes")
 	public void index(MerchantStore store, Product product)
 			throws ServiceException {
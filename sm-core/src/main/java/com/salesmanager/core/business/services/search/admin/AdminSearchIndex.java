@@ -0,0 +1,693 @@
+package com.salesmanager.core.business.services.search.admin;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.ngram.EdgeNGramTokenFilter;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.util.CharTokenizer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field.Store;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.IndexWriterConfig.OpenMode;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.ControlledRealTimeReopenThread;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.salesmanager.core.business.exception.ServiceException;
+import com.salesmanager.core.business.repositories.customer.CustomerRepository;
+import com.salesmanager.core.business.repositories.order.OrderRepository;
+import com.salesmanager.core.business.services.customer.CustomerChangedEvent;
+import com.salesmanager.core.business.services.order.OrderChangedEvent;
+import com.salesmanager.core.model.common.Criteria;
+import com.salesmanager.core.model.common.CriteriaOrderBy;
+import com.salesmanager.core.model.common.EntityList;
+import com.salesmanager.core.model.customer.Customer;
+import com.salesmanager.core.model.customer.CustomerCriteria;
+import com.salesmanager.core.model.merchant.MerchantStore;
+import com.salesmanager.core.model.order.Order;
+import com.salesmanager.core.model.order.OrderCriteria;
+import com.salesmanager.core.model.order.orderstatus.OrderStatus;
+
+/**
+ * Embedded lucene index (local disk) of orders and customers used by
+ * administration searches on names, emails, phones, order numbers and countries.
+ *
+ * Like '%...%' predicates can't use database indexes, searches are answered
+ * here with the ids of the requested page and only those are loaded from the
+ * database. A searched word matches indexed words starting with it.
+ *
+ * - documents are written after commit from OrderChangedEvent and CustomerChangedEvent,
+ *   searchable within the refresh interval and committed to disk every commit interval
+ * - the index is rebuilt at startup when it does not match the database,
+ *   searches return null (callers query the database) until the index is complete
+ * - documents changed while a rebuild runs are indexed again from the database
+ *   once the rebuild is done, the rebuild may have read them before the change
+ * - every node maintains its own index from its own writes, orders and customers
+ *   changed by other nodes are indexed every catch up interval (by modification date),
+ *   the index is rebuilt when rows were deleted by other nodes
+ */
+@Component("adminSearchIndex")
+public class AdminSearchIndex {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(AdminSearchIndex.class);
+
+	private static final String ORDER = "order";
+	private static final String CUSTOMER = "customer";
+
+	private static final String KEY = "key";
+	private static final String TYPE = "type";
+	private static final String STORE = "store";
+	private static final String ID = "id";
+	private static final String NUMBER = "number";
+	private static final String NAME = "name";
+	private static final String FIRST_NAME = "firstName";
+	private static final String LAST_NAME = "lastName";
+	private static final String EMAIL = "email";
+	private static final String PHONE = "phone";
+	private static final String COUNTRY = "country";
+	private static final String STATUS = "status";
+
+	/** longest indexed prefix, longer searched words are truncated **/
+	private static final int MAX_GRAM = 20;
+
+	private static final int REBUILD_PAGE_SIZE = 500;
+
+	@Value("${config.admin.index.enabled:true}")
+	private boolean enabled;
+
+	@Value("${config.admin.index.location:./files/index/admin}")
+	private String location;
+
+	@Value("${config.admin.index.commitInterval:1000}")
+	private long commitInterval;
+
+	@Value("${config.admin.index.refreshInterval:1000}")
+	private long refreshInterval;
+
+	@Value("${config.admin.index.catchUpInterval:60000}")
+	private long catchUpInterval;
+
+	@Inject
+	private OrderRepository orderRepository;
+
+	@Inject
+	private CustomerRepository customerRepository;
+
+	private final Analyzer indexAnalyzer = analyzer(true);
+	private final Analyzer queryAnalyzer = analyzer(false);
+
+	private Directory directory;
+	private IndexWriter writer;
+	private SearcherManager searcherManager;
+	private ControlledRealTimeReopenThread<IndexSearcher> refresher;
+	private ScheduledExecutorService executor;
+
+	/** sequence number of the last change written **/
+	private final AtomicLong lastChange = new AtomicLong();
+	/** start of the last catch up, changes made since by other nodes are indexed on next catch up **/
+	private volatile long lastCatchUp = System.currentTimeMillis();
+
+	private final AtomicBoolean started = new AtomicBoolean();
+	private volatile boolean ready;
+
+	/** ids changed during a rebuild, indexed again when it ends **/
+	private volatile boolean rebuilding;
+	private final Set<Long> changedOrders = ConcurrentHashMap.newKeySet();
+	private final Set<Long> changedCustomers = ConcurrentHashMap.newKeySet();
+
+	@PostConstruct
+	public void init() {
+		if (!enabled) {
+			return;
+		}
+		try {
+			directory = FSDirectory.open(Paths.get(location));
+			writer = new IndexWriter(directory, new IndexWriterConfig(indexAnalyzer).setOpenMode(OpenMode.CREATE_OR_APPEND));
+			searcherManager = new SearcherManager(writer, null);
+			//searchers are reopened on this thread, not on the threads writing
+			refresher = new ControlledRealTimeReopenThread<IndexSearcher>(writer, searcherManager,
+					refreshInterval / 1000.0, 0);
+			refresher.setName("admin-search-index-refresh");
+			refresher.setDaemon(true);
+			refresher.start();
+		} catch (IOException e) {
+			//also thrown when the index is locked by another process
+			LOGGER.warn("Admin search index can't be opened in " + location + ", searches use the database", e);
+			closeQuietly();
+			return;
+		}
+		executor = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "admin-search-index");
+			t.setDaemon(true);
+			return t;
+		});
+		executor.scheduleWithFixedDelay(this::commit, commitInterval, commitInterval, TimeUnit.MILLISECONDS);
+		executor.scheduleWithFixedDelay(this::catchUp, catchUpInterval, catchUpInterval, TimeUnit.MILLISECONDS);
+	}
+
+	@EventListener
+	public void onStarted(ContextRefreshedEvent event) {
+		if (writer != null && started.compareAndSet(false, true)) {
+			executor.execute(this::verify);
+		}
+	}
+
+	@PreDestroy
+	public void close() {
+		if (writer == null) {
+			return;
+		}
+		ready = false;
+		executor.shutdown();
+		try {
+			executor.awaitTermination(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		commit();
+		closeQuietly();
+	}
+
+	public boolean isReady() {
+		return ready;
+	}
+
+	/**
+	 * Waits until the changes written so far are searchable, searches see
+	 * them within the refresh interval without waiting
+	 */
+	public void refresh() {
+		if (refresher == null) {
+			return;
+		}
+		try {
+			refresher.waitForGeneration(lastChange.get());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Ids of the orders of the requested page matching the customer name, email,
+	 * phone or order number of the criteria (status narrows the search). Total count
+	 * and pages are set on the list. Returns null when the criteria has none of the
+	 * searched fields or when the index is not ready, the database must be queried.
+	 */
+	public List<Long> searchOrders(MerchantStore store, OrderCriteria criteria, EntityList list) {
+
+		Map<String, String> terms = new LinkedHashMap<String, String>();
+		put(terms, NAME, criteria.getCustomerName());
+		put(terms, EMAIL, criteria.getEmail());
+		put(terms, PHONE, criteria.getCustomerPhone());
+		put(terms, NUMBER, criteria.getId() != null ? String.valueOf(criteria.getId()) : null);
+		if (terms.isEmpty()) {
+			return null;
+		}
+
+		BooleanQuery.Builder query = query(ORDER, store, terms);
+		if (!StringUtils.isBlank(criteria.getStatus())) {
+			query.add(new TermQuery(new Term(STATUS, OrderStatus.valueOf(criteria.getStatus().toUpperCase()).name())),
+					Occur.FILTER);
+		}
+		return search(query.build(), criteria, list);
+	}
+
+	/**
+	 * Ids of the customers of the requested page matching the names, email or
+	 * country of the criteria. Returns null when the database must be queried.
+	 */
+	public List<Long> searchCustomers(MerchantStore store, CustomerCriteria criteria, EntityList list) {
+
+		Map<String, String> terms = new LinkedHashMap<String, String>();
+		put(terms, NAME, criteria.getName());
+		put(terms, FIRST_NAME, criteria.getFirstName());
+		put(terms, LAST_NAME, criteria.getLastName());
+		put(terms, EMAIL, criteria.getEmail());
+		put(terms, COUNTRY, criteria.getCountry());
+		if (terms.isEmpty()) {
+			return null;
+		}
+		return search(query(CUSTOMER, store, terms).build(), criteria, list);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onOrderChanged(OrderChangedEvent event) {
+		if (writer == null || event.getOrderId() == null) {
+			return;
+		}
+		if (rebuilding) {
+			changedOrders.add(event.getOrderId());
+		}
+		indexOrder(event.getOrderId());
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onCustomerChanged(CustomerChangedEvent event) {
+		if (writer == null || event.getCustomerId() == null) {
+			return;
+		}
+		if (rebuilding) {
+			changedCustomers.add(event.getCustomerId());
+		}
+		indexCustomer(event.getCustomerId());
+	}
+
+	/**
+	 * Indexes again all the orders and customers of a store, or of all
+	 * stores when storeId is null. Searches query the database meanwhile.
+	 */
+	public synchronized void rebuild(Integer storeId) throws ServiceException {
+
+		if (writer == null) {
+			throw new ServiceException("Admin search index is not enabled");
+		}
+
+		ready = false;
+		changedOrders.clear();
+		changedCustomers.clear();
+		rebuilding = true;
+		long start = System.currentTimeMillis();
+		try {
+			if (storeId == null) {
+				writer.deleteAll();
+			} else {
+				writer.deleteDocuments(new Term(STORE, String.valueOf(storeId)));
+			}
+
+			int orders = 0;
+			List<Order> orderPage = orderPage(storeId, 0L);
+			while (!orderPage.isEmpty()) {
+				for (Order order : orderPage) {
+					writer.updateDocument(key(ORDER, order.getId()), document(order));
+				}
+				orders += orderPage.size();
+				orderPage = orderPage(storeId, orderPage.get(orderPage.size() - 1).getId());
+			}
+
+			int customers = 0;
+			List<Customer> customerPage = customerPage(storeId, 0L);
+			while (!customerPage.isEmpty()) {
+				for (Customer customer : customerPage) {
+					writer.updateDocument(key(CUSTOMER, customer.getId()), document(customer));
+				}
+				customers += customerPage.size();
+				customerPage = customerPage(storeId, customerPage.get(customerPage.size() - 1).getId());
+			}
+
+			//pages may have been read before a change indexed meanwhile
+			rebuilding = false;
+			reindexChanged();
+
+			writer.commit();
+			searcherManager.maybeRefreshBlocking();
+			ready = true;
+			LOGGER.info("Admin search index rebuilt with " + orders + " orders and " + customers + " customers in "
+					+ (System.currentTimeMillis() - start) + " ms");
+		} catch (IOException e) {
+			throw new ServiceException("Cannot rebuild admin search index", e);
+		} finally {
+			rebuilding = false;
+		}
+	}
+
+	/**
+	 * Rebuilds in the background
+	 */
+	public void rebuildAsync(Integer storeId) throws ServiceException {
+		if (writer == null) {
+			throw new ServiceException("Admin search index is not enabled");
+		}
+		executor.execute(() -> {
+			try {
+				rebuild(storeId);
+			} catch (Exception e) {
+				LOGGER.error("Cannot rebuild admin search index", e);
+			}
+		});
+	}
+
+	/**
+	 * Indexes the orders and customers changed since the previous catch up,
+	 * including those changed by other nodes. Scheduled every catch up interval,
+	 * can be invoked directly.
+	 */
+	public void catchUp() {
+		if (writer == null || !ready) {
+			//verified or rebuilt
+			return;
+		}
+		long start = System.currentTimeMillis();
+		//one interval of overlap for clock differences and transactions committed late
+		Date since = new Date(lastCatchUp - catchUpInterval);
+		try {
+			for (Long id : orderRepository.listModifiedSince(since)) {
+				indexOrder(id);
+			}
+			for (Long id : customerRepository.listModifiedSince(since)) {
+				indexCustomer(id);
+			}
+			lastCatchUp = start;
+
+			long orders;
+			long customers;
+			refresh();
+			IndexSearcher searcher = searcherManager.acquire();
+			try {
+				orders = searcher.count(new TermQuery(new Term(TYPE, ORDER)));
+				customers = searcher.count(new TermQuery(new Term(TYPE, CUSTOMER)));
+			} finally {
+				searcherManager.release(searcher);
+			}
+			if (orders > orderRepository.count() || customers > customerRepository.count()) {
+				LOGGER.info("Admin search index has documents deleted by other nodes, rebuilding");
+				rebuild(null);
+			}
+		} catch (Exception e) {
+			LOGGER.error("Cannot catch up admin search index", e);
+		}
+	}
+
+	private void indexOrder(Long id) {
+		try {
+			Order order = orderRepository.findById(id).orElse(null);
+			if (order == null) {
+				changed(writer.deleteDocuments(key(ORDER, id)));
+			} else {
+				changed(writer.updateDocument(key(ORDER, order.getId()), document(order)));
+			}
+		} catch (Exception e) {
+			LOGGER.error("Cannot index order " + id, e);
+		}
+	}
+
+	private void indexCustomer(Long id) {
+		try {
+			Customer customer = customerRepository.findWithBilling(id);
+			if (customer == null) {
+				changed(writer.deleteDocuments(key(CUSTOMER, id)));
+			} else {
+				changed(writer.updateDocument(key(CUSTOMER, customer.getId()), document(customer)));
+			}
+		} catch (Exception e) {
+			LOGGER.error("Cannot index customer " + id, e);
+		}
+	}
+
+	private void changed(long sequenceNumber) {
+		lastChange.accumulateAndGet(sequenceNumber, Math::max);
+	}
+
+	private void reindexChanged() {
+		for (Long id : new ArrayList<Long>(changedOrders)) {
+			changedOrders.remove(id);
+			indexOrder(id);
+		}
+		for (Long id : new ArrayList<Long>(changedCustomers)) {
+			changedCustomers.remove(id);
+			indexCustomer(id);
+		}
+	}
+
+	private void verify() {
+		try {
+			long orders;
+			long customers;
+			IndexSearcher searcher = searcherManager.acquire();
+			try {
+				orders = searcher.count(new TermQuery(new Term(TYPE, ORDER)));
+				customers = searcher.count(new TermQuery(new Term(TYPE, CUSTOMER)));
+			} finally {
+				searcherManager.release(searcher);
+			}
+			if (orders == orderRepository.count() && customers == customerRepository.count()) {
+				ready = true;
+				return;
+			}
+			LOGGER.info("Admin search index does not match the database, rebuilding");
+			rebuild(null);
+		} catch (Exception e) {
+			LOGGER.error("Admin search index can't be verified, searches use the database", e);
+		}
+	}
+
+	private List<Long> search(Query query, Criteria criteria, EntityList list) {
+
+		if (!ready) {
+			return null;
+		}
+
+		IndexSearcher searcher = null;
+		try {
+			searcher = searcherManager.acquire();
+			int total = searcher.count(query);
+
+			//same paging as RepositoryHelper
+			int offset = 0;
+			int limit = total;
+			if (criteria.isLegacyPagination()) {
+				if (criteria.getMaxCount() > 0) {
+					offset = criteria.getStartIndex();
+					limit = criteria.getMaxCount();
+				}
+			} else {
+				offset = criteria.getStartPage() * criteria.getPageSize();
+				limit = criteria.getPageSize();
+				list.setTotalPages((total / criteria.getPageSize()) + 1);
+			}
+			list.setTotalCount(total);
+
+			if (total == 0 || offset >= total || limit <= 0) {
+				return Collections.emptyList();
+			}
+
+			boolean ascending = criteria.getOrderBy() != null
+					&& CriteriaOrderBy.ASC.name().equals(criteria.getOrderBy().name());
+			TopDocs top = searcher.search(query, Math.min(offset + limit, total),
+					new Sort(new SortField(ID, SortField.Type.LONG, !ascending)));
+
+			List<Long> ids = new ArrayList<Long>();
+			for (int i = offset; i < top.scoreDocs.length; i++) {
+				ids.add(searcher.doc(top.scoreDocs[i].doc).getField(ID).numericValue().longValue());
+			}
+			return ids;
+		} catch (IOException e) {
+			LOGGER.error("Admin search index can't be searched, searches use the database", e);
+			return null;
+		} finally {
+			if (searcher != null) {
+				try {
+					searcherManager.release(searcher);
+				} catch (IOException e) {
+					LOGGER.warn("Cannot release admin index searcher", e);
+				}
+			}
+		}
+	}
+
+	private BooleanQuery.Builder query(String type, MerchantStore store, Map<String, String> terms) {
+		BooleanQuery.Builder query = new BooleanQuery.Builder();
+		query.add(new TermQuery(new Term(TYPE, type)), Occur.FILTER);
+		query.add(new TermQuery(new Term(STORE, String.valueOf(store.getId()))), Occur.FILTER);
+		for (Map.Entry<String, String> term : terms.entrySet()) {
+			for (String token : tokens(term.getKey(), term.getValue())) {
+				query.add(new TermQuery(new Term(term.getKey(), token)), Occur.FILTER);
+			}
+		}
+		return query;
+	}
+
+	private List<String> tokens(String field, String text) {
+		List<String> tokens = new ArrayList<String>();
+		try (TokenStream stream = queryAnalyzer.tokenStream(field, text)) {
+			CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+			stream.reset();
+			while (stream.incrementToken()) {
+				String token = term.toString();
+				tokens.add(token.length() > MAX_GRAM ? token.substring(0, MAX_GRAM) : token);
+			}
+			stream.end();
+		} catch (IOException e) {
+			//analyzing a string does not do io
+			throw new IllegalStateException(e);
+		}
+		return tokens;
+	}
+
+	private Document document(Order order) {
+		Document document = document(ORDER, order.getId(), order.getMerchant().getId());
+		text(document, NUMBER, String.valueOf(order.getId()));
+		text(document, EMAIL, order.getCustomerEmailAddress());
+		if (order.getBilling() != null) {
+			text(document, NAME, order.getBilling().getFirstName(), order.getBilling().getLastName());
+			text(document, PHONE, phone(order.getBilling().getTelephone()));
+		}
+		if (order.getDelivery() != null) {
+			text(document, PHONE, phone(order.getDelivery().getTelephone()));
+		}
+		if (order.getStatus() != null) {
+			document.add(new StringField(STATUS, order.getStatus().name(), Store.NO));
+		}
+		return document;
+	}
+
+	private Document document(Customer customer) {
+		Document document = document(CUSTOMER, customer.getId(), customer.getMerchantStore().getId());
+		text(document, EMAIL, customer.getEmailAddress());
+		if (customer.getBilling() != null) {
+			text(document, NAME, customer.getBilling().getFirstName(), customer.getBilling().getLastName());
+			text(document, FIRST_NAME, customer.getBilling().getFirstName());
+			text(document, LAST_NAME, customer.getBilling().getLastName());
+			if (customer.getBilling().getCountry() != null) {
+				text(document, COUNTRY, customer.getBilling().getCountry().getIsoCode());
+			}
+		}
+		return document;
+	}
+
+	private Document document(String type, Long id, Integer storeId) {
+		Document document = new Document();
+		document.add(new StringField(KEY, type + ":" + id, Store.NO));
+		document.add(new StringField(TYPE, type, Store.NO));
+		document.add(new StringField(STORE, String.valueOf(storeId), Store.NO));
+		document.add(new StoredField(ID, id));
+		document.add(new NumericDocValuesField(ID, id));
+		return document;
+	}
+
+	private void text(Document document, String field, String... values) {
+		String text = Stream.of(values).filter(StringUtils::isNotBlank).collect(Collectors.joining(" "));
+		if (!text.isEmpty()) {
+			document.add(new TextField(field, text, Store.NO));
+		}
+	}
+
+	/** the number as entered and its digits only, (514) 555-1234 is also found with 5145551234 **/
+	private String phone(String telephone) {
+		if (StringUtils.isBlank(telephone)) {
+			return null;
+		}
+		return telephone + " " + telephone.replaceAll("\\D", "");
+	}
+
+	private void put(Map<String, String> terms, String field, String value) {
+		if (!StringUtils.isBlank(value)) {
+			terms.put(field, value);
+		}
+	}
+
+	private Term key(String type, Long id) {
+		return new Term(KEY, type + ":" + id);
+	}
+
+	private List<Order> orderPage(Integer storeId, Long after) {
+		PageRequest page = PageRequest.of(0, REBUILD_PAGE_SIZE);
+		return storeId == null ? orderRepository.listAfter(after, page) : orderRepository.listAfter(storeId, after, page);
+	}
+
+	private List<Customer> customerPage(Integer storeId, Long after) {
+		PageRequest page = PageRequest.of(0, REBUILD_PAGE_SIZE);
+		return storeId == null ? customerRepository.listAfter(after, page)
+				: customerRepository.listAfter(storeId, after, page);
+	}
+
+	private void commit() {
+		try {
+			if (writer.hasUncommittedChanges()) {
+				writer.commit();
+			}
+		} catch (Exception e) {
+			LOGGER.error("Cannot commit admin search index", e);
+		}
+	}
+
+	private void closeQuietly() {
+		try {
+			if (refresher != null) {
+				refresher.close();
+			}
+			if (searcherManager != null) {
+				searcherManager.close();
+			}
+			if (writer != null) {
+				writer.close();
+			}
+			if (directory != null) {
+				directory.close();
+			}
+		} catch (IOException e) {
+			LOGGER.warn("Cannot close admin search index", e);
+		}
+		refresher = null;
+		searcherManager = null;
+		writer = null;
+		directory = null;
+	}
+
+	/**
+	 * Words are runs of letters and digits, lower cased without accents.
+	 * Indexed words are also indexed by their prefixes.
+	 */
+	private static Analyzer analyzer(boolean prefixes) {
+		return new Analyzer() {
+			@Override
+			protected TokenStreamComponents createComponents(String fieldName) {
+				Tokenizer source = CharTokenizer.fromTokenCharPredicate(Character::isLetterOrDigit);
+				TokenStream result = new ASCIIFoldingFilter(new LowerCaseFilter(source));
+				if (prefixes) {
+					result = new EdgeNGramTokenFilter(result, 1, MAX_GRAM, true);
+				}
+				return new TokenStreamComponents(source, result);
+			}
+		};
+	}
+
+}
@@ -0,0 +1,191 @@
+package com.salesmanager.core.business.services.shipping;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.salesmanager.core.model.shipping.ShippingOption;
+import com.salesmanager.core.modules.integration.shipping.model.ShippingQuoteModule;
+
+/**
+ * Invokes shipping quote modules concurrently on a bounded pool.
+ *
+ * Each module has a timeout measured from the dispatch and all modules share
+ * an overall deadline, modules that fail or do not answer in time are left
+ * out of the result. Latency, errors and timeouts are recorded by module code.
+ */
+@Component("shippingQuoteDispatcher")
+public class ShippingQuoteDispatcher {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ShippingQuoteDispatcher.class);
+
+	/** query every active module instead of the first one **/
+	@Value("${config.shipping.quote.parallel:false}")
+	private boolean parallel;
+
+	@Value("${config.shipping.quote.module.timeout:3000}")
+	private long moduleTimeout;
+
+	@Value("${config.shipping.quote.deadline:5000}")
+	private long deadline;
+
+	@Value("${config.shipping.quote.threads:16}")
+	private int threads;
+
+	@Resource(name="shippingModules")
+	private Map<String, ShippingQuoteModule> shippingModules;
+
+	private ThreadPoolExecutor executor;
+
+	private final Map<String, ModuleStats> stats = new ConcurrentHashMap<String, ModuleStats>();
+
+	@PostConstruct
+	public void init() {
+		AtomicInteger count = new AtomicInteger();
+		executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<Runnable>(threads * 8), r -> {
+					Thread t = new Thread(r, "shipping-quote-" + count.incrementAndGet());
+					t.setDaemon(true);
+					return t;
+				});
+		executor.allowCoreThreadTimeOut(true);
+		if (shippingModules != null) {
+			shippingModules.keySet().forEach(this::getStats);
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	public boolean isParallel() {
+		return parallel;
+	}
+
+	/**
+	 * @param quotes module code / quote invocation, iteration order is kept
+	 * @return options by module code for the modules that answered in time
+	 */
+	public Map<String, List<ShippingOption>> dispatch(Map<String, Callable<List<ShippingOption>>> quotes) {
+
+		long start = System.nanoTime();
+		long moduleLimit = start + TimeUnit.MILLISECONDS.toNanos(moduleTimeout);
+		long deadlineLimit = start + TimeUnit.MILLISECONDS.toNanos(deadline);
+
+		Map<String, Future<List<ShippingOption>>> futures = new LinkedHashMap<String, Future<List<ShippingOption>>>();
+		for (Map.Entry<String, Callable<List<ShippingOption>>> quote : quotes.entrySet()) {
+			String module = quote.getKey();
+			ModuleStats moduleStats = getStats(module);
+			try {
+				futures.put(module, executor.submit(timed(moduleStats, quote.getValue())));
+			} catch (RejectedExecutionException e) {
+				moduleStats.rejected.increment();
+				LOGGER.warn("Shipping quote pool saturated, module [" + module + "] skipped");
+			}
+		}
+
+		Map<String, List<ShippingOption>> results = new LinkedHashMap<String, List<ShippingOption>>();
+		for (Map.Entry<String, Future<List<ShippingOption>>> future : futures.entrySet()) {
+			String module = future.getKey();
+			long wait = Math.min(moduleLimit, deadlineLimit) - System.nanoTime();
+			try {
+				List<ShippingOption> options = future.getValue().get(Math.max(wait, 0), TimeUnit.NANOSECONDS);
+				results.put(module, options != null ? options : Collections.<ShippingOption>emptyList());
+			} catch (TimeoutException e) {
+				future.getValue().cancel(true);
+				getStats(module).timeouts.increment();
+				LOGGER.warn("Shipping module [" + module + "] did not answer in time");
+			} catch (ExecutionException e) {
+				LOGGER.error("Error while calculating shipping with module [" + module + "] : "
+						+ e.getCause().getMessage(), e.getCause());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				futures.values().forEach(f -> f.cancel(true));
+				break;
+			}
+		}
+		return results;
+	}
+
+	private Callable<List<ShippingOption>> timed(ModuleStats moduleStats, Callable<List<ShippingOption>> quote) {
+		return () -> {
+			long start = System.nanoTime();
+			try {
+				return quote.call();
+			} catch (Exception e) {
+				moduleStats.errors.increment();
+				throw e;
+			} finally {
+				moduleStats.calls.increment();
+				moduleStats.totalNanos.add(System.nanoTime() - start);
+			}
+		};
+	}
+
+	public ModuleStats getStats(String module) {
+		return stats.computeIfAbsent(module, m -> new ModuleStats());
+	}
+
+	public Map<String, ModuleStats> getStats() {
+		return Collections.unmodifiableMap(stats);
+	}
+
+	public int getActiveCount() {
+		return executor.getActiveCount();
+	}
+
+	/**
+	 * Counters of a shipping quote module
+	 */
+	public static class ModuleStats {
+
+		private final LongAdder calls = new LongAdder();
+		private final LongAdder totalNanos = new LongAdder();
+		private final LongAdder errors = new LongAdder();
+		private final LongAdder timeouts = new LongAdder();
+		private final LongAdder rejected = new LongAdder();
+
+		public long getCalls() {
+			return calls.sum();
+		}
+
+		public long getTotalNanos() {
+			return totalNanos.sum();
+		}
+
+		public long getErrors() {
+			return errors.sum();
+		}
+
+		public long getTimeouts() {
+			return timeouts.sum();
+		}
+
+		public long getRejected() {
+			return rejected.sum();
+		}
+	}
+
+}
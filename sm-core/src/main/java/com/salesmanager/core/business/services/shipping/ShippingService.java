@@ -73,6 +73,7 @@ public interface ShippingService {
 	 * ShippingPriceOptionType (ALL, LEAST, HIGHEST)
 	 * Packages
 	 * Handling
+	 * Shared by all requests, must not be modified (packages are unmodifiable)
 	 * @param store
 	 * @return
 	 * @throws ServiceException
@@ -80,6 +81,16 @@ public interface ShippingService {
 	ShippingConfiguration getShippingConfiguration(MerchantStore store)
 			throws ServiceException;
 
+	/**
+	 * ShippingConfiguration read from the database for this caller only,
+	 * to be modified and saved with saveShippingConfiguration
+	 * @param store
+	 * @return
+	 * @throws ServiceException
+	 */
+	ShippingConfiguration getShippingConfigurationForUpdate(MerchantStore store)
+			throws ServiceException;
+
 	/**
 	 * Saves ShippingConfiguration for a given MerchantStore
 	 * @param shippingConfiguration
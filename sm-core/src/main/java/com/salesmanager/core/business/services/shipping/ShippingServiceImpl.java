@@ -5,10 +5,12 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Callable;
 
 import javax.annotation.Resource;
 import javax.inject.Inject;
@@ -30,6 +32,7 @@ import com.salesmanager.core.business.services.reference.country.CountryService;
 import com.salesmanager.core.business.services.reference.language.LanguageService;
 import com.salesmanager.core.business.services.reference.loader.ConfigurationModulesLoader;
 import com.salesmanager.core.business.services.system.MerchantConfigurationService;
+import com.salesmanager.core.business.services.system.MerchantConfigurationSnapshot;
 import com.salesmanager.core.business.services.system.ModuleConfigurationService;
 import com.salesmanager.core.model.catalog.product.Product;
 import com.salesmanager.core.model.common.Delivery;
@@ -101,6 +104,9 @@ public class ShippingServiceImpl implements ShippingService {
 	@Inject
 	private ShippingQuoteService shippingQuoteService;
 	
+	@Inject
+	private ShippingQuoteDispatcher shippingQuoteDispatcher;
+	
 	@Inject
 	@Resource(name="shippingModules")
 	private Map<String,ShippingQuoteModule> shippingModules;
@@ -118,22 +124,33 @@ public class ShippingServiceImpl implements ShippingService {
 	@Override
 	public ShippingConfiguration getShippingConfiguration(MerchantStore store) throws ServiceException {
 
+		//shared by the requests of the snapshot
+		return merchantConfigurationService.getSnapshot(store).get(ShippingConstants.SHIPPING_CONFIGURATION,
+				ShippingConfiguration.class, value -> {
+					ShippingConfiguration shippingConfiguration = MerchantConfigurationSnapshot.json(ShippingConfiguration.class).parse(value);
+					List<com.salesmanager.core.model.shipping.Package> packages = shippingConfiguration.getPackages();
+					shippingConfiguration.setPackages(packages == null ? Collections.emptyList() : Collections.unmodifiableList(packages));
+					return shippingConfiguration;
+				});
+		
+	}
+	
+	@Override
+	public ShippingConfiguration getShippingConfigurationForUpdate(MerchantStore store) throws ServiceException {
+
 		MerchantConfiguration configuration = merchantConfigurationService.getMerchantConfiguration(ShippingConstants.SHIPPING_CONFIGURATION, store);
 		
 		ShippingConfiguration shippingConfiguration = null;
 		
 		if(configuration!=null) {
 			String value = configuration.getValue();
-			
-			ObjectMapper mapper = new ObjectMapper();
 			try {
-				shippingConfiguration = mapper.readValue(value, ShippingConfiguration.class);
+				shippingConfiguration = MerchantConfigurationSnapshot.json(ShippingConfiguration.class).parse(value);
 			} catch(Exception e) {
-				throw new ServiceException("Cannot parse json string " + value);
+				throw new ServiceException("Cannot parse json string " + value, e);
 			}
 		}
 		return shippingConfiguration;
-		
 	}
 	
 	@Override
@@ -341,12 +358,13 @@ public class ShippingServiceImpl implements ShippingService {
 			
 
 			Map<String,IntegrationConfiguration> modules = new HashMap<String,IntegrationConfiguration>();
-			MerchantConfiguration merchantConfiguration = merchantConfigurationService.getMerchantConfiguration(SHIPPING_MODULES, store);
-			if(merchantConfiguration!=null) {
-				if(!StringUtils.isBlank(merchantConfiguration.getValue())) {
-					String decrypted = encryption.decrypt(merchantConfiguration.getValue());
-					modules = ConfigurationModulesLoader.loadIntegrationConfigurations(decrypted);
-					
+			@SuppressWarnings("unchecked")
+			Map<String,IntegrationConfiguration> configured = merchantConfigurationService.getSnapshot(store).get(SHIPPING_MODULES, Map.class,
+					value -> StringUtils.isBlank(value) ? null : ConfigurationModulesLoader.loadIntegrationConfigurations(encryption.decrypt(value)));
+			if(configured!=null) {
+				//callers may modify the configurations
+				for(Map.Entry<String,IntegrationConfiguration> module : configured.entrySet()) {
+					modules.put(module.getKey(), copy(module.getValue()));
 				}
 			}
 			return modules;
@@ -559,19 +577,23 @@ public class ShippingServiceImpl implements ShippingService {
 
 			//invoke module
 			List<ShippingOption> shippingOptions = null;
-					
-			try {
-				shippingOptions = shippingQuoteModule.getShippingQuotes(shippingQuote, packages, orderTotal, delivery, shippingOrigin, store, configuration, shippingModule, shippingConfiguration, locale);
-			} catch(Exception e) {
-				LOGGER.error("Error while calculating shipping : " + e.getMessage(), e);
-/*				merchantLogService.save(
-						new MerchantLog(store,
-								"Can't process " + shippingModule.getModule()
-								+ " -> "
-								+ e.getMessage()));
-				shippingQuote.setQuoteError(e.getMessage());
-				shippingQuote.setShippingReturnCode(ShippingQuote.ERROR);
-				return shippingQuote;*/
+			
+			if(shippingQuoteDispatcher.isParallel()) {
+				shippingOptions = getParallelShippingQuotes(modules, shippingMethods, shippingQuote, packages, orderTotal, delivery, shippingOrigin, store, shippingConfiguration, locale);
+			} else {
+				try {
+					shippingOptions = shippingQuoteModule.getShippingQuotes(shippingQuote, packages, orderTotal, delivery, shippingOrigin, store, configuration, shippingModule, shippingConfiguration, locale);
+				} catch(Exception e) {
+					LOGGER.error("Error while calculating shipping : " + e.getMessage(), e);
+/*					merchantLogService.save(
+							new MerchantLog(store,
+									"Can't process " + shippingModule.getModule()
+									+ " -> "
+									+ e.getMessage()));
+					shippingQuote.setQuoteError(e.getMessage());
+					shippingQuote.setShippingReturnCode(ShippingQuote.ERROR);
+					return shippingQuote;*/
+				}
 			}
 			
 			if(shippingOptions==null && !StringUtils.isBlank(delivery.getPostalCode())) {
@@ -596,7 +618,9 @@ public class ShippingServiceImpl implements ShippingService {
 					//set price text
 					String priceText = pricingService.getDisplayAmount(option.getOptionPrice(), store);
 					option.setOptionPriceText(priceText);
-					option.setShippingModuleCode(moduleName);
+					if(StringUtils.isBlank(option.getShippingModuleCode())) {
+						option.setShippingModuleCode(moduleName);
+					}
 				
 					if(StringUtils.isBlank(option.getOptionName())) {
 						
@@ -648,6 +672,9 @@ public class ShippingServiceImpl implements ShippingService {
 				}
 				
 				shippingQuote.setSelectedShippingOption(selectedOption);
+				if(selectedOption!=null) {
+					shippingQuote.setShippingModuleCode(selectedOption.getShippingModuleCode());
+				}
 				
 				if(selectedOption!=null && !shippingOptionPriceType.name().equals(ShippingOptionPriceType.ALL.name())) {
 					shippingOptions = new ArrayList<ShippingOption>();
@@ -754,27 +781,101 @@ public class ShippingServiceImpl implements ShippingService {
 		
 	}
 
+	/**
+	 * Queries every active quote module concurrently and merges the options
+	 * of the modules that answered before their timeout.
+	 * Each module gets its own copy of the quote as modules add their options to it.
+	 */
+	private List<ShippingOption> getParallelShippingQuotes(Map<String, IntegrationConfiguration> modules, List<IntegrationModule> shippingMethods,
+			ShippingQuote shippingQuote, List<PackageDetails> packages, BigDecimal orderTotal, Delivery delivery, ShippingOrigin shippingOrigin,
+			MerchantStore store, ShippingConfiguration shippingConfiguration, Locale locale) {
+		
+		Map<String, Callable<List<ShippingOption>>> quotes = new LinkedHashMap<String, Callable<List<ShippingOption>>>();
+		for(Map.Entry<String, IntegrationConfiguration> module : modules.entrySet()) {
+			String code = module.getKey();
+			IntegrationConfiguration moduleConfiguration = module.getValue();
+			ShippingQuoteModule quoteModule = shippingModules.get(code);
+			if(!moduleConfiguration.isActive() || quoteModule == null || quoteModule instanceof ShippingQuotePrePostProcessModule) {
+				continue;
+			}
+			IntegrationModule integrationModule = shippingMethods.stream().filter(m -> m.getCode().equals(code)).findFirst().orElse(null);
+			if(integrationModule == null) {
+				continue;
+			}
+			
+			ShippingQuote moduleQuote = new ShippingQuote();
+			moduleQuote.setQuoteInformations(new HashMap<String, Object>(shippingQuote.getQuoteInformations()));
+			moduleQuote.setCurrentShippingModule(integrationModule);
+			moduleQuote.setHandlingFees(shippingQuote.getHandlingFees());
+			moduleQuote.setApplyTaxOnShipping(shippingQuote.isApplyTaxOnShipping());
+			
+			quotes.put(code, () -> {
+				List<ShippingOption> options = quoteModule.getShippingQuotes(moduleQuote, packages, orderTotal, delivery, shippingOrigin, store, moduleConfiguration, integrationModule, shippingConfiguration, locale);
+				if(options != null) {
+					options.forEach(o -> o.setShippingModuleCode(code));
+				}
+				return options;
+			});
+		}
+		
+		Map<String, List<ShippingOption>> results = shippingQuoteDispatcher.dispatch(quotes);
+		
+		List<ShippingOption> shippingOptions = null;
+		for(String code : quotes.keySet()) {
+			List<ShippingOption> options = results.get(code);
+			if(options == null) {
+				shippingQuote.getWarnings().add("Shipping module " + code + " unavailable");
+				continue;
+			}
+			if(!options.isEmpty()) {
+				if(shippingOptions == null) {
+					shippingOptions = new ArrayList<ShippingOption>();
+				}
+				shippingOptions.addAll(options);
+			}
+		}
+		return shippingOptions;
+	}
+
 	@Override
 	public List<String> getSupportedCountries(MerchantStore store) throws ServiceException {
 		
-		List<String> supportedCountries = new ArrayList<String>();
-		MerchantConfiguration configuration = merchantConfigurationService.getMerchantConfiguration(SUPPORTED_COUNTRIES, store);
-		
-		if(configuration!=null) {
-			
-			String countries = configuration.getValue();
-			if(!StringUtils.isBlank(countries)) {
+		return new ArrayList<String>(getConfiguredCountries(store));
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<String> getConfiguredCountries(MerchantStore store) throws ServiceException {
 
-				Object objRegions=JSONValue.parse(countries); 
-				JSONArray arrayRegions=(JSONArray)objRegions;
+		List<String> countries = merchantConfigurationService.getSnapshot(store).get(SUPPORTED_COUNTRIES, List.class, value -> {
+			List<String> supportedCountries = new ArrayList<String>();
+			if(!StringUtils.isBlank(value)) {
+				JSONArray arrayRegions=(JSONArray)JSONValue.parse(value);
 				for (Object arrayRegion : arrayRegions) {
 					supportedCountries.add((String) arrayRegion);
 				}
 			}
-			
+			return Collections.unmodifiableList(supportedCountries);
+		});
+		return countries != null ? countries : Collections.<String>emptyList();
+	}
+
+	private IntegrationConfiguration copy(IntegrationConfiguration configuration) {
+		IntegrationConfiguration copy = new IntegrationConfiguration();
+		copy.setModuleCode(configuration.getModuleCode());
+		copy.setActive(configuration.isActive());
+		copy.setDefaultSelected(configuration.isDefaultSelected());
+		copy.setEnvironment(configuration.getEnvironment());
+		if(configuration.getIntegrationKeys()!=null) {
+			copy.setIntegrationKeys(new HashMap<String,String>(configuration.getIntegrationKeys()));
 		}
-		
-		return supportedCountries;
+		if(configuration.getIntegrationOptions()!=null) {
+			Map<String,List<String>> options = new HashMap<String,List<String>>();
+			for(Map.Entry<String,List<String>> option : configuration.getIntegrationOptions().entrySet()) {
+				options.put(option.getKey(), option.getValue() != null ? new ArrayList<String>(option.getValue()) : null);
+			}
+			copy.setIntegrationOptions(options);
+		}
+		return copy;
 	}
 	
 	@Override
@@ -799,21 +900,7 @@ public class ShippingServiceImpl implements ShippingService {
 			
 		} else {
 
-			MerchantConfiguration configuration = merchantConfigurationService.getMerchantConfiguration(SUPPORTED_COUNTRIES, store);
-			
-			if(configuration!=null) {
-				
-				String countries = configuration.getValue();
-				if(!StringUtils.isBlank(countries)) {
-
-					Object objRegions=JSONValue.parse(countries); 
-					JSONArray arrayRegions=(JSONArray)objRegions;
-					for (Object arrayRegion : arrayRegions) {
-						supportedCountries.add((String) arrayRegion);
-					}
-				}
-				
-			}
+			supportedCountries.addAll(getConfiguredCountries(store));
 
 		}
 		
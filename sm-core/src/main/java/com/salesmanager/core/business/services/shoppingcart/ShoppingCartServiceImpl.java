@@ -56,6 +56,9 @@ public class ShoppingCartServiceImpl extends SalesManagerEntityServiceImpl<Long,
 	@Inject
 	private ProductAttributeService productAttributeService;
 
+	@Inject
+	private ShoppingCartStore shoppingCartStore;
+
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(ShoppingCartServiceImpl.class);
 
@@ -85,12 +88,7 @@ public class ShoppingCartServiceImpl extends SalesManagerEntityServiceImpl<Long,
 			ShoppingCart shoppingCart = null;
 			
 			if(!CollectionUtils.isEmpty(validCart)) {
-				shoppingCart = validCart.get(0);
-				getPopulatedShoppingCart(shoppingCart);
-				if (shoppingCart != null && shoppingCart.isObsolete()) {
-					delete(shoppingCart);
-					shoppingCart = null;
-				}
+				shoppingCart = getPricedShoppingCart(validCart.get(0), shoppingCartStore.sequence());
 			}
 			
 			return shoppingCart;
@@ -121,6 +119,7 @@ public class ShoppingCartServiceImpl extends SalesManagerEntityServiceImpl<Long,
 		}
 
 
+		shoppingCartStore.invalidate(shoppingCart);
 		if (shoppingCart.getId() == null || shoppingCart.getId() == 0) {
 			super.create(shoppingCart);
 		} else {
@@ -141,18 +140,12 @@ public class ShoppingCartServiceImpl extends SalesManagerEntityServiceImpl<Long,
 	public ShoppingCart getById(final Long id, final MerchantStore store) throws ServiceException {
 
 		try {
+			long sequence = shoppingCartStore.sequence();
 			ShoppingCart shoppingCart = shoppingCartRepository.findById(store.getId(), id);
 			if (shoppingCart == null) {
 				return null;
 			}
-			getPopulatedShoppingCart(shoppingCart);
-
-			if (shoppingCart.isObsolete()) {
-				delete(shoppingCart);
-				return null;
-			} else {
-				return shoppingCart;
-			}
+			return getPricedShoppingCart(shoppingCart, sequence);
 
 		} catch (Exception e) {
 			throw new ServiceException(e);
@@ -170,18 +163,12 @@ public class ShoppingCartServiceImpl extends SalesManagerEntityServiceImpl<Long,
 	public ShoppingCart getById(final Long id) {
 
 		try {
+			long sequence = shoppingCartStore.sequence();
 			ShoppingCart shoppingCart = shoppingCartRepository.findOne(id);
 			if (shoppingCart == null) {
 				return null;
 			}
-			getPopulatedShoppingCart(shoppingCart);
-
-			if (shoppingCart.isObsolete()) {
-				delete(shoppingCart);
-				return null;
-			} else {
-				return shoppingCart;
-			}
+			return getPricedShoppingCart(shoppingCart, sequence);
 		} catch (Exception e) {
 			// TODO Auto-generated catch block
 			e.printStackTrace();
@@ -200,18 +187,12 @@ public class ShoppingCartServiceImpl extends SalesManagerEntityServiceImpl<Long,
 	public ShoppingCart getByCode(final String code, final MerchantStore store) throws ServiceException {
 
 		try {
+			long sequence = shoppingCartStore.sequence();
 			ShoppingCart shoppingCart = shoppingCartRepository.findByCode(store.getId(), code);
 			if (shoppingCart == null) {
 				return null;
 			}
-			getPopulatedShoppingCart(shoppingCart);
-
-			if (shoppingCart.isObsolete()) {
-				delete(shoppingCart);
-				return null;
-			} else {
-				return shoppingCart;
-			}
+			return getPricedShoppingCart(shoppingCart, sequence);
 
 		} catch (javax.persistence.NoResultException nre) {
 			return null;
@@ -226,8 +207,36 @@ public class ShoppingCartServiceImpl extends SalesManagerEntityServiceImpl<Long,
 	public void deleteCart(final ShoppingCart shoppingCart) throws ServiceException {
 		ShoppingCart cart = this.getById(shoppingCart.getId());
 		if (cart != null) {
-			super.delete(cart);
+			delete(cart);
+		}
+	}
+
+	@Override
+	public void delete(ShoppingCart shoppingCart) throws ServiceException {
+		shoppingCartStore.invalidate(shoppingCart);
+		super.delete(shoppingCart);
+	}
+
+	/**
+	 * Applies the prices of the store to the loaded cart when its items and products
+	 * did not change, otherwise prices the loaded cart. Obsolete carts are removed.
+	 * @param sequence store sequence read before loading the cart
+	 */
+	private ShoppingCart getPricedShoppingCart(ShoppingCart shoppingCart, long sequence) throws Exception {
+
+		if (shoppingCartStore.apply(shoppingCart)) {
+			return shoppingCart;
+		}
+
+		getPopulatedShoppingCart(shoppingCart);
+
+		if (shoppingCart.isObsolete()) {
+			delete(shoppingCart);
+			return null;
 		}
+
+		shoppingCartStore.put(shoppingCart, sequence);
+		return shoppingCart;
 	}
 
 /*	@Override
@@ -263,22 +272,20 @@ public class ShoppingCartServiceImpl extends SalesManagerEntityServiceImpl<Long,
 
 				// Set<ShoppingCartItem> shoppingCartItems = new
 				// HashSet<ShoppingCartItem>();
+				boolean changed = false;
 				for (ShoppingCartItem item : items) {
 					LOGGER.debug("Populate item " + item.getId());
-					getPopulatedItem(item);
+					changed = getPopulatedItem(item) || changed;
 					LOGGER.debug("Obsolete item ? " + item.isObsolete());
 					if (item.isObsolete()) {
 						cartIsObsolete = true;
 					}
 				}
 
-				// shoppingCart.setLineItems(shoppingCartItems);
-				Set<ShoppingCartItem> refreshedItems = new HashSet<>(items);
-
-				//if (refreshCart) {
-					shoppingCart.setLineItems(refreshedItems);
-				    update(shoppingCart);
-				//}
+				//prices are transient, the cart is written only when attributes were removed
+				if (changed) {
+					update(shoppingCart);
+				}
 
 				if (cartIsObsolete) {
 					shoppingCart.setObsolete(true);
@@ -309,8 +316,11 @@ public class ShoppingCartServiceImpl extends SalesManagerEntityServiceImpl<Long,
 
 	}
 
+	/**
+	 * @return true if attributes no longer available were removed from the item
+	 */
 	@Transactional
-	private void getPopulatedItem(final ShoppingCartItem item) throws Exception {
+	private boolean getPopulatedItem(final ShoppingCartItem item) throws Exception {
 
 		Product product = null;
 
@@ -323,7 +333,7 @@ public class ShoppingCartServiceImpl extends SalesManagerEntityServiceImpl<Long,
 		}
 		if (product == null) {
 			item.setObsolete(true);
-			return;
+			return false;
 		}
 
 		item.setProduct(product);
@@ -365,6 +375,7 @@ public class ShoppingCartServiceImpl extends SalesManagerEntityServiceImpl<Long,
 			for(ShoppingCartAttributeItem attr : removeAttributesList) {
 				shoppingCartAttributeItemRepository.delete(attr);
 			}
+			cartAttributes.removeAll(removeAttributesList);
 		}
 
 		//cleanup detached attributes
@@ -382,6 +393,8 @@ public class ShoppingCartServiceImpl extends SalesManagerEntityServiceImpl<Long,
 		BigDecimal subTotal = item.getItemPrice().multiply(new BigDecimal(item.getQuantity()));
 		item.setSubTotal(subTotal);
 
+		return CollectionUtils.isNotEmpty(removeAttributesList);
+
 	}
 
 	@Override
@@ -412,6 +425,7 @@ public class ShoppingCartServiceImpl extends SalesManagerEntityServiceImpl<Long,
 
 	@Override
 	public void removeShoppingCart(final ShoppingCart cart) throws ServiceException {
+		shoppingCartStore.invalidate(cart);
 		shoppingCartRepository.delete(cart);
 	}
 
@@ -522,6 +536,7 @@ public class ShoppingCartServiceImpl extends SalesManagerEntityServiceImpl<Long,
 		ShoppingCartItem item = shoppingCartItemRepository.findOne(id);
 		if(item != null) {
 
+			shoppingCartStore.invalidate(item.getShoppingCart());
 
 			if(item.getAttributes() != null) {
 				item.getAttributes().forEach(a -> shoppingCartAttributeItemRepository.deleteById(a.getId()));
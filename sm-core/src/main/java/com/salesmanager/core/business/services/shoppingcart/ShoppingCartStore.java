@@ -0,0 +1,247 @@
+package com.salesmanager.core.business.services.shoppingcart;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.salesmanager.core.business.services.catalog.product.ProductChangedEvent;
+import com.salesmanager.core.model.catalog.product.Product;
+import com.salesmanager.core.model.catalog.product.attribute.ProductAttribute;
+import com.salesmanager.core.model.catalog.product.price.FinalPrice;
+import com.salesmanager.core.model.shoppingcart.ShoppingCart;
+import com.salesmanager.core.model.shoppingcart.ShoppingCartAttributeItem;
+import com.salesmanager.core.model.shoppingcart.ShoppingCartItem;
+
+/**
+ * Prices of shopping carts by store and cart code.
+ *
+ * The cart itself is always read from the database, the store only keeps the
+ * products and prices of its items so that a cart loaded again is not priced again.
+ * Prices are applied while the loaded cart has the modification date and the
+ * items (quantities and attributes) it had when priced, none of its products
+ * changed (ProductChangedEvent covers product, price, availability and attribute
+ * changes) and the reprice interval did not elapse, time based prices (specials)
+ * are refreshed by this interval. ShoppingCartService invalidates a cart on every write.
+ */
+@Component("shoppingCartStore")
+public class ShoppingCartStore {
+
+	private static final String SEPARATOR = ":";
+
+	@Value("${config.shoppingcart.store.size:10000}")
+	private long maximumSize;
+
+	@Value("${config.shoppingcart.store.ttl:1800}")
+	private long ttl;
+
+	@Value("${config.shoppingcart.store.reprice:300}")
+	private long repriceInterval;
+
+	private Cache<String, PricedCart> carts;
+
+	/**
+	 * product id / sequence of its last change, kept as long as a cart priced
+	 * before that change can be in the store
+	 */
+	private Cache<Long, Long> productChanges;
+
+	private final AtomicLong sequence = new AtomicLong();
+
+	@PostConstruct
+	public void init() {
+		carts = CacheBuilder.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfterWrite(ttl, TimeUnit.SECONDS)
+				.recordStats()
+				.build();
+		productChanges = CacheBuilder.newBuilder()
+				.maximumSize(maximumSize * 10)
+				.expireAfterWrite(Math.min(ttl, repriceInterval), TimeUnit.SECONDS)
+				.build();
+	}
+
+	/**
+	 * Returns the value to be passed to put, read it before loading the products of the cart
+	 */
+	public long sequence() {
+		return sequence.get();
+	}
+
+	/**
+	 * Sets the stored products and prices on the items of a cart loaded from the database
+	 * @return false when the cart has to be priced
+	 */
+	public boolean apply(ShoppingCart cart) {
+		if (cart == null || cart.getMerchantStore() == null || cart.getShoppingCartCode() == null) {
+			return false;
+		}
+		String key = key(cart.getMerchantStore().getId(), cart.getShoppingCartCode());
+		PricedCart priced = carts.getIfPresent(key);
+		if (priced == null) {
+			return false;
+		}
+		if (System.currentTimeMillis() - priced.pricedAt > TimeUnit.SECONDS.toMillis(repriceInterval)
+				|| changed(priced)) {
+			carts.invalidate(key);
+			return false;
+		}
+		if (!priced.matches(cart)) {
+			return false;
+		}
+		for (ShoppingCartItem item : cart.getLineItems()) {
+			priced.items.get(item.getId()).apply(item);
+		}
+		return true;
+	}
+
+	public void put(ShoppingCart cart, long sequence) {
+		if (cart == null || cart.isObsolete() || cart.getMerchantStore() == null || cart.getShoppingCartCode() == null) {
+			return;
+		}
+		PricedCart priced = new PricedCart(cart, sequence);
+		if (priced.items.containsKey(null) || changed(priced)) {
+			return;
+		}
+		carts.put(key(cart.getMerchantStore().getId(), cart.getShoppingCartCode()), priced);
+	}
+
+	public void invalidate(ShoppingCart cart) {
+		if (cart != null && cart.getMerchantStore() != null && cart.getShoppingCartCode() != null) {
+			carts.invalidate(key(cart.getMerchantStore().getId(), cart.getShoppingCartCode()));
+		}
+	}
+
+	public void invalidateAll() {
+		carts.invalidateAll();
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductChanged(ProductChangedEvent event) {
+		if (event.getProductId() != null) {
+			productChanges.put(event.getProductId(), sequence.incrementAndGet());
+		}
+	}
+
+	public Cache<String, ?> getCache() {
+		return carts;
+	}
+
+	private boolean changed(PricedCart priced) {
+		for (PricedItem item : priced.items.values()) {
+			Long change = productChanges.getIfPresent(item.productId);
+			if (change != null && change > priced.sequence) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private String key(Integer storeId, String code) {
+		return storeId + SEPARATOR + code;
+	}
+
+	static class PricedCart {
+
+		private final Date modified;
+		/** item id / priced item **/
+		private final Map<Long, PricedItem> items = new HashMap<Long, PricedItem>();
+		private final long sequence;
+		private final long pricedAt = System.currentTimeMillis();
+
+		PricedCart(ShoppingCart cart, long sequence) {
+			this.modified = cart.getAuditSection() == null ? null : cart.getAuditSection().getDateModified();
+			for (ShoppingCartItem item : cart.getLineItems()) {
+				items.put(item.getId(), new PricedItem(item));
+			}
+			this.sequence = sequence;
+		}
+
+		/**
+		 * @return true when the loaded cart has the items that were priced
+		 */
+		boolean matches(ShoppingCart cart) {
+			Date dateModified = cart.getAuditSection() == null ? null : cart.getAuditSection().getDateModified();
+			if (!Objects.equals(modified, dateModified) || cart.getLineItems().size() != items.size()) {
+				return false;
+			}
+			for (ShoppingCartItem item : cart.getLineItems()) {
+				PricedItem priced = items.get(item.getId());
+				if (priced == null || !priced.matches(item)) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	static class PricedItem {
+
+		private final Long productId;
+		private final Integer quantity;
+		private final Product product;
+		private final boolean productVirtual;
+		/** product attribute id / attribute **/
+		private final Map<Long, ProductAttribute> attributes = new HashMap<Long, ProductAttribute>();
+		private final BigDecimal itemPrice;
+		private final FinalPrice finalPrice;
+
+		PricedItem(ShoppingCartItem item) {
+			this.productId = item.getProductId();
+			this.quantity = item.getQuantity();
+			this.product = item.getProduct();
+			this.productVirtual = item.isProductVirtual();
+			if (item.getAttributes() != null) {
+				for (ShoppingCartAttributeItem attribute : item.getAttributes()) {
+					attributes.put(attribute.getProductAttributeId(), attribute.getProductAttribute());
+				}
+			}
+			this.itemPrice = item.getItemPrice();
+			this.finalPrice = item.getFinalPrice();
+		}
+
+		boolean matches(ShoppingCartItem item) {
+			Set<Long> attributeIds = new HashSet<Long>();
+			if (item.getAttributes() != null) {
+				for (ShoppingCartAttributeItem attribute : item.getAttributes()) {
+					attributeIds.add(attribute.getProductAttributeId());
+				}
+			}
+			return Objects.equals(productId, item.getProductId()) && Objects.equals(quantity, item.getQuantity())
+					&& attributes.keySet().equals(attributeIds);
+		}
+
+		void apply(ShoppingCartItem item) {
+			item.setProduct(product);
+			if (productVirtual) {
+				item.setProductVirtual(true);
+			}
+			if (attributes.isEmpty()) {
+				item.setAttributes(null);
+			} else {
+				for (ShoppingCartAttributeItem attribute : item.getAttributes()) {
+					attribute.setProductAttribute(attributes.get(attribute.getProductAttributeId()));
+				}
+			}
+			item.setItemPrice(itemPrice);
+			item.setFinalPrice(finalPrice);
+			if (itemPrice != null) {
+				item.setSubTotal(itemPrice.multiply(new BigDecimal(item.getQuantity())));
+			}
+		}
+	}
+
+}
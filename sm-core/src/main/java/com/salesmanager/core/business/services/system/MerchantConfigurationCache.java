@@ -0,0 +1,90 @@
+package com.salesmanager.core.business.services.system;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Configuration snapshots by merchant store.
+ *
+ * A snapshot is evicted when the configuration is written and again when
+ * MerchantConfigurationChangedEvent is published (after commit), a snapshot
+ * loaded while a configuration was changing is not stored. The ttl bounds
+ * staleness of changes made by other nodes.
+ */
+@Component("merchantConfigurationCache")
+public class MerchantConfigurationCache {
+
+	@Value("${config.merchant.configuration.cache.size:1000}")
+	private long maximumSize;
+
+	@Value("${config.merchant.configuration.cache.ttl:600}")
+	private long ttl;
+
+	private Cache<Integer, MerchantConfigurationSnapshot> snapshots;
+
+	/** incremented on every eviction, also the version of loaded snapshots **/
+	private final AtomicLong version = new AtomicLong();
+
+	@PostConstruct
+	public void init() {
+		snapshots = CacheBuilder.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfterWrite(ttl, TimeUnit.SECONDS)
+				.recordStats()
+				.build();
+	}
+
+	public MerchantConfigurationSnapshot get(Integer merchantStoreId) {
+		return snapshots.getIfPresent(merchantStoreId);
+	}
+
+	/**
+	 * Returns the version to be given to the snapshot, read it before loading the configurations
+	 */
+	public long version() {
+		return version.get();
+	}
+
+	public void put(MerchantConfigurationSnapshot snapshot) {
+		if (version.get() != snapshot.getVersion()) {
+			return;
+		}
+		snapshots.put(snapshot.getMerchantStoreId(), snapshot);
+		if (version.get() != snapshot.getVersion()) {
+			//evicted while storing
+			snapshots.invalidate(snapshot.getMerchantStoreId());
+		}
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onConfigurationChanged(MerchantConfigurationChangedEvent event) {
+		evict(event.getMerchantStoreId());
+	}
+
+	public void evict(Integer merchantStoreId) {
+		if (merchantStoreId == null) {
+			return;
+		}
+		version.incrementAndGet();
+		snapshots.invalidate(merchantStoreId);
+	}
+
+	public void evictAll() {
+		version.incrementAndGet();
+		snapshots.invalidateAll();
+	}
+
+	public Cache<Integer, MerchantConfigurationSnapshot> getCache() {
+		return snapshots;
+	}
+
+}
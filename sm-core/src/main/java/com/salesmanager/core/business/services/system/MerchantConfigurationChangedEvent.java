@@ -0,0 +1,25 @@
+package com.salesmanager.core.business.services.system;
+
+/**
+ * Published by MerchantConfigurationService when a configuration
+ * of a merchant store is written or removed.
+ */
+public class MerchantConfigurationChangedEvent {
+
+	private final Integer merchantStoreId;
+	private final String key;
+
+	public MerchantConfigurationChangedEvent(Integer merchantStoreId, String key) {
+		this.merchantStoreId = merchantStoreId;
+		this.key = key;
+	}
+
+	public Integer getMerchantStoreId() {
+		return merchantStoreId;
+	}
+
+	public String getKey() {
+		return key;
+	}
+
+}
@@ -25,6 +25,13 @@ public interface MerchantConfigurationService extends
 	MerchantConfig getMerchantConfig(MerchantStore store)
 			throws ServiceException;
 
+	/**
+	 * Configurations of the store, served from memory until a configuration
+	 * of the store is saved or removed
+	 */
+	MerchantConfigurationSnapshot getSnapshot(MerchantStore store)
+			throws ServiceException;
+
 	void saveMerchantConfig(MerchantConfig config, MerchantStore store)
 			throws ServiceException;
 
@@ -2,8 +2,8 @@ package com.salesmanager.core.business.services.system;
 
 import java.util.List;
 import javax.inject.Inject;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.salesmanager.core.business.exception.ServiceException;
 import com.salesmanager.core.business.repositories.system.MerchantConfigurationRepository;
 import com.salesmanager.core.business.services.common.generic.SalesManagerEntityServiceImpl;
@@ -18,75 +18,94 @@ public class MerchantConfigurationServiceImpl extends
 		MerchantConfigurationService {
 
 	private MerchantConfigurationRepository merchantConfigurationRepository;
-	
+
+	@Inject
+	private MerchantConfigurationCache merchantConfigurationCache;
+
+	@Inject
+	private ApplicationEventPublisher eventPublisher;
+
 	@Inject
 	public MerchantConfigurationServiceImpl(
 			MerchantConfigurationRepository merchantConfigurationRepository) {
 			super(merchantConfigurationRepository);
 			this.merchantConfigurationRepository = merchantConfigurationRepository;
 	}
-	
+
 
 	@Override
 	public MerchantConfiguration getMerchantConfiguration(String key, MerchantStore store) throws ServiceException {
 		return merchantConfigurationRepository.findByMerchantStoreAndKey(store.getId(), key);
 	}
-	
+
 	@Override
 	public List<MerchantConfiguration> listByStore(MerchantStore store) throws ServiceException {
 		return merchantConfigurationRepository.findByMerchantStore(store.getId());
 	}
-	
+
 	@Override
 	public List<MerchantConfiguration> listByType(MerchantConfigurationType type, MerchantStore store) throws ServiceException {
 		return merchantConfigurationRepository.findByMerchantStoreAndType(store.getId(), type);
 	}
-	
+
+	@Override
+	public MerchantConfigurationSnapshot getSnapshot(MerchantStore store) throws ServiceException {
+
+		MerchantConfigurationSnapshot snapshot = merchantConfigurationCache.get(store.getId());
+		if(snapshot==null) {
+			long version = merchantConfigurationCache.version();
+			snapshot = new MerchantConfigurationSnapshot(store.getId(), version, merchantConfigurationRepository.findByMerchantStore(store.getId()));
+			merchantConfigurationCache.put(snapshot);
+		}
+		return snapshot;
+	}
+
 	@Override
 	public void saveOrUpdate(MerchantConfiguration entity) throws ServiceException {
-		
 
-		
+
+
 		if(entity.getId()!=null && entity.getId()>0) {
-			super.update(entity);
+			update(entity);
 		} else {
-			super.create(entity);
+			create(entity);
 
 		}
 	}
-	
-	
+
+	@Override
+	public void create(MerchantConfiguration entity) throws ServiceException {
+		super.create(entity);
+		configurationChanged(entity);
+	}
+
+	@Override
+	public void update(MerchantConfiguration entity) throws ServiceException {
+		super.update(entity);
+		configurationChanged(entity);
+	}
+
+
 	@Override
 	public void delete(MerchantConfiguration merchantConfiguration) throws ServiceException {
 		MerchantConfiguration config = merchantConfigurationRepository.getOne(merchantConfiguration.getId());
 		if(config!=null) {
 			super.delete(config);
+			configurationChanged(config);
 		}
 	}
-	
+
 	@Override
 	public MerchantConfig getMerchantConfig(MerchantStore store) throws ServiceException {
 
-		MerchantConfiguration configuration = merchantConfigurationRepository.findByMerchantStoreAndKey(store.getId(), MerchantConfigurationType.CONFIG.name());
-		
-		MerchantConfig config = null;
-		if(configuration!=null) {
-			String value = configuration.getValue();
-			
-			ObjectMapper mapper = new ObjectMapper();
-			try {
-				config = mapper.readValue(value, MerchantConfig.class);
-			} catch(Exception e) {
-				throw new ServiceException("Cannot parse json string " + value);
-			}
-		}
-		return config;
-		
+		return getSnapshot(store).get(MerchantConfigurationType.CONFIG.name(), MerchantConfig.class,
+				MerchantConfigurationSnapshot.json(MerchantConfig.class));
+
 	}
-	
+
 	@Override
 	public void saveMerchantConfig(MerchantConfig config, MerchantStore store) throws ServiceException {
-		
+
 		MerchantConfiguration configuration = merchantConfigurationRepository.findByMerchantStoreAndKey(store.getId(), MerchantConfigurationType.CONFIG.name());
 
 		if(configuration==null) {
@@ -95,18 +114,26 @@ public class MerchantConfigurationServiceImpl extends
 			configuration.setKey(MerchantConfigurationType.CONFIG.name());
 			configuration.setMerchantConfigurationType(MerchantConfigurationType.CONFIG);
 		}
-		
+
 		String value = config.toJSONString();
 		configuration.setValue(value);
-		if(configuration.getId()!=null && configuration.getId()>0) {
-			super.update(configuration);
-		} else {
-			super.create(configuration);
+		saveOrUpdate(configuration);
+
+	}
 
+	/**
+	 * Evicts the snapshot now, the event evicts it again once the transaction commits
+	 */
+	private void configurationChanged(MerchantConfiguration configuration) {
+		Integer storeId = configuration.getMerchantStore() != null ? configuration.getMerchantStore().getId() : null;
+		if(storeId==null) {
+			merchantConfigurationCache.evictAll();
+			return;
 		}
-		
+		merchantConfigurationCache.evict(storeId);
+		eventPublisher.publishEvent(new MerchantConfigurationChangedEvent(storeId, configuration.getKey()));
 	}
-	
+
 
 
 }
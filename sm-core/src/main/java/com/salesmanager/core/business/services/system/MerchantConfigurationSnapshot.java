@@ -0,0 +1,90 @@
+package com.salesmanager.core.business.services.system;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.salesmanager.core.business.exception.ServiceException;
+import com.salesmanager.core.model.system.MerchantConfiguration;
+
+/**
+ * Configuration values of a merchant store at a given version.
+ *
+ * Values are parsed once per snapshot, parsed objects are shared by all
+ * readers and must not be modified. Saving a configuration replaces the snapshot.
+ */
+public final class MerchantConfigurationSnapshot {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private final Integer merchantStoreId;
+	private final long version;
+	private final Map<String, String> values;
+
+	/** key and type / parsed value **/
+	private final ConcurrentHashMap<String, Optional<Object>> parsed = new ConcurrentHashMap<String, Optional<Object>>();
+
+	public MerchantConfigurationSnapshot(Integer merchantStoreId, long version, List<MerchantConfiguration> configurations) {
+		this.merchantStoreId = merchantStoreId;
+		this.version = version;
+		Map<String, String> values = new HashMap<String, String>();
+		for (MerchantConfiguration configuration : configurations) {
+			values.putIfAbsent(configuration.getKey(), configuration.getValue());
+		}
+		this.values = Collections.unmodifiableMap(values);
+	}
+
+	public Integer getMerchantStoreId() {
+		return merchantStoreId;
+	}
+
+	public long getVersion() {
+		return version;
+	}
+
+	public boolean contains(String key) {
+		return values.containsKey(key);
+	}
+
+	public String getValue(String key) {
+		return values.get(key);
+	}
+
+	/**
+	 * @return the parsed value of the configuration or null when the store
+	 * does not have this configuration
+	 */
+	public <T> T get(String key, Class<T> type, Parser<T> parser) throws ServiceException {
+		if (!values.containsKey(key)) {
+			return null;
+		}
+		String parsedKey = key + ":" + type.getName();
+		Optional<Object> value = parsed.get(parsedKey);
+		if (value == null) {
+			try {
+				value = Optional.ofNullable(parser.parse(values.get(key)));
+			} catch (Exception e) {
+				throw new ServiceException("Cannot parse configuration [" + key + "] " + values.get(key), e);
+			}
+			parsed.putIfAbsent(parsedKey, value);
+		}
+		return type.cast(value.orElse(null));
+	}
+
+	/**
+	 * Parser of json values using a shared ObjectMapper
+	 */
+	public static <T> Parser<T> json(Class<T> type) {
+		return value -> MAPPER.readValue(value, type);
+	}
+
+	@FunctionalInterface
+	public interface Parser<T> {
+		T parse(String value) throws Exception;
+	}
+
+}
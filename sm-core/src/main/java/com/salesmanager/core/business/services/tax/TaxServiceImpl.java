@@ -14,9 +14,9 @@ import javax.inject.Inject;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.salesmanager.core.business.exception.ServiceException;
 import com.salesmanager.core.business.services.system.MerchantConfigurationService;
+import com.salesmanager.core.business.services.system.MerchantConfigurationSnapshot;
 import com.salesmanager.core.model.common.Billing;
 import com.salesmanager.core.model.common.Delivery;
 import com.salesmanager.core.model.customer.Customer;
@@ -55,19 +55,8 @@ public class TaxServiceImpl
 		
 		
 		
-		MerchantConfiguration configuration = merchantConfigurationService.getMerchantConfiguration(TAX_CONFIGURATION, store);
-		TaxConfiguration taxConfiguration = null;
-		if(configuration!=null) {
-			String value = configuration.getValue();
-			
-			ObjectMapper mapper = new ObjectMapper();
-			try {
-				taxConfiguration = mapper.readValue(value, TaxConfiguration.class);
-			} catch(Exception e) {
-				throw new ServiceException("Cannot parse json string " + value);
-			}
-		}
-		return taxConfiguration;
+		return merchantConfigurationService.getSnapshot(store).get(TAX_CONFIGURATION,
+				TaxConfiguration.class, MerchantConfigurationSnapshot.json(TaxConfiguration.class));
 	}
 	
 	
@@ -1,10 +1,18 @@
 package com.salesmanager.core.business.utils;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
+import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 
+import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -14,6 +22,15 @@ import org.springframework.stereotype.Component;
 
 import com.salesmanager.core.model.merchant.MerchantStore;
 
+import net.sf.ehcache.Ehcache;
+import net.sf.ehcache.Element;
+import net.sf.ehcache.event.CacheEventListenerAdapter;
+
+/**
+ * Object cache. Keys starting with <storeId>_ are indexed by store
+ * so that listing and evicting the entries of a store does not
+ * require to scan the whole cache.
+ */
 @Component("cache")
 public class CacheUtils {
 	
@@ -29,18 +46,63 @@ public class CacheUtils {
 
 	private final static String KEY_DELIMITER = "_";
 	
+	/** store id -> full keys of that store **/
+	private final Map<Integer, Set<String>> storeKeys = new ConcurrentHashMap<Integer, Set<String>>();
+	private final Map<Integer, StoreCounters> storeCounters = new ConcurrentHashMap<Integer, StoreCounters>();
+	
+	
+	@PostConstruct
+	public void init() {
+		Object nativeCache = cache.getNativeCache();
+		if(nativeCache instanceof Ehcache) {
+			//keep the index in sync with expired / evicted elements
+			((Ehcache)nativeCache).getCacheEventNotificationService().registerListener(new CacheEventListenerAdapter() {
+				@Override
+				public void notifyElementRemoved(Ehcache ehcache, Element element) {
+					unindex(element.getObjectKey());
+				}
+				@Override
+				public void notifyElementExpired(Ehcache ehcache, Element element) {
+					unindex(element.getObjectKey());
+				}
+				@Override
+				public void notifyElementEvicted(Ehcache ehcache, Element element) {
+					unindex(element.getObjectKey());
+				}
+				@Override
+				public void notifyRemoveAll(Ehcache ehcache) {
+					storeKeys.clear();
+				}
+			});
+		}
+	}
 
 
 	public void putInCache(Object object, String keyName) throws Exception {
 
 		cache.put(keyName, object);
+		index(keyName);
 		
 	}
 	
+	public void putInCache(MerchantStore store, Object object, String keyName) throws Exception {
+		Validate.notNull(store, "MerchantStore must not be null");
+		putInCache(object, storeKey(store, keyName));
+	}
+	
 
 	public Object getFromCache(String keyName) throws Exception {
 
 		ValueWrapper vw = cache.get(keyName);
+		Integer storeId = storeId(keyName);
+		if(storeId != null) {
+			StoreCounters counters = storeCounters.computeIfAbsent(storeId, k -> new StoreCounters());
+			if(vw != null) {
+				counters.hits.increment();
+			} else {
+				counters.misses.increment();
+			}
+		}
 		if(vw!=null) {
 			return vw.get();
 		}
@@ -49,30 +111,28 @@ public class CacheUtils {
 		
 	}
 	
+	public Object getFromCache(MerchantStore store, String keyName) throws Exception {
+		Validate.notNull(store, "MerchantStore must not be null");
+		return getFromCache(storeKey(store, keyName));
+	}
+	
+	/**
+	 * Keys (without the store prefix) cached for a given store
+	 * @param store
+	 * @return
+	 * @throws Exception
+	 */
 	public List<String> getCacheKeys(MerchantStore store) throws Exception {
 		
-		  net.sf.ehcache.Cache cacheImpl = (net.sf.ehcache.Cache) cache.getNativeCache();
-		  List<String> returnKeys = new ArrayList<String>();
-		  for (Object key: cacheImpl.getKeys()) {
-		    
-			  
-				try {
-					String sKey = (String)key;
-					
-					// a key should be <storeId>_<rest of the key>
-					int delimiterPosition = sKey.indexOf(KEY_DELIMITER);
-					
-					if(delimiterPosition>0 && Character.isDigit(sKey.charAt(0))) {
-					
-						String keyRemaining = sKey.substring(delimiterPosition+1);
-						returnKeys.add(keyRemaining);
-					
-					}
-
-				} catch (Exception e) {
-					LOGGER.equals("key " + key + " cannot be converted to a String or parsed");
-				}  
-		  }
+		Set<String> keys = storeKeys.get(store.getId());
+		if(keys == null) {
+			return Collections.emptyList();
+		}
+		
+		List<String> returnKeys = new ArrayList<String>(keys.size());
+		for(String key : keys) {
+			returnKeys.add(key.substring(key.indexOf(KEY_DELIMITER) + 1));
+		}
 
 		return returnKeys;
 	}
@@ -83,30 +143,93 @@ public class CacheUtils {
 	
 	public void removeFromCache(String keyName) throws Exception {
 		cache.evict(keyName);
+		unindex(keyName);
 	}
 	
+	/**
+	 * Evicts all entries of a given store
+	 * @param store
+	 * @throws Exception
+	 */
 	public void removeAllFromCache(MerchantStore store) throws Exception {
-		  net.sf.ehcache.Cache cacheImpl = (net.sf.ehcache.Cache) cache.getNativeCache();
-		  for (Object key: cacheImpl.getKeys()) {
-				try {
-					String sKey = (String)key;
-					
-					// a key should be <storeId>_<rest of the key>
-					int delimiterPosition = sKey.indexOf(KEY_DELIMITER);
-					
-					if(delimiterPosition>0 && Character.isDigit(sKey.charAt(0))) {
-					
-
-						cache.evict(key);
-					
-					}
-
-				} catch (Exception e) {
-					LOGGER.equals("key " + key + " cannot be converted to a String or parsed");
-				}  
-		  }
+		Set<String> keys = storeKeys.remove(store.getId());
+		if(keys == null) {
+			return;
+		}
+		for(String key : keys) {
+			cache.evict(key);
+		}
+	}
+	
+	public StoreCacheStatistics getStatistics(MerchantStore store) {
+		return statistics(store.getId());
 	}
 	
+	public Map<Integer, StoreCacheStatistics> getStatistics() {
+		Map<Integer, StoreCacheStatistics> statistics = new HashMap<Integer, StoreCacheStatistics>();
+		for(Integer storeId : storeCounters.keySet()) {
+			statistics.put(storeId, statistics(storeId));
+		}
+		for(Integer storeId : storeKeys.keySet()) {
+			statistics.computeIfAbsent(storeId, this::statistics);
+		}
+		return statistics;
+	}
+	
+	private StoreCacheStatistics statistics(Integer storeId) {
+		StoreCounters counters = storeCounters.get(storeId);
+		Set<String> keys = storeKeys.get(storeId);
+		return new StoreCacheStatistics(storeId,
+				counters != null ? counters.hits.sum() : 0,
+				counters != null ? counters.misses.sum() : 0,
+				keys != null ? keys.size() : 0);
+	}
+	
+	private String storeKey(MerchantStore store, String keyName) {
+		return new StringBuilder().append(store.getId()).append(KEY_DELIMITER).append(keyName).toString();
+	}
+	
+	private void index(String keyName) {
+		Integer storeId = storeId(keyName);
+		if(storeId != null) {
+			storeKeys.computeIfAbsent(storeId, k -> ConcurrentHashMap.newKeySet()).add(keyName);
+		}
+	}
+	
+	private void unindex(Object key) {
+		if(!(key instanceof String)) {
+			return;
+		}
+		Integer storeId = storeId((String)key);
+		if(storeId != null) {
+			Set<String> keys = storeKeys.get(storeId);
+			if(keys != null) {
+				keys.remove(key);
+			}
+		}
+	}
+	
+	/**
+	 * a key should be <storeId>_<rest of the key>
+	 * @return store id or null when the key is not store specific
+	 */
+	private Integer storeId(String key) {
+		int delimiterPosition = key.indexOf(KEY_DELIMITER);
+		if(delimiterPosition <= 0 || delimiterPosition > 9) {
+			return null;
+		}
+		for(int i = 0; i < delimiterPosition; i++) {
+			if(!Character.isDigit(key.charAt(i))) {
+				return null;
+			}
+		}
+		return Integer.valueOf(key.substring(0, delimiterPosition));
+	}
+	
+	private static final class StoreCounters {
+		private final LongAdder hits = new LongAdder();
+		private final LongAdder misses = new LongAdder();
+	}
 
 
 }
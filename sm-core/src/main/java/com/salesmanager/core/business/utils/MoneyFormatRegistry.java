@@ -0,0 +1,163 @@
+package com.salesmanager.core.business.utils;
+
+import java.math.BigDecimal;
+import java.text.NumberFormat;
+import java.util.Currency;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.salesmanager.core.business.constants.Constants;
+import com.salesmanager.core.business.services.common.version.ContentChangedEvent;
+import com.salesmanager.core.business.services.common.version.ContentScope;
+import com.salesmanager.core.model.merchant.MerchantStore;
+
+/**
+ * Money formatters keyed by locale, currency and national / international format.
+ *
+ * NumberFormat is not thread safe, each key holds one formatter per thread
+ * so that formatting an amount does not create a formatter.
+ * The format of a store is resolved once and kept until the store changes.
+ */
+@Component("moneyFormatRegistry")
+public class MoneyFormatRegistry {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(MoneyFormatRegistry.class);
+
+	private static final int FRACTION_DIGITS = 2;
+
+	private static final FormatKey DEFAULT = new FormatKey(Constants.DEFAULT_LOCALE, null, false);
+
+	private final ConcurrentMap<FormatKey, ThreadLocal<NumberFormat>> formats = new ConcurrentHashMap<FormatKey, ThreadLocal<NumberFormat>>();
+
+	/** store id / store format **/
+	private final ConcurrentMap<Integer, FormatKey> stores = new ConcurrentHashMap<Integer, FormatKey>();
+
+	/**
+	 * Amount with 2 decimals in the default locale, no currency
+	 */
+	public String format(BigDecimal amount) {
+		return formatter(DEFAULT).format(amount);
+	}
+
+	/**
+	 * Amount with 2 decimals and the grouping of the locale, no currency
+	 */
+	public String format(BigDecimal amount, Locale locale) {
+		return formatter(new FormatKey(locale, null, false)).format(amount);
+	}
+
+	/**
+	 * Amount with the currency symbol and decimals of the currency in the format of the locale
+	 */
+	public String formatCurrency(BigDecimal amount, Locale locale, Currency currency) {
+		return formatter(new FormatKey(locale, currency, true)).format(amount);
+	}
+
+	/**
+	 * Amount in the store currency, national format (locale of the store language and country)
+	 * or international format (default locale) as configured for the store
+	 */
+	public String formatStore(MerchantStore store, BigDecimal amount) {
+		return formatter(storeKey(store)).format(amount);
+	}
+
+	/**
+	 * Store formats are resolved again once a store is saved
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onContentChanged(ContentChangedEvent event) {
+		if (event.getScope() == ContentScope.STORE) {
+			if (event.getMerchantStoreId() == null) {
+				stores.clear();
+			} else {
+				stores.remove(event.getMerchantStoreId());
+			}
+		}
+	}
+
+	public int size() {
+		return formats.size();
+	}
+
+	private FormatKey storeKey(MerchantStore store) {
+		if (store.getId() == null) {
+			return resolve(store);
+		}
+		return stores.computeIfAbsent(store.getId(), id -> resolve(store));
+	}
+
+	private FormatKey resolve(MerchantStore store) {
+
+		Currency currency = Constants.DEFAULT_CURRENCY;
+		Locale locale = Constants.DEFAULT_LOCALE;
+
+		try {
+			currency = store.getCurrency().getCurrency();
+			locale = new Locale(store.getDefaultLanguage().getCode(), store.getCountry().getIsoCode());
+		} catch (Exception e) {
+			LOGGER.error("Cannot create currency or locale instance for store " + store.getCode());
+		}
+
+		if (!store.isCurrencyFormatNational()) {
+			locale = Locale.getDefault(Locale.Category.FORMAT);//international
+		}
+		return new FormatKey(locale, currency, true);
+	}
+
+	private NumberFormat formatter(FormatKey key) {
+		return formats.computeIfAbsent(key, k -> ThreadLocal.withInitial(k::create)).get();
+	}
+
+	private static final class FormatKey {
+
+		private final Locale locale;
+		private final Currency currency;
+		private final boolean withCurrency;
+		private final int hash;
+
+		FormatKey(Locale locale, Currency currency, boolean withCurrency) {
+			this.locale = locale;
+			this.currency = currency;
+			this.withCurrency = withCurrency;
+			this.hash = Objects.hash(locale, currency, withCurrency);
+		}
+
+		NumberFormat create() {
+			if (withCurrency) {
+				NumberFormat nf = NumberFormat.getCurrencyInstance(locale);
+				nf.setCurrency(currency);
+				return nf;
+			}
+			NumberFormat nf = NumberFormat.getInstance(locale);
+			nf.setMaximumFractionDigits(FRACTION_DIGITS);
+			nf.setMinimumFractionDigits(FRACTION_DIGITS);
+			return nf;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof FormatKey)) {
+				return false;
+			}
+			FormatKey other = (FormatKey) obj;
+			return withCurrency == other.withCurrency && locale.equals(other.locale)
+					&& Objects.equals(currency, other.currency);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+
+}
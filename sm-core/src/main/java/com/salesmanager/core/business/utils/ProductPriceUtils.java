@@ -1,9 +1,7 @@
 package com.salesmanager.core.business.utils;
 
 import java.math.BigDecimal;
-import java.text.NumberFormat;
 import java.util.ArrayList;
-import java.util.Currency;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
@@ -11,6 +9,8 @@ import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import javax.inject.Inject;
+
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 import org.apache.commons.validator.routines.BigDecimalValidator;
@@ -45,6 +45,9 @@ public class ProductPriceUtils {
 	
 	private static final Logger LOGGER = LoggerFactory.getLogger(ProductPriceUtils.class);
 
+	@Inject
+	private MoneyFormatRegistry moneyFormatRegistry;
+
 	
 	
 	/**
@@ -191,14 +194,7 @@ public class ProductPriceUtils {
 			return "";
 		}
 
-		NumberFormat nf = NumberFormat.getInstance(Constants.DEFAULT_LOCALE);
-
-		nf.setMaximumFractionDigits(Integer.parseInt(Character
-					.toString(DECIMALCOUNT)));
-		nf.setMinimumFractionDigits(Integer.parseInt(Character
-					.toString(DECIMALCOUNT)));
-
-		return nf.format(amount);
+		return moneyFormatRegistry.format(amount);
 	}
 	
 	public String getStringAmount(BigDecimal amount) {
@@ -207,14 +203,7 @@ public class ProductPriceUtils {
 			return "";
 		}
 
-		NumberFormat nf = NumberFormat.getInstance(Constants.DEFAULT_LOCALE);
-
-		nf.setMaximumFractionDigits(Integer.parseInt(Character
-					.toString(DECIMALCOUNT)));
-		nf.setMinimumFractionDigits(Integer.parseInt(Character
-					.toString(DECIMALCOUNT)));
-
-		return nf.format(amount);
+		return moneyFormatRegistry.format(amount);
 	}
 	
 	
@@ -236,33 +225,8 @@ public class ProductPriceUtils {
 			return "";
 		}
 		
-		
-		
-		Currency currency = Constants.DEFAULT_CURRENCY;
-		Locale locale = Constants.DEFAULT_LOCALE; 
-		
-		try {
-
-			currency = store.getCurrency().getCurrency();
-			locale = new Locale(store.getDefaultLanguage().getCode(),store.getCountry().getIsoCode());
-		} catch (Exception e) {
-			LOGGER.error("Cannot create currency or locale instance for store " + store.getCode());
-		}
-
-		
-		NumberFormat currencyInstance = null;
-		
-		
-		if(store.isCurrencyFormatNational()) {
-			currencyInstance = NumberFormat.getCurrencyInstance(locale);//national
-		} else {
-			currencyInstance = NumberFormat.getCurrencyInstance();//international
-		}
-	    currencyInstance.setCurrency(currency);
-		
-	    
-	    return currencyInstance.format(amount.doubleValue());
-		
+		//national or international format resolved once per store
+		return moneyFormatRegistry.formatStore(store, amount);
 
     }
 	
@@ -272,11 +236,7 @@ public class ProductPriceUtils {
 			return "";
 		}
 
-		Currency curr = currency.getCurrency();
-		NumberFormat currencyInstance = NumberFormat.getCurrencyInstance(locale);
-		currencyInstance.setCurrency(curr);
-	    return currencyInstance.format(amount.doubleValue());
-		
+		return moneyFormatRegistry.formatCurrency(amount, locale, currency.getCurrency());
 
     }
 	
@@ -295,22 +255,8 @@ public class ProductPriceUtils {
 			return "";
 		}
 		
-		
-		
-		
-		NumberFormat nf = null;
-
-		
-		Currency currency = store.getCurrency().getCurrency();
-		nf = NumberFormat.getInstance(Constants.DEFAULT_LOCALE);
-		nf.setMaximumFractionDigits(Integer.parseInt(Character
-				.toString(DECIMALCOUNT)));
-		nf.setMinimumFractionDigits(Integer.parseInt(Character
-				.toString(DECIMALCOUNT)));
-		nf.setCurrency(currency);
-
-
-		return nf.format(amount);
+		//raw amount, the currency is not displayed
+		return moneyFormatRegistry.format(amount);
 	}
 	
 	/**
@@ -328,19 +274,7 @@ public class ProductPriceUtils {
 		
 		Validate.notNull(currency.getCurrency(),"Currency must be populated with java.util.Currency");
 		
-		NumberFormat nf = null;
-
-		
-		Currency curr = currency.getCurrency();
-		nf = NumberFormat.getInstance(Constants.DEFAULT_LOCALE);
-		nf.setMaximumFractionDigits(Integer.parseInt(Character
-				.toString(DECIMALCOUNT)));
-		nf.setMinimumFractionDigits(Integer.parseInt(Character
-				.toString(DECIMALCOUNT)));
-		nf.setCurrency(curr);
-
-
-		return nf.format(amount);
+		return moneyFormatRegistry.format(amount);
 	}
 
 	/**
@@ -354,20 +288,7 @@ public class ProductPriceUtils {
 	public String getFormatedAmountWithCurrency(MerchantStore store, BigDecimal amount, Locale locale)
 				throws Exception {
 		
-			NumberFormat nf = null;
-
-			Currency currency = store.getCurrency().getCurrency();
-			
-			nf = NumberFormat.getInstance(locale);
-			nf.setCurrency(currency);
-			nf.setMaximumFractionDigits(Integer.parseInt(Character
-					.toString(DECIMALCOUNT)));
-			nf.setMinimumFractionDigits(Integer.parseInt(Character
-					.toString(DECIMALCOUNT)));
-	
-
-	
-			return nf.format(amount);
+			return moneyFormatRegistry.format(amount, locale);
 
 	}
 	
@@ -0,0 +1,42 @@
+package com.salesmanager.core.business.utils;
+
+import java.io.Serializable;
+
+/**
+ * Object cache usage for a given store
+ * @author carlsamson
+ *
+ */
+public class StoreCacheStatistics implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+	
+	private final Integer storeId;
+	private final long hits;
+	private final long misses;
+	private final int size;
+	
+	public StoreCacheStatistics(Integer storeId, long hits, long misses, int size) {
+		this.storeId = storeId;
+		this.hits = hits;
+		this.misses = misses;
+		this.size = size;
+	}
+
+	public Integer getStoreId() {
+		return storeId;
+	}
+
+	public long getHits() {
+		return hits;
+	}
+
+	public long getMisses() {
+		return misses;
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+}
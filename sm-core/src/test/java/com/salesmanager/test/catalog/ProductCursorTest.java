@@ -0,0 +1,177 @@
+package com.salesmanager.test.catalog;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.salesmanager.core.model.catalog.product.Product;
+import com.salesmanager.core.model.catalog.product.ProductCriteria;
+import com.salesmanager.core.model.catalog.product.ProductCursor;
+import com.salesmanager.core.model.catalog.product.ProductList;
+import com.salesmanager.core.model.catalog.product.description.ProductDescription;
+import com.salesmanager.core.model.catalog.product.type.ProductType;
+import com.salesmanager.core.model.common.CountMode;
+import com.salesmanager.core.model.merchant.MerchantStore;
+import com.salesmanager.core.model.reference.language.Language;
+import com.salesmanager.test.common.AbstractSalesManagerCoreTestCase;
+
+public class ProductCursorTest extends AbstractSalesManagerCoreTestCase {
+
+	/** sort order of each product, ties span page boundaries **/
+	private static final int[] SORT_ORDERS = { 1, 1, 1, 2, 2, 0, 0 };
+
+	private static final int PAGE_SIZE = 3;
+
+	@Inject
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	public void testEncodeDecode() {
+
+		ProductCursor cursor = ProductCursor.decode(new ProductCursor(5, 1234L, 200000L).encode());
+		Assert.assertEquals(5, cursor.getSortOrder());
+		Assert.assertEquals(Long.valueOf(1234L), cursor.getId());
+		Assert.assertEquals(Long.valueOf(200000L), cursor.getTotalCount());
+
+		cursor = ProductCursor.decode(new ProductCursor(0, 10L, null).encode());
+		Assert.assertEquals(0, cursor.getSortOrder());
+		Assert.assertEquals(Long.valueOf(10L), cursor.getId());
+		Assert.assertNull(cursor.getTotalCount());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidCursor() {
+		ProductCursor.decode("not-a-cursor");
+	}
+
+	@Test
+	public void testSeekAcrossPages() throws Exception {
+
+		Language en = languageService.getByCode(ENGLISH_LANGUAGE_CODE);
+		MerchantStore store = merchantService.getByCode(MerchantStore.DEFAULT_STORE);
+		ProductType generalType = productTypeService.getProductType(ProductType.GENERAL_TYPE);
+
+		List<Product> created = new ArrayList<Product>();
+		for (int i = 0; i < SORT_ORDERS.length; i++) {
+			Product product = new Product();
+			product.setSku("CURSOR" + i);
+			product.setType(generalType);
+			product.setMerchantStore(store);
+			product.setSortOrder(SORT_ORDERS[i]);
+
+			ProductDescription description = new ProductDescription();
+			description.setName("Cursor " + i);
+			description.setLanguage(en);
+			description.setProduct(product);
+			product.getDescriptions().add(description);
+
+			productService.create(product);
+			created.add(product);
+		}
+
+		List<Long> expected = new ArrayList<Long>();
+		created.stream()
+				.sorted(Comparator.comparing(Product::getSortOrder).thenComparing(Product::getId))
+				.forEach(p -> expected.add(p.getId()));
+
+		ProductCriteria criteria = new ProductCriteria();
+		criteria.setLanguage(en.getCode());
+		criteria.setProductIds(expected);
+		criteria.setPageSize(PAGE_SIZE);
+		criteria.setCountMode(CountMode.EXACT);
+
+		List<Long> listed = new ArrayList<Long>();
+		int pages = 0;
+		ProductList page;
+		do {
+			page = productService.listByCursor(store, en, criteria);
+			pages++;
+			Assert.assertEquals(SORT_ORDERS.length, page.getTotalCount());
+			Assert.assertTrue(page.getProducts().size() <= PAGE_SIZE);
+			page.getProducts().forEach(p -> listed.add(p.getId()));
+			criteria.setAfter(page.getNext() == null ? null
+					: ProductCursor.decode(page.getNext().encode()));
+		} while (page.getNext() != null);
+
+		Assert.assertEquals(3, pages);
+		Assert.assertEquals(expected, listed);
+
+		for (Product product : created) {
+			productService.delete(productService.getById(product.getId()));
+		}
+	}
+
+	@Test
+	public void testNullSortOrderListedFirst() throws Exception {
+
+		Language en = languageService.getByCode(ENGLISH_LANGUAGE_CODE);
+		MerchantStore store = merchantService.getByCode(MerchantStore.DEFAULT_STORE);
+		ProductType generalType = productTypeService.getProductType(ProductType.GENERAL_TYPE);
+
+		List<Long> ids = new ArrayList<Long>();
+		for (int i = 0; i < 3; i++) {
+			Product product = new Product();
+			product.setSku("NULLSORT" + i);
+			product.setType(generalType);
+			product.setMerchantStore(store);
+			product.setSortOrder(1);
+
+			ProductDescription description = new ProductDescription();
+			description.setName("Null sort " + i);
+			description.setLanguage(en);
+			description.setProduct(product);
+			product.getDescriptions().add(description);
+
+			productService.create(product);
+			ids.add(product.getId());
+		}
+
+		//row written before sort order was set on every product
+		EntityManager em = entityManagerFactory.createEntityManager();
+		try {
+			em.getTransaction().begin();
+			em.createNativeQuery("update PRODUCT set SORT_ORDER = null where PRODUCT_ID = :id")
+					.setParameter("id", ids.get(2)).executeUpdate();
+			em.getTransaction().commit();
+		} finally {
+			em.close();
+		}
+
+		ProductCriteria criteria = new ProductCriteria();
+		criteria.setLanguage(en.getCode());
+		criteria.setProductIds(ids);
+		criteria.setPageSize(1);
+		criteria.setCountMode(CountMode.NONE);
+
+		List<Long> listed = new ArrayList<Long>();
+		ProductList page;
+		do {
+			page = productService.listByCursor(store, en, criteria);
+			page.getProducts().forEach(p -> listed.add(p.getId()));
+			criteria.setAfter(page.getNext() == null ? null
+					: ProductCursor.decode(page.getNext().encode()));
+		} while (page.getNext() != null);
+
+		Assert.assertEquals(ids.get(2), listed.get(0));
+		Assert.assertEquals(ids.subList(0, 2), listed.subList(1, 3));
+
+		for (Long id : ids) {
+			productService.delete(productService.getById(id));
+		}
+	}
+
+	@Test
+	public void testNullSortOrder() {
+		Product product = new Product();
+		product.setSortOrder(null);
+		Assert.assertEquals(Integer.valueOf(0), product.getSortOrder());
+	}
+
+}
@@ -0,0 +1,188 @@
+package com.salesmanager.test.catalog;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.salesmanager.core.model.catalog.category.Category;
+import com.salesmanager.core.model.catalog.category.CategoryDescription;
+import com.salesmanager.core.model.catalog.product.Product;
+import com.salesmanager.core.model.catalog.product.attribute.ProductAttribute;
+import com.salesmanager.core.model.catalog.product.attribute.ProductOption;
+import com.salesmanager.core.model.catalog.product.attribute.ProductOptionDescription;
+import com.salesmanager.core.model.catalog.product.attribute.ProductOptionType;
+import com.salesmanager.core.model.catalog.product.attribute.ProductOptionValue;
+import com.salesmanager.core.model.catalog.product.attribute.ProductOptionValueDescription;
+import com.salesmanager.core.model.catalog.product.availability.ProductAvailability;
+import com.salesmanager.core.model.catalog.product.description.ProductDescription;
+import com.salesmanager.core.model.catalog.product.price.ProductPrice;
+import com.salesmanager.core.model.catalog.product.price.ProductPriceDescription;
+import com.salesmanager.core.model.catalog.product.type.ProductType;
+import com.salesmanager.core.model.merchant.MerchantStore;
+import com.salesmanager.core.model.reference.language.Language;
+
+/**
+ * Product graphs are loaded with one query per collection, the number of
+ * queries does not depend on the number of products or collection rows.
+ */
+public class ProductGraphLoaderTest extends com.salesmanager.test.common.AbstractSalesManagerCoreTestCase {
+
+	private static final Date date = new Date(System.currentTimeMillis());
+
+	private static final int OPTIONS = 3;
+	private static final int VALUES = 4;
+	private static final int AVAILABILITIES = 3;
+	private static final int CATEGORIES = 3;
+
+	@Inject
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	public void testLoadProductGraph() throws Exception {
+
+		Product first = createProduct("GRAPH01");
+		Product second = createProduct("GRAPH02");
+		Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		stats.setStatisticsEnabled(true);
+
+		//warm up
+		productService.getListingProducts(Collections.singletonList(first.getId()));
+
+		stats.clear();
+		Product loaded = productService.getListingProducts(Collections.singletonList(first.getId())).get(0);
+		long queries = stats.getPrepareStatementCount();
+
+		stats.clear();
+		List<Product> products = productService.getListingProducts(Arrays.asList(second.getId(), first.getId()));
+		Assert.assertEquals(queries, stats.getPrepareStatementCount());
+
+		Assert.assertEquals(2, products.size());
+		Assert.assertEquals(second.getId(), products.get(0).getId());
+		Assert.assertEquals(first.getId(), products.get(1).getId());
+
+		for (Product product : Arrays.asList(loaded, products.get(0))) {
+			Assert.assertEquals(2, product.getDescriptions().size());
+			Assert.assertEquals(AVAILABILITIES, product.getAvailabilities().size());
+			Assert.assertEquals(CATEGORIES, product.getCategories().size());
+			Assert.assertEquals(OPTIONS * VALUES, product.getAttributes().size());
+		}
+
+		productService.delete(productService.getById(first.getId()));
+		productService.delete(productService.getById(second.getId()));
+
+	}
+
+	private Product createProduct(String sku) throws Exception {
+
+		Language en = languageService.getByCode(ENGLISH_LANGUAGE_CODE);
+		Language fr = languageService.getByCode(FRENCH_LANGUAGE_CODE);
+
+		MerchantStore store = merchantService.getByCode(MerchantStore.DEFAULT_STORE);
+		ProductType generalType = productTypeService.getProductType(ProductType.GENERAL_TYPE);
+
+		Product product = new Product();
+		product.setSku(sku);
+		product.setType(generalType);
+		product.setMerchantStore(store);
+
+		for (Language language : new Language[] { en, fr }) {
+			ProductDescription description = new ProductDescription();
+			description.setName("Graph " + language.getCode());
+			description.setLanguage(language);
+			description.setProduct(product);
+			product.getDescriptions().add(description);
+		}
+
+		for (int i = 0; i < CATEGORIES; i++) {
+			Category category = new Category();
+			category.setMerchantStore(store);
+			category.setCode(sku.toLowerCase() + "_" + i);
+			for (Language language : new Language[] { en, fr }) {
+				CategoryDescription description = new CategoryDescription();
+				description.setName("Graph " + i + " " + language.getCode());
+				description.setCategory(category);
+				description.setLanguage(language);
+				category.getDescriptions().add(description);
+			}
+			categoryService.create(category);
+			product.getCategories().add(category);
+		}
+
+		for (int i = 0; i < AVAILABILITIES; i++) {
+			ProductAvailability availability = new ProductAvailability();
+			availability.setProductDateAvailable(date);
+			availability.setProductQuantity(100);
+			availability.setRegion(i == 0 ? "*" : "R" + i);
+			availability.setProduct(product);
+			product.getAvailabilities().add(availability);
+
+			for (int j = 0; j < 2; j++) {
+				ProductPrice price = new ProductPrice();
+				price.setCode(j == 0 ? ProductPrice.DEFAULT_PRICE_CODE : "eco");
+				price.setDefaultPrice(j == 0);
+				price.setProductPriceAmount(new BigDecimal(10 + j));
+				price.setProductAvailability(availability);
+				for (Language language : new Language[] { en, fr }) {
+					ProductPriceDescription description = new ProductPriceDescription();
+					description.setName("Price " + j);
+					description.setProductPrice(price);
+					description.setLanguage(language);
+					price.getDescriptions().add(description);
+				}
+				availability.getPrices().add(price);
+			}
+		}
+
+		productService.create(product);
+
+		List<ProductAttribute> attributes = new ArrayList<ProductAttribute>();
+		for (int i = 0; i < OPTIONS; i++) {
+			ProductOption option = new ProductOption();
+			option.setMerchantStore(store);
+			option.setCode(sku + "OPT" + i);
+			option.setProductOptionType(ProductOptionType.Radio.name());
+			ProductOptionDescription optionDescription = new ProductOptionDescription();
+			optionDescription.setLanguage(en);
+			optionDescription.setName("Option " + i);
+			optionDescription.setProductOption(option);
+			option.getDescriptions().add(optionDescription);
+			productOptionService.saveOrUpdate(option);
+
+			for (int j = 0; j < VALUES; j++) {
+				ProductOptionValue value = new ProductOptionValue();
+				value.setMerchantStore(store);
+				value.setCode(sku.toLowerCase() + "val" + i + "_" + j);
+				ProductOptionValueDescription valueDescription = new ProductOptionValueDescription();
+				valueDescription.setLanguage(en);
+				valueDescription.setName("Value " + j);
+				valueDescription.setProductOptionValue(value);
+				value.getDescriptions().add(valueDescription);
+				productOptionValueService.saveOrUpdate(value);
+
+				ProductAttribute attribute = new ProductAttribute();
+				attribute.setProduct(product);
+				attribute.setProductOption(option);
+				attribute.setProductOptionValue(value);
+				attribute.setProductAttributePrice(new BigDecimal(0));
+				attribute.setProductAttributeWeight(new BigDecimal(0));
+				productAttributeService.create(attribute);
+				attributes.add(attribute);
+			}
+		}
+		product.getAttributes().addAll(attributes);
+
+		return product;
+	}
+
+}
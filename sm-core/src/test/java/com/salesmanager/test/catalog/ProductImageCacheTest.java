@@ -0,0 +1,150 @@
+package com.salesmanager.test.catalog;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.salesmanager.core.business.modules.cms.product.ProductImageCache;
+import com.salesmanager.core.model.catalog.product.file.ProductImageSize;
+import com.salesmanager.core.model.content.OutputContentFile;
+
+public class ProductImageCacheTest {
+
+	/** smallest buffer **/
+	private static final int BUFFER = 4096;
+
+	private ProductImageCache cache;
+
+	@Before
+	public void setUp() {
+		cache = new ProductImageCache();
+		ReflectionTestUtils.setField(cache, "capacity", 3L * BUFFER);
+		ReflectionTestUtils.setField(cache, "maxEntrySize", 2L * BUFFER);
+	}
+
+	@Test
+	public void testLeastRecentlyServedEvicted() {
+
+		cache.put("a", image(100, 'a'));
+		cache.put("b", image(100, 'b'));
+		cache.put("c", image(100, 'c'));
+		Assert.assertEquals(3, cache.getCount());
+
+		read(cache.get("a"));
+		cache.put("d", image(100, 'd'));
+
+		Assert.assertNull(cache.get("b"));
+		Assert.assertEquals('a', read(cache.get("a"))[0]);
+		Assert.assertEquals('c', read(cache.get("c"))[0]);
+
+		//buffer of b reused
+		byte[] d = read(cache.get("d"));
+		Assert.assertEquals(100, d.length);
+		Assert.assertEquals('d', d[99]);
+		Assert.assertEquals(3L * BUFFER, cache.getAllocated());
+	}
+
+	@Test
+	public void testSizeAccounting() {
+
+		cache.put("a", image(100, 'a'));
+		cache.put("a", image(200, 'a'));
+		Assert.assertEquals(1, cache.getCount());
+		Assert.assertEquals(BUFFER, cache.getSize());
+		Assert.assertEquals(200, read(cache.get("a")).length);
+
+		//rounded up to a quarter of the power of two
+		cache.put("b", image(BUFFER + 1, 'b'));
+		Assert.assertEquals(BUFFER + 5120, cache.getSize());
+
+		//larger than the largest entry
+		cache.put("c", image(2 * BUFFER + 1, 'c'));
+		Assert.assertNull(cache.get("c"));
+
+		//pooled buffers of other sizes dropped for the new one
+		cache.put("c", image(2 * BUFFER, 'c'));
+		Assert.assertEquals(1, cache.getCount());
+		Assert.assertEquals(2 * BUFFER, cache.getSize());
+		Assert.assertTrue(cache.getAllocated() <= 3L * BUFFER);
+
+		cache.evict("c");
+		Assert.assertEquals(0, cache.getCount());
+		Assert.assertEquals(0, cache.getSize());
+
+		//kept for the next image
+		long allocated = cache.getAllocated();
+		cache.put("d", image(2 * BUFFER, 'd'));
+		Assert.assertEquals(allocated, cache.getAllocated());
+		Assert.assertEquals(2 * BUFFER, cache.getSize());
+	}
+
+	@Test
+	public void testEvictByPrefix() {
+
+		String small = cache.key("DEFAULT", "SKU1", "image.png", ProductImageSize.SMALL);
+		String large = cache.key("DEFAULT", "SKU1", "image.png", ProductImageSize.LARGE);
+		String other = cache.key("DEFAULT", "SKU2", "image.png", ProductImageSize.SMALL);
+		String store = cache.key("STORE", "SKU1", "image.png", ProductImageSize.SMALL);
+		cache.put(small, image(10, 's'));
+		cache.put(large, image(10, 'l'));
+		cache.put(other, image(10, 'o'));
+
+		cache.evict(cache.prefix("DEFAULT", "SKU1"));
+		Assert.assertNull(cache.get(small));
+		Assert.assertNull(cache.get(large));
+		Assert.assertNotNull(read(cache.get(other)));
+		Assert.assertEquals(BUFFER, cache.getSize());
+
+		cache.put(store, image(10, 'x'));
+		cache.evict(cache.prefix("DEFAULT"));
+		Assert.assertNull(cache.get(other));
+		Assert.assertEquals('x', read(cache.get(store))[0]);
+		Assert.assertEquals(1, cache.getCount());
+	}
+
+	@Test
+	public void testBufferReusedOnceReleased() {
+
+		cache.put("a", image(100, 'a'));
+		OutputContentFile served = cache.get("a");
+
+		cache.evict("a");
+		cache.put("b", image(100, 'b'));
+
+		//still being written, not reused
+		Assert.assertEquals('a', served.getBuffer().get(0));
+		Assert.assertEquals(BUFFER, cache.getAllocated());
+
+		served.release();
+		Assert.assertEquals(2L * BUFFER, cache.getAllocated());
+
+		cache.put("c", image(100, 'c'));
+		Assert.assertEquals(2L * BUFFER, cache.getAllocated());
+		Assert.assertEquals('c', read(cache.get("c"))[0]);
+	}
+
+	private OutputContentFile image(int length, char content) {
+		byte[] bytes = new byte[length];
+		Arrays.fill(bytes, (byte) content);
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		output.write(bytes, 0, bytes.length);
+		OutputContentFile file = new OutputContentFile();
+		file.setFileName("image.png");
+		file.setFile(output);
+		return file;
+	}
+
+	private byte[] read(OutputContentFile file) {
+		ByteBuffer buffer = file.getBuffer().duplicate();
+		byte[] bytes = new byte[buffer.remaining()];
+		buffer.get(bytes);
+		file.release();
+		return bytes;
+	}
+
+}
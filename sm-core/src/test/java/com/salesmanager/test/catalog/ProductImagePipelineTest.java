@@ -0,0 +1,95 @@
+package com.salesmanager.test.catalog;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.ImageIO;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.salesmanager.core.business.modules.cms.product.ProductImagePipeline;
+
+public class ProductImagePipelineTest {
+
+	private ProductImagePipeline pipeline;
+
+	@Before
+	public void setUp() {
+		pipeline = new ProductImagePipeline();
+		ReflectionTestUtils.setField(pipeline, "threads", 2);
+		ReflectionTestUtils.setField(pipeline, "queue", 10);
+		//smaller than a decoded 2000 x 1000 image
+		ReflectionTestUtils.setField(pipeline, "memory", 1024L * 1024L);
+		ReflectionTestUtils.setField(pipeline, "timeout", 5000L);
+		pipeline.init();
+	}
+
+	@After
+	public void tearDown() {
+		pipeline.shutdown();
+	}
+
+	@Test
+	public void testResize() throws Exception {
+
+		byte[] original = image(2000, 1000);
+		pipeline.validate(original, "large.png");
+
+		byte[] small = pipeline.resize(original, "large.png", "png", 350, 350, false);
+		BufferedImage image = ImageIO.read(new ByteArrayInputStream(small));
+		Assert.assertEquals(350, image.getWidth());
+		Assert.assertEquals(175, image.getHeight());
+
+		//not enlarged
+		small = pipeline.resize(image(100, 80), "tiny.png", "png", 350, 350, false);
+		image = ImageIO.read(new ByteArrayInputStream(small));
+		Assert.assertEquals(100, image.getWidth());
+	}
+
+	@Test(expected = IOException.class)
+	public void testNotAnImage() throws Exception {
+		pipeline.validate("not an image".getBytes(), "file.jpg");
+	}
+
+	@Test
+	public void testSameKeyJoinsRunningJob() throws Exception {
+
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger runs = new AtomicInteger();
+
+		CompletableFuture<Integer> first = pipeline.submit("DEFAULT/SKU/image.png", () -> {
+			release.await();
+			return runs.incrementAndGet();
+		});
+		CompletableFuture<Integer> second = pipeline.submit("DEFAULT/SKU/image.png", () -> runs.incrementAndGet());
+		Assert.assertSame(first, second);
+
+		release.countDown();
+		Assert.assertEquals(Integer.valueOf(1), second.get(5, TimeUnit.SECONDS));
+		Assert.assertEquals(1, runs.get());
+	}
+
+	private byte[] image(int width, int height) throws Exception {
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		Graphics2D graphics = image.createGraphics();
+		graphics.setColor(Color.BLUE);
+		graphics.fillRect(0, 0, width / 2, height);
+		graphics.dispose();
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		ImageIO.write(image, "png", output);
+		return output.toByteArray();
+	}
+
+}
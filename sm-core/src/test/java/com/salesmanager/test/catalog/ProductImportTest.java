@@ -0,0 +1,131 @@
+package com.salesmanager.test.catalog;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.inject.Inject;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.test.context.TestPropertySource;
+
+import com.salesmanager.core.business.exception.ServiceException;
+import com.salesmanager.core.business.services.catalog.product.bulk.ProductImportReport;
+import com.salesmanager.core.business.services.catalog.product.bulk.ProductImportService;
+import com.salesmanager.core.model.catalog.product.Product;
+import com.salesmanager.core.model.catalog.product.availability.ProductAvailability;
+import com.salesmanager.core.model.catalog.product.price.ProductPrice;
+import com.salesmanager.core.model.merchant.MerchantStore;
+import com.salesmanager.test.common.AbstractSalesManagerCoreTestCase;
+
+@TestPropertySource(properties = "config.catalog.import.chunkSize=2")
+public class ProductImportTest extends AbstractSalesManagerCoreTestCase {
+
+	@Inject
+	private ProductImportService productImportService;
+
+	@Test
+	public void testImport() throws Exception {
+
+		MerchantStore store = merchantService.getByCode(MerchantStore.DEFAULT_STORE);
+
+		List<ProductImportReport> progress = new ArrayList<ProductImportReport>();
+		ProductImportReport report = productImportService.importProducts(input(
+				"{\"sku\":\"IMPORT1\",\"names\":{\"en\":\"Import 1\"},\"price\":10.50,\"quantity\":5}",
+				"{\"sku\":\"IMPORT2\",\"names\":{\"en\":\"Import 2\",\"fr\":\"Import 2 fr\"},\"price\":20,\"quantity\":1}",
+				"{\"sku\":\" \",\"names\":{\"en\":\"Invalid\"},\"price\":1}",
+				"{\"sku\":\"IMPORT3\",\"names\":{\"en\":\"Import 3\"}}",
+				"{\"sku\":\"IMPORT4\",\"names\":{\"en\":\"Import 4\"},\"price\":4,\"quantity\":40}"),
+				"testImport", store, progress::add);
+
+		Assert.assertTrue(report.isCompleted());
+		Assert.assertEquals(5, report.getCommitted());
+		Assert.assertEquals(3, report.getCreated());
+		Assert.assertEquals(2, report.getFailed());
+		Assert.assertEquals(3, report.getChunks());
+		Assert.assertEquals(3, progress.size());
+		Assert.assertEquals(2, report.getErrors().size());
+
+		Product product = load("IMPORT1", store);
+		Assert.assertEquals("Import 1", product.getProductDescription().getName());
+		Assert.assertEquals(0, new BigDecimal("10.50").compareTo(defaultPrice(product).getProductPriceAmount()));
+		Assert.assertEquals(Integer.valueOf(5), product.getAvailabilities().iterator().next().getProductQuantity());
+
+		//update price only
+		report = productImportService.importProducts(input("{\"sku\":\"IMPORT1\",\"price\":12}"), "testImport", store, null);
+		Assert.assertEquals(1, report.getUpdated());
+		Assert.assertEquals(0, report.getCreated());
+
+		product = load("IMPORT1", store);
+		Assert.assertEquals("Import 1", product.getProductDescription().getName());
+		Assert.assertEquals(1, product.getAvailabilities().size());
+		Assert.assertEquals(0, new BigDecimal("12").compareTo(defaultPrice(product).getProductPriceAmount()));
+		Assert.assertEquals(Integer.valueOf(5), product.getAvailabilities().iterator().next().getProductQuantity());
+	}
+
+	@Test
+	public void testResume() throws Exception {
+
+		MerchantStore store = merchantService.getByCode(MerchantStore.DEFAULT_STORE);
+
+		try {
+			productImportService.importProducts(input(
+					"{\"sku\":\"RESUME1\",\"names\":{\"en\":\"Resume 1\"},\"price\":1}",
+					"{\"sku\":\"RESUME2\",\"names\":{\"en\":\"Resume 2\"},\"price\":2}",
+					"{\"sku\":\"RESUME3\",\"names\":{\"en\":\"Resume 3\"},\"price\":3}",
+					"{\"sku\":\"RESUME4\",\"names\":"),
+					"testResume", store, null);
+			Assert.fail("Malformed input should stop the import");
+		} catch (ServiceException e) {
+			//expected
+		}
+
+		Assert.assertNotNull(productService.getByCode("RESUME2", store));
+		Assert.assertNull(productService.getByCode("RESUME3", store));
+
+		ProductImportReport report = productImportService.importProducts(input(
+				"{\"sku\":\"RESUME1\",\"names\":{\"en\":\"Resume 1\"},\"price\":1}",
+				"{\"sku\":\"RESUME2\",\"names\":{\"en\":\"Resume 2\"},\"price\":2}",
+				"{\"sku\":\"RESUME3\",\"names\":{\"en\":\"Resume 3\"},\"price\":3}",
+				"{\"sku\":\"RESUME4\",\"names\":{\"en\":\"Resume 4\"},\"price\":4}"),
+				"testResume", store, null);
+
+		Assert.assertEquals(2, report.getResumedAt());
+		Assert.assertEquals(2, report.getCreated());
+		Assert.assertEquals(4, report.getCommitted());
+		Assert.assertNotNull(productService.getByCode("RESUME4", store));
+
+		//completed job starts again from the first record
+		report = productImportService.importProducts(input(
+				"{\"sku\":\"RESUME1\",\"quantity\":10}"), "testResume", store, null);
+		Assert.assertEquals(0, report.getResumedAt());
+		Assert.assertEquals(1, report.getUpdated());
+	}
+
+	private Product load(String sku, MerchantStore store) throws ServiceException {
+		Product product = productService.getByCode(sku, store);
+		Assert.assertNotNull(product);
+		return productService.getListingProducts(Collections.singletonList(product.getId())).get(0);
+	}
+
+	private ProductPrice defaultPrice(Product product) {
+		for (ProductAvailability availability : product.getAvailabilities()) {
+			for (ProductPrice price : availability.getPrices()) {
+				if (price.isDefaultPrice()) {
+					return price;
+				}
+			}
+		}
+		return null;
+	}
+
+	private InputStream input(String... lines) {
+		return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+	}
+
+}
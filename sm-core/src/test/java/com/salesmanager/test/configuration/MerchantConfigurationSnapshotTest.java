@@ -0,0 +1,70 @@
+package com.salesmanager.test.configuration;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.salesmanager.core.business.exception.ServiceException;
+import com.salesmanager.core.business.services.system.MerchantConfigurationCache;
+import com.salesmanager.core.business.services.system.MerchantConfigurationSnapshot;
+import com.salesmanager.core.model.system.MerchantConfig;
+import com.salesmanager.core.model.system.MerchantConfiguration;
+import com.salesmanager.core.model.system.MerchantConfigurationType;
+
+public class MerchantConfigurationSnapshotTest {
+
+	@Test
+	public void testParsedOnce() throws Exception {
+
+		MerchantConfigurationSnapshot snapshot = new MerchantConfigurationSnapshot(1, 0,
+				Arrays.asList(configuration(MerchantConfigurationType.CONFIG.name(), "{\"testMode\":true}")));
+
+		AtomicInteger parsed = new AtomicInteger();
+		MerchantConfigurationSnapshot.Parser<MerchantConfig> parser = value -> {
+			parsed.incrementAndGet();
+			return MerchantConfigurationSnapshot.json(MerchantConfig.class).parse(value);
+		};
+
+		MerchantConfig config = snapshot.get(MerchantConfigurationType.CONFIG.name(), MerchantConfig.class, parser);
+		Assert.assertTrue(config.isTestMode());
+		Assert.assertSame(config, snapshot.get(MerchantConfigurationType.CONFIG.name(), MerchantConfig.class, parser));
+		Assert.assertEquals(1, parsed.get());
+
+		Assert.assertNull(snapshot.get("TAX_CONFIG", MerchantConfig.class, parser));
+	}
+
+	@Test(expected = ServiceException.class)
+	public void testInvalidValue() throws Exception {
+		MerchantConfigurationSnapshot snapshot = new MerchantConfigurationSnapshot(1, 0,
+				Arrays.asList(configuration(MerchantConfigurationType.CONFIG.name(), "{not json")));
+		snapshot.get(MerchantConfigurationType.CONFIG.name(), MerchantConfig.class, MerchantConfigurationSnapshot.json(MerchantConfig.class));
+	}
+
+	@Test
+	public void testSnapshotLoadedDuringChangeNotStored() {
+
+		MerchantConfigurationCache cache = new MerchantConfigurationCache();
+		ReflectionTestUtils.setField(cache, "maximumSize", 10L);
+		ReflectionTestUtils.setField(cache, "ttl", 600L);
+		cache.init();
+
+		long version = cache.version();
+		cache.evict(1);
+		cache.put(new MerchantConfigurationSnapshot(1, version, Arrays.<MerchantConfiguration>asList()));
+		Assert.assertNull(cache.get(1));
+
+		cache.put(new MerchantConfigurationSnapshot(1, cache.version(), Arrays.<MerchantConfiguration>asList()));
+		Assert.assertNotNull(cache.get(1));
+	}
+
+	private MerchantConfiguration configuration(String key, String value) {
+		MerchantConfiguration configuration = new MerchantConfiguration();
+		configuration.setKey(key);
+		configuration.setValue(value);
+		return configuration;
+	}
+
+}
@@ -0,0 +1,235 @@
+package com.salesmanager.test.modules;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.salesmanager.core.business.modules.common.IndexEventQueue;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Bulk indexing against a stand-in http server answering the _bulk endpoint
+ */
+public class IndexEventQueueTest {
+
+	private HttpServer server;
+	private IndexEventQueue queue;
+	private File journal;
+
+	private final AtomicBoolean available = new AtomicBoolean(true);
+	private final AtomicInteger bulkRequests = new AtomicInteger();
+	private final AtomicInteger documents = new AtomicInteger();
+	private final List<String> bodies = new CopyOnWriteArrayList<String>();
+
+	@Before
+	public void setUp() throws Exception {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/", this::handle);
+		server.start();
+
+		journal = File.createTempFile("index-journal", ".log");
+		journal.delete();
+
+		queue = queue(Collections.singletonList("localhost"));
+	}
+
+	private IndexEventQueue queue(List<String> hosts) {
+		return queue(hosts, 100);
+	}
+
+	private IndexEventQueue queue(List<String> hosts, int capacity) {
+		IndexEventQueue queue = new IndexEventQueue();
+		ReflectionTestUtils.setField(queue, "hosts", hosts);
+		ReflectionTestUtils.setField(queue, "protocol", "http");
+		ReflectionTestUtils.setField(queue, "port", server.getAddress().getPort());
+		ReflectionTestUtils.setField(queue, "securityEnabled", Boolean.FALSE);
+		ReflectionTestUtils.setField(queue, "capacity", capacity);
+		ReflectionTestUtils.setField(queue, "bulkSize", 10);
+		ReflectionTestUtils.setField(queue, "flushInterval", 60000L);
+		ReflectionTestUtils.setField(queue, "journalPath", journal.getAbsolutePath());
+		queue.init();
+		return queue;
+	}
+
+	@After
+	public void tearDown() {
+		queue.shutdown();
+		server.stop(0);
+		journal.delete();
+	}
+
+	@Test
+	public void testEventsSentInBulk() throws Exception {
+		for (int i = 0; i < 5; i++) {
+			queue.offer("events_default", String.valueOf(i), "{\"event\":\"add\"}");
+		}
+		Assert.assertEquals(5, queue.getQueueDepth());
+
+		queue.flush();
+
+		Assert.assertEquals(1, bulkRequests.get());
+		Assert.assertEquals(5, documents.get());
+		Assert.assertEquals(5, queue.getIndexed());
+		Assert.assertEquals(0, queue.getQueueDepth());
+	}
+
+	@Test
+	public void testEventsJournaledWhileUnavailable() throws Exception {
+		available.set(false);
+		queue.offer("events_default", "1", "{\"event\":\"add\"}");
+		queue.offer("events_default", "2", "{\"event\":\"remove\"}");
+
+		queue.flush();
+
+		Assert.assertEquals(0, queue.getIndexed());
+		Assert.assertEquals(2, queue.getSpilled());
+		Assert.assertEquals(2, Files.readAllLines(journal.toPath()).size());
+
+		available.set(true);
+		queue.flush();
+
+		Assert.assertEquals(2, queue.getIndexed());
+		Assert.assertEquals(2, queue.getRetried());
+		Assert.assertEquals(0, queue.getDropped());
+		Assert.assertFalse(journal.exists());
+	}
+
+	@Test
+	public void testJournalReplayedBeforeQueuedEvents() throws Exception {
+		available.set(false);
+		queue.offer("events_default", "1", "{\"version\":1}");
+		queue.flush();
+
+		available.set(true);
+		queue.offer("events_default", "1", "{\"version\":2}");
+		queue.offer("events_default", "2", "{\"version\":1}");
+		queue.flush();
+
+		Assert.assertTrue(sent().indexOf("{\"version\":2}") > sent().indexOf("{\"version\":1}"));
+		Assert.assertEquals(3, queue.getIndexed());
+		Assert.assertEquals(0, queue.getQueueDepth());
+
+		//journal replayed, events are queued again
+		queue.offer("events_default", "3", "{\"version\":1}");
+		Assert.assertEquals(1, queue.getQueueDepth());
+	}
+
+	@Test
+	public void testJournalSpilledDuringReplayNotSentLast() throws Exception {
+		available.set(false);
+		queue.offer("events_default", "1", "{\"version\":1}");
+		queue.flush();
+		//journal moved aside for replay and kept
+		queue.flush();
+		queue.offer("events_default", "1", "{\"version\":2}");
+		queue.flush();
+
+		available.set(true);
+		queue.offer("events_default", "1", "{\"version\":3}");
+		queue.flush();
+		queue.flush();
+
+		String sent = sent();
+		Assert.assertTrue(sent.lastIndexOf("{\"version\":3}") > sent.lastIndexOf("{\"version\":2}"));
+		Assert.assertTrue(sent.lastIndexOf("{\"version\":2}") > sent.lastIndexOf("{\"version\":1}"));
+		Assert.assertFalse(journal.exists());
+	}
+
+	@Test
+	public void testQueuedEventsJournaledBeforeOverflow() throws Exception {
+		IndexEventQueue small = queue(Collections.singletonList("localhost"), 2);
+		try {
+			small.offer("events_default", "1", "{\"version\":1}");
+			small.offer("events_default", "2", "{\"version\":1}");
+			//queue full
+			small.offer("events_default", "1", "{\"version\":2}");
+			Assert.assertEquals(0, small.getQueueDepth());
+			Assert.assertEquals(3, small.getSpilled());
+
+			small.flush();
+
+			String sent = sent();
+			Assert.assertTrue(sent.lastIndexOf("{\"version\":2}") > sent.lastIndexOf("{\"version\":1}"));
+			Assert.assertEquals(3, small.getIndexed());
+		} finally {
+			small.shutdown();
+		}
+	}
+
+	@Test
+	public void testEventsJournaledWithoutHost() throws Exception {
+		IndexEventQueue noHost = queue(Collections.<String>emptyList());
+		try {
+			noHost.offer("events_default", "1", "{\"event\":\"add\"}");
+			noHost.flush();
+
+			Assert.assertEquals(0, bulkRequests.get());
+			Assert.assertEquals(1, noHost.getSpilled());
+			Assert.assertEquals(0, noHost.getDropped());
+		} finally {
+			noHost.shutdown();
+		}
+	}
+
+	/** documents in the order they were received **/
+	private String sent() {
+		return String.join("", bodies);
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		String body;
+		try (InputStream in = exchange.getRequestBody()) {
+			body = IOUtils.toString(in, StandardCharsets.UTF_8);
+		}
+
+		String response;
+		int status;
+		if (!available.get()) {
+			status = 503;
+			response = "{\"error\":{\"type\":\"cluster_block_exception\",\"reason\":\"unavailable\"},\"status\":503}";
+		} else {
+			bulkRequests.incrementAndGet();
+			bodies.add(body);
+			// action line + source line per document
+			int count = (int) body.lines().filter(l -> !l.isEmpty()).count() / 2;
+			documents.addAndGet(count);
+			StringBuilder items = new StringBuilder();
+			for (int i = 0; i < count; i++) {
+				if (i > 0) {
+					items.append(',');
+				}
+				items.append("{\"index\":{\"_index\":\"events_default\",\"_type\":\"_doc\",\"_id\":\"").append(i)
+						.append("\",\"_version\":1,\"result\":\"created\",")
+						.append("\"_shards\":{\"total\":1,\"successful\":1,\"failed\":0},")
+						.append("\"_seq_no\":").append(i).append(",\"_primary_term\":1,\"status\":201}}");
+			}
+			status = 200;
+			response = "{\"took\":1,\"errors\":false,\"items\":[" + items + "]}";
+		}
+
+		byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "application/json; charset=UTF-8");
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+}
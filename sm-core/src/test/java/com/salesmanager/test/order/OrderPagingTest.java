@@ -0,0 +1,183 @@
+package com.salesmanager.test.order;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.salesmanager.core.business.constants.Constants;
+import com.salesmanager.core.model.catalog.product.price.ProductPriceType;
+import com.salesmanager.core.model.common.Billing;
+import com.salesmanager.core.model.common.CriteriaOrderBy;
+import com.salesmanager.core.model.common.Delivery;
+import com.salesmanager.core.model.merchant.MerchantStore;
+import com.salesmanager.core.model.order.Order;
+import com.salesmanager.core.model.order.OrderCriteria;
+import com.salesmanager.core.model.order.OrderList;
+import com.salesmanager.core.model.order.OrderTotal;
+import com.salesmanager.core.model.order.orderproduct.OrderProduct;
+import com.salesmanager.core.model.order.orderproduct.OrderProductAttribute;
+import com.salesmanager.core.model.order.orderproduct.OrderProductPrice;
+import com.salesmanager.core.model.order.orderstatus.OrderStatus;
+import com.salesmanager.core.model.payments.PaymentType;
+import com.salesmanager.core.model.reference.country.Country;
+import com.salesmanager.core.model.reference.currency.Currency;
+import com.salesmanager.core.model.reference.zone.Zone;
+import com.salesmanager.test.common.AbstractSalesManagerCoreTestCase;
+
+/**
+ * Order listings must only load the orders of the requested page
+ */
+public class OrderPagingTest extends AbstractSalesManagerCoreTestCase {
+
+	private static final int ORDERS = 12;
+	private static final int PRODUCTS = 3;
+	private static final int PAGE_SIZE = 5;
+
+	@Inject
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	public void testRowsBoundedByPage() throws Exception {
+
+		MerchantStore store = merchantService.getByCode(MerchantStore.DEFAULT_STORE);
+		Currency currency = currencyService.getByCode(CAD_CURRENCY_CODE);
+		Country country = countryService.getByCode("CA");
+		Zone zone = zoneService.getByCode("QC");
+
+		for (int i = 0; i < ORDERS; i++) {
+			orderService.create(order(store, currency, country, zone, i));
+		}
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		//second page, most recent first
+		OrderCriteria criteria = new OrderCriteria();
+		criteria.setLegacyPagination(false);
+		criteria.setCustomerName("Paging");
+		criteria.setStartPage(1);
+		criteria.setPageSize(PAGE_SIZE);
+
+		long orders = statistics.getEntityStatistics(Order.class.getName()).getLoadCount();
+		long products = statistics.getEntityStatistics(OrderProduct.class.getName()).getLoadCount();
+
+		OrderList list = orderService.getOrders(criteria, store);
+
+		Assert.assertEquals(ORDERS, list.getTotalCount());
+		Assert.assertEquals(PAGE_SIZE, list.getOrders().size());
+		Assert.assertTrue(statistics.getEntityStatistics(Order.class.getName()).getLoadCount() - orders <= PAGE_SIZE);
+		Assert.assertTrue(statistics.getEntityStatistics(OrderProduct.class.getName()).getLoadCount()
+				- products <= PAGE_SIZE * PRODUCTS);
+
+		Long previous = null;
+		for (Order order : list.getOrders()) {
+			if (previous != null) {
+				Assert.assertTrue(order.getId() < previous);
+			}
+			previous = order.getId();
+			//graph is initialized, orders are detached at this point
+			Assert.assertEquals(2, order.getOrderTotal().size());
+			Assert.assertEquals(PRODUCTS, order.getOrderProducts().size());
+			for (OrderProduct product : order.getOrderProducts()) {
+				Assert.assertEquals(2, product.getPrices().size());
+				Assert.assertEquals(1, product.getOrderAttributes().size());
+			}
+			Assert.assertEquals("QC", order.getBilling().getZone().getCode());
+		}
+
+		//legacy pagination, last incomplete page
+		criteria = new OrderCriteria();
+		criteria.setCustomerName("Paging");
+		criteria.setOrderBy(CriteriaOrderBy.ASC);
+		criteria.setStartIndex(10);
+		criteria.setMaxCount(PAGE_SIZE);
+
+		orders = statistics.getEntityStatistics(Order.class.getName()).getLoadCount();
+		list = orderService.getOrders(criteria, store);
+
+		Assert.assertEquals(ORDERS - 10, list.getOrders().size());
+		Assert.assertTrue(statistics.getEntityStatistics(Order.class.getName()).getLoadCount() - orders <= ORDERS - 10);
+		Assert.assertTrue(list.getOrders().get(0).getId() < list.getOrders().get(1).getId());
+	}
+
+	private Order order(MerchantStore store, Currency currency, Country country, Zone zone, int index) {
+
+		Billing billing = new Billing();
+		billing.setFirstName("Order" + index);
+		billing.setLastName("Paging");
+		billing.setAddress("Billing address");
+		billing.setCity("Billing city");
+		billing.setCountry(country);
+		billing.setZone(zone);
+
+		Delivery delivery = new Delivery();
+		delivery.setAddress("Shipping address");
+		delivery.setCountry(country);
+		delivery.setZone(zone);
+
+		Order order = new Order();
+		order.setDatePurchased(new Date());
+		order.setCurrency(currency);
+		order.setMerchant(store);
+		order.setLastModified(new Date());
+		order.setCurrencyValue(new BigDecimal(1));
+		order.setCustomerId(1L);
+		order.setCustomerEmailAddress("paging@shopizer.com");
+		order.setBilling(billing);
+		order.setDelivery(delivery);
+		order.setPaymentType(PaymentType.MONEYORDER);
+		order.setPaymentModuleCode("moneyorder");
+		order.setStatus(OrderStatus.ORDERED);
+		order.setTotal(new BigDecimal(PRODUCTS * 10));
+
+		for (int i = 0; i < PRODUCTS; i++) {
+			OrderProduct product = new OrderProduct();
+			product.setOrder(order);
+			product.setProductName("Product " + i);
+			product.setSku("PAGING" + i);
+			product.setProductQuantity(1);
+			product.setOneTimeCharge(new BigDecimal(10));
+
+			for (ProductPriceType type : new ProductPriceType[] { ProductPriceType.ONE_TIME, ProductPriceType.MONTHLY }) {
+				OrderProductPrice price = new OrderProductPrice();
+				price.setDefaultPrice(type == ProductPriceType.ONE_TIME);
+				price.setOrderProduct(product);
+				price.setProductPrice(new BigDecimal(10));
+				price.setProductPriceCode(type.name());
+				product.getPrices().add(price);
+			}
+
+			OrderProductAttribute attribute = new OrderProductAttribute();
+			attribute.setOrderProduct(product);
+			attribute.setProductAttributePrice(new BigDecimal("0.00"));
+			attribute.setProductAttributeName("Color");
+			attribute.setProductOptionId(1L);
+			attribute.setProductOptionValueId(1L);
+			product.getOrderAttributes().add(attribute);
+
+			order.getOrderProducts().add(product);
+		}
+
+		order.getOrderTotal().add(total(order, Constants.OT_SUBTOTAL_MODULE_CODE, 0));
+		order.getOrderTotal().add(total(order, Constants.OT_TOTAL_MODULE_CODE, 1));
+
+		return order;
+	}
+
+	private OrderTotal total(Order order, String code, int sortOrder) {
+		OrderTotal total = new OrderTotal();
+		total.setOrder(order);
+		total.setOrderTotalCode(code);
+		total.setSortOrder(sortOrder);
+		total.setTitle(code);
+		total.setValue(order.getTotal());
+		return total;
+	}
+
+}
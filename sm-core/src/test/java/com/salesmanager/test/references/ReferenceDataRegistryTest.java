@@ -0,0 +1,102 @@
+package com.salesmanager.test.references;
+
+import java.util.List;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.salesmanager.core.business.services.common.version.ContentChangedEvent;
+import com.salesmanager.core.business.services.common.version.ContentScope;
+import com.salesmanager.core.business.services.reference.registry.ReferenceDataRegistry;
+import com.salesmanager.core.model.reference.country.Country;
+import com.salesmanager.core.model.reference.language.Language;
+import com.salesmanager.core.model.reference.zone.Zone;
+import com.salesmanager.test.common.AbstractSalesManagerCoreTestCase;
+
+public class ReferenceDataRegistryTest extends AbstractSalesManagerCoreTestCase {
+
+	@Inject
+	private ReferenceDataRegistry referenceDataRegistry;
+
+	@Inject
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	public void testLookups() throws Exception {
+
+		Language en = languageService.getByCode(ENGLISH_LANGUAGE_CODE);
+		Language fr = languageService.getByCode(FRENCH_LANGUAGE_CODE);
+		Country ca = countryService.getByCode("CA");
+		Zone qc = zoneService.getByCode("QC");
+		Assert.assertNotNull(currencyService.getByCode(CAD_CURRENCY_CODE));
+
+		Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		stats.setStatisticsEnabled(true);
+		stats.clear();
+
+		Assert.assertSame(ca, countryService.getByCode("CA"));
+		Assert.assertSame(ca, referenceDataRegistry.getCountry(ca.getId()));
+		Assert.assertSame(qc, referenceDataRegistry.getZone(qc.getId()));
+		Assert.assertEquals("CA", qc.getCountry().getIsoCode());
+		Assert.assertSame(en, languageService.getLanguagesMap().get(ENGLISH_LANGUAGE_CODE));
+
+		Country caFr = countryService.getCountriesMap(fr).get("CA");
+		Assert.assertEquals("Canada", caFr.getName());
+		Assert.assertEquals(1, caFr.getDescriptions().size());
+		Assert.assertFalse(caFr.getZones().isEmpty());
+
+		List<Zone> zones = zoneService.getZones(ca, en);
+		Assert.assertTrue(zones.contains(qc));
+		for (Zone zone : zones) {
+			Assert.assertNotNull(zone.getName());
+		}
+		Assert.assertEquals(zones, zoneService.getZones("CA", en));
+		Assert.assertTrue(zoneService.getZones(en).containsKey("QC"));
+		Assert.assertTrue(zoneService.getZones("XX", en).isEmpty());
+
+		//served from memory
+		Assert.assertEquals(0, stats.getPrepareStatementCount());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testImmutable() throws Exception {
+		Language en = languageService.getByCode(ENGLISH_LANGUAGE_CODE);
+		countryService.getCountries(en).clear();
+	}
+
+	@Test
+	public void testReload() throws Exception {
+
+		Country ca = countryService.getByCode("CA");
+		Assert.assertTrue(referenceDataRegistry.isLoaded());
+
+		referenceDataRegistry.onContentChanged(new ContentChangedEvent(ContentScope.REFERENCE, null));
+		Assert.assertFalse(referenceDataRegistry.isLoaded());
+
+		Country loaded = countryService.getByCode("CA");
+		Assert.assertNotSame(ca, loaded);
+		Assert.assertEquals(ca.getId(), loaded.getId());
+
+		referenceDataRegistry.reload();
+		Assert.assertTrue(referenceDataRegistry.isLoaded());
+		Assert.assertNotSame(loaded, countryService.getByCode("CA"));
+	}
+
+	@Test
+	public void testLoadedByServiceCall() throws Exception {
+
+		referenceDataRegistry.invalidate();
+		Assert.assertFalse(referenceDataRegistry.isLoaded());
+
+		//get* runs in a read-only transaction, the snapshot is kept
+		Country ca = countryService.getByCode("CA");
+		Assert.assertTrue(referenceDataRegistry.isLoaded());
+		Assert.assertSame(ca, countryService.getByCode("CA"));
+	}
+
+}
@@ -0,0 +1,51 @@
+package com.salesmanager.test.references;
+
+import javax.inject.Inject;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.salesmanager.core.business.services.common.cache.SecondLevelCache;
+import com.salesmanager.core.business.services.common.version.ContentChangedEvent;
+import com.salesmanager.core.business.services.common.version.ContentScope;
+import com.salesmanager.core.constants.CacheRegion;
+import com.salesmanager.core.model.reference.zone.Zone;
+import com.salesmanager.test.common.AbstractSalesManagerCoreTestCase;
+
+public class SecondLevelCacheTest extends AbstractSalesManagerCoreTestCase {
+
+	@Inject
+	private SecondLevelCache secondLevelCache;
+
+	@Test
+	public void testZoneRegion() throws Exception {
+
+		Zone zone = zoneService.getByCode("QC");
+		Assert.assertNotNull(zone);
+
+		//each call runs in its own session, the second one is served by the region
+		zoneService.getById(zone.getId());
+		long hits = secondLevelCache.getHitCount(CacheRegion.ZONE);
+		Zone cached = zoneService.getById(zone.getId());
+
+		Assert.assertEquals(zone.getCode(), cached.getCode());
+		Assert.assertTrue(secondLevelCache.getHitCount(CacheRegion.ZONE) > hits);
+		Assert.assertTrue(secondLevelCache.getSize(CacheRegion.ZONE) > 0);
+	}
+
+	@Test
+	public void testReferenceEviction() throws Exception {
+
+		Zone zone = zoneService.getByCode("QC");
+		zoneService.getById(zone.getId());
+		Assert.assertTrue(secondLevelCache.getSize(CacheRegion.ZONE) > 0);
+
+		secondLevelCache.onContentChanged(new ContentChangedEvent(ContentScope.REFERENCE, null));
+		Assert.assertEquals(0, secondLevelCache.getSize(CacheRegion.ZONE));
+
+		long misses = secondLevelCache.getMissCount(CacheRegion.ZONE);
+		zoneService.getById(zone.getId());
+		Assert.assertTrue(secondLevelCache.getMissCount(CacheRegion.ZONE) > misses);
+	}
+
+}
@@ -0,0 +1,211 @@
+package com.salesmanager.test.search;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.inject.Inject;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.test.context.TestPropertySource;
+
+import com.salesmanager.core.business.repositories.customer.CustomerRepository;
+import com.salesmanager.core.business.services.search.admin.AdminSearchIndex;
+import com.salesmanager.core.model.common.Billing;
+import com.salesmanager.core.model.common.Delivery;
+import com.salesmanager.core.model.customer.Customer;
+import com.salesmanager.core.model.customer.CustomerCriteria;
+import com.salesmanager.core.model.customer.CustomerGender;
+import com.salesmanager.core.model.customer.CustomerList;
+import com.salesmanager.core.model.merchant.MerchantStore;
+import com.salesmanager.core.model.order.Order;
+import com.salesmanager.core.model.order.OrderCriteria;
+import com.salesmanager.core.model.order.OrderList;
+import com.salesmanager.core.model.order.orderstatus.OrderStatus;
+import com.salesmanager.core.model.payments.PaymentType;
+import com.salesmanager.core.model.reference.country.Country;
+import com.salesmanager.core.model.reference.zone.Zone;
+import com.salesmanager.test.common.AbstractSalesManagerCoreTestCase;
+
+@TestPropertySource(properties = "config.admin.index.location=./target/index/admin-search-test")
+public class AdminSearchIndexTest extends AbstractSalesManagerCoreTestCase {
+
+	@Inject
+	private AdminSearchIndex adminSearchIndex;
+
+	@Inject
+	private CustomerRepository customerRepository;
+
+	@Test
+	public void testCustomerSearch() throws Exception {
+
+		MerchantStore store = merchantService.getByCode(MerchantStore.DEFAULT_STORE);
+
+		customerService.create(customer(store, "Émilie", "Tremblay", "emilie.tremblay@shopizer.com"));
+		customerService.create(customer(store, "Marc", "Tremblay", "marc@shopizer.com"));
+		customerService.create(customer(store, "Paul", "Gagnon", "paul.gagnon@shopizer.com"));
+
+		adminSearchIndex.rebuild(null);
+		Assert.assertTrue(adminSearchIndex.isReady());
+
+		Assert.assertEquals(2, customers(store, "tremb", null).getCustomers().size());
+		Assert.assertEquals(2, customers(store, "tremb", null).getTotalCount());
+
+		//case and accents
+		CustomerList list = customers(store, "EMILIE", null);
+		Assert.assertEquals(1, list.getCustomers().size());
+		Assert.assertEquals("emilie.tremblay@shopizer.com", list.getCustomers().get(0).getEmailAddress());
+
+		Assert.assertEquals(1, customers(store, null, "paul.gag").getCustomers().size());
+		Assert.assertEquals(0, customers(store, "paul tremblay", null).getCustomers().size());
+
+		//written after commit
+		Customer luc = customer(store, "Luc", "Tremblay", "luc@shopizer.com");
+		customerService.create(luc);
+		adminSearchIndex.refresh();
+		Assert.assertEquals(3, customers(store, "tremblay", null).getCustomers().size());
+
+		customerService.delete(luc);
+		adminSearchIndex.refresh();
+		Assert.assertEquals(2, customers(store, "tremblay", null).getCustomers().size());
+	}
+
+	@Test
+	public void testOrderSearch() throws Exception {
+
+		MerchantStore store = merchantService.getByCode(MerchantStore.DEFAULT_STORE);
+
+		Order first = order(store, "Jean", "Lavoie", "(514) 555-1234");
+		orderService.create(first);
+		orderService.create(order(store, "Julie", "Lavoie", "418 555 9876"));
+		orderService.create(order(store, "Jean", "Roy", "450-555-0000"));
+
+		adminSearchIndex.rebuild(null);
+
+		OrderCriteria criteria = criteria();
+		criteria.setCustomerName("lavoie");
+		OrderList list = orderService.getOrders(criteria, store);
+		Assert.assertEquals(2, list.getTotalCount());
+		//most recent first
+		Assert.assertTrue(list.getOrders().get(0).getId() > list.getOrders().get(1).getId());
+		//graph of the page is loaded
+		Assert.assertEquals("Lavoie", list.getOrders().get(0).getBilling().getLastName());
+
+		criteria = criteria();
+		criteria.setCustomerPhone("5145551234");
+		Assert.assertEquals(first.getId(), orderService.getOrders(criteria, store).getOrders().get(0).getId());
+
+		criteria = criteria();
+		criteria.setId(first.getId());
+		List<Long> ids = orderService.getOrders(criteria, store).getOrders().stream().map(Order::getId)
+				.collect(Collectors.toList());
+		Assert.assertTrue(ids.contains(first.getId()));
+
+		//status change is indexed after commit
+		first.setStatus(OrderStatus.SHIPPED);
+		orderService.saveOrUpdate(first);
+		adminSearchIndex.refresh();
+
+		criteria = criteria();
+		criteria.setCustomerName("jean");
+		criteria.setStatus(OrderStatus.SHIPPED.name());
+		list = orderService.getOrders(criteria, store);
+		Assert.assertEquals(1, list.getOrders().size());
+		Assert.assertEquals(first.getId(), list.getOrders().get(0).getId());
+
+		//page size
+		criteria = criteria();
+		criteria.setCustomerName("j");
+		criteria.setPageSize(2);
+		list = orderService.getOrders(criteria, store);
+		Assert.assertEquals(3, list.getTotalCount());
+		Assert.assertEquals(2, list.getOrders().size());
+	}
+
+	@Test
+	public void testChangesOfOtherNodesCaughtUp() throws Exception {
+
+		MerchantStore store = merchantService.getByCode(MerchantStore.DEFAULT_STORE);
+		adminSearchIndex.rebuild(null);
+
+		//written by another node, no event on this one
+		Customer customer = customerRepository.save(customer(store, "Sophie", "Bouchard", "sophie@shopizer.com"));
+		Assert.assertEquals(0, customers(store, "bouchard", null).getCustomers().size());
+
+		adminSearchIndex.catchUp();
+		adminSearchIndex.refresh();
+		Assert.assertEquals(1, customers(store, "bouchard", null).getCustomers().size());
+
+		customerService.delete(customer);
+	}
+
+	private CustomerList customers(MerchantStore store, String name, String email) {
+		CustomerCriteria criteria = new CustomerCriteria();
+		criteria.setName(name);
+		criteria.setEmail(email);
+		return customerService.getListByStore(store, criteria);
+	}
+
+	private OrderCriteria criteria() {
+		OrderCriteria criteria = new OrderCriteria();
+		criteria.setLegacyPagination(false);
+		return criteria;
+	}
+
+	private Customer customer(MerchantStore store, String firstName, String lastName, String email) throws Exception {
+
+		Customer customer = new Customer();
+		customer.setMerchantStore(store);
+		customer.setEmailAddress(email);
+		customer.setGender(CustomerGender.M);
+		customer.setDateOfBirth(new Date());
+		customer.setNick(email);
+		customer.setPassword("123456");
+		customer.setDefaultLanguage(store.getDefaultLanguage());
+		customer.setBilling(billing(firstName, lastName, null));
+
+		Delivery delivery = new Delivery();
+		delivery.setAddress("Shipping address");
+		delivery.setCountry(customer.getBilling().getCountry());
+		delivery.setZone(customer.getBilling().getZone());
+		customer.setDelivery(delivery);
+
+		return customer;
+	}
+
+	private Order order(MerchantStore store, String firstName, String lastName, String phone) throws Exception {
+
+		Order order = new Order();
+		order.setDatePurchased(new Date());
+		order.setCurrency(currencyService.getByCode(CAD_CURRENCY_CODE));
+		order.setMerchant(store);
+		order.setLastModified(new Date());
+		order.setCurrencyValue(new BigDecimal(1));
+		order.setCustomerId(1L);
+		order.setCustomerEmailAddress(firstName.toLowerCase() + "@shopizer.com");
+		order.setBilling(billing(firstName, lastName, phone));
+		order.setPaymentType(PaymentType.MONEYORDER);
+		order.setPaymentModuleCode("moneyorder");
+		order.setStatus(OrderStatus.ORDERED);
+		order.setTotal(new BigDecimal(10));
+		return order;
+	}
+
+	private Billing billing(String firstName, String lastName, String phone) throws Exception {
+		Country country = countryService.getByCode("CA");
+		Zone zone = zoneService.getByCode("QC");
+
+		Billing billing = new Billing();
+		billing.setFirstName(firstName);
+		billing.setLastName(lastName);
+		billing.setAddress("Billing address");
+		billing.setCity("Montreal");
+		billing.setTelephone(phone);
+		billing.setCountry(country);
+		billing.setZone(zone);
+		return billing;
+	}
+
+}
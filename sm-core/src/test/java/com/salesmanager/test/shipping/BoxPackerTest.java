@@ -0,0 +1,158 @@
+package com.salesmanager.test.shipping;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.salesmanager.core.business.modules.integration.shipping.impl.BoxPacker;
+
+public class BoxPackerTest {
+
+	private static final BoxPacker.BoxSize LARGE = new BoxPacker.BoxSize("large", 10, 10, 10, 2, 100);
+	private static final BoxPacker.BoxSize SMALL = new BoxPacker.BoxSize("small", 5, 5, 10, 1, 100);
+
+	@Test
+	public void testLargeQuantityIsNotExpanded() {
+
+		//7 units per large box, the last one taking half of the 250 left
+		List<BoxPacker.PackedBoxes> packed = new BoxPacker(Collections.singletonList(LARGE))
+				.pack(Collections.singletonList(new BoxPacker.Item("cube", 5, 5, 5, 1, 70000)));
+
+		Assert.assertEquals(1, packed.size());
+		Assert.assertEquals(10000, packed.get(0).getCount());
+		Assert.assertEquals(7, packed.get(0).getUnits());
+		Assert.assertEquals(7, packed.get(0).getContentWeight(), 0);
+	}
+
+	@Test
+	public void testRemainderInSmallerBox() {
+
+		List<BoxPacker.PackedBoxes> packed = new BoxPacker(Arrays.asList(SMALL, LARGE))
+				.pack(Collections.singletonList(new BoxPacker.Item("cube", 5, 5, 5, 1, 7001)));
+
+		Assert.assertEquals(2, packed.size());
+		Assert.assertEquals(LARGE, packed.get(0).getSize());
+		Assert.assertEquals(1000, packed.get(0).getCount());
+		Assert.assertEquals(SMALL, packed.get(1).getSize());
+		Assert.assertEquals(1, packed.get(1).getCount());
+		Assert.assertEquals(1, packed.get(1).getUnits());
+	}
+
+	@Test
+	public void testSmallItemsFillOpenBoxes() {
+
+		List<BoxPacker.PackedBoxes> packed = new BoxPacker(Collections.singletonList(LARGE))
+				.pack(Arrays.asList(new BoxPacker.Item("small", 2, 2, 2, 1, 10),
+						new BoxPacker.Item("cube", 5, 5, 5, 1, 4)));
+
+		Assert.assertEquals(1, packed.size());
+		Assert.assertEquals(1, packed.get(0).getCount());
+		Assert.assertEquals(14, packed.get(0).getUnits());
+	}
+
+	/**
+	 * A unit is added while it takes at most 75% of the volume left
+	 */
+	@Test
+	public void testUnitsPerBox() {
+
+		BoxPacker.BoxSize box = new BoxPacker.BoxSize("box", 5, 5, 4, 1, 100);
+
+		//40 then 40 of the 60 left, 20 left
+		List<BoxPacker.PackedBoxes> packed = new BoxPacker(Collections.singletonList(box))
+				.pack(Collections.singletonList(new BoxPacker.Item("item", 5, 2, 4, 1, 4)));
+		Assert.assertEquals(1, packed.size());
+		Assert.assertEquals(2, packed.get(0).getCount());
+		Assert.assertEquals(2, packed.get(0).getUnits());
+
+		packed = new BoxPacker(Collections.singletonList(box))
+				.pack(Collections.singletonList(new BoxPacker.Item("item", 5, 2, 4, 1, 5)));
+		long boxes = 0;
+		for (BoxPacker.PackedBoxes group : packed) {
+			boxes += group.getCount();
+		}
+		Assert.assertEquals(3, boxes);
+
+		//25, 25 of 75, 25 of 50 (37.5), not 25 of 25
+		packed = new BoxPacker(Collections.singletonList(box))
+				.pack(Collections.singletonList(new BoxPacker.Item("item", 5, 5, 1, 1, 6)));
+		Assert.assertEquals(1, packed.size());
+		Assert.assertEquals(2, packed.get(0).getCount());
+		Assert.assertEquals(3, packed.get(0).getUnits());
+	}
+
+	@Test
+	public void testEmptyBoxTakesItemUpToItsVolume() {
+
+		//90% of the large box, one per box
+		List<BoxPacker.PackedBoxes> packed = new BoxPacker(Arrays.asList(SMALL, LARGE))
+				.pack(Collections.singletonList(new BoxPacker.Item("block", 10, 10, 9, 1, 3)));
+
+		Assert.assertEquals(1, packed.size());
+		Assert.assertEquals(LARGE, packed.get(0).getSize());
+		Assert.assertEquals(3, packed.get(0).getCount());
+		Assert.assertEquals(1, packed.get(0).getUnits());
+	}
+
+	@Test
+	public void testWeightLimit() {
+
+		List<BoxPacker.PackedBoxes> packed = new BoxPacker(Collections.singletonList(LARGE))
+				.pack(Collections.singletonList(new BoxPacker.Item("heavy", 2, 2, 2, 40, 5)));
+
+		long boxes = 0;
+		long units = 0;
+		for (BoxPacker.PackedBoxes group : packed) {
+			Assert.assertTrue(group.getContentWeight() <= LARGE.getMaxWeight());
+			boxes += group.getCount();
+			units += group.getCount() * group.getUnits();
+		}
+		Assert.assertEquals(3, boxes);
+		Assert.assertEquals(5, units);
+	}
+
+	/**
+	 * 5000 units cart packed as a few groups of identical boxes, at most one
+	 * partly filled box per item over the boxes needed for the cart weight
+	 */
+	@Test
+	public void testLargeCart() {
+
+		List<BoxPacker.Item> items = new ArrayList<BoxPacker.Item>();
+		for (int i = 0; i < 10; i++) {
+			items.add(new BoxPacker.Item("item" + i, 1 + i % 3, 2, 2, .5 + i * .1, 500));
+		}
+		BoxPacker.BoxSize box = new BoxPacker.BoxSize("box", 10, 10, 10, 1, 50);
+
+		List<BoxPacker.PackedBoxes> packed = new BoxPacker(Collections.singletonList(box)).pack(items);
+
+		long boxes = 0;
+		long units = 0;
+		for (BoxPacker.PackedBoxes group : packed) {
+			Assert.assertTrue(group.getContentWeight() <= box.getMaxWeight());
+			boxes += group.getCount();
+			units += group.getCount() * group.getUnits();
+		}
+		double weight = 0;
+		for (BoxPacker.Item item : items) {
+			weight += item.getWeight() * item.getQuantity();
+		}
+		long minimum = (long) Math.ceil(weight / box.getMaxWeight());
+
+		Assert.assertEquals(5000, units);
+		Assert.assertTrue(packed.size() <= items.size() * 2);
+		Assert.assertTrue(boxes >= minimum);
+		Assert.assertTrue(boxes <= minimum + items.size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testItemLargerThanBoxes() {
+		new BoxPacker(Arrays.asList(SMALL, LARGE))
+				.pack(Collections.singletonList(new BoxPacker.Item("long", 2, 20, 2, 1, 1)));
+	}
+
+}
@@ -0,0 +1,64 @@
+package com.salesmanager.test.shipping;
+
+import javax.inject.Inject;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.salesmanager.core.business.services.shipping.ShippingService;
+import com.salesmanager.core.model.merchant.MerchantStore;
+import com.salesmanager.core.model.shipping.Package;
+import com.salesmanager.core.model.shipping.ShippingConfiguration;
+import com.salesmanager.core.model.shipping.ShippingPackageType;
+import com.salesmanager.test.common.AbstractSalesManagerCoreTestCase;
+
+public class ShippingConfigurationTest extends AbstractSalesManagerCoreTestCase {
+
+	@Inject
+	private ShippingService shippingService;
+
+	@Test
+	public void testSharedConfigurationNotModifiedByEdits() throws Exception {
+
+		MerchantStore store = merchantService.getByCode(MerchantStore.DEFAULT_STORE);
+		ShippingConfiguration original = shippingService.getShippingConfigurationForUpdate(store);
+
+		try {
+			ShippingConfiguration config = new ShippingConfiguration();
+			config.getPackages().add(pack("BOX-1"));
+			shippingService.saveShippingConfiguration(config, store);
+
+			ShippingConfiguration shared = shippingService.getShippingConfiguration(store);
+			Assert.assertSame(shared, shippingService.getShippingConfiguration(store));
+			try {
+				shared.getPackages().add(pack("BOX-2"));
+				Assert.fail("Packages of the shared configuration must not be modifiable");
+			} catch (UnsupportedOperationException expected) {
+			}
+
+			ShippingConfiguration edit = shippingService.getShippingConfigurationForUpdate(store);
+			Assert.assertNotSame(shared, edit);
+			edit.getPackages().add(pack("BOX-2"));
+			Assert.assertEquals(1, shared.getPackages().size());
+
+			shippingService.saveShippingConfiguration(edit, store);
+			Assert.assertEquals(2, shippingService.getShippingConfiguration(store).getPackages().size());
+		} finally {
+			if (original != null) {
+				shippingService.saveShippingConfiguration(original, store);
+			}
+		}
+	}
+
+	private Package pack(String code) {
+		Package pack = new Package();
+		pack.setCode(code);
+		pack.setBoxWidth(10);
+		pack.setBoxHeight(10);
+		pack.setBoxLength(10);
+		pack.setMaxWeight(5);
+		pack.setShipPackageType(ShippingPackageType.BOX);
+		return pack;
+	}
+
+}
@@ -0,0 +1,122 @@
+package com.salesmanager.test.shipping;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.salesmanager.core.business.services.shipping.ShippingQuoteDispatcher;
+import com.salesmanager.core.model.shipping.ShippingOption;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Concurrent quotes against stand-in carrier servers, a fast one,
+ * a slow one and a failing one
+ */
+public class ShippingQuoteDispatcherTest {
+
+	private HttpServer server;
+	private ShippingQuoteDispatcher dispatcher;
+
+	@Before
+	public void setUp() throws Exception {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.setExecutor(Executors.newCachedThreadPool());
+		server.createContext("/fast", e -> respond(e, 50, 200, "12.50"));
+		server.createContext("/other", e -> respond(e, 100, 200, "20.00"));
+		server.createContext("/slow", e -> respond(e, 3000, 200, "8.00"));
+		server.createContext("/down", e -> respond(e, 0, 503, ""));
+		server.start();
+
+		dispatcher = new ShippingQuoteDispatcher();
+		ReflectionTestUtils.setField(dispatcher, "parallel", true);
+		ReflectionTestUtils.setField(dispatcher, "moduleTimeout", 500L);
+		ReflectionTestUtils.setField(dispatcher, "deadline", 1000L);
+		ReflectionTestUtils.setField(dispatcher, "threads", 4);
+		dispatcher.init();
+	}
+
+	@After
+	public void tearDown() {
+		dispatcher.shutdown();
+		server.stop(0);
+	}
+
+	@Test
+	public void testMergeAnsweredModules() {
+
+		Map<String, Callable<List<ShippingOption>>> quotes = new LinkedHashMap<String, Callable<List<ShippingOption>>>();
+		quotes.put("fast", carrier("fast"));
+		quotes.put("slow", carrier("slow"));
+		quotes.put("down", carrier("down"));
+		quotes.put("other", carrier("other"));
+
+		long start = System.currentTimeMillis();
+		Map<String, List<ShippingOption>> results = dispatcher.dispatch(quotes);
+		long elapsed = System.currentTimeMillis() - start;
+
+		Assert.assertTrue("quotes must not wait for the slow carrier " + elapsed, elapsed < 1500);
+		Assert.assertEquals(2, results.size());
+		Assert.assertEquals(new BigDecimal("12.50"), results.get("fast").get(0).getOptionPrice());
+		Assert.assertEquals(new BigDecimal("20.00"), results.get("other").get(0).getOptionPrice());
+
+		Assert.assertEquals(1, dispatcher.getStats("slow").getTimeouts());
+		Assert.assertEquals(1, dispatcher.getStats("down").getErrors());
+		Assert.assertEquals(1, dispatcher.getStats("fast").getCalls());
+		Assert.assertTrue(dispatcher.getStats("fast").getTotalNanos() > 0);
+	}
+
+	private Callable<List<ShippingOption>> carrier(String path) {
+		return () -> {
+			URL url = new URL("http://localhost:" + server.getAddress().getPort() + "/" + path);
+			HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+			try {
+				if (connection.getResponseCode() != 200) {
+					throw new IOException("Carrier returned " + connection.getResponseCode());
+				}
+				try (InputStream in = connection.getInputStream()) {
+					ShippingOption option = new ShippingOption();
+					option.setOptionCode(path);
+					option.setOptionPrice(new BigDecimal(IOUtils.toString(in, StandardCharsets.UTF_8)));
+					List<ShippingOption> options = new ArrayList<ShippingOption>();
+					options.add(option);
+					return options;
+				}
+			} finally {
+				connection.disconnect();
+			}
+		};
+	}
+
+	private void respond(HttpExchange exchange, long delay, int status, String body) throws IOException {
+		try {
+			Thread.sleep(delay);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.sendResponseHeaders(status, bytes.length > 0 ? bytes.length : -1);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+}
@@ -0,0 +1,120 @@
+package com.salesmanager.test.shoppingcart;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.salesmanager.core.business.services.catalog.product.ProductChangedEvent;
+import com.salesmanager.core.business.services.shoppingcart.ShoppingCartStore;
+import com.salesmanager.core.model.merchant.MerchantStore;
+import com.salesmanager.core.model.shoppingcart.ShoppingCart;
+import com.salesmanager.core.model.shoppingcart.ShoppingCartItem;
+
+public class ShoppingCartStoreTest {
+
+	private static final Date MODIFIED = new Date(1600000000000L);
+
+	private ShoppingCartStore store;
+	private MerchantStore merchant;
+
+	@Before
+	public void setUp() {
+		store = new ShoppingCartStore();
+		ReflectionTestUtils.setField(store, "maximumSize", 100L);
+		ReflectionTestUtils.setField(store, "ttl", 1800L);
+		ReflectionTestUtils.setField(store, "repriceInterval", 300L);
+		store.init();
+
+		merchant = new MerchantStore();
+		merchant.setId(1);
+	}
+
+	@Test
+	public void testAppliedUntilProductChanges() {
+
+		store.put(priced(cart("abc", 10L, 11L)), store.sequence());
+		ShoppingCart loaded = cart("abc", 10L, 11L);
+		Assert.assertTrue(store.apply(loaded));
+		for (ShoppingCartItem item : loaded.getLineItems()) {
+			Assert.assertEquals(new BigDecimal("2.00"), item.getSubTotal());
+		}
+
+		store.onProductChanged(new ProductChangedEvent(99L, 1));
+		Assert.assertTrue(store.apply(cart("abc", 10L, 11L)));
+
+		store.onProductChanged(new ProductChangedEvent(11L, 1));
+		Assert.assertFalse(store.apply(cart("abc", 10L, 11L)));
+	}
+
+	@Test
+	public void testNotStoredWhenProductChangedWhilePricing() {
+
+		long sequence = store.sequence();
+		store.onProductChanged(new ProductChangedEvent(10L, 1));
+
+		store.put(priced(cart("abc", 10L)), sequence);
+		Assert.assertFalse(store.apply(cart("abc", 10L)));
+
+		store.put(priced(cart("abc", 10L)), store.sequence());
+		Assert.assertTrue(store.apply(cart("abc", 10L)));
+	}
+
+	@Test
+	public void testNotAppliedWhenCartChanged() {
+
+		store.put(priced(cart("abc", 10L, 11L)), store.sequence());
+
+		//item added by another node
+		Assert.assertFalse(store.apply(cart("abc", 10L, 11L, 12L)));
+
+		ShoppingCart quantity = cart("abc", 10L, 11L);
+		quantity.getLineItems().iterator().next().setQuantity(3);
+		Assert.assertFalse(store.apply(quantity));
+
+		ShoppingCart modified = cart("abc", 10L, 11L);
+		modified.getAuditSection().setDateModified(new Date(MODIFIED.getTime() + 1000));
+		Assert.assertFalse(store.apply(modified));
+
+		ShoppingCart loaded = cart("abc", 10L, 11L);
+		Assert.assertTrue(store.apply(loaded));
+		//prices are set on the loaded cart
+		Assert.assertNotNull(loaded.getLineItems().iterator().next().getItemPrice());
+	}
+
+	@Test
+	public void testInvalidate() {
+
+		ShoppingCart cart = priced(cart("abc", 10L));
+		store.put(cart, store.sequence());
+		store.invalidate(cart);
+		Assert.assertFalse(store.apply(cart("abc", 10L)));
+	}
+
+	private ShoppingCart priced(ShoppingCart cart) {
+		for (ShoppingCartItem item : cart.getLineItems()) {
+			item.setItemPrice(new BigDecimal("2.00"));
+			item.setSubTotal(new BigDecimal("2.00"));
+		}
+		return cart;
+	}
+
+	private ShoppingCart cart(String code, Long... productIds) {
+		ShoppingCart cart = new ShoppingCart();
+		cart.setMerchantStore(merchant);
+		cart.setShoppingCartCode(code);
+		cart.getAuditSection().setDateModified(MODIFIED);
+		for (Long productId : productIds) {
+			ShoppingCartItem item = new ShoppingCartItem();
+			item.setId(productId);
+			item.setProductId(productId);
+			item.setShoppingCart(cart);
+			cart.getLineItems().add(item);
+		}
+		return cart;
+	}
+
+}
@@ -0,0 +1,166 @@
+package com.salesmanager.test.utils;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import com.salesmanager.core.business.services.common.version.ContentChangedEvent;
+import com.salesmanager.core.business.services.common.version.ContentScope;
+import com.salesmanager.core.business.utils.MoneyFormatRegistry;
+import com.salesmanager.core.model.merchant.MerchantStore;
+import com.salesmanager.core.model.reference.country.Country;
+import com.salesmanager.core.model.reference.language.Language;
+
+public class MoneyFormatRegistryTest {
+
+	private final MoneyFormatRegistry registry = new MoneyFormatRegistry();
+
+	@Test
+	public void testSameOutputAsNumberFormat() {
+
+		BigDecimal amount = new BigDecimal("1345.99");
+
+		NumberFormat plain = NumberFormat.getInstance(Locale.CANADA_FRENCH);
+		plain.setMinimumFractionDigits(2);
+		plain.setMaximumFractionDigits(2);
+		Assert.assertEquals(plain.format(amount), registry.format(amount, Locale.CANADA_FRENCH));
+
+		NumberFormat currency = NumberFormat.getCurrencyInstance(Locale.FRANCE);
+		currency.setCurrency(Currency.getInstance("EUR"));
+		Assert.assertEquals(currency.format(amount),
+				registry.formatCurrency(amount, Locale.FRANCE, Currency.getInstance("EUR")));
+	}
+
+	@Test
+	public void testStoreFormatResolvedUntilStoreChanges() {
+
+		MerchantStore store = store("USD");
+		BigDecimal amount = new BigDecimal("10.5");
+
+		NumberFormat expected = NumberFormat.getCurrencyInstance(new Locale("en", "US"));
+		expected.setCurrency(Currency.getInstance("USD"));
+		Assert.assertEquals(expected.format(amount), registry.formatStore(store, amount));
+
+		//same store format until the store is saved
+		store.getCurrency().setCurrency(Currency.getInstance("CAD"));
+		Assert.assertEquals(expected.format(amount), registry.formatStore(store, amount));
+
+		registry.onContentChanged(new ContentChangedEvent(ContentScope.STORE, store.getId()));
+		expected.setCurrency(Currency.getInstance("CAD"));
+		Assert.assertEquals(expected.format(amount), registry.formatStore(store, amount));
+	}
+
+	@Test
+	public void testConcurrentFormatting() throws Exception {
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+			for (int t = 0; t < 8; t++) {
+				final int offset = t;
+				results.add(executor.submit(new Callable<Boolean>() {
+					@Override
+					public Boolean call() {
+						NumberFormat own = NumberFormat.getInstance(Locale.GERMANY);
+						own.setMinimumFractionDigits(2);
+						own.setMaximumFractionDigits(2);
+						for (int i = 0; i < 2000; i++) {
+							BigDecimal amount = new BigDecimal(offset * 100000 + i).movePointLeft(2);
+							if (!own.format(amount).equals(registry.format(amount, Locale.GERMANY))) {
+								return false;
+							}
+						}
+						return true;
+					}
+				}));
+			}
+			for (Future<Boolean> result : results) {
+				Assert.assertTrue(result.get());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Listing page of 50 products with a final and an original price,
+	 * formatting must not allocate a formatter per amount
+	 */
+	@Test
+	public void testFormatterNotCreatedPerAmount() {
+
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		Assume.assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+		com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+		Assume.assumeTrue(allocations.isThreadAllocatedMemorySupported() && allocations.isThreadAllocatedMemoryEnabled());
+
+		Locale locale = new Locale("en", "US");
+		Currency currency = Currency.getInstance("USD");
+		BigDecimal[] amounts = new BigDecimal[100];
+		for (int i = 0; i < amounts.length; i++) {
+			amounts[i] = new BigDecimal(1999 + i * 37).movePointLeft(2);
+		}
+
+		//warm up
+		perAmount(amounts, locale, currency);
+		registry(amounts, locale, currency);
+
+		long threadId = Thread.currentThread().getId();
+		long start = allocations.getThreadAllocatedBytes(threadId);
+		perAmount(amounts, locale, currency);
+		long perAmount = allocations.getThreadAllocatedBytes(threadId) - start;
+
+		start = allocations.getThreadAllocatedBytes(threadId);
+		registry(amounts, locale, currency);
+		long registry = allocations.getThreadAllocatedBytes(threadId) - start;
+
+		Assert.assertEquals(1, this.registry.size());
+		Assert.assertTrue(registry + " bytes, " + perAmount + " bytes with a formatter per amount",
+				registry * 4 < perAmount);
+	}
+
+	private int perAmount(BigDecimal[] amounts, Locale locale, Currency currency) {
+		int length = 0;
+		for (BigDecimal amount : amounts) {
+			NumberFormat nf = NumberFormat.getCurrencyInstance(locale);
+			nf.setCurrency(currency);
+			length += nf.format(amount).length();
+		}
+		return length;
+	}
+
+	private int registry(BigDecimal[] amounts, Locale locale, Currency currency) {
+		int length = 0;
+		for (BigDecimal amount : amounts) {
+			length += registry.formatCurrency(amount, locale, currency).length();
+		}
+		return length;
+	}
+
+	private MerchantStore store(String currencyCode) {
+		com.salesmanager.core.model.reference.currency.Currency currency = new com.salesmanager.core.model.reference.currency.Currency();
+		currency.setCurrency(Currency.getInstance(currencyCode));
+		MerchantStore store = new MerchantStore();
+		store.setId(1);
+		store.setCode("DEFAULT");
+		store.setCurrency(currency);
+		store.setDefaultLanguage(new Language("en"));
+		store.setCountry(new Country("US"));
+		store.setCurrencyFormatNational(true);
+		return store;
+	}
+
+}
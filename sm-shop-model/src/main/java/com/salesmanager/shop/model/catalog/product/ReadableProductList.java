@@ -13,11 +13,19 @@ public class ReadableProductList extends ReadableList {
 	private static final long serialVersionUID = 1L;
 	
 	private List<ReadableProduct> products = new ArrayList<ReadableProduct>();
+	/** cursor of the next page, null on the last page **/
+	private String next;
 	public void setProducts(List<ReadableProduct> products) {
 		this.products = products;
 	}
 	public List<ReadableProduct> getProducts() {
 		return products;
 	}
+	public String getNext() {
+		return next;
+	}
+	public void setNext(String next) {
+		this.next = next;
+	}
 
 }
@@ -144,6 +144,19 @@ public interface ProductFacade {
   ReadableProductList getProductListsByCriterias(MerchantStore store, Language language,
       ProductCriteria criterias) throws Exception;
 
+  /**
+   * Cursor based listing, the next page is requested with the returned next
+   * token set as criterias after
+   *
+   * @param store
+   * @param language
+   * @param criterias
+   * @return
+   * @throws Exception
+   */
+  ReadableProductList getProductListsByCursor(MerchantStore store, Language language,
+      ProductCriteria criterias) throws Exception;
+
 
   /**
    * Adds a product to a category
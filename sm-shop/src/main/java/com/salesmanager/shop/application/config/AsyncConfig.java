@@ -1,24 +1,76 @@
 package com.salesmanager.shop.application.config;
 
 import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
 import org.springframework.aop.interceptor.SimpleAsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
+/**
+ * One bounded executor per @Async workload, @Async without qualifier
+ * uses asyncExecutor.
+ * <ul>
+ * <li>emailExecutor : customer and admin emails (@Async("emailExecutor"))</li>
+ * <li>indexExecutor : search indexing (@Async("indexExecutor"))</li>
+ * </ul>
+ */
 @Configuration
 @EnableScheduling
 @EnableAsync
 public class AsyncConfig implements AsyncConfigurer {
 
-  private static final int EXECUTOR_SERVICE_NUMBER_THREADS = 5;
+  @Value("${config.async.virtualThreads:false}")
+  private boolean virtualThreads;
+
+  @Value("${config.async.default.threads:5}")
+  private int defaultThreads;
+
+  @Value("${config.async.default.queue:500}")
+  private int defaultQueue;
+
+  @Value("${config.async.default.rejection:callerRuns}")
+  private String defaultRejection;
+
+  @Value("${config.async.email.threads:2}")
+  private int emailThreads;
+
+  @Value("${config.async.email.queue:1000}")
+  private int emailQueue;
+
+  @Value("${config.async.email.rejection:callerRuns}")
+  private String emailRejection;
+
+  @Value("${config.async.index.threads:2}")
+  private int indexThreads;
+
+  @Value("${config.async.index.queue:200}")
+  private int indexQueue;
+
+  @Value("${config.async.index.rejection:callerRuns}")
+  private String indexRejection;
+
+  @Bean
+  public WorkloadExecutor asyncExecutor() {
+    return new WorkloadExecutor("async", defaultThreads, defaultQueue, defaultRejection, virtualThreads);
+  }
+
+  @Bean
+  public WorkloadExecutor emailExecutor() {
+    return new WorkloadExecutor("email", emailThreads, emailQueue, emailRejection, virtualThreads);
+  }
+
+  @Bean
+  public WorkloadExecutor indexExecutor() {
+    return new WorkloadExecutor("index", indexThreads, indexQueue, indexRejection, virtualThreads);
+  }
 
   @Override
   public Executor getAsyncExecutor() {
-    return Executors.newFixedThreadPool(EXECUTOR_SERVICE_NUMBER_THREADS);
+    return asyncExecutor();
   }
 
   @Override
@@ -44,8 +44,7 @@ public class MerchantStoreArgumentResolver implements HandlerMethodArgumentResol
 			NativeWebRequest webRequest, WebDataBinderFactory binderFactory) throws Exception {
 		String storeValue = Optional.ofNullable(webRequest.getParameter(REQUEST_PARAMATER_STORE))
 				.filter(StringUtils::isNotBlank).orElse(DEFAULT_STORE);
-		// todo get from cache
-		MerchantStore storeModel = storeFacade.get(storeValue);
+		MerchantStore storeModel = storeFacade.getCached(storeValue);
 
 		HttpServletRequest httpServletRequest = webRequest.getNativeRequest(HttpServletRequest.class);
 
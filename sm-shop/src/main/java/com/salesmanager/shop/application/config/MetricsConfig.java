@@ -0,0 +1,169 @@
+package com.salesmanager.shop.application.config;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.salesmanager.core.business.modules.common.IndexEventQueue;
+import com.salesmanager.core.business.services.common.cache.SecondLevelCache;
+import com.salesmanager.core.business.services.rules.RuleEngineService;
+import com.salesmanager.core.business.services.rules.RuleSetStatistics;
+import com.salesmanager.core.business.services.shipping.ShippingQuoteDispatcher;
+import com.salesmanager.core.business.services.shoppingcart.ShoppingCartStore;
+import com.salesmanager.core.business.services.system.MerchantConfigurationCache;
+import com.salesmanager.shop.store.facade.product.ReadableProductCache;
+import com.salesmanager.shop.store.security.common.PrincipalCache;
+import com.salesmanager.shop.utils.SanitizeUtils;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+
+/**
+ * Publishes core services statistics to actuator /metrics
+ */
+@Configuration
+public class MetricsConfig {
+
+  @Bean
+  public MeterBinder ruleEngineMetrics(RuleEngineService ruleEngineService) {
+    return registry -> {
+      for (String ruleSet : ruleEngineService.getStatistics().keySet()) {
+        FunctionCounter.builder("shopizer.rules.evaluations", ruleEngineService,
+            s -> stat(s, ruleSet).getEvaluationCount())
+            .tag("ruleSet", ruleSet).register(registry);
+        Gauge.builder("shopizer.rules.evaluation.avg.ms", ruleEngineService,
+            s -> stat(s, ruleSet).getEvaluationAverageMillis())
+            .tag("ruleSet", ruleSet).register(registry);
+        Gauge.builder("shopizer.rules.compile.ms", ruleEngineService,
+            s -> stat(s, ruleSet).getCompileTimeMillis())
+            .tag("ruleSet", ruleSet).register(registry);
+        FunctionCounter.builder("shopizer.rules.reloads", ruleEngineService,
+            s -> stat(s, ruleSet).getReloadCount())
+            .tag("ruleSet", ruleSet).register(registry);
+      }
+    };
+  }
+
+  @Bean
+  public MeterBinder principalCacheMetrics(PrincipalCache principalCache) {
+    return registry -> GuavaCacheMetrics.monitor(registry, principalCache.getCache(), "jwtPrincipals");
+  }
+
+  @Bean
+  public MeterBinder shoppingCartStoreMetrics(ShoppingCartStore shoppingCartStore) {
+    return registry -> GuavaCacheMetrics.monitor(registry, shoppingCartStore.getCache(), "shoppingCarts");
+  }
+
+  @Bean
+  public MeterBinder merchantConfigurationCacheMetrics(MerchantConfigurationCache merchantConfigurationCache) {
+    return registry -> GuavaCacheMetrics.monitor(registry, merchantConfigurationCache.getCache(), "merchantConfigurations");
+  }
+
+  @Bean
+  public MeterBinder sanitizedValuesMetrics() {
+    return registry -> GuavaCacheMetrics.monitor(registry, SanitizeUtils.getCache(), "sanitizedValues");
+  }
+
+  @Bean
+  public MeterBinder readableProductCacheMetrics(ReadableProductCache readableProductCache) {
+    return registry -> {
+      GuavaCacheMetrics.monitor(registry, readableProductCache.getCache(), "readableProducts");
+      Gauge.builder("shopizer.catalog.productCache.bytes", readableProductCache,
+          c -> c.getCache().asMap().values().stream().mapToLong(v -> v.length).sum())
+          .register(registry);
+    };
+  }
+
+  @Bean
+  public MeterBinder indexQueueMetrics(IndexEventQueue indexEventQueue) {
+    return registry -> {
+      Gauge.builder("shopizer.index.queue.depth", indexEventQueue, IndexEventQueue::getQueueDepth)
+          .register(registry);
+      FunctionCounter.builder("shopizer.index.indexed", indexEventQueue, IndexEventQueue::getIndexed)
+          .register(registry);
+      FunctionCounter.builder("shopizer.index.failed", indexEventQueue, IndexEventQueue::getFailed)
+          .register(registry);
+      FunctionCounter.builder("shopizer.index.spilled", indexEventQueue, IndexEventQueue::getSpilled)
+          .register(registry);
+      FunctionCounter.builder("shopizer.index.retried", indexEventQueue, IndexEventQueue::getRetried)
+          .register(registry);
+      FunctionCounter.builder("shopizer.index.dropped", indexEventQueue, IndexEventQueue::getDropped)
+          .register(registry);
+    };
+  }
+
+  @Bean
+  public MeterBinder shippingQuoteMetrics(ShippingQuoteDispatcher shippingQuoteDispatcher) {
+    return registry -> {
+      for (String module : shippingQuoteDispatcher.getStats().keySet()) {
+        FunctionTimer.builder("shopizer.shipping.quote", shippingQuoteDispatcher,
+            d -> d.getStats(module).getCalls(),
+            d -> d.getStats(module).getTotalNanos(), TimeUnit.NANOSECONDS)
+            .tag("module", module).register(registry);
+        FunctionCounter.builder("shopizer.shipping.quote.errors", shippingQuoteDispatcher,
+            d -> d.getStats(module).getErrors())
+            .tag("module", module).register(registry);
+        FunctionCounter.builder("shopizer.shipping.quote.timeouts", shippingQuoteDispatcher,
+            d -> d.getStats(module).getTimeouts())
+            .tag("module", module).register(registry);
+        FunctionCounter.builder("shopizer.shipping.quote.rejected", shippingQuoteDispatcher,
+            d -> d.getStats(module).getRejected())
+            .tag("module", module).register(registry);
+      }
+      Gauge.builder("shopizer.shipping.quote.active", shippingQuoteDispatcher,
+          ShippingQuoteDispatcher::getActiveCount).register(registry);
+    };
+  }
+
+  @Bean
+  public MeterBinder asyncExecutorMetrics(List<WorkloadExecutor> executors) {
+    return registry -> {
+      for (WorkloadExecutor executor : executors) {
+        String workload = executor.getWorkload();
+        Gauge.builder("shopizer.async.queue.depth", executor, WorkloadExecutor::getQueueDepth)
+            .tag("workload", workload).register(registry);
+        Gauge.builder("shopizer.async.active", executor, WorkloadExecutor::getActiveCount)
+            .tag("workload", workload).register(registry);
+        FunctionCounter.builder("shopizer.async.rejected", executor, WorkloadExecutor::getRejected)
+            .tag("workload", workload).register(registry);
+        FunctionTimer.builder("shopizer.async.wait", executor,
+            WorkloadExecutor::getCompleted, WorkloadExecutor::getWaitNanos, TimeUnit.NANOSECONDS)
+            .tag("workload", workload).register(registry);
+        FunctionTimer.builder("shopizer.async.execution", executor,
+            WorkloadExecutor::getCompleted, WorkloadExecutor::getRunNanos, TimeUnit.NANOSECONDS)
+            .tag("workload", workload).register(registry);
+      }
+    };
+  }
+
+  @Bean
+  public MeterBinder secondLevelCacheMetrics(SecondLevelCache secondLevelCache) {
+    return registry -> {
+      for (String region : secondLevelCache.getRegions()) {
+        FunctionCounter.builder("shopizer.cache.l2.hits", secondLevelCache, c -> c.getHitCount(region))
+            .tag("region", region).register(registry);
+        FunctionCounter.builder("shopizer.cache.l2.misses", secondLevelCache, c -> c.getMissCount(region))
+            .tag("region", region).register(registry);
+        FunctionCounter.builder("shopizer.cache.l2.puts", secondLevelCache, c -> c.getPutCount(region))
+            .tag("region", region).register(registry);
+        Gauge.builder("shopizer.cache.l2.size", secondLevelCache, c -> c.getSize(region))
+            .tag("region", region).register(registry);
+      }
+      FunctionCounter.builder("shopizer.cache.query.hits", secondLevelCache, SecondLevelCache::getQueryHitCount)
+          .register(registry);
+      FunctionCounter.builder("shopizer.cache.query.misses", secondLevelCache, SecondLevelCache::getQueryMissCount)
+          .register(registry);
+    };
+  }
+
+  private static RuleSetStatistics stat(RuleEngineService service, String ruleSet) {
+    RuleSetStatistics stat = service.getStatistics().get(ruleSet);
+    return stat != null ? stat : new RuleSetStatistics(ruleSet, 0, 0, 0, 0, 0);
+  }
+
+}
@@ -0,0 +1,123 @@
+package com.salesmanager.shop.application.config;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Bounded executor dedicated to one kind of @Async work (email, indexing...)
+ * so that a burst of one workload does not delay the others.
+ *
+ * Rejection policies
+ * <ul>
+ * <li>callerRuns : the submitting thread runs the task (back-pressure)</li>
+ * <li>discardOldest : the oldest queued task is dropped</li>
+ * <li>abort : TaskRejectedException is thrown to the submitting thread</li>
+ * </ul>
+ * Rejections are counted whatever the policy.
+ */
+public class WorkloadExecutor extends ThreadPoolTaskExecutor {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(WorkloadExecutor.class);
+
+	private final String workload;
+
+	private final LongAdder completed = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+	private final LongAdder waitNanos = new LongAdder();
+	private final LongAdder runNanos = new LongAdder();
+
+	public WorkloadExecutor(String workload, int threads, int queueCapacity, String rejection, boolean virtualThreads) {
+		this.workload = workload;
+		setCorePoolSize(threads);
+		setMaxPoolSize(threads);
+		setQueueCapacity(queueCapacity);
+		setAllowCoreThreadTimeOut(true);
+		setThreadNamePrefix(workload + "-");
+		setWaitForTasksToCompleteOnShutdown(true);
+		setAwaitTerminationSeconds(10);
+		if (virtualThreads) {
+			ThreadFactory factory = virtualThreadFactory(workload + "-");
+			if (factory != null) {
+				setThreadFactory(factory);
+			}
+		}
+		RejectedExecutionHandler policy = policy(rejection);
+		setRejectedExecutionHandler((r, executor) -> {
+			rejected.increment();
+			policy.rejectedExecution(r, executor);
+		});
+		setTaskDecorator(task -> {
+			long submitted = System.nanoTime();
+			return () -> {
+				long start = System.nanoTime();
+				try {
+					task.run();
+				} finally {
+					waitNanos.add(start - submitted);
+					runNanos.add(System.nanoTime() - start);
+					completed.increment();
+				}
+			};
+		});
+	}
+
+	public String getWorkload() {
+		return workload;
+	}
+
+	public int getQueueDepth() {
+		return getThreadPoolExecutor().getQueue().size();
+	}
+
+	public long getCompleted() {
+		return completed.sum();
+	}
+
+	public long getRejected() {
+		return rejected.sum();
+	}
+
+	/** time spent in queue by completed tasks **/
+	public long getWaitNanos() {
+		return waitNanos.sum();
+	}
+
+	/** execution time of completed tasks **/
+	public long getRunNanos() {
+		return runNanos.sum();
+	}
+
+	private static RejectedExecutionHandler policy(String rejection) {
+		if ("abort".equals(rejection)) {
+			return new ThreadPoolExecutor.AbortPolicy();
+		}
+		if ("discardOldest".equals(rejection)) {
+			return new ThreadPoolExecutor.DiscardOldestPolicy();
+		}
+		return new ThreadPoolExecutor.CallerRunsPolicy();
+	}
+
+	/**
+	 * Virtual thread factory when the runtime supports it (java 21+), null otherwise
+	 */
+	private static ThreadFactory virtualThreadFactory(String prefix) {
+		try {
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			Class<?> ofVirtual = Class.forName("java.lang.Thread$Builder$OfVirtual");
+			builder = ofVirtual.getMethod("name", String.class, long.class).invoke(builder, prefix, 1L);
+			return (ThreadFactory) ofVirtual.getMethod("factory").invoke(builder);
+		} catch (ReflectiveOperationException e) {
+			LOGGER.warn("Virtual threads are not supported by this runtime, [" + prefix + "] uses platform threads");
+			return null;
+		}
+	}
+
+}
@@ -6,13 +6,14 @@ import com.salesmanager.core.model.content.FileContentType;
 import com.salesmanager.core.model.content.OutputContentFile;
 import com.salesmanager.shop.constants.Constants;
 import com.salesmanager.shop.store.controller.AbstractController;
+import com.salesmanager.shop.utils.ContentFileResponseUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.ResponseBody;
 
 import javax.inject.Inject;
 import javax.servlet.http.HttpServletRequest;
@@ -29,6 +30,9 @@ public class FilesController extends AbstractController {
 	@Inject
 	private ContentService contentService;
 	
+	@Inject
+	private ContentFileResponseUtils contentFileResponseUtils;
+	
 
 	/**
 	 * Serves static files (css, js ...) the repository is a single node by merchant
@@ -39,7 +43,7 @@ public class FilesController extends AbstractController {
 	 * @throws ServiceException
 	 */
 	@RequestMapping("/static/files/{storeCode}/{fileName}.{extension}")
-	public @ResponseBody byte[] downloadFile(@PathVariable final String storeCode, @PathVariable final String fileName, @PathVariable final String extension, HttpServletRequest request, HttpServletResponse response) throws IOException, ServiceException {
+	public void downloadFile(@PathVariable final String storeCode, @PathVariable final String fileName, @PathVariable final String extension, HttpServletRequest request, HttpServletResponse response) throws IOException, ServiceException {
 
 		// example -> /files/<store code>/myfile.css
 		FileContentType fileType = FileContentType.STATIC_FILE;
@@ -49,11 +53,10 @@ public class FilesController extends AbstractController {
 		
 		
 		if(file!=null) {
-			return file.getFile().toByteArray();
+			contentFileResponseUtils.write(file, request, response);
 		} else {
 			LOGGER.debug("File not found " + fileName + "." + extension);
 			response.sendError(404, Constants.FILE_NOT_FOUND);
-			return null;
 		}
 	}
 	
@@ -69,7 +72,7 @@ public class FilesController extends AbstractController {
 	 */
 	@PreAuthorize("hasRole('PRODUCTS')")
 	@RequestMapping("/admin/files/downloads/{storeCode}/{fileName}.{extension}")
-	public @ResponseBody byte[] downloadProduct(@PathVariable final String storeCode, @PathVariable final String fileName, @PathVariable final String extension, HttpServletRequest request, HttpServletResponse response) throws Exception {
+	public void downloadProduct(@PathVariable final String storeCode, @PathVariable final String fileName, @PathVariable final String extension, HttpServletRequest request, HttpServletResponse response) throws Exception {
 
 		FileContentType fileType = FileContentType.PRODUCT_DIGITAL;
 		
@@ -81,11 +84,11 @@ public class FilesController extends AbstractController {
 		
 		if(file!=null) {
 			response.setHeader("Content-Disposition", "attachment; filename=\"" + fileNameAndExtension + "\"");
-			return file.getFile().toByteArray();
+			//admin download, not kept by shared caches
+			contentFileResponseUtils.write(file, CacheControl.noCache().cachePrivate(), request, response);
 		} else {
 			LOGGER.debug("File not found " + fileName + "." + extension);
 			response.sendError(404, Constants.FILE_NOT_FOUND);
-			return null;
 		}
 	}
 
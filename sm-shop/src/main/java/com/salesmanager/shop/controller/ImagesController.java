@@ -7,15 +7,17 @@ import java.nio.file.Files;
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Controller;
 import org.springframework.util.ResourceUtils;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.ResponseBody;
 
 import com.salesmanager.core.business.exception.ServiceException;
 import com.salesmanager.core.business.services.catalog.product.image.ProductImageService;
@@ -23,6 +25,7 @@ import com.salesmanager.core.business.services.content.ContentService;
 import com.salesmanager.core.model.catalog.product.file.ProductImageSize;
 import com.salesmanager.core.model.content.FileContentType;
 import com.salesmanager.core.model.content.OutputContentFile;
+import com.salesmanager.shop.utils.ContentFileResponseUtils;
 
 /**
  * When handling images and files from the application server
@@ -34,6 +37,8 @@ public class ImagesController {
 	
 	private static final Logger LOGGER = LoggerFactory.getLogger(ImagesController.class);
 	
+	private static final String PLACEHOLDER_MIME_TYPE = "image/png";
+	
 
 	
 	@Inject
@@ -42,6 +47,9 @@ public class ImagesController {
 	@Inject
 	private ProductImageService productImageService;
 	
+	@Inject
+	private ContentFileResponseUtils contentFileResponseUtils;
+	
 	private byte[] tempImage = null;
 	
 	@PostConstruct
@@ -69,7 +77,7 @@ public class ImagesController {
 	 * @throws ServiceException 
 	 */
 	@RequestMapping("/static/files/{storeCode}/{imageType}/{imageName}.{extension}")
-	public @ResponseBody byte[] printImage(@PathVariable final String storeCode, @PathVariable final String imageType, @PathVariable final String imageName, @PathVariable final String extension) throws IOException, ServiceException {
+	public void printImage(@PathVariable final String storeCode, @PathVariable final String imageType, @PathVariable final String imageName, @PathVariable final String extension, HttpServletRequest request, HttpServletResponse response) throws IOException, ServiceException {
 
 		// example -> /static/files/DEFAULT/CONTENT/myImage.png
 		
@@ -90,11 +98,7 @@ public class ImagesController {
 		OutputContentFile image =contentService.getContentFile(storeCode, imgType, new StringBuilder().append(imageName).append(".").append(extension).toString());
 		
 		
-		if(image!=null) {
-			return image.getFile().toByteArray();
-		} else {
-			return tempImage;
-		}
+		write(image, request, response);
 
 	}
 	
@@ -111,7 +115,7 @@ public class ImagesController {
 	 * @throws IOException
 	 */
 	@RequestMapping("/static/{storeCode}/{imageType}/{productCode}/{imageName}.{extension}")
-	public @ResponseBody byte[] printImage(@PathVariable final String storeCode, @PathVariable final String productCode, @PathVariable final String imageType, @PathVariable final String imageName, @PathVariable final String extension) throws IOException {
+	public void printImage(@PathVariable final String storeCode, @PathVariable final String productCode, @PathVariable final String imageType, @PathVariable final String imageName, @PathVariable final String extension, HttpServletRequest request, HttpServletResponse response) throws IOException {
 
 		// product image
 		// example small product image -> /static/DEFAULT/products/TB12345/product1.jpg
@@ -139,12 +143,7 @@ public class ImagesController {
 		} catch (ServiceException e) {
 			LOGGER.error("Cannot retrieve image " + imageName, e);
 		}
-		if(image!=null) {
-			return image.getFile().toByteArray();
-		} else {
-			//empty image placeholder
-			return tempImage;
-		}
+		write(image, request, response);
 
 	}
 	
@@ -160,7 +159,7 @@ public class ImagesController {
 	 */
 	@RequestMapping(value="/static/products/{storeCode}/{productCode}/{imageSize}/{imageName}.{extension}",
 			produces = {"image/gif", "image/jpg", "image/png", "application/octet-stream"})
-	public @ResponseBody byte[] printImage(@PathVariable final String storeCode, @PathVariable final String productCode, @PathVariable final String imageSize, @PathVariable final String imageName, @PathVariable final String extension, HttpServletRequest request) throws IOException {
+	public void printImage(@PathVariable final String storeCode, @PathVariable final String productCode, @PathVariable final String imageSize, @PathVariable final String imageName, @PathVariable final String extension, HttpServletRequest request, HttpServletResponse response) throws IOException {
 
 		// product image small
 		// example small product image -> /static/products/DEFAULT/TB12345/SMALL/product1.jpg
@@ -189,12 +188,7 @@ public class ImagesController {
 		} catch (ServiceException e) {
 			LOGGER.error("Cannot retrieve image " + imageName, e);
 		}
-		if(image!=null) {
-			return image.getFile().toByteArray();
-		} else {
-			//empty image placeholder
-			return tempImage;
-		}
+		write(image, request, response);
 
 	}
 	
@@ -210,7 +204,7 @@ public class ImagesController {
 	 */
 	@RequestMapping(value="/static/products/{storeCode}/{productCode}/{imageName}.{extension}",
 	produces = {"image/gif", "image/jpg", "image/png", "application/octet-stream"})
-	public @ResponseBody byte[] printImage(@PathVariable final String storeCode, @PathVariable final String productCode, @PathVariable final String imageName, @PathVariable final String extension, HttpServletRequest request) throws IOException {
+	public void printImage(@PathVariable final String storeCode, @PathVariable final String productCode, @PathVariable final String imageName, @PathVariable final String extension, HttpServletRequest request, HttpServletResponse response) throws IOException {
 
 		// product image
 		// example small product image -> /static/products/DEFAULT/TB12345/product1.jpg?size=small
@@ -244,13 +238,22 @@ public class ImagesController {
 		} catch (ServiceException e) {
 			LOGGER.error("Cannot retrieve image " + imageName, e);
 		}
+		write(image, request, response);
+
+	}
+
+	private void write(OutputContentFile image, HttpServletRequest request, HttpServletResponse response) throws IOException {
 		if(image!=null) {
-			return image.getFile().toByteArray();
+			contentFileResponseUtils.write(image, request, response);
 		} else {
-			//empty image placeholder
-			return tempImage;
+			//empty image placeholder, not cached as the image can be added later
+			response.setContentType(PLACEHOLDER_MIME_TYPE);
+			response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+			if(tempImage!=null) {
+				response.setContentLength(tempImage.length);
+				response.getOutputStream().write(tempImage);
+			}
 		}
-
 	}
 
 }
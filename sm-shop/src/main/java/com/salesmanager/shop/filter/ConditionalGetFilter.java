@@ -0,0 +1,198 @@
+package com.salesmanager.shop.filter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.inject.Inject;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.salesmanager.core.business.services.common.version.ContentScope;
+import com.salesmanager.core.business.services.common.version.ContentVersions;
+
+/**
+ * Conditional GET for the public read apis.
+ *
+ * The ETag is derived from the version stamps of the data returned by the api
+ * (see ContentVersions), the request path and parameters and the requested language.
+ * A request having a matching If-None-Match gets a 304 before the controller runs.
+ *
+ * Stamps are local to a node, the ETag also changes every etag window so that
+ * writes made on other nodes are seen within that delay.
+ */
+@Component
+public class ConditionalGetFilter extends OncePerRequestFilter {
+
+	private static final String API = "/api/v1";
+
+	/** path / data returned, evaluated in order **/
+	private static final Map<String, ContentScope> PATHS = new LinkedHashMap<String, ContentScope>();
+
+	static {
+		PATHS.put(API + "/products", ContentScope.CATALOG);
+		PATHS.put(API + "/products/{id}", ContentScope.CATALOG);
+		PATHS.put(API + "/products/slug/{friendlyUrl}", ContentScope.CATALOG);
+		PATHS.put(API + "/products/friendly/{friendlyUrl}", ContentScope.CATALOG);
+		PATHS.put(API + "/category", ContentScope.CATALOG);
+		PATHS.put(API + "/category/{id}", ContentScope.CATALOG);
+		PATHS.put(API + "/category/name/{friendlyUrl}", ContentScope.CATALOG);
+		PATHS.put(API + "/category/product/{id}", ContentScope.CATALOG);
+		PATHS.put(API + "/content/images/**", null);
+		PATHS.put(API + "/content/**", ContentScope.CONTENT);
+		PATHS.put(API + "/store/{code}", ContentScope.STORE);
+		PATHS.put(API + "/config", ContentScope.STORE);
+		PATHS.put(API + "/languages", ContentScope.REFERENCE);
+		PATHS.put(API + "/country", ContentScope.REFERENCE);
+		PATHS.put(API + "/zones", ContentScope.REFERENCE);
+		PATHS.put(API + "/currency", ContentScope.REFERENCE);
+		PATHS.put(API + "/measures", ContentScope.REFERENCE);
+	}
+
+	private final AntPathMatcher matcher = new AntPathMatcher();
+
+	@Inject
+	private ContentVersions contentVersions;
+
+	@Value("${config.http.etag.enabled:true}")
+	private boolean enabled;
+
+	/** seconds **/
+	@Value("${config.http.etag.window:300}")
+	private long window;
+
+	/** seconds **/
+	@Value("${config.http.cache.maxAge:60}")
+	private long maxAge;
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return !enabled || !"GET".equals(request.getMethod())
+				|| request.getHeader(HttpHeaders.AUTHORIZATION) != null;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+
+		ContentScope scope = scope(path(request));
+		if (scope == null) {
+			chain.doFilter(request, response);
+			return;
+		}
+
+		String etag = etag(scope, request);
+		if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+			cacheHeaders(response, etag);
+			response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+			return;
+		}
+
+		chain.doFilter(request, new CacheHeadersResponse(response, etag));
+	}
+
+	ContentScope scope(String path) {
+		for (Map.Entry<String, ContentScope> entry : PATHS.entrySet()) {
+			if (matcher.match(entry.getKey(), path)) {
+				return entry.getValue();
+			}
+		}
+		return null;
+	}
+
+	String etag(ContentScope scope, HttpServletRequest request) {
+		Hasher hasher = Hashing.murmur3_128().newHasher()
+				.putLong(contentVersions.get(scope))
+				.putLong(contentVersions.get(ContentScope.STORE))
+				.putLong(System.currentTimeMillis() / (window * 1000))
+				.putString(request.getRequestURI(), StandardCharsets.UTF_8)
+				.putString(StringUtils.defaultString(request.getQueryString()), StandardCharsets.UTF_8)
+				.putString(StringUtils.defaultString(request.getHeader(HttpHeaders.ACCEPT_LANGUAGE)), StandardCharsets.UTF_8);
+		return "\"" + hasher.hash().toString() + "\"";
+	}
+
+	static boolean matches(String ifNoneMatch, String etag) {
+		if (StringUtils.isBlank(ifNoneMatch)) {
+			return false;
+		}
+		for (String candidate : ifNoneMatch.split(",")) {
+			String value = candidate.trim();
+			if (value.startsWith("W/")) {
+				value = value.substring(2);
+			}
+			if (value.equals(etag) || value.equals("*")) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private String path(HttpServletRequest request) {
+		return request.getRequestURI().substring(request.getContextPath().length());
+	}
+
+	private void cacheHeaders(HttpServletResponse response, String etag) {
+		response.setHeader(HttpHeaders.ETAG, etag);
+		response.setHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=" + maxAge);
+		response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_LANGUAGE);
+	}
+
+	/**
+	 * Adds the cache headers when the body is written with a successful status,
+	 * error responses are not cached
+	 */
+	private class CacheHeadersResponse extends HttpServletResponseWrapper {
+
+		private final String etag;
+		private boolean written;
+
+		CacheHeadersResponse(HttpServletResponse response, String etag) {
+			super(response);
+			this.etag = etag;
+		}
+
+		private void beforeWrite() {
+			if (!written) {
+				written = true;
+				if (getStatus() == HttpServletResponse.SC_OK && !isCommitted()) {
+					cacheHeaders((HttpServletResponse) getResponse(), etag);
+				}
+			}
+		}
+
+		@Override
+		public ServletOutputStream getOutputStream() throws IOException {
+			beforeWrite();
+			return super.getOutputStream();
+		}
+
+		@Override
+		public PrintWriter getWriter() throws IOException {
+			beforeWrite();
+			return super.getWriter();
+		}
+
+		@Override
+		public void flushBuffer() throws IOException {
+			beforeWrite();
+			super.flushBuffer();
+		}
+
+	}
+
+}
@@ -1,5 +1,9 @@
 package com.salesmanager.shop.filter;
 
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletRequestWrapper;
 
@@ -7,27 +11,43 @@ import com.salesmanager.shop.utils.SanitizeUtils;
 
 /**
  * Cross Site Scripting filter enforcing html encoding of request parameters
+ *
+ * Headers and parameters are sanitized when the application reads them,
+ * sanitized headers are kept for the request.
  * @author carlsamson
  *
  */
 public class XssHttpServletRequestWrapper extends HttpServletRequestWrapper {
 
+	/** header name / sanitized value **/
+	private Map<String, String> headers;
+
 	public XssHttpServletRequestWrapper(HttpServletRequest request) {
-		super(request);	
-		
+		super(request);
+
 	}
-	
 
-	 
+
+
 	 @Override
 	    public String getHeader(String name) {
+	        if (name == null) {
+	            return super.getHeader(name);
+	        }
+	        if (headers == null) {
+	            headers = new HashMap<String, String>();
+	        }
+	        String key = name.toLowerCase(Locale.ENGLISH);
+	        if (headers.containsKey(key)) {
+	            return headers.get(key);
+	        }
 	        String value = super.getHeader(name);
-	        if (value == null)
-	            return null;
-	        return cleanXSS(value);
+	        String clean = value == null ? null : cleanXSS(value);
+	        headers.put(key, clean);
+	        return clean;
 	    }
-	 
-	 
+
+
 	    public String[] getParameterValues(String parameter) {
 	        String[] values = super.getParameterValues(parameter);
 	        if (values == null) {
@@ -40,7 +60,7 @@ public class XssHttpServletRequestWrapper extends HttpServletRequestWrapper {
 	        }
 	        return encodedValues;
 	    }
-	    
+
 	    @Override
 	    public String getParameter(String parameter) {
 	        String value = super.getParameter(parameter);
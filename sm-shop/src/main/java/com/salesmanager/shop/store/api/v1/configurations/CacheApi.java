@@ -7,12 +7,14 @@ import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
 import com.salesmanager.core.business.utils.CacheUtils;
+import com.salesmanager.core.business.utils.StoreCacheStatistics;
 import com.salesmanager.core.model.merchant.MerchantStore;
 import com.salesmanager.shop.store.api.exception.ServiceRuntimeException;
 import com.salesmanager.shop.store.controller.store.facade.StoreFacade;
@@ -55,4 +57,10 @@ public class CacheApi {
     return new ResponseEntity<>(HttpStatus.OK);
   }
 
+  @GetMapping(value = "/auth/cache/store/{storeId}/statistics")
+  public @ResponseBody StoreCacheStatistics statistics(@PathVariable("storeId") String storeCode) {
+    MerchantStore merchantStore = storeFacade.get(storeCode);
+    return cache.getStatistics(merchantStore);
+  }
+
 }
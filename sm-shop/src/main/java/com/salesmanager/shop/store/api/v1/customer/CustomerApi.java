@@ -109,6 +109,8 @@ public class CustomerApi {
 	 *
 	 * @param start
 	 * @param count
+	 * @param name customer name words, matched by prefix
+	 * @param email email words, matched by prefix
 	 * @param request
 	 * @return
 	 * @throws Exception
@@ -117,9 +119,13 @@ public class CustomerApi {
 	@ApiImplicitParams({ @ApiImplicitParam(name = "store", dataType = "string", defaultValue = "DEFAULT"),
 			@ApiImplicitParam(name = "lang", dataType = "string", defaultValue = "en") })
 	public ReadableCustomerList list(@RequestParam(value = "page", required = false) Integer page,
-			@RequestParam(value = "count", required = false) Integer count, @ApiIgnore MerchantStore merchantStore,
+			@RequestParam(value = "count", required = false) Integer count,
+			@RequestParam(value = "name", required = false) String name,
+			@RequestParam(value = "email", required = false) String email, @ApiIgnore MerchantStore merchantStore,
 			@ApiIgnore Language language) {
 		CustomerCriteria customerCriteria = createCustomerCriteria(page, count);
+		customerCriteria.setName(name);
+		customerCriteria.setEmail(email);
 		return customerFacade.getListByStore(merchantStore, customerCriteria, language);
 	}
 
@@ -38,6 +38,8 @@ import com.salesmanager.core.business.services.catalog.product.ProductService;
 import com.salesmanager.core.model.catalog.category.Category;
 import com.salesmanager.core.model.catalog.product.Product;
 import com.salesmanager.core.model.catalog.product.ProductCriteria;
+import com.salesmanager.core.model.catalog.product.ProductCursor;
+import com.salesmanager.core.model.common.CountMode;
 import com.salesmanager.core.model.merchant.MerchantStore;
 import com.salesmanager.core.model.reference.language.Language;
 import com.salesmanager.shop.model.catalog.product.LightPersistableProduct;
@@ -51,6 +53,7 @@ import com.salesmanager.shop.model.catalog.product.product.definition.ReadablePr
 import com.salesmanager.shop.model.entity.Entity;
 import com.salesmanager.shop.model.entity.EntityExists;
 import com.salesmanager.shop.store.api.exception.ResourceNotFoundException;
+import com.salesmanager.shop.store.api.exception.RestApiException;
 import com.salesmanager.shop.store.api.exception.ServiceRuntimeException;
 import com.salesmanager.shop.store.api.exception.UnauthorizedException;
 import com.salesmanager.shop.store.controller.product.facade.ProductDefinitionFacade;
@@ -176,6 +179,10 @@ public class ProductApi {
 	 * &manufacturer=2 &type=... &lang=en|fr NOT REQUIRED, will use request language
 	 * &start=0 NOT REQUIRED, can be used for pagination &count=10 NOT REQUIRED, can
 	 * be used to limit item count
+	 * &cursor= NOT REQUIRED, cursor (keyset) pagination, empty for the first page
+	 * then the next value of the previous response. Faster than page on deep pages
+	 * &total=exact|approximate|none NOT REQUIRED, with cursor only, approximate
+	 * counts on the first page only, none does not count (recordsTotal -1)
 	 *
 	 * @param request
 	 * @param response
@@ -206,6 +213,8 @@ public class ProductApi {
 			@RequestParam(value = "count", required = false, defaultValue = "100") Integer count, // count
 			// per
 			// page
+			@RequestParam(value = "cursor", required = false) String cursor,
+			@RequestParam(value = "total", required = false, defaultValue = "exact") String total,
 			@ApiIgnore MerchantStore merchantStore, @ApiIgnore Language language, HttpServletRequest request,
 			HttpServletResponse response) throws Exception {
 
@@ -255,11 +264,28 @@ public class ProductApi {
 			criteria.setCode(sku);
 		}
 
+		if (cursor != null) {
+			try {
+				if (!StringUtils.isBlank(cursor)) {
+					criteria.setAfter(ProductCursor.decode(cursor));
+				}
+				criteria.setCountMode(CountMode.valueOf(total.toUpperCase()));
+			} catch (IllegalArgumentException e) {
+				throw new RestApiException("400", "Invalid cursor or total parameter", e);
+			}
+			if (count != null) {
+				criteria.setPageSize(count);
+			}
+		}
+
 		// TODO
 		// RENTAL add filter by owner
 		// REPOSITORY to use the new filters
 
 		try {
+			if (cursor != null) {
+				return productFacade.getProductListsByCursor(merchantStore, language, criteria);
+			}
 			return productFacade.getProductListsByCriterias(merchantStore, language, criteria);
 
 		} catch (Exception e) {
@@ -0,0 +1,79 @@
+package com.salesmanager.shop.store.api.v1.product;
+
+import java.io.IOException;
+
+import javax.inject.Inject;
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import com.salesmanager.core.business.exception.ServiceException;
+import com.salesmanager.core.business.services.catalog.product.bulk.ProductImportReport;
+import com.salesmanager.core.business.services.catalog.product.bulk.ProductImportService;
+import com.salesmanager.core.model.merchant.MerchantStore;
+import com.salesmanager.shop.store.api.exception.ServiceRuntimeException;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiImplicitParam;
+import io.swagger.annotations.ApiImplicitParams;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.SwaggerDefinition;
+import io.swagger.annotations.Tag;
+import springfox.documentation.annotations.ApiIgnore;
+
+@Controller
+@RequestMapping("/api/v1")
+@Api(tags = {"Product import resource (Product Import Api)"})
+@SwaggerDefinition(tags = {
+    @Tag(name = "Product import resource", description = "Bulk import of products, prices and quantities")
+})
+public class ProductImportApi {
+
+  @Inject
+  private ProductImportService productImportService;
+
+  /**
+   * The request body is read as a stream of json lines
+   * {"sku":"...","names":{"en":"..."},"price":0.00,"quantity":0,"available":true}.
+   * A failed import is resumed after its last committed chunk by sending
+   * the same body with the same job.
+   */
+  @ResponseStatus(HttpStatus.OK)
+  @RequestMapping(value = {"/private/products/import"}, method = RequestMethod.POST)
+  @ApiOperation(httpMethod = "POST", value = "Import products from json lines", produces = "application/json", response = ProductImportReport.class)
+  @ApiImplicitParams({
+      @ApiImplicitParam(name = "store", dataType = "String", defaultValue = "DEFAULT")
+  })
+  public @ResponseBody ProductImportReport importProducts(
+      @RequestParam(value = "job") String job,
+      @ApiIgnore MerchantStore merchantStore,
+      HttpServletRequest request) {
+    try {
+      return productImportService.importProducts(request.getInputStream(), job, merchantStore, null);
+    } catch (IOException | ServiceException e) {
+      throw new ServiceRuntimeException("Error while importing products [" + job + "]", e);
+    }
+  }
+
+  @ResponseStatus(HttpStatus.OK)
+  @RequestMapping(value = {"/private/products/import/{job}"}, method = RequestMethod.DELETE)
+  @ApiOperation(httpMethod = "DELETE", value = "Remove the checkpoint of an import, the next run starts from the first record")
+  @ApiImplicitParams({
+      @ApiImplicitParam(name = "store", dataType = "String", defaultValue = "DEFAULT")
+  })
+  public void reset(@PathVariable String job, @ApiIgnore MerchantStore merchantStore) {
+    try {
+      productImportService.reset(job, merchantStore);
+    } catch (ServiceException e) {
+      throw new ServiceRuntimeException("Error while removing import checkpoint [" + job + "]", e);
+    }
+  }
+
+}
@@ -1,6 +1,7 @@
 package com.salesmanager.shop.store.api.v1.references;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import javax.inject.Inject;
@@ -8,23 +9,30 @@ import javax.servlet.http.HttpServletRequest;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.salesmanager.core.business.services.reference.registry.ReferenceDataRegistry;
 import com.salesmanager.core.model.merchant.MerchantStore;
 import com.salesmanager.core.model.reference.currency.Currency;
 import com.salesmanager.core.model.reference.language.Language;
+import com.salesmanager.shop.constants.Constants;
 import com.salesmanager.shop.model.references.MeasureUnit;
 import com.salesmanager.shop.model.references.ReadableCountry;
 import com.salesmanager.shop.model.references.ReadableZone;
 import com.salesmanager.shop.model.references.SizeReferences;
 import com.salesmanager.shop.model.references.WeightUnit;
+import com.salesmanager.shop.store.api.exception.UnauthorizedException;
 import com.salesmanager.shop.store.controller.country.facade.CountryFacade;
 import com.salesmanager.shop.store.controller.currency.facade.CurrencyFacade;
 import com.salesmanager.shop.store.controller.language.facade.LanguageFacade;
 import com.salesmanager.shop.store.controller.store.facade.StoreFacade;
+import com.salesmanager.shop.store.controller.user.facade.UserFacade;
 import com.salesmanager.shop.store.controller.zone.facade.ZoneFacade;
 import com.salesmanager.shop.utils.LanguageUtils;
 
@@ -54,6 +62,10 @@ public class ReferencesApi {
 
   @Inject private CurrencyFacade currencyFacade;
 
+  @Inject private UserFacade userFacade;
+
+  @Inject private ReferenceDataRegistry referenceDataRegistry;
+
   /**
    * Search languages by language code private/languages returns everything
    *
@@ -101,4 +113,22 @@ public class ReferencesApi {
     sizeReferences.setWeights(Arrays.asList(WeightUnit.values()));
     return sizeReferences;
   }
+
+  /**
+   * Loads languages, countries, zones and currencies again from the database,
+   * used when reference data is changed in the database directly
+   */
+  @PostMapping("/private/references/reload")
+  @ResponseStatus(HttpStatus.OK)
+  public void reload() {
+
+    String authenticatedUser = userFacade.authenticatedUser();
+    if (authenticatedUser == null) {
+      throw new UnauthorizedException();
+    }
+    // reference data is shared by all stores
+    userFacade.authorizedGroup(authenticatedUser, Collections.singletonList(Constants.GROUP_SUPERADMIN));
+
+    referenceDataRegistry.reload();
+  }
 }
@@ -15,6 +15,7 @@ import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 
+import com.salesmanager.core.business.services.search.admin.AdminSearchIndex;
 import com.salesmanager.core.model.merchant.MerchantStore;
 import com.salesmanager.core.model.reference.language.Language;
 import com.salesmanager.shop.constants.Constants;
@@ -48,6 +49,9 @@ public class SearchToolsApi {
 	@Inject
 	private UserFacade userFacade;
 
+	@Inject
+	private AdminSearchIndex adminSearchIndex;
+
 	@PostMapping("/private/system/search/index")
 	@ApiOperation(httpMethod = "POST", value = "Indexes all products", notes = "", produces = "application/json")
 	@ApiImplicitParams({ @ApiImplicitParam(name = "store", dataType = "String", defaultValue = "DEFAULT"),
@@ -55,6 +59,37 @@ public class SearchToolsApi {
 	public ResponseEntity<Void> contact(@ApiIgnore MerchantStore merchantStore, @ApiIgnore Language language, HttpServletRequest request) {
 
 		// superadmin, admin and admin_catalogue
+		authorize(merchantStore, language, request, Constants.GROUP_ADMIN_CATALOGUE);
+		try {
+			searchFacade.indexAllData(merchantStore);
+		} catch (Exception e) {
+			throw new RestApiException("Exception while indexing store data", e);
+		}
+		return new ResponseEntity<Void>(HttpStatus.CREATED);
+	}
+
+	/**
+	 * Rebuilds the order and customer index used by admin searches, searches
+	 * are answered by the database until the rebuild completes
+	 */
+	@PostMapping("/private/system/search/admin/index")
+	@ApiOperation(httpMethod = "POST", value = "Rebuilds the admin order and customer search index", notes = "", produces = "application/json")
+	@ApiImplicitParams({ @ApiImplicitParam(name = "store", dataType = "String", defaultValue = "DEFAULT"),
+			@ApiImplicitParam(name = "lang", dataType = "String", defaultValue = "en") })
+	public ResponseEntity<Void> adminIndex(@ApiIgnore MerchantStore merchantStore, @ApiIgnore Language language, HttpServletRequest request) {
+
+		// superadmin, admin and admin_retail
+		authorize(merchantStore, language, request);
+		try {
+			adminSearchIndex.rebuildAsync(merchantStore.getId());
+		} catch (Exception e) {
+			throw new RestApiException("Exception while indexing store orders and customers", e);
+		}
+		return new ResponseEntity<Void>(HttpStatus.ACCEPTED);
+	}
+
+	private void authorize(MerchantStore merchantStore, Language language, HttpServletRequest request, String... groups) {
+
 		String authenticatedUser = userFacade.authenticatedUser();
 		if (authenticatedUser == null) {
 			throw new UnauthorizedException();
@@ -68,19 +103,13 @@ public class SearchToolsApi {
 			throw new UnauthorizedException();
 		}
 
-		userFacade.authorizedGroup(authenticatedUser, Stream.of(Constants.GROUP_SUPERADMIN, Constants.GROUP_ADMIN,
-				Constants.GROUP_ADMIN_CATALOGUE, Constants.GROUP_ADMIN_RETAIL)
+		userFacade.authorizedGroup(authenticatedUser, Stream.concat(Stream.of(Constants.GROUP_SUPERADMIN, Constants.GROUP_ADMIN,
+				Constants.GROUP_ADMIN_RETAIL), Stream.of(groups))
 				.collect(Collectors.toList()));
 
 		if(!user.getMerchant().equals(merchantStore.getCode())) {
 			throw new UnauthorizedException();
 		}
-		try {
-			searchFacade.indexAllData(merchantStore);
-		} catch (Exception e) {
-			throw new RestApiException("Exception while indexing store data", e);
-		}
-		return new ResponseEntity<Void>(HttpStatus.CREATED);
 	}
 
 }
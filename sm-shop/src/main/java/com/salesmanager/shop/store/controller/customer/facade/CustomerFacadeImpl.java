@@ -82,6 +82,7 @@ import com.salesmanager.shop.populator.customer.ReadableCustomerReviewPopulator;
 import com.salesmanager.shop.store.api.exception.ConversionRuntimeException;
 import com.salesmanager.shop.store.api.exception.ResourceNotFoundException;
 import com.salesmanager.shop.store.api.exception.ServiceRuntimeException;
+import com.salesmanager.shop.store.security.common.PrincipalCache;
 import com.salesmanager.shop.utils.EmailTemplatesUtils;
 import com.salesmanager.shop.utils.EmailUtils;
 import com.salesmanager.shop.utils.ImageFilePath;
@@ -168,6 +169,9 @@ public class CustomerFacadeImpl implements CustomerFacade {
   @Qualifier("img")
   private ImageFilePath imageUtils;
 
+  @Inject
+  private PrincipalCache principalCache;
+
   /**
    * Method used to fetch customer based on the username and storecode. Customer username is unique
    * to each store.
@@ -609,6 +613,7 @@ public class CustomerFacadeImpl implements CustomerFacade {
   private void saveCustomer(Customer customerToPopulate) {
     try{
       customerService.save(customerToPopulate);
+      principalCache.invalidate(PrincipalCache.CUSTOMER, customerToPopulate.getNick());
     } catch (ServiceException exception) {
       throw new ServiceRuntimeException(exception);
     }
@@ -867,6 +872,7 @@ public class CustomerFacadeImpl implements CustomerFacade {
     
     try {
     	customerService.saveOrUpdate(customer);
+    	principalCache.invalidate(PrincipalCache.CUSTOMER, customer.getNick());
     } catch (Exception e) {
         throw new ServiceRuntimeException(e);
     }
@@ -939,6 +945,7 @@ public class CustomerFacadeImpl implements CustomerFacade {
   public void delete(Customer entity) {
     try{
       customerService.delete(entity);
+      principalCache.invalidate(PrincipalCache.CUSTOMER, entity.getNick());
     } catch (ServiceException e) {
       throw new ServiceRuntimeException(e);
     }
@@ -1113,6 +1120,7 @@ public class CustomerFacadeImpl implements CustomerFacade {
     customer.setPassword(encoded);
     try {
       customerService.update(customer);
+      principalCache.invalidate(PrincipalCache.CUSTOMER, customer.getNick());
     } catch (ServiceException e) {
       throw new ServiceRuntimeException("Exception while changing password", e);
     }
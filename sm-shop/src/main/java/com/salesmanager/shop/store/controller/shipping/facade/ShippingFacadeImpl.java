@@ -92,7 +92,7 @@ public class ShippingFacadeImpl implements ShippingFacade {
 		try {
 			
 			//get original configuration
-			ShippingConfiguration config = getDbConfig(store);
+			ShippingConfiguration config = getDbConfigForUpdate(store);
 			config.setTaxOnShipping(expedition.isTaxOnShipping());
 			config.setShippingType(expedition.isIternationalShipping()?ShippingType.INTERNATIONAL:ShippingType.NATIONAL);
 			this.saveShippingConfiguration(config, store);
@@ -176,11 +176,26 @@ public class ShippingFacadeImpl implements ShippingFacade {
 
 	}
 
+	/**
+	 * Shared by all requests, read only
+	 */
 	private ShippingConfiguration getDbConfig(MerchantStore store) {
+		return getDbConfig(store, false);
+	}
+
+	/**
+	 * Parsed for this edit, the shared configuration is not modified
+	 */
+	private ShippingConfiguration getDbConfigForUpdate(MerchantStore store) {
+		return getDbConfig(store, true);
+	}
+
+	private ShippingConfiguration getDbConfig(MerchantStore store, boolean update) {
 
 		try {
 			//get original configuration
-			ShippingConfiguration config = shippingService.getShippingConfiguration(store);
+			ShippingConfiguration config = update ? shippingService.getShippingConfigurationForUpdate(store)
+					: shippingService.getShippingConfiguration(store);
 			if(config==null) {
 				config = new ShippingConfiguration();
 				config.setShippingType(ShippingType.INTERNATIONAL);
@@ -198,7 +213,7 @@ public class ShippingFacadeImpl implements ShippingFacade {
 	public void createPackage(PackageDetails packaging, MerchantStore store) {
 		Validate.notNull(store, "MerchantStore cannot be null");
 		Validate.notNull(packaging, "PackageDetails cannot be null");
-		ShippingConfiguration config = getDbConfig(store);
+		ShippingConfiguration config = getDbConfigForUpdate(store);
 		
 		if(this.packageExists(config, packaging)) {
 			throw new OperationNotAllowedException("Package with unique code [" + packaging.getCode() + "] already exist");
@@ -277,7 +292,7 @@ public class ShippingFacadeImpl implements ShippingFacade {
 		Validate.notNull(packaging, "PackageDetails cannot be null");
 		Validate.notEmpty(code,"Packaging unique code cannot be empty");
 		
-		ShippingConfiguration config = getDbConfig(store);
+		ShippingConfiguration config = getDbConfigForUpdate(store);
 		
 		com.salesmanager.core.model.shipping.Package p = this.packageDetails(config, code);
 		
@@ -303,7 +318,7 @@ public class ShippingFacadeImpl implements ShippingFacade {
 		Validate.notNull(store, "MerchantStore cannot be null");
 		Validate.notEmpty(code,"Packaging unique code cannot be empty");
 		
-		ShippingConfiguration config = getDbConfig(store);
+		ShippingConfiguration config = getDbConfigForUpdate(store);
 		
 		List<com.salesmanager.core.model.shipping.Package> packages = config.getPackages();
 		
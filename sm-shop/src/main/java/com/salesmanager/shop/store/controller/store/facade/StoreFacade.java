@@ -33,6 +33,15 @@ public interface StoreFacade {
 
 	MerchantStore get(String code);
 
+	/**
+	 * Store lookup used in the request path (api argument resolution).
+	 * Stores are cached by code and evicted when saved or deleted,
+	 * every call returns a copy of the cached store
+	 * @param code
+	 * @return
+	 */
+	MerchantStore getCached(String code);
+
 	MerchantStore getByCode(String code);
 	
 	List<Language> supportedLanguages(MerchantStore store);
@@ -16,6 +16,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.BeanUtils;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Service;
 
@@ -29,6 +32,7 @@ import com.salesmanager.core.business.services.reference.zone.ZoneService;
 import com.salesmanager.core.business.services.system.MerchantConfigurationService;
 import com.salesmanager.core.constants.MeasureUnit;
 import com.salesmanager.core.model.common.GenericEntityList;
+import com.salesmanager.core.model.common.audit.AuditSection;
 import com.salesmanager.core.model.content.InputContentFile;
 import com.salesmanager.core.model.merchant.MerchantStore;
 import com.salesmanager.core.model.merchant.MerchantStoreCriteria;
@@ -78,6 +82,12 @@ public class StoreFacadeImpl implements StoreFacade {
 	@Autowired
 	private ReadableMerchantStorePopulator readableMerchantStorePopulator;
 
+	@Inject
+	@Qualifier("serviceCacheManager")
+	private CacheManager serviceCacheManager;
+
+	private static final String STORE_CACHE = "store";
+
 	private static final Logger LOG = LoggerFactory.getLogger(StoreFacadeImpl.class);
 
 	@Override
@@ -101,6 +111,35 @@ public class StoreFacadeImpl implements StoreFacade {
 
 	}
 
+	@Override
+	public MerchantStore getCached(String code) {
+		Cache cache = serviceCacheManager.getCache(STORE_CACHE);
+		MerchantStore store = cache.get(code, MerchantStore.class);
+		if (store == null) {
+			store = get(code);
+			if (store == null) {
+				return null;
+			}
+			cache.put(code, store);
+		}
+		return copy(store);
+	}
+
+	/**
+	 * Each request gets its own instance, the cached store is never handed out
+	 */
+	private MerchantStore copy(MerchantStore store) {
+		MerchantStore copy = new MerchantStore();
+		BeanUtils.copyProperties(store, copy);
+		copy.setLanguages(new ArrayList<Language>(store.getLanguages()));
+		if (store.getAuditSection() != null) {
+			AuditSection auditSection = new AuditSection();
+			BeanUtils.copyProperties(store.getAuditSection(), auditSection);
+			copy.setAuditSection(auditSection);
+		}
+		return copy;
+	}
+
 	@Override
 	public ReadableMerchantStore getByCode(String code, String lang) {
 		Language language = getLanguage(lang);
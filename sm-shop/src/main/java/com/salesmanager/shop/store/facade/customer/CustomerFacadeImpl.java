@@ -31,6 +31,7 @@ import com.salesmanager.shop.store.api.exception.ResourceNotFoundException;
 import com.salesmanager.shop.store.api.exception.ServiceRuntimeException;
 import com.salesmanager.shop.store.api.exception.UnauthorizedException;
 import com.salesmanager.shop.store.controller.customer.facade.v1.CustomerFacade;
+import com.salesmanager.shop.store.security.common.PrincipalCache;
 import com.salesmanager.shop.utils.DateUtil;
 import com.salesmanager.shop.utils.EmailUtils;
 import com.salesmanager.shop.utils.FilePathUtils;
@@ -68,6 +69,9 @@ public class CustomerFacadeImpl implements CustomerFacade {
 	@Inject
 	private PasswordEncoder passwordEncoder;
 
+	@Inject
+	private PrincipalCache principalCache;
+
 	private static final String resetCustomerLink = "customer/%s/reset/%s"; // front
 																			// url
 
@@ -215,6 +219,7 @@ public class CustomerFacadeImpl implements CustomerFacade {
 		customer.setPassword(passwordEncoder.encode(password));
 		try {
 			customerService.save(customer);
+			principalCache.invalidate(PrincipalCache.CUSTOMER, customer.getNick());
 		} catch (ServiceException e) {
 			throw new ServiceRuntimeException("Error while saving customer",e);
 		}
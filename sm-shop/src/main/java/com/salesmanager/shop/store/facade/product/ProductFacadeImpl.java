@@ -28,6 +28,7 @@ import com.salesmanager.core.business.services.reference.language.LanguageServic
 import com.salesmanager.core.model.catalog.category.Category;
 import com.salesmanager.core.model.catalog.product.Product;
 import com.salesmanager.core.model.catalog.product.ProductCriteria;
+import com.salesmanager.core.model.catalog.product.ProductList;
 import com.salesmanager.core.model.catalog.product.attribute.ProductAttribute;
 import com.salesmanager.core.model.catalog.product.availability.ProductAvailability;
 import com.salesmanager.core.model.catalog.product.manufacturer.Manufacturer;
@@ -96,6 +97,12 @@ public class ProductFacadeImpl implements ProductFacade {
 	@Qualifier("img")
 	private ImageFilePath imageUtils;
 
+	@Inject
+	private ReadableProductCache readableProductCache;
+
+	@Inject
+	private ReadableProductListAssembler readableProductListAssembler;
+
 	@Override
 	public PersistableProduct saveProduct(MerchantStore store, PersistableProduct product, Language language) {
 
@@ -164,6 +171,12 @@ public class ProductFacadeImpl implements ProductFacade {
 	@Override
 	public ReadableProduct getProduct(MerchantStore store, Long id, Language language) throws Exception {
 
+		ReadableProduct cached = readableProductCache.get(store, id, language);
+		if (cached != null) {
+			return cached;
+		}
+		long generation = readableProductCache.generation();
+
 		Product product = productService.findOne(id, store);
 		if (product == null) {
 			throw new ResourceNotFoundException("Product [" + id + "] not found");
@@ -173,33 +186,20 @@ public class ProductFacadeImpl implements ProductFacade {
 			throw new ResourceNotFoundException("Product [" + id + "] not found for store [" + store.getId() + "]");
 		}
 
-		ReadableProduct readableProduct = new ReadableProduct();
-		ReadableProductPopulator populator = new ReadableProductPopulator();
-		populator.setPricingService(pricingService);
-		populator.setimageUtils(imageUtils);
-		readableProduct = populator.populate(product, readableProduct, store, language);
-
-		return readableProduct;
+		return readableProduct(product, store, language, generation);
 	}
 
 	@Override
 	public ReadableProduct getProduct(MerchantStore store, String sku, Language language) throws Exception {
 
+		long generation = readableProductCache.generation();
 		Product product = productService.getByCode(sku, language);
 
 		if (product == null) {
 			return null;
 		}
 
-		ReadableProduct readableProduct = new ReadableProduct();
-
-		ReadableProductPopulator populator = new ReadableProductPopulator();
-
-		populator.setPricingService(pricingService);
-		populator.setimageUtils(imageUtils);
-		populator.populate(product, readableProduct, store, language);
-
-		return readableProduct;
+		return readableProduct(product, store, language, generation);
 	}
 
 	@Override
@@ -282,7 +282,57 @@ public class ProductFacadeImpl implements ProductFacade {
 
 		Validate.notNull(criterias, "ProductCriteria must be set for this product");
 
-		/** This is for category **/
+		categoryLineage(store, criterias);
+
+		
+		long generation = readableProductCache.generation();
+		Page<Product> modelProductList = productService.listByStore(store, language, criterias, criterias.getStartPage(), criterias.getMaxCount());
+		
+		List<Product> products = modelProductList.getContent();
+		
+		List<Product> prds = products.stream().sorted(Comparator.comparing(Product::getSortOrder)).collect(Collectors.toList());
+		products = prds;
+		
+		ReadableProductList productList = new ReadableProductList();
+		productList.getProducts().addAll(readableProductListAssembler.assemble(products, store, language, generation));
+
+		// productList.setTotalPages(products.getTotalCount());
+		productList.setRecordsTotal(modelProductList.getTotalElements());
+		productList.setNumber(productList.getProducts().size());
+
+		productList.setTotalPages(modelProductList.getTotalPages());
+
+		return productList;
+	}
+
+	@Override
+	public ReadableProductList getProductListsByCursor(MerchantStore store, Language language,
+			ProductCriteria criterias) throws Exception {
+
+		Validate.notNull(criterias, "ProductCriteria must be set for this product");
+
+		categoryLineage(store, criterias);
+
+		long generation = readableProductCache.generation();
+		ProductList modelProductList = productService.listByCursor(store, language, criterias);
+
+		ReadableProductList productList = new ReadableProductList();
+		productList.getProducts().addAll(readableProductListAssembler.assembleLoaded(modelProductList.getProducts(), store, language, generation));
+
+		productList.setRecordsTotal(modelProductList.getTotalCount());
+		productList.setNumber(productList.getProducts().size());
+		productList.setTotalPages(modelProductList.getTotalPages());
+		if (modelProductList.getNext() != null) {
+			productList.setNext(modelProductList.getNext().encode());
+		}
+
+		return productList;
+	}
+
+	/**
+	 * A single category filter includes its sub categories
+	 */
+	private void categoryLineage(MerchantStore store, ProductCriteria criterias) throws ServiceException {
 		if (CollectionUtils.isNotEmpty(criterias.getCategoryIds())) {
 
 			if (criterias.getCategoryIds().size() == 1) {
@@ -308,35 +358,6 @@ public class ProductFacadeImpl implements ProductFacade {
 				}
 			}
 		}
-
-		
-		Page<Product> modelProductList = productService.listByStore(store, language, criterias, criterias.getStartPage(), criterias.getMaxCount());
-		
-		List<Product> products = modelProductList.getContent();
-		
-		List<Product> prds = products.stream().sorted(Comparator.comparing(Product::getSortOrder)).collect(Collectors.toList());
-		products = prds;
-		
-		ReadableProductPopulator populator = new ReadableProductPopulator();
-		populator.setPricingService(pricingService);
-		populator.setimageUtils(imageUtils);
-
-		ReadableProductList productList = new ReadableProductList();
-		for (Product product : products) {
-
-			// create new proxy product
-			ReadableProduct readProduct = populator.populate(product, new ReadableProduct(), store, language);
-			productList.getProducts().add(readProduct);
-
-		}
-
-		// productList.setTotalPages(products.getTotalCount());
-		productList.setRecordsTotal(modelProductList.getTotalElements());
-		productList.setNumber(productList.getProducts().size());
-
-		productList.setTotalPages(modelProductList.getTotalPages());
-
-		return productList;
 	}
 
 	@Override
@@ -396,17 +417,10 @@ public class ProductFacadeImpl implements ProductFacade {
 	public ReadableProduct getProductByCode(MerchantStore store, String uniqueCode, Language language)
 			throws Exception {
 
+		long generation = readableProductCache.generation();
 		Product product = productService.getByCode(uniqueCode, language);
 
-		ReadableProduct readableProduct = new ReadableProduct();
-
-		ReadableProductPopulator populator = new ReadableProductPopulator();
-
-		populator.setPricingService(pricingService);
-		populator.setimageUtils(imageUtils);
-		populator.populate(product, readableProduct, product.getMerchantStore(), language);
-
-		return readableProduct;
+		return readableProduct(product, product.getMerchantStore(), language, generation);
 	}
 
 	@Override
@@ -458,18 +472,14 @@ public class ProductFacadeImpl implements ProductFacade {
 	@Override
 	public List<ReadableProduct> relatedItems(MerchantStore store, Product product, Language language)
 			throws Exception {
-		ReadableProductPopulator populator = new ReadableProductPopulator();
-		populator.setPricingService(pricingService);
-		populator.setimageUtils(imageUtils);
-
+		long generation = readableProductCache.generation();
 		List<ProductRelationship> relatedItems = productRelationshipService.getByType(store, product,
 				ProductRelationshipType.RELATED_ITEM);
 		if (relatedItems != null && relatedItems.size() > 0) {
 			List<ReadableProduct> items = new ArrayList<ReadableProduct>();
 			for (ProductRelationship relationship : relatedItems) {
 				Product relatedProduct = relationship.getRelatedProduct();
-				ReadableProduct proxyProduct = populator.populate(relatedProduct, new ReadableProduct(), store,
-						language);
+				ReadableProduct proxyProduct = readableProduct(relatedProduct, store, language, generation);
 				items.add(proxyProduct);
 			}
 			return items;
@@ -552,20 +562,33 @@ public class ProductFacadeImpl implements ProductFacade {
 	@Override
 	public ReadableProduct getProductBySeUrl(MerchantStore store, String friendlyUrl, Language language) throws Exception {
 
+		long generation = readableProductCache.generation();
 		Product product = productService.getBySeUrl(store, friendlyUrl, LocaleUtils.getLocale(language));
 
 		if (product == null) {
 			return null;
 		}
 
-		ReadableProduct readableProduct = new ReadableProduct();
+		return readableProduct(product, store, language, generation);
+	}
 
-		ReadableProductPopulator populator = new ReadableProductPopulator();
+	/**
+	 * Populated product from ReadableProductCache, generation must be
+	 * read before the product is loaded
+	 */
+	private ReadableProduct readableProduct(Product product, MerchantStore store, Language language, long generation)
+			throws Exception {
+		ReadableProduct readableProduct = readableProductCache.get(store, product.getId(), language);
+		if (readableProduct != null) {
+			return readableProduct;
+		}
 
+		ReadableProductPopulator populator = new ReadableProductPopulator();
 		populator.setPricingService(pricingService);
 		populator.setimageUtils(imageUtils);
-		populator.populate(product, readableProduct, store, language);
+		readableProduct = populator.populate(product, new ReadableProduct(), store, language);
 
+		readableProductCache.put(store, product.getId(), language, readableProduct, generation);
 		return readableProduct;
 	}
 
@@ -0,0 +1,165 @@
+package com.salesmanager.shop.store.facade.product;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+
+import org.apache.commons.lang3.SerializationException;
+import org.apache.commons.lang3.SerializationUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.salesmanager.core.business.services.catalog.product.ProductChangedEvent;
+import com.salesmanager.core.model.merchant.MerchantStore;
+import com.salesmanager.core.model.reference.language.Language;
+import com.salesmanager.shop.model.catalog.product.ReadableProduct;
+
+/**
+ * Populated ReadableProduct by store, product, language and currency.
+ *
+ * Entries are kept serialized, the cache is bounded by the total size in bytes
+ * and every read returns a new instance that callers can modify.
+ *
+ * Entries of a product are evicted when ProductChangedEvent is published
+ * (after commit). Time based prices (specials) are refreshed by the ttl.
+ */
+@Component("readableProductCache")
+public class ReadableProductCache {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ReadableProductCache.class);
+
+	private static final String SEPARATOR = ":";
+
+	@Value("${config.catalog.productCache.maxBytes:67108864}")
+	private long maxBytes;
+
+	@Value("${config.catalog.productCache.ttl:3600}")
+	private long ttl;
+
+	private Cache<String, byte[]> products;
+
+	/** product id / cache keys of that product **/
+	private final ConcurrentHashMap<Long, Set<String>> keysByProduct = new ConcurrentHashMap<Long, Set<String>>();
+
+	/** incremented on every eviction **/
+	private final AtomicLong generation = new AtomicLong();
+
+	/**
+	 * product id / generation of its last eviction, an entry populated while
+	 * its product was changing is not stored
+	 */
+	private final ConcurrentHashMap<Long, Long> evictedAt = new ConcurrentHashMap<Long, Long>();
+
+	/** generation of the last eviction of every product **/
+	private volatile long allEvictedAt;
+
+	@PostConstruct
+	public void init() {
+		products = CacheBuilder.newBuilder()
+				.maximumWeight(maxBytes)
+				.weigher((String key, byte[] value) -> value.length)
+				.expireAfterWrite(ttl, TimeUnit.SECONDS)
+				.recordStats()
+				.<String, byte[]>removalListener(n -> {
+					if (n.wasEvicted()) {
+						unindex(n.getKey());
+					}
+				})
+				.build();
+	}
+
+	/**
+	 * @return a copy of the cached product or null
+	 */
+	public ReadableProduct get(MerchantStore store, Long productId, Language language) {
+		byte[] bytes = products.getIfPresent(key(store, productId, language));
+		if (bytes == null) {
+			return null;
+		}
+		return SerializationUtils.deserialize(bytes);
+	}
+
+	/**
+	 * Returns the value to be passed to put, read it before populating the products,
+	 * only products evicted afterwards are not stored
+	 */
+	public long generation() {
+		return generation.get();
+	}
+
+	public void put(MerchantStore store, Long productId, Language language, ReadableProduct product, long generation) {
+		if (product == null || productId == null) {
+			return;
+		}
+		byte[] bytes;
+		try {
+			bytes = SerializationUtils.serialize(product);
+		} catch (SerializationException e) {
+			LOGGER.warn("ReadableProduct [" + productId + "] cannot be cached " + e.getMessage());
+			return;
+		}
+		if (evictedSince(productId, generation)) {
+			return;
+		}
+		String key = key(store, productId, language);
+		products.put(key, bytes);
+		keysByProduct.computeIfAbsent(productId, id -> ConcurrentHashMap.newKeySet()).add(key);
+		if (evictedSince(productId, generation)) {
+			//evicted while storing
+			products.invalidate(key);
+		}
+	}
+
+	private boolean evictedSince(Long productId, long generation) {
+		return allEvictedAt > generation || evictedAt.getOrDefault(productId, 0L) > generation;
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductChanged(ProductChangedEvent event) {
+		evict(event.getProductId());
+	}
+
+	public void evict(Long productId) {
+		if (productId == null) {
+			return;
+		}
+		evictedAt.merge(productId, generation.incrementAndGet(), Math::max);
+		Set<String> keys = keysByProduct.remove(productId);
+		if (keys != null) {
+			products.invalidateAll(keys);
+		}
+	}
+
+	public void evictAll() {
+		allEvictedAt = generation.incrementAndGet();
+		keysByProduct.clear();
+		products.invalidateAll();
+	}
+
+	public Cache<String, byte[]> getCache() {
+		return products;
+	}
+
+	private void unindex(String key) {
+		Long productId = Long.valueOf(key.split(SEPARATOR)[1]);
+		keysByProduct.computeIfPresent(productId, (id, keys) -> {
+			keys.remove(key);
+			return keys.isEmpty() ? null : keys;
+		});
+	}
+
+	private String key(MerchantStore store, Long productId, Language language) {
+		String currency = store.getCurrency() != null ? store.getCurrency().getCode() : "";
+		return new StringBuilder().append(store.getId()).append(SEPARATOR).append(productId).append(SEPARATOR)
+				.append(language.getId()).append(SEPARATOR).append(currency).toString();
+	}
+
+}
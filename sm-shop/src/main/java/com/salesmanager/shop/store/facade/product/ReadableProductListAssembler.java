@@ -0,0 +1,129 @@
+package com.salesmanager.shop.store.facade.product;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.inject.Inject;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import com.salesmanager.core.business.exception.ConversionException;
+import com.salesmanager.core.business.services.catalog.product.PricingService;
+import com.salesmanager.core.business.services.catalog.product.ProductService;
+import com.salesmanager.core.model.catalog.product.Product;
+import com.salesmanager.core.model.merchant.MerchantStore;
+import com.salesmanager.core.model.reference.language.Language;
+import com.salesmanager.shop.model.catalog.product.ReadableProduct;
+import com.salesmanager.shop.populator.catalog.ReadableProductPopulator;
+import com.salesmanager.shop.store.api.exception.ServiceRuntimeException;
+import com.salesmanager.shop.utils.ImageFilePath;
+
+/**
+ * Builds the ReadableProduct of a page of products.
+ *
+ * Products not found in ReadableProductCache are loaded again by id with every
+ * association the populator reads (images, attributes, options, availabilities,
+ * prices, categories, manufacturer, type), a fixed number of queries for the
+ * whole page. Pricing and population then run in memory, in the calling thread
+ * (product entities are not shared with other threads).
+ */
+@Component("readableProductListAssembler")
+public class ReadableProductListAssembler {
+
+	@Inject
+	private ProductService productService;
+
+	@Inject
+	private PricingService pricingService;
+
+	@Inject
+	@Qualifier("img")
+	private ImageFilePath imageUtils;
+
+	@Inject
+	private ReadableProductCache readableProductCache;
+
+	/**
+	 * @param products page of products, order is kept
+	 * @param generation ReadableProductCache generation read before listing the products
+	 */
+	public List<ReadableProduct> assemble(List<Product> products, MerchantStore store, Language language,
+			long generation) {
+		return assemble(products, store, language, generation, true);
+	}
+
+	/**
+	 * Same as assemble for products already loaded with ProductService.getListingProducts
+	 */
+	public List<ReadableProduct> assembleLoaded(List<Product> products, MerchantStore store, Language language,
+			long generation) {
+		return assemble(products, store, language, generation, false);
+	}
+
+	private List<ReadableProduct> assemble(List<Product> products, MerchantStore store, Language language,
+			long generation, boolean preload) {
+
+		ReadableProduct[] readableProducts = new ReadableProduct[products.size()];
+		List<Long> missing = new ArrayList<Long>();
+		for (int i = 0; i < products.size(); i++) {
+			readableProducts[i] = readableProductCache.get(store, products.get(i).getId(), language);
+			if (readableProducts[i] == null) {
+				missing.add(products.get(i).getId());
+			}
+		}
+
+		if (!missing.isEmpty()) {
+			Map<Long, Product> loaded = new HashMap<Long, Product>();
+			if (preload) {
+				for (Product product : productService.getListingProducts(missing)) {
+					loaded.put(product.getId(), product);
+				}
+			}
+
+			List<Integer> positions = new ArrayList<Integer>();
+			List<Product> sources = new ArrayList<Product>();
+			for (int i = 0; i < products.size(); i++) {
+				if (readableProducts[i] == null) {
+					positions.add(i);
+					sources.add(loaded.getOrDefault(products.get(i).getId(), products.get(i)));
+				}
+			}
+
+			List<ReadableProduct> populated = populate(sources, store, language);
+			for (int i = 0; i < positions.size(); i++) {
+				ReadableProduct readableProduct = populated.get(i);
+				readableProducts[positions.get(i)] = readableProduct;
+				readableProductCache.put(store, sources.get(i).getId(), language, readableProduct, generation);
+			}
+		}
+
+		List<ReadableProduct> list = new ArrayList<ReadableProduct>(readableProducts.length);
+		for (ReadableProduct readableProduct : readableProducts) {
+			list.add(readableProduct);
+		}
+		return list;
+	}
+
+	private List<ReadableProduct> populate(List<Product> products, MerchantStore store, Language language) {
+		List<ReadableProduct> readableProducts = new ArrayList<ReadableProduct>(products.size());
+		for (Product product : products) {
+			readableProducts.add(populate(product, store, language));
+		}
+		return readableProducts;
+	}
+
+	private ReadableProduct populate(Product product, MerchantStore store, Language language) {
+		ReadableProductPopulator populator = new ReadableProductPopulator();
+		populator.setPricingService(pricingService);
+		populator.setimageUtils(imageUtils);
+		try {
+			return populator.populate(product, new ReadableProduct(), store, language);
+		} catch (ConversionException e) {
+			throw new ServiceRuntimeException("Error while populating product [" + product.getId() + "]", e);
+		}
+	}
+
+}
@@ -8,8 +8,10 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 
 import org.apache.commons.lang3.StringUtils;
@@ -18,6 +20,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
@@ -27,6 +30,8 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.salesmanager.core.business.exception.ConversionException;
 import com.salesmanager.core.business.exception.ServiceException;
 import com.salesmanager.core.business.modules.email.Email;
@@ -63,6 +68,7 @@ import com.salesmanager.shop.store.api.exception.ServiceRuntimeException;
 import com.salesmanager.shop.store.api.exception.UnauthorizedException;
 import com.salesmanager.shop.store.controller.security.facade.SecurityFacade;
 import com.salesmanager.shop.store.controller.user.facade.UserFacade;
+import com.salesmanager.shop.store.security.common.PrincipalCache;
 import com.salesmanager.shop.utils.DateUtil;
 import com.salesmanager.shop.utils.EmailUtils;
 import com.salesmanager.shop.utils.FilePathUtils;
@@ -122,8 +128,28 @@ public class UserFacadeImpl implements UserFacade {
 	@Inject
 	private PasswordEncoder passwordEncoder;
 
+	@Inject
+	private PrincipalCache principalCache;
+
 	private static final Logger LOGGER = LoggerFactory.getLogger(UserFacadeImpl.class);
 
+	private static final String AUTHORIZATION_KEY_SEPARATOR = "|";
+
+	@Value("${config.security.storeAuthorization.ttl:60}")
+	private long storeAuthorizationTtl;
+
+	/**
+	 * (principal, store) authorization results, avoids loading user and groups
+	 * on every private api call
+	 */
+	private Cache<String, Boolean> storeAuthorizations;
+
+	@PostConstruct
+	public void init() {
+		storeAuthorizations = CacheBuilder.newBuilder().maximumSize(10000)
+				.expireAfterWrite(storeAuthorizationTtl, TimeUnit.SECONDS).build();
+	}
+
 	@Override
 	public ReadableUser findByUserName(String userName, String storeCode, Language lang) {
 		ReadableUser user = findByUserName(userName, lang);
@@ -384,6 +410,7 @@ public class UserFacadeImpl implements UserFacade {
 			}
 
 			userService.delete(user);
+			invalidateUser(user.getAdminName());
 		} catch (ServiceException e) {
 			throw new ServiceRuntimeException("Cannot find user [" + id + "]", e);
 		}
@@ -467,6 +494,7 @@ public class UserFacadeImpl implements UserFacade {
 
 			user.setPassword(userModel.getAdminPassword());
 			userService.update(userModel);
+			invalidateUser(userModel.getAdminName());
 			return this.convertUserToReadableUser(languageService.defaultLanguage(), userModel);
 		} catch (ServiceException e) {
 			throw new ServiceRuntimeException("Cannot update user [" + user.getUserName() + "]", e);
@@ -516,6 +544,7 @@ public class UserFacadeImpl implements UserFacade {
 			userModel.setAdminPassword(newPasswordEncoded);
 
 			userService.update(userModel);
+			invalidateUser(userModel.getAdminName());
 
 		} catch (ServiceException e) {
 			LOGGER.error("Error updating password");
@@ -636,6 +665,7 @@ public class UserFacadeImpl implements UserFacade {
 
 			modelUser.setActive(user.isActive());
 			userService.saveOrUpdate(modelUser);
+			invalidateUser(modelUser.getAdminName());
 
 		} catch (ServiceException e) {
 			throw new ServiceRuntimeException("Error while updating user enable flag", e);
@@ -654,6 +684,12 @@ public class UserFacadeImpl implements UserFacade {
 			
 			Validate.notNull(authentication, "Don't call ths method if a user is not authenticated");
 
+			String key = authorizationKey(authentication.getName(), store.getCode());
+			Boolean cached = storeAuthorizations.getIfPresent(key);
+			if (cached != null) {
+				return cached;
+			}
+
 			try {
 				
 
@@ -664,7 +700,7 @@ public class UserFacadeImpl implements UserFacade {
 				ReadableUser readableUser = findByUserName(currentPrincipalName, languageService.defaultLanguage());
 				//ReadableUser readableUser =	  findByUserName(currentPrincipalName, store.getCode(), store.getDefaultLanguage());
 				if (readableUser == null) {
-					return false;
+					return authorized(key, false);
 				}
 
 				// current user match;
@@ -672,7 +708,7 @@ public class UserFacadeImpl implements UserFacade {
 
 				//user store is store request param
 				if (store.getCode().equalsIgnoreCase(merchant)) {
-					return true;
+					return authorized(key, true);
 				}
 
 				//Set<String> roles = authentication.getAuthorities().stream().map(r -> r.getAuthority())
@@ -681,7 +717,7 @@ public class UserFacadeImpl implements UserFacade {
 				// is superadmin
 				for (ReadableGroup group : readableUser.getGroups()) {
 					if (Constants.GROUP_SUPERADMIN.equals(group.getName())) {
-						return true;
+						return authorized(key, true);
 					}
 				}
 
@@ -702,7 +738,7 @@ public class UserFacadeImpl implements UserFacade {
 				}
 
 				// else false
-				return authorized;
+				return authorized(key, authorized);
 			} catch (Exception e) {
 				throw new UnauthorizedException("Cannot authorize user " + authentication.getPrincipal().toString()
 						+ " for store " + store.getCode(), e.getMessage());
@@ -713,6 +749,28 @@ public class UserFacadeImpl implements UserFacade {
 		return true;
 	}
 
+	private boolean authorized(String key, boolean authorized) {
+		storeAuthorizations.put(key, authorized);
+		return authorized;
+	}
+
+	private String authorizationKey(String userName, String storeCode) {
+		return userName + AUTHORIZATION_KEY_SEPARATOR + storeCode;
+	}
+
+	/**
+	 * Removes cached principal and store authorizations of a user, must be invoked
+	 * when user password, store, groups or status change
+	 */
+	private void invalidateUser(String userName) {
+		if (userName == null) {
+			return;
+		}
+		principalCache.invalidate(PrincipalCache.ADMIN, userName);
+		String prefix = userName + AUTHORIZATION_KEY_SEPARATOR;
+		storeAuthorizations.asMap().keySet().removeIf(k -> k.startsWith(prefix));
+	}
+
 	@Override
 	public ReadableUser findById(Long id, MerchantStore store, Language lang) {
 		Validate.notNull(store, "MerchantStore cannot be null");
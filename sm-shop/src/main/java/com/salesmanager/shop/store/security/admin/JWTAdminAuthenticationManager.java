@@ -16,6 +16,7 @@ import org.springframework.stereotype.Component;
 import com.salesmanager.shop.store.security.JWTTokenUtil;
 import com.salesmanager.shop.store.security.common.CustomAuthenticationException;
 import com.salesmanager.shop.store.security.common.CustomAuthenticationManager;
+import com.salesmanager.shop.store.security.common.PrincipalCache;
 import static java.util.Optional.ofNullable;
 import static org.apache.commons.lang3.StringUtils.removeStart;
 import io.jsonwebtoken.ExpiredJwtException;
@@ -32,6 +33,9 @@ public class JWTAdminAuthenticationManager extends CustomAuthenticationManager {
   @Inject
   private UserDetailsService jwtAdminDetailsService;
 
+  @Inject
+  private PrincipalCache principalCache;
+
   @Override
   public Authentication attemptAuthentication(HttpServletRequest request,
       HttpServletResponse response) throws AuthenticationException {
@@ -57,10 +61,10 @@ public class JWTAdminAuthenticationManager extends CustomAuthenticationManager {
     logger.info("checking authentication for user " + username);
     if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-      // It is not compelling necessary to load the use details from the database. You could also
-      // store the information
-      // in the token and read it from it. It's up to you ;)
-      UserDetails userDetails = this.jwtAdminDetailsService.loadUserByUsername(username);
+      // user details are cached per token, invalidated by UserFacade on user changes
+      UserDetails userDetails = principalCache.get(PrincipalCache.ADMIN, username,
+          jwtTokenUtil.getIssuedAtDateFromToken(authToken),
+          jwtAdminDetailsService::loadUserByUsername);
 
       // For simple validation it is completely sufficient to just check the token integrity. You
       // don't have to call
@@ -0,0 +1,91 @@
+package com.salesmanager.shop.store.security.common;
+
+import java.util.Date;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * Bounded cache of authenticated principals resolved from a JWT bearer token.
+ * Entries are keyed by realm (admin or customer), user name and token issue time
+ * so a new token always triggers a fresh load.
+ *
+ * Facades changing user password, groups or status must invoke invalidate
+ */
+@Component("principalCache")
+public class PrincipalCache {
+
+	public static final String ADMIN = "admin";
+	public static final String CUSTOMER = "customer";
+
+	private static final String SEPARATOR = "|";
+
+	@Value("${config.security.principal.cache.size:10000}")
+	private long maximumSize;
+
+	@Value("${config.security.principal.cache.ttl:300}")
+	private long ttl;
+
+	private Cache<String, UserDetails> principals;
+
+	@PostConstruct
+	public void init() {
+		principals = CacheBuilder.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfterWrite(ttl, TimeUnit.SECONDS)
+				.recordStats()
+				.build();
+	}
+
+	/**
+	 * Returns the cached principal or loads it using the supplied loader.
+	 * Loader exceptions (UsernameNotFoundException...) are propagated and not cached
+	 */
+	public UserDetails get(String realm, String userName, Date issuedAt, Function<String, UserDetails> loader) {
+		String key = key(realm, userName) + (issuedAt != null ? issuedAt.getTime() : 0);
+		try {
+			return principals.get(key, () -> loader.apply(userName));
+		} catch (UncheckedExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	/**
+	 * Removes every cached token of a given user
+	 */
+	public void invalidate(String realm, String userName) {
+		if (userName == null) {
+			return;
+		}
+		String prefix = key(realm, userName);
+		principals.asMap().keySet().removeIf(k -> k.startsWith(prefix));
+	}
+
+	public void invalidateAll() {
+		principals.invalidateAll();
+	}
+
+	public Cache<String, UserDetails> getCache() {
+		return principals;
+	}
+
+	private String key(String realm, String userName) {
+		return realm + SEPARATOR + userName + SEPARATOR;
+	}
+
+}
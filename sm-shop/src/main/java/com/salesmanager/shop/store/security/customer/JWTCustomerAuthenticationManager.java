@@ -18,6 +18,7 @@ import org.springframework.stereotype.Component;
 import com.salesmanager.shop.store.security.JWTTokenUtil;
 import com.salesmanager.shop.store.security.common.CustomAuthenticationException;
 import com.salesmanager.shop.store.security.common.CustomAuthenticationManager;
+import com.salesmanager.shop.store.security.common.PrincipalCache;
 
 import io.jsonwebtoken.ExpiredJwtException;
 
@@ -32,6 +33,9 @@ public class JWTCustomerAuthenticationManager extends CustomAuthenticationManage
     @Inject
     private UserDetailsService jwtCustomerDetailsService;
 
+    @Inject
+    private PrincipalCache principalCache;
+
 	@Override
 	public Authentication attemptAuthentication(HttpServletRequest request, HttpServletResponse response)
 			throws AuthenticationException {
@@ -58,9 +62,10 @@ public class JWTCustomerAuthenticationManager extends CustomAuthenticationManage
         logger.info("checking authentication for user " + username);
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-            // It is not compelling necessary to load the use details from the database. You could also store the information
-            // in the token and read it from it. It's up to you ;)
-            UserDetails userDetails = this.jwtCustomerDetailsService.loadUserByUsername(username);
+            // user details are cached per token, invalidated by CustomerFacade on customer changes
+            UserDetails userDetails = principalCache.get(PrincipalCache.CUSTOMER, username,
+            		jwtTokenUtil.getIssuedAtDateFromToken(authToken),
+            		jwtCustomerDetailsService::loadUserByUsername);
 
             // For simple validation it is completely sufficient to just check the token integrity. You don't have to call
             // the database compellingly. Again it's up to you ;)
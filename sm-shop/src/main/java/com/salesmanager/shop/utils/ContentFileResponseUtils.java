@@ -0,0 +1,216 @@
+package com.salesmanager.shop.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.salesmanager.core.model.content.OutputContentFile;
+
+/**
+ * Writes images and files to the response.
+ *
+ * Files on local disk are not read in memory, they are sent by the container
+ * (tomcat sendfile) when supported, otherwise transferred from the file channel.
+ * Content held in memory (infinispan, cloud storage, off-heap image cache) is
+ * written from its buffer through a channel, the buffer is released once written.
+ *
+ * Handles ETag / If-None-Match, Last-Modified / If-Modified-Since (files on disk)
+ * and a single byte range (Range, If-Range), other range requests get the whole content.
+ */
+@Component
+public class ContentFileResponseUtils {
+
+	/** tomcat sendfile request attributes **/
+	private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+	private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+	private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+	private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+	private static final String BYTES = "bytes";
+	private static final String DEFAULT_MIME_TYPE = "application/octet-stream";
+
+	/** seconds **/
+	@Value("${config.http.files.maxAge:604800}")
+	private long maxAge;
+
+	/**
+	 * Writes a file that can be cached by browsers and proxies for max age
+	 */
+	public void write(OutputContentFile file, HttpServletRequest request, HttpServletResponse response)
+			throws IOException {
+		write(file, CacheControl.maxAge(maxAge, TimeUnit.SECONDS).cachePublic(), request, response);
+	}
+
+	public void write(OutputContentFile file, CacheControl cacheControl, HttpServletRequest request,
+			HttpServletResponse response) throws IOException {
+		try {
+			if (file.getPath() != null) {
+				write(file.getPath(), mimeType(file, request), cacheControl, request, response);
+			} else if (file.getBuffer() != null) {
+				write(file.getBuffer(), mimeType(file, request), cacheControl, request, response);
+			} else {
+				write(ByteBuffer.wrap(file.getFile().toByteArray()), mimeType(file, request), cacheControl, request,
+						response);
+			}
+		} finally {
+			file.release();
+		}
+	}
+
+	private void write(Path path, String mimeType, CacheControl cacheControl, HttpServletRequest request,
+			HttpServletResponse response) throws IOException {
+
+		long length = Files.size(path);
+		long lastModified = Files.getLastModifiedTime(path).toMillis();
+		String etag = etag(Hashing.murmur3_128().newHasher()
+				.putString(path.toString(), StandardCharsets.UTF_8)
+				.putLong(length)
+				.putLong(lastModified));
+
+		response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+		if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+			return;
+		}
+
+		long[] range = range(request, etag, length, response);
+		if (range == null) {
+			return;
+		}
+		headers(mimeType, range, length, response);
+		if (isHead(request)) {
+			return;
+		}
+
+		long start = range[0];
+		long count = range[1] - range[0] + 1;
+
+		if (count > 0 && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+			request.setAttribute(SENDFILE_FILENAME, path.toAbsolutePath().toString());
+			request.setAttribute(SENDFILE_START, start);
+			request.setAttribute(SENDFILE_END, start + count);
+			return;
+		}
+
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+			while (count > 0) {
+				long transferred = channel.transferTo(start, count, out);
+				if (transferred <= 0) {
+					// file truncated while being sent
+					break;
+				}
+				start += transferred;
+				count -= transferred;
+			}
+		}
+	}
+
+	private void write(ByteBuffer content, String mimeType, CacheControl cacheControl, HttpServletRequest request,
+			HttpServletResponse response) throws IOException {
+
+		// duplicates have their own position, the content may be shared by other responses
+		String etag = etag(Hashing.murmur3_128().newHasher().putBytes(content.duplicate()));
+
+		response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+		if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+			return;
+		}
+
+		long[] range = range(request, etag, content.remaining(), response);
+		if (range == null) {
+			return;
+		}
+		headers(mimeType, range, content.remaining(), response);
+		if (isHead(request)) {
+			return;
+		}
+
+		ByteBuffer slice = content.duplicate();
+		int start = content.position() + (int) range[0];
+		slice.limit(start + (int) (range[1] - range[0] + 1));
+		slice.position(start);
+
+		WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+		while (slice.hasRemaining()) {
+			out.write(slice);
+		}
+	}
+
+	/**
+	 * @return first and last byte to send, null when the range cannot be satisfied
+	 *         (416 status set)
+	 */
+	private long[] range(HttpServletRequest request, String etag, long length, HttpServletResponse response) {
+
+		long[] whole = new long[] { 0, length - 1 };
+
+		String header = request.getHeader(HttpHeaders.RANGE);
+		String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+		if (StringUtils.isBlank(header) || length == 0 || (ifRange != null && !ifRange.equals(etag))) {
+			return whole;
+		}
+
+		try {
+			List<HttpRange> ranges = HttpRange.parseRanges(header);
+			if (ranges.size() != 1) {
+				return whole;
+			}
+			HttpRange range = ranges.get(0);
+			return new long[] { range.getRangeStart(length), range.getRangeEnd(length) };
+		} catch (IllegalArgumentException e) {
+			response.setHeader(HttpHeaders.CONTENT_RANGE, BYTES + " */" + length);
+			response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+			return null;
+		}
+	}
+
+	private void headers(String mimeType, long[] range, long length, HttpServletResponse response) {
+		response.setContentType(mimeType);
+		response.setHeader(HttpHeaders.ACCEPT_RANGES, BYTES);
+		response.setContentLengthLong(length == 0 ? 0 : range[1] - range[0] + 1);
+		if (range[1] - range[0] + 1 < length) {
+			response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+			response.setHeader(HttpHeaders.CONTENT_RANGE,
+					BYTES + " " + range[0] + "-" + range[1] + "/" + length);
+		}
+	}
+
+	private String mimeType(OutputContentFile file, HttpServletRequest request) {
+		if (StringUtils.isNotBlank(file.getMimeType())) {
+			return file.getMimeType();
+		}
+		String mimeType = file.getFileName() != null
+				? request.getServletContext().getMimeType(file.getFileName()) : null;
+		return mimeType != null ? mimeType : DEFAULT_MIME_TYPE;
+	}
+
+	private boolean isHead(HttpServletRequest request) {
+		return "HEAD".equals(request.getMethod());
+	}
+
+	private String etag(Hasher hasher) {
+		return "\"" + hasher.hash().toString() + "\"";
+	}
+
+}
@@ -85,7 +85,7 @@ public class EmailTemplatesUtils {
 	 * @param merchantStore
 	 * @param contextPath
 	 */
-	@Async
+	@Async("emailExecutor")
 	public void sendOrderEmail(String toEmail, Customer customer, Order order, Locale customerLocale, Language language, MerchantStore merchantStore, String contextPath) {
 			   /** issue with putting that elsewhere **/ 
 		       LOGGER.info( "Sending welcome email to customer" );
@@ -265,7 +265,7 @@ public class EmailTemplatesUtils {
 	 * @param merchantStore
 	 * @param customerLocale
 	 */
-	@Async
+	@Async("emailExecutor")
 	public void sendRegistrationEmail(
 		PersistableCustomer customer, MerchantStore merchantStore,
 			Locale customerLocale, String contextPath) {
@@ -307,7 +307,7 @@ public class EmailTemplatesUtils {
 		
 	}
 	
-	@Async
+	@Async("emailExecutor")
 	public void sendContactEmail(
 			ContactForm contact, MerchantStore merchantStore,
 				Locale storeLocale, String contextPath) {
@@ -356,7 +356,7 @@ public class EmailTemplatesUtils {
 	 * @param merchantStore
 	 * @param customerLocale
 	 */
-	@Async
+	@Async("emailExecutor")
 	public void sendUpdateOrderStatusEmail(
 			Customer customer, Order order, OrderStatusHistory lastHistory, MerchantStore merchantStore,
 			Locale customerLocale, String contextPath) {
@@ -411,7 +411,7 @@ public class EmailTemplatesUtils {
 	 * @param customerLocale
 	 * @param contextPath
 	 */
-	@Async
+	@Async("emailExecutor")
 	public void sendOrderDownloadEmail(
 			Customer customer, Order order, MerchantStore merchantStore,
 			Locale customerLocale, String contextPath) {
@@ -458,7 +458,7 @@ public class EmailTemplatesUtils {
 	 * @param customerLocale
 	 * @param contextPath
 	 */
-	@Async
+	@Async("emailExecutor")
 	public void changePasswordNotificationEmail(
 			Customer customer, MerchantStore merchantStore,
 			Locale customerLocale, String contextPath) {
@@ -10,6 +10,8 @@ import org.owasp.validator.html.AntiSamy;
 import org.owasp.validator.html.CleanResults;
 import org.owasp.validator.html.Policy;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.salesmanager.shop.store.api.exception.ServiceRuntimeException;
 
 public class SanitizeUtils {
@@ -24,6 +26,21 @@ public class SanitizeUtils {
     private final static String POLICY_FILE = "antisamy-slashdot.xml";
     
     private static Policy policy = null;
+
+    /**
+     * longest value containing spaces returned without scanning,
+     * AntiSamy output formatting wraps longer text
+     */
+    private final static int MAX_SAFE_TEXT = 64;
+
+    /** longest value kept in the sanitized values cache **/
+    private final static int MAX_CACHED_LENGTH = 256;
+
+    /** value / sanitized value, avoids scanning repeated values **/
+    private static final Cache<String, String> sanitized = CacheBuilder.newBuilder()
+            .maximumSize(10000)
+            .recordStats()
+            .build();
     
     static { 
 		try {
@@ -40,8 +57,54 @@ public class SanitizeUtils {
         //Utility class
     }
     
+    /**
+     * Html sanitized value. Values made of characters that AntiSamy
+     * returns unchanged are not scanned, sanitized short values are cached.
+     */
     public static String getSafeString(String value) {
 
+		if(value == null || isSafe(value)) {
+			return value;
+		}
+
+		if(value.length() > MAX_CACHED_LENGTH) {
+			return scan(value);
+		}
+
+		String clean = sanitized.getIfPresent(value);
+		if(clean == null) {
+			clean = scan(value);
+			sanitized.put(value, clean);
+		}
+		return clean;
+
+    }
+
+    /**
+     * Printable ascii without markup or entity characters, single inner
+     * spaces are accepted on short values
+     */
+    public static boolean isSafe(String value) {
+		int length = value.length();
+		for(int i=0; i<length; i++) {
+			char c = value.charAt(i);
+			if(c == ' ') {
+				if(i == 0 || i == length - 1 || length > MAX_SAFE_TEXT || value.charAt(i - 1) == ' ') {
+					return false;
+				}
+			} else if(c < 0x21 || c > 0x7E || c == '<' || c == '>' || c == '&' || c == '"' || c == '\'') {
+				return false;
+			}
+		}
+		return true;
+    }
+
+    public static Cache<String, String> getCache() {
+		return sanitized;
+    }
+
+    private static String scan(String value) {
+
 		try {
 
 			if(policy == null) {
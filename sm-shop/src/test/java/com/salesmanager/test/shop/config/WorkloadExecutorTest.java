@@ -0,0 +1,84 @@
+package com.salesmanager.test.shop.config;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.core.task.TaskRejectedException;
+
+import com.salesmanager.shop.application.config.WorkloadExecutor;
+
+public class WorkloadExecutorTest {
+
+	private WorkloadExecutor executor;
+
+	@After
+	public void tearDown() {
+		if (executor != null) {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testCallerRunsWhenSaturated() throws Exception {
+
+		executor = executor("callerRuns");
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch done = new CountDownLatch(2);
+		executor.execute(() -> await(release, done));
+		executor.execute(() -> await(release, done));
+		Assert.assertEquals(1, executor.getQueueDepth());
+
+		AtomicReference<Thread> runner = new AtomicReference<Thread>();
+		executor.execute(() -> runner.set(Thread.currentThread()));
+		Assert.assertEquals(Thread.currentThread(), runner.get());
+		Assert.assertEquals(1, executor.getRejected());
+
+		release.countDown();
+		Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+		waitCompleted(3);
+		Assert.assertTrue(executor.getWaitNanos() > 0);
+	}
+
+	@Test(expected = TaskRejectedException.class)
+	public void testAbortWhenSaturated() {
+
+		executor = executor("abort");
+		CountDownLatch release = new CountDownLatch(1);
+		try {
+			executor.execute(() -> await(release, new CountDownLatch(1)));
+			executor.execute(() -> await(release, new CountDownLatch(1)));
+			executor.execute(() -> { });
+		} finally {
+			Assert.assertEquals(1, executor.getRejected());
+			release.countDown();
+		}
+	}
+
+	private WorkloadExecutor executor(String rejection) {
+		WorkloadExecutor executor = new WorkloadExecutor("test", 1, 1, rejection, false);
+		executor.initialize();
+		return executor;
+	}
+
+	private void waitCompleted(long count) throws InterruptedException {
+		long limit = System.currentTimeMillis() + 5000;
+		while (executor.getCompleted() < count && System.currentTimeMillis() < limit) {
+			Thread.sleep(10);
+		}
+		Assert.assertEquals(count, executor.getCompleted());
+	}
+
+	private static void await(CountDownLatch release, CountDownLatch done) {
+		try {
+			release.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		done.countDown();
+	}
+
+}
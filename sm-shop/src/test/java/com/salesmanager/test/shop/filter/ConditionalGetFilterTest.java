@@ -0,0 +1,80 @@
+package com.salesmanager.test.shop.filter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.salesmanager.core.business.services.catalog.product.ProductChangedEvent;
+import com.salesmanager.core.business.services.common.version.ContentVersions;
+import com.salesmanager.shop.filter.ConditionalGetFilter;
+
+public class ConditionalGetFilterTest {
+
+	private ConditionalGetFilter filter;
+	private ContentVersions versions;
+	private final AtomicInteger calls = new AtomicInteger();
+
+	@Before
+	public void setUp() {
+		versions = new ContentVersions();
+		filter = new ConditionalGetFilter();
+		ReflectionTestUtils.setField(filter, "contentVersions", versions);
+		ReflectionTestUtils.setField(filter, "enabled", true);
+		ReflectionTestUtils.setField(filter, "window", 300L);
+		ReflectionTestUtils.setField(filter, "maxAge", 60L);
+	}
+
+	@Test
+	public void testNotModifiedUntilCatalogChanges() throws Exception {
+
+		MockHttpServletResponse first = get("/api/v1/products/1", null);
+		String etag = first.getHeader("ETag");
+		Assert.assertNotNull(etag);
+		Assert.assertEquals("public, max-age=60", first.getHeader("Cache-Control"));
+		Assert.assertEquals(1, calls.get());
+
+		MockHttpServletResponse second = get("/api/v1/products/1", etag);
+		Assert.assertEquals(HttpServletResponse.SC_NOT_MODIFIED, second.getStatus());
+		Assert.assertEquals(1, calls.get());
+
+		versions.onProductChanged(new ProductChangedEvent(1L, 1));
+		MockHttpServletResponse third = get("/api/v1/products/1", etag);
+		Assert.assertEquals(HttpServletResponse.SC_OK, third.getStatus());
+		Assert.assertNotEquals(etag, third.getHeader("ETag"));
+		Assert.assertEquals(2, calls.get());
+	}
+
+	@Test
+	public void testOtherRequestsNotCached() throws Exception {
+
+		Assert.assertNull(get("/api/v1/private/products", null).getHeader("ETag"));
+		Assert.assertNull(get("/api/v1/content/images", null).getHeader("ETag"));
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/products");
+		request.addHeader("Authorization", "Bearer token");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, (req, res) -> res.getOutputStream().print("[]"));
+		Assert.assertNull(response.getHeader("ETag"));
+	}
+
+	private MockHttpServletResponse get(String uri, String ifNoneMatch) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+		if (ifNoneMatch != null) {
+			request.addHeader("If-None-Match", ifNoneMatch);
+		}
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, (req, res) -> {
+			calls.incrementAndGet();
+			res.getOutputStream().print("{}");
+		});
+		return response;
+	}
+
+}
@@ -0,0 +1,103 @@
+package com.salesmanager.test.shop.integration.product;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.salesmanager.shop.application.ShopApplication;
+import com.salesmanager.shop.model.catalog.product.ReadableProduct;
+import com.salesmanager.shop.model.catalog.product.ReadableProductList;
+import com.salesmanager.shop.store.facade.product.ReadableProductCache;
+import com.salesmanager.test.shop.common.ServicesTestSupport;
+
+/**
+ * Product listing pages are assembled with a fixed number of queries
+ */
+@SpringBootTest(classes = ShopApplication.class, webEnvironment = WebEnvironment.RANDOM_PORT)
+@RunWith(SpringRunner.class)
+public class ProductListingAPIIntegrationTest extends ServicesTestSupport {
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private ReadableProductCache readableProductCache;
+
+	@Test
+	public void listProducts() throws Exception {
+
+		ReadableProduct first = sampleProduct("listing-1");
+		ReadableProduct second = sampleProduct("listing-2");
+
+		List<ReadableProduct> products = list();
+		List<Long> ids = products.stream().map(ReadableProduct::getId).collect(Collectors.toList());
+		assertTrue(ids.contains(first.getId()));
+		assertTrue(ids.contains(second.getId()));
+		for (ReadableProduct product : products) {
+			assertNotNull(product.getSku());
+			if (product.getId().equals(first.getId())) {
+				assertEquals(first.getFinalPrice(), product.getFinalPrice());
+			}
+		}
+
+		//second listing served from the product cache, same order
+		List<Long> cached = list().stream().map(ReadableProduct::getId).collect(Collectors.toList());
+		assertEquals(ids, cached);
+	}
+
+	@Test
+	public void queriesDoNotDependOnPageSize() throws Exception {
+
+		sampleProduct("listing_3");
+		sampleProduct("listing_4");
+		sampleProduct("listing_5");
+
+		Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		stats.setStatisticsEnabled(true);
+
+		//warm up
+		list(2);
+		list(5);
+
+		readableProductCache.evictAll();
+		stats.clear();
+		assertEquals(2, list(2).size());
+		long queries = stats.getPrepareStatementCount();
+
+		readableProductCache.evictAll();
+		stats.clear();
+		assertEquals(5, list(5).size());
+		assertEquals(queries, stats.getPrepareStatementCount());
+	}
+
+	private List<ReadableProduct> list() {
+		return list(50);
+	}
+
+	private List<ReadableProduct> list(int count) {
+		HttpEntity<String> httpEntity = new HttpEntity<>(getHeader());
+		ResponseEntity<ReadableProductList> response = testRestTemplate.exchange("/api/v1/products?count=" + count,
+				HttpMethod.GET, httpEntity, ReadableProductList.class);
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		return response.getBody().getProducts();
+	}
+
+}
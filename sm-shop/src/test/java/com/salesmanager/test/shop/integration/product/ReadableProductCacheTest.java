@@ -0,0 +1,75 @@
+package com.salesmanager.test.shop.integration.product;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.salesmanager.core.model.merchant.MerchantStore;
+import com.salesmanager.core.model.reference.language.Language;
+import com.salesmanager.shop.model.catalog.product.ReadableProduct;
+import com.salesmanager.shop.store.facade.product.ReadableProductCache;
+
+public class ReadableProductCacheTest {
+
+	private ReadableProductCache cache;
+	private MerchantStore store;
+	private Language language;
+
+	@Before
+	public void setUp() {
+		cache = new ReadableProductCache();
+		ReflectionTestUtils.setField(cache, "maxBytes", 1048576L);
+		ReflectionTestUtils.setField(cache, "ttl", 3600L);
+		cache.init();
+
+		store = new MerchantStore();
+		store.setId(1);
+		language = new Language();
+		language.setId(1);
+	}
+
+	@Test
+	public void testOtherProductEvictedWhilePopulating() {
+
+		long generation = cache.generation();
+		//stock of another product reserved
+		cache.evict(2L);
+		cache.put(store, 1L, language, product(1L), generation);
+
+		Assert.assertNotNull(cache.get(store, 1L, language));
+	}
+
+	@Test
+	public void testProductEvictedWhilePopulating() {
+
+		long generation = cache.generation();
+		cache.evict(1L);
+		cache.put(store, 1L, language, product(1L), generation);
+		Assert.assertNull(cache.get(store, 1L, language));
+
+		cache.put(store, 1L, language, product(1L), cache.generation());
+		Assert.assertNotNull(cache.get(store, 1L, language));
+
+		cache.evict(1L);
+		Assert.assertNull(cache.get(store, 1L, language));
+	}
+
+	@Test
+	public void testEvictAllWhilePopulating() {
+
+		long generation = cache.generation();
+		cache.evictAll();
+		cache.put(store, 1L, language, product(1L), generation);
+
+		Assert.assertNull(cache.get(store, 1L, language));
+	}
+
+	private ReadableProduct product(Long id) {
+		ReadableProduct product = new ReadableProduct();
+		product.setId(id);
+		product.setSku("SKU" + id);
+		return product;
+	}
+
+}
@@ -0,0 +1,173 @@
+package com.salesmanager.test.shop.util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.salesmanager.core.model.content.OutputContentFile;
+import com.salesmanager.shop.utils.ContentFileResponseUtils;
+
+public class ContentFileResponseUtilsTest {
+
+	private static final String CONTENT = "0123456789abcdefghij";
+
+	private ContentFileResponseUtils utils;
+	private Path path;
+
+	@Before
+	public void setUp() throws Exception {
+		utils = new ContentFileResponseUtils();
+		ReflectionTestUtils.setField(utils, "maxAge", 3600L);
+		path = Files.createTempFile("image", ".png");
+		Files.write(path, CONTENT.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		Files.deleteIfExists(path);
+	}
+
+	@Test
+	public void testFileFromDisk() throws Exception {
+
+		MockHttpServletResponse response = get(onDisk(), null, null);
+		Assert.assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+		Assert.assertEquals(CONTENT, response.getContentAsString());
+		Assert.assertEquals("image/png", response.getContentType());
+		Assert.assertEquals("max-age=3600, public", response.getHeader("Cache-Control"));
+		Assert.assertEquals("bytes", response.getHeader("Accept-Ranges"));
+		Assert.assertNotNull(response.getHeader("Last-Modified"));
+
+		String etag = response.getHeader("ETag");
+		response = get(onDisk(), etag, null);
+		Assert.assertEquals(HttpServletResponse.SC_NOT_MODIFIED, response.getStatus());
+		Assert.assertEquals(0, response.getContentAsByteArray().length);
+
+		response = get(onDisk(), null, "bytes=5-9");
+		Assert.assertEquals(HttpServletResponse.SC_PARTIAL_CONTENT, response.getStatus());
+		Assert.assertEquals("56789", response.getContentAsString());
+		Assert.assertEquals("bytes 5-9/20", response.getHeader("Content-Range"));
+		Assert.assertEquals(5, response.getContentLength());
+
+		response = get(onDisk(), null, "bytes=-3");
+		Assert.assertEquals("hij", response.getContentAsString());
+
+		response = get(onDisk(), null, "bytes=50-");
+		Assert.assertEquals(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE, response.getStatus());
+		Assert.assertEquals("bytes */20", response.getHeader("Content-Range"));
+	}
+
+	@Test
+	public void testSendfile() throws Exception {
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/static/products/DEFAULT/SKU/image.png");
+		request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+		request.addHeader("Range", "bytes=10-");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		utils.write(onDisk(), request, response);
+
+		//body is sent by the container
+		Assert.assertEquals(0, response.getContentAsByteArray().length);
+		Assert.assertEquals(path.toAbsolutePath().toString(), request.getAttribute("org.apache.tomcat.sendfile.filename"));
+		Assert.assertEquals(10L, request.getAttribute("org.apache.tomcat.sendfile.start"));
+		Assert.assertEquals(20L, request.getAttribute("org.apache.tomcat.sendfile.end"));
+		Assert.assertEquals(10, response.getContentLength());
+	}
+
+	@Test
+	public void testContentInMemory() throws Exception {
+
+		MockHttpServletResponse response = get(inMemory(), null, null);
+		Assert.assertEquals(CONTENT, response.getContentAsString());
+		String etag = response.getHeader("ETag");
+		Assert.assertNotNull(etag);
+
+		Assert.assertEquals(HttpServletResponse.SC_NOT_MODIFIED, get(inMemory(), etag, null).getStatus());
+
+		//If-Range not matching, whole content
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/static/files/DEFAULT/IMAGE/image.png");
+		request.addHeader("Range", "bytes=0-1");
+		request.addHeader("If-Range", "\"other\"");
+		response = new MockHttpServletResponse();
+		utils.write(inMemory(), request, response);
+		Assert.assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+		Assert.assertEquals(CONTENT, response.getContentAsString());
+	}
+
+	@Test
+	public void testContentInBuffer() throws Exception {
+
+		AtomicInteger released = new AtomicInteger();
+		MockHttpServletResponse response = get(inBuffer(released), null, "bytes=5-9");
+		Assert.assertEquals(HttpServletResponse.SC_PARTIAL_CONTENT, response.getStatus());
+		Assert.assertEquals("56789", response.getContentAsString());
+		Assert.assertEquals(1, released.get());
+
+		response = get(inBuffer(released), null, null);
+		Assert.assertEquals(CONTENT, response.getContentAsString());
+		Assert.assertEquals(get(inMemory(), null, null).getHeader("ETag"), response.getHeader("ETag"));
+
+		//released when not modified
+		Assert.assertEquals(HttpServletResponse.SC_NOT_MODIFIED,
+				get(inBuffer(released), response.getHeader("ETag"), null).getStatus());
+		Assert.assertEquals(3, released.get());
+	}
+
+	private MockHttpServletResponse get(OutputContentFile file, String ifNoneMatch, String range) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/static/products/DEFAULT/SKU/image.png");
+		if (ifNoneMatch != null) {
+			request.addHeader("If-None-Match", ifNoneMatch);
+		}
+		if (range != null) {
+			request.addHeader("Range", range);
+		}
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		utils.write(file, request, response);
+		return response;
+	}
+
+	private OutputContentFile onDisk() {
+		OutputContentFile file = new OutputContentFile();
+		file.setFileName("image.png");
+		file.setMimeType("image/png");
+		file.setPath(path);
+		return file;
+	}
+
+	/** content is a view of a larger direct buffer, as served by the image cache **/
+	private OutputContentFile inBuffer(AtomicInteger released) {
+		ByteBuffer buffer = ByteBuffer.allocateDirect(CONTENT.length() + 10);
+		buffer.put("xxx".getBytes(StandardCharsets.UTF_8));
+		buffer.put(CONTENT.getBytes(StandardCharsets.UTF_8));
+		buffer.limit(buffer.position());
+		buffer.position(3);
+		OutputContentFile file = new OutputContentFile();
+		file.setFileName("image.png");
+		file.setBuffer(buffer.asReadOnlyBuffer());
+		file.setRelease(released::incrementAndGet);
+		return file;
+	}
+
+	private OutputContentFile inMemory() {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		output.write(CONTENT.getBytes(StandardCharsets.UTF_8), 0, CONTENT.length());
+		OutputContentFile file = new OutputContentFile();
+		file.setFileName("image.png");
+		file.setFile(output);
+		return file;
+	}
+
+}